@@ -9,6 +9,15 @@ import org.apache.maven.shared.invoker.Invoker;
 import org.jboss.shrinkwrap.api.Archive;
 
 /**
+ * Result of a Maven build of a project.
+ * <p>
+ * Archives returned by this class are imported by ShrinkWrap {@code ZipImporter} by default. If
+ * {@code org.jboss.shrinkwrap.resolver.lazy-archives} system property is set to {@code true}, they are backed by the
+ * built files instead: only the list of entries is read when an archive is created, the content of an entry is read
+ * from the built file every time it is opened, and the file is kept open only while it is being read. Once the project
+ * is built again, entries of such archives fail to open with {@link IllegalStateException}; retrieve the archives again
+ * to read the new content, or export an archive to keep its content independent of further builds.
+ *
  * @author <a href="mailto:mjobanek@redhat.com">Matous Jobanek</a>
  */
 public interface BuiltProject {
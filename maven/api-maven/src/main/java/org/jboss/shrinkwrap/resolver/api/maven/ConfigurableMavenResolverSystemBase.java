@@ -119,4 +119,31 @@ public interface ConfigurableMavenResolverSystemBase<UNCONFIGURABLERESOLVERSYSTE
      * @return Modified instance of {@code PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE}
      */
     PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE useLegacyLocalRepo(boolean useLegacyLocalReposity);
+
+    /**
+     * Sets whether to store results of resolution on disk and reuse them in subsequent runs, as long as the resolved
+     * files in local repository are unchanged. Results containing SNAPSHOT artifacts or artifacts from the workspace
+     * are never stored. If not set, the {@code org.jboss.shrinkwrap.resolver.resolution-cache} system property is used.
+     *
+     * @param usePersistentResolutionCache Whether to use persistent resolution cache; defaults to false
+     * @return Modified instance of {@code PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE}
+     */
+    PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE usePersistentResolutionCache(boolean usePersistentResolutionCache);
+
+    /**
+     * Removes all the results stored in persistent resolution cache.
+     *
+     * @return Modified instance of {@code PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE}
+     */
+    PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE clearPersistentResolutionCache();
+
+    /**
+     * Sets whether to read descriptors of first-level dependencies and their transitive dependencies concurrently,
+     * before the dependency graph is collected. The resulting graph is the same as with sequential collection. If not
+     * set, the {@code org.jboss.shrinkwrap.resolver.parallel-collection} system property is used.
+     *
+     * @param useParallelDependencyCollection Whether to collect dependencies in parallel; defaults to false
+     * @return Modified instance of {@code PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE}
+     */
+    PARTIALLYCONFIGUREDRESOLVERSYSTEMTYPE useParallelDependencyCollection(boolean useParallelDependencyCollection);
 }
@@ -17,6 +17,8 @@
 package org.jboss.shrinkwrap.resolver.api.maven;
 
 import org.jboss.shrinkwrap.resolver.api.FormatStage;
+import org.jboss.shrinkwrap.resolver.api.NoResolvedResultException;
+import org.jboss.shrinkwrap.resolver.api.NonUniqueResultException;
 
 /**
  * Represents the formatting stage of Maven-based resolution in which the resolved artifact is returned in the desired
@@ -27,4 +29,27 @@ import org.jboss.shrinkwrap.resolver.api.FormatStage;
  */
 public interface MavenFormatStage extends FormatStage<MavenResolvedArtifact> {
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Artifacts formatted as ShrinkWrap archives are imported by ShrinkWrap {@code ZipImporter} by default. If
+     * {@code org.jboss.shrinkwrap.resolver.lazy-archives} system property is set to {@code true}, archives are backed
+     * by the artifact files instead and their entries fail to open with {@link IllegalStateException} once a file is
+     * modified, e.g. when a reactor module is packaged again or a SNAPSHOT is downloaded again.
+     */
+    @Override
+    <RETURNTYPE> RETURNTYPE[] as(Class<RETURNTYPE> returnTypeClass) throws IllegalArgumentException,
+            UnsupportedOperationException;
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Artifacts formatted as ShrinkWrap archives are imported by ShrinkWrap {@code ZipImporter} by default. If
+     * {@code org.jboss.shrinkwrap.resolver.lazy-archives} system property is set to {@code true}, the archive is backed
+     * by the artifact file instead and its entries fail to open with {@link IllegalStateException} once the file is
+     * modified, e.g. when a reactor module is packaged again or a SNAPSHOT is downloaded again.
+     */
+    @Override
+    <RETURNTYPE> RETURNTYPE asSingle(Class<RETURNTYPE> returnTypeClass) throws IllegalArgumentException,
+            UnsupportedOperationException, NonUniqueResultException, NoResolvedResultException;
 }
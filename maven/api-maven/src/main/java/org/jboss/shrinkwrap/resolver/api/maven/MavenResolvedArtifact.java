@@ -16,6 +16,8 @@
  */
 package org.jboss.shrinkwrap.resolver.api.maven;
 
+import java.io.File;
+
 import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
 
 /**
@@ -26,5 +28,26 @@ import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  */
 public interface MavenResolvedArtifact extends MavenArtifactInfo, ResolvedArtifact<MavenResolvedArtifact> {
-    /* empty */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the artifact was resolved to a module of the project being built, its output directory is packaged when the
+     * file is requested for the first time, by this method or by a format such as {@code as(JavaArchive.class)}, not
+     * when the artifact is resolved. A failure to package the directory is thus reported by the first call.
+     *
+     * @throws IllegalArgumentException If the output directory could not be packaged
+     */
+    @Override
+    File asFile() throws IllegalArgumentException;
+
+    /**
+     * Returns the output directory, for instance {@code target/classes}, if the artifact was resolved to a module of
+     * the project being built. Such artifact is packaged into an archive by {@link #asFile()} and other formats; callers
+     * able to consume directories can use this method instead, so nothing has to be packaged.
+     *
+     * @return The output directory or {@code null} if the artifact was not resolved to a module of the project being
+     * built.
+     */
+    File asDirectory();
 }
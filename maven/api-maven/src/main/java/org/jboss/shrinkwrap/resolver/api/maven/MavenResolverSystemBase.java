@@ -16,8 +16,14 @@
  */
 package org.jboss.shrinkwrap.resolver.api.maven;
 
+import java.util.Collection;
+import java.util.Map;
+
+import org.jboss.shrinkwrap.resolver.api.CoordinateParseException;
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
 import org.jboss.shrinkwrap.resolver.api.ResolverSystem;
 import org.jboss.shrinkwrap.resolver.api.Resolvers;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
 
 /**
  * Entry point of a Maven-based Resolver system which does not support configuration. To create a new instance, pass in
@@ -29,4 +35,35 @@ import org.jboss.shrinkwrap.resolver.api.Resolvers;
 public interface MavenResolverSystemBase<EQUIPPEDRESOLVESTAGETYPE extends PomEquippedResolveStageBase<EQUIPPEDRESOLVESTAGETYPE, STRATEGYSTAGETYPE, FORMATSTAGETYPE>, UNEQUIPPEDRESOLVESTAGETYPE extends PomlessResolveStageBase<EQUIPPEDRESOLVESTAGETYPE, UNEQUIPPEDRESOLVESTAGETYPE, STRATEGYSTAGETYPE, FORMATSTAGETYPE>, STRATEGYSTAGETYPE extends MavenStrategyStageBase<STRATEGYSTAGETYPE, FORMATSTAGETYPE>, FORMATSTAGETYPE extends MavenFormatStage>
     extends ResolverSystem,
     PomlessResolveStageBase<EQUIPPEDRESOLVESTAGETYPE, UNEQUIPPEDRESOLVESTAGETYPE, STRATEGYSTAGETYPE, FORMATSTAGETYPE> {
+
+    /**
+     * Resolves several independent groups of coordinates, including their transitive dependencies, in a single call.
+     * Groups are resolved concurrently and share the repository session, so resolving many similar groups is much
+     * cheaper than resolving them one by one.
+     *
+     * @param coordinateGroups Groups of canonical forms of coordinates, by their names
+     * @return A {@link MavenFormatStage} for each group, in iteration order of {@code coordinateGroups}
+     * @throws IllegalArgumentException If no groups were specified or any of the groups is {@code null} or empty
+     * @throws CoordinateParseException If any of the coordinates could not be parsed
+     * @throws ResolutionException If any of the groups could not be resolved
+     */
+    Map<String, MavenFormatStage> resolveAll(Map<String, ? extends Collection<String>> coordinateGroups)
+        throws IllegalArgumentException, CoordinateParseException, ResolutionException;
+
+    /**
+     * Resolves several independent groups of coordinates in a single call, using given strategy for each of them.
+     * Groups are resolved concurrently and share the repository session, so resolving many similar groups is much
+     * cheaper than resolving them one by one.
+     *
+     * @param coordinateGroups Groups of canonical forms of coordinates, by their names
+     * @param strategy The strategy applied to each group
+     * @return A {@link MavenFormatStage} for each group, in iteration order of {@code coordinateGroups}
+     * @throws IllegalArgumentException If no groups or strategy were specified or any of the groups is {@code null} or
+     *         empty
+     * @throws CoordinateParseException If any of the coordinates could not be parsed
+     * @throws ResolutionException If any of the groups could not be resolved
+     */
+    Map<String, MavenFormatStage> resolveAll(Map<String, ? extends Collection<String>> coordinateGroups,
+        MavenResolutionStrategy strategy) throws IllegalArgumentException, CoordinateParseException,
+        ResolutionException;
 }
@@ -16,6 +16,7 @@
  */
 package org.jboss.shrinkwrap.resolver.api.maven;
 
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
 import org.jboss.shrinkwrap.resolver.api.ResolutionStrategy;
 import org.jboss.shrinkwrap.resolver.api.TransitiveStrategyStage;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
@@ -31,4 +32,17 @@ import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
  */
 public interface MavenStrategyStageBase<STRATEGYSTAGETYPE extends MavenStrategyStageBase<STRATEGYSTAGETYPE, FORMATSTAGETYPE>, FORMATSTAGETYPE extends MavenFormatStage>
     extends TransitiveStrategyStage<MavenDependency, MavenResolutionFilter, MavenResolvedArtifact, FORMATSTAGETYPE, MavenResolutionStrategy> {
+
+    /**
+     * Defines the {@link ResolutionStrategy} to be used in resolution and returns as soon as the dependency graph is
+     * collected. Artifacts are resolved in background and handed out by the returned stage once their files are
+     * available locally.
+     *
+     * @param strategy The {@link ResolutionStrategy} to be used in resolution.
+     * @return The next {@link MavenStreamingFormatStage}
+     * @throws IllegalArgumentException If the {@link ResolutionStrategy} is not specified
+     * @throws ResolutionException If the dependency graph could not be collected
+     */
+    MavenStreamingFormatStage usingStreaming(MavenResolutionStrategy strategy) throws IllegalArgumentException,
+        ResolutionException;
 }
@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven;
+
+import java.util.Iterator;
+
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
+
+/**
+ * Represents the formatting stage of Maven-based resolution in which resolved artifacts are handed out one by one, as
+ * soon as the file of each of them is available locally, while the other artifacts are still being resolved. This
+ * allows to process artifacts, e.g. add them into an archive, concurrently with their download.
+ * <p>
+ * Iteration follows the order in which artifacts became available, which might differ from run to run.
+ * {@link #inOrder()} returns the artifacts in the same order as {@link MavenStrategyStageBase#using} would.
+ */
+public interface MavenStreamingFormatStage extends Iterable<MavenResolvedArtifact> {
+
+    /**
+     * Returns an iterator over resolved artifacts in order they became available. {@link Iterator#next()} blocks until
+     * the next artifact is available and throws {@link ResolutionException} if it could not be resolved. Each iterator
+     * returns all the artifacts, removal is not supported.
+     *
+     * @return The iterator
+     */
+    @Override
+    Iterator<MavenResolvedArtifact> iterator();
+
+    /**
+     * Returns number of artifacts being resolved. Known since the stage was created, as dependency graph is already
+     * collected at that moment.
+     *
+     * @return The number of artifacts
+     */
+    int size();
+
+    /**
+     * Waits until all the artifacts are available and returns them in a deterministic order, the same as a blocking
+     * resolution would.
+     *
+     * @return A {@link MavenFormatStage} with all the artifacts
+     * @throws ResolutionException If any of the artifacts could not be resolved
+     */
+    MavenFormatStage inOrder() throws ResolutionException;
+}
@@ -19,7 +19,10 @@ package org.jboss.shrinkwrap.resolver.api.maven;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
 
 import org.jboss.shrinkwrap.resolver.api.InvalidConfigurationFileException;
 import org.jboss.shrinkwrap.resolver.api.ResolutionException;
@@ -83,6 +86,37 @@ public interface MavenWorkingSession {
     Collection<MavenResolvedArtifact> resolveDependencies(MavenResolutionStrategy strategy)
             throws ResolutionException;
 
+    /**
+     * Resolves several independent groups of dependencies at once. Groups are resolved concurrently and share the
+     * repository session, so an artifact descriptor needed by several groups is read only once. Dependency management
+     * and remote repositories of this session apply to all the groups, while dependencies for resolution of this
+     * session are neither used nor modified.
+     *
+     * @param dependencyGroups Groups of dependencies to be resolved, by their names
+     * @param strategy The strategy applied to each group
+     * @return Resolved artifacts of each group, in iteration order of {@code dependencyGroups}
+     * @throws ResolutionException If any of the groups could not be resolved
+     */
+    Map<String, Collection<MavenResolvedArtifact>> resolveDependencies(
+            Map<String, ? extends List<MavenDependency>> dependencyGroups, MavenResolutionStrategy strategy)
+            throws ResolutionException;
+
+    /**
+     * Starts resolution of dependencies and returns as soon as the dependency graph is collected. Artifacts are resolved
+     * in background, each of them is represented by a {@link Future} which completes once its file is available
+     * locally. A completed future is also added to {@code completionQueue}, so the caller can process artifacts in order
+     * of their availability. Dependencies for resolution are cleared the same way as by
+     * {@link #resolveDependencies(MavenResolutionStrategy)}.
+     *
+     * @param strategy The strategy
+     * @param completionQueue The queue completed futures are added to
+     * @return Futures of resolved artifacts, in the same order as {@link #resolveDependencies(MavenResolutionStrategy)}
+     *         returns artifacts
+     * @throws ResolutionException If the dependency graph could not be collected
+     */
+    List<Future<MavenResolvedArtifact>> resolveDependencies(MavenResolutionStrategy strategy,
+            BlockingQueue<Future<MavenResolvedArtifact>> completionQueue) throws ResolutionException;
+
     /**
      * Resolves version range request for given coordinate
      *
@@ -132,6 +166,25 @@ public interface MavenWorkingSession {
      */
     void useLegacyLocalRepository(boolean useLegacyLocalRepository);
 
+    /**
+     * Whether or not to store results of resolution on disk and reuse them in subsequent runs
+     *
+     * @param usePersistentResolutionCache Whether to use persistent resolution cache; defaults to false
+     */
+    void usePersistentResolutionCache(boolean usePersistentResolutionCache);
+
+    /**
+     * Removes all the results stored in persistent resolution cache
+     */
+    void clearPersistentResolutionCache();
+
+    /**
+     * Whether or not to read artifact descriptors concurrently while collecting dependencies
+     *
+     * @param useParallelDependencyCollection Whether to collect dependencies in parallel; defaults to false
+     */
+    void useParallelDependencyCollection(boolean useParallelDependencyCollection);
+
     /**
      * Adds a remote repository to use in resolution.
      *
@@ -31,6 +31,12 @@ class MavenCoordinateImpl extends MavenGABaseImpl implements MavenCoordinate {
     private final PackagingType packaging;
     private final String classifier;
 
+    /**
+     * Computed lazily, instances are shared if interning is enabled
+     */
+    private String canonicalForm;
+    private int hash;
+
     /**
      * Creates a new instance with the specified properties. <code>groupId</code> and <code>artifactId</code> are
      * required. If no {@link PackagingType} is specified, default will be to {@link PackagingType#JAR}. If no {@link ScopeType}
@@ -103,6 +109,15 @@ class MavenCoordinateImpl extends MavenGABaseImpl implements MavenCoordinate {
      */
     @Override
     public final String toCanonicalForm() {
+        String result = canonicalForm;
+        if (result == null) {
+            result = computeCanonicalForm();
+            canonicalForm = result;
+        }
+        return result;
+    }
+
+    private String computeCanonicalForm() {
 
         final StringBuilder sb = new StringBuilder(super.toCanonicalForm());
         if (version == null || version.length() == 0) {
@@ -126,6 +141,15 @@ class MavenCoordinateImpl extends MavenGABaseImpl implements MavenCoordinate {
      */
     @Override
     public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            result = computeHashCode();
+            hash = result;
+        }
+        return result;
+    }
+
+    private int computeHashCode() {
         final int prime = 31;
         int result = super.hashCode();
         result = prime * result + ((classifier == null) ? 0 : classifier.hashCode());
@@ -16,11 +16,11 @@
  */
 package org.jboss.shrinkwrap.resolver.api.maven.coordinate;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 import org.jboss.shrinkwrap.resolver.api.CoordinateParseException;
 import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
+import org.jboss.shrinkwrap.resolver.api.maven.internal.WeakInterner;
 
 /**
  * Factory class for creating new {@link MavenCoordinate} instances
@@ -29,6 +29,11 @@ import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
  */
 public final class MavenCoordinates {
 
+    /**
+     * Coordinates created while interning was enabled
+     */
+    static final WeakInterner<MavenCoordinate> INTERNER = new WeakInterner<MavenCoordinate>();
+
     /**
      * No instances
      */
@@ -58,7 +63,9 @@ public final class MavenCoordinates {
     }
 
     /**
-     * Creates a new {@link MavenCoordinate} instance from the specified arguments
+     * Creates a new {@link MavenCoordinate} instance from the specified arguments. If
+     * {@code org.jboss.shrinkwrap.resolver.intern-coordinates} system property is set to {@code true}, an instance with
+     * the very same properties is returned instead, as long as one is still in use.
      *
      * @param groupId A groupId of the new {@link MavenCoordinate} instance
      * @param artifactId An artifactId of the new {@link MavenCoordinate} instance
@@ -79,6 +86,10 @@ public final class MavenCoordinates {
         }
         final MavenCoordinateImpl coordinate = new MavenCoordinateImpl(groupId, artifactId, version, packaging,
             classifier);
+        if (WeakInterner.isEnabled()) {
+            return INTERNER.intern(Arrays.asList(coordinate.getGroupId(), coordinate.getArtifactId(),
+                coordinate.getVersion(), coordinate.getPackaging(), coordinate.getClassifier()), coordinate);
+        }
         return coordinate;
     }
 
@@ -91,16 +102,12 @@ public final class MavenCoordinates {
      */
     static class MavenCoordinateParser {
 
-        private static final Pattern DEPENDENCY_PATTERN = Pattern
-            .compile("([^: ]+):([^: ]+)(:([^: ]*)(:([^: ]+))?)?(:([^: ]+))?");
-
         private static final String EMPTY_STRING = "";
 
-        private static final int IS_POS_1 = 1;
-        private static final int ID_POS_2 = 2;
-        private static final int ID_POS_3 = 4;
-        private static final int ID_POS_4 = 6;
-        private static final int ID_POS_5 = 8;
+        /**
+         * The longest valid form, {@code groupId:artifactId:packagingType:classifier:version}, has four separators
+         */
+        private static final int MAX_SEPARATORS = 4;
 
         private String groupId;
         private String artifactId;
@@ -116,42 +123,56 @@ public final class MavenCoordinates {
             this.classifier = EMPTY_STRING;
         }
 
+        /**
+         * Parses coordinates in a single pass. Accepts the same forms the former regular expression
+         * {@code ([^: ]+):([^: ]+)(:([^: ]*)(:([^: ]+))?)?(:([^: ]+))?} did, that is, no part contains a space,
+         * groupId and artifactId are always required, packaging type might be empty and version might be empty only if
+         * it is the third part.
+         */
         static MavenCoordinateParser parse(final String coordinates) throws CoordinateParseException {
 
-            final Matcher m = DEPENDENCY_PATTERN.matcher(coordinates);
-            if (!m.matches()) {
-                throw new CoordinateParseException("Bad artifact coordinates"
-                    + ", expected format is <groupId>:<artifactId>[:<packagingType>[:<classifier>]]:(<version>|'?'), got: "
-                    + coordinates);
+            final int length = coordinates.length();
+            final int[] separators = new int[MAX_SEPARATORS];
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = coordinates.charAt(i);
+                if (c == MavenGABaseImpl.SEPARATOR_COORDINATE) {
+                    if (count == MAX_SEPARATORS) {
+                        throw badCoordinates(coordinates);
+                    }
+                    separators[count++] = i;
+                } else if (c == ' ') {
+                    throw badCoordinates(coordinates);
+                }
             }
 
-            final MavenCoordinateParser parser = new MavenCoordinateParser();
-
-            parser.groupId = m.group(IS_POS_1);
-            parser.artifactId = m.group(ID_POS_2);
-
-            final String position3 = m.group(ID_POS_3);
-            final String position4 = m.group(ID_POS_4);
-            final String position5 = m.group(ID_POS_5);
+            // groupId and artifactId are required, so is classifier and version of the longer forms
+            if (count == 0 || isEmpty(separators, count, length, 0) || isEmpty(separators, count, length, 1)
+                || (count >= 3 && isEmpty(separators, count, length, 3))
+                || (count == 4 && isEmpty(separators, count, length, 4))) {
+                throw badCoordinates(coordinates);
+            }
 
-            // some logic with numbers of provided groups
-            final int noOfColons = numberOfOccurrences(coordinates, MavenGABaseImpl.SEPARATOR_COORDINATE);
+            final MavenCoordinateParser parser = new MavenCoordinateParser();
+            parser.groupId = coordinates.substring(0, separators[0]);
+            parser.artifactId = coordinates.substring(separators[0] + 1, count == 1 ? length : separators[1]);
 
             // Parsing is segment-dependent
-            switch (noOfColons) {
+            switch (count) {
+                case 1:
+                    parser.classifier = null;
+                    break;
                 case 2:
-                    parser.version = position3;
+                    parser.version = coordinates.substring(separators[1] + 1);
                     break;
                 case 3:
-                    parser.type = (position3 == null || position3.length() == 0) ? PackagingType.JAR
-                        : toPackagingType(position3);
-                    parser.version = position4;
+                    parser.type = toPackagingType(coordinates, separators[1] + 1, separators[2]);
+                    parser.version = coordinates.substring(separators[2] + 1);
                     break;
                 default:
-                    parser.type = (position3 == null || position3.length() == 0) ? PackagingType.JAR
-                        : toPackagingType(position3);
-                    parser.classifier = position4;
-                    parser.version = position5;
+                    parser.type = toPackagingType(coordinates, separators[1] + 1, separators[2]);
+                    parser.classifier = coordinates.substring(separators[2] + 1, separators[3]);
+                    parser.version = coordinates.substring(separators[3] + 1);
             }
 
             return parser;
@@ -177,14 +198,23 @@ public final class MavenCoordinates {
             return artifactId;
         }
 
-        private static int numberOfOccurrences(final CharSequence haystack, char needle) {
-            int counter = 0;
-            for (int i = 0; i < haystack.length(); i++) {
-                if (haystack.charAt(i) == needle) {
-                    counter++;
-                }
-            }
-            return counter;
+        /**
+         * Returns whether the part at given index, delimited by separators or by the ends of coordinates, is empty
+         */
+        private static boolean isEmpty(final int[] separators, final int count, final int length, final int index) {
+            final int begin = index == 0 ? 0 : separators[index - 1] + 1;
+            final int end = index == count ? length : separators[index];
+            return begin == end;
+        }
+
+        private static CoordinateParseException badCoordinates(final String coordinates) {
+            return new CoordinateParseException("Bad artifact coordinates"
+                + ", expected format is <groupId>:<artifactId>[:<packagingType>[:<classifier>]]:(<version>|'?'), got: "
+                + coordinates);
+        }
+
+        private static PackagingType toPackagingType(final String coordinates, final int begin, final int end) {
+            return begin == end ? PackagingType.JAR : toPackagingType(coordinates.substring(begin, end));
         }
 
         private static PackagingType toPackagingType(final String type) {
@@ -16,6 +16,7 @@
  */
 package org.jboss.shrinkwrap.resolver.api.maven.filter;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -84,4 +85,18 @@ public class RejectDependenciesFilter implements MavenResolutionFilter {
         return true;
     }
 
+    @Override
+    public String toString() {
+        // banned dependencies are sorted so equally configured filters have the same representation
+        final List<String> banned = new ArrayList<String>(bannedDependencies.size());
+        for (MavenDependency dependency : bannedDependencies) {
+            banned.add(dependency.toCanonicalForm());
+        }
+        Collections.sort(banned);
+
+        StringBuilder sb = new StringBuilder("RejectDependenciesFilter [rejectTransitives=").append(rejectTransitives)
+                .append(", bannedDependencies=").append(banned).append("]");
+        return sb.toString();
+    }
+
 }
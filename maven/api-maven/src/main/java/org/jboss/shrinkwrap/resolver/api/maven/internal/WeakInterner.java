@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.api.maven.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pool of equal instances, so large dependency management sets share a single instance of each coordinate and
+ * dependency instead of holding millions of equal ones. Instances are referenced weakly, so the pool does not keep any
+ * instance alive.
+ * <p>
+ * Interning is disabled unless {@link #ENABLED_KEY} system property is set to {@code true}. Keys are supplied by
+ * caller and must consider all the properties of the instance, as neither coordinates nor dependencies consider version
+ * in {@code equals()}.
+ * <p>
+ * This class is internal to ShrinkWrap Resolver, it is shared by the API and its implementation and it is not a part of
+ * the API.
+ *
+ * @param <V> type of interned instances
+ */
+public final class WeakInterner<V> {
+
+    public static final String ENABLED_KEY = "org.jboss.shrinkwrap.resolver.intern-coordinates";
+
+    private final ConcurrentMap<Object, ValueReference<V>> values = new ConcurrentHashMap<Object, ValueReference<V>>();
+    private final ReferenceQueue<V> queue = new ReferenceQueue<V>();
+
+    /**
+     * Returns whether interning is enabled by {@link #ENABLED_KEY} system property
+     *
+     * @return {@code true} if instances should be interned
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(AccessController.doPrivileged(GetEnabledAction.INSTANCE));
+    }
+
+    /**
+     * Returns an instance stored for the key if there is one still in use, stores and returns {@code value} otherwise
+     *
+     * @param key key considering all the properties of {@code value}
+     * @param value the instance
+     * @return the interned instance
+     */
+    public V intern(final Object key, final V value) {
+        expungeStaleEntries();
+        while (true) {
+            final ValueReference<V> existing = values.get(key);
+            if (existing != null) {
+                final V interned = existing.get();
+                if (interned != null) {
+                    return interned;
+                }
+                values.remove(key, existing);
+            }
+            if (values.putIfAbsent(key, new ValueReference<V>(key, value, queue)) == null) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Returns number of instances in the pool, including those not yet removed after being garbage collected
+     *
+     * @return number of instances
+     */
+    public int size() {
+        expungeStaleEntries();
+        return values.size();
+    }
+
+    private void expungeStaleEntries() {
+        Reference<? extends V> reference;
+        while ((reference = queue.poll()) != null) {
+            final ValueReference<?> stale = (ValueReference<?>) reference;
+            values.remove(stale.key, stale);
+        }
+    }
+
+    private static final class ValueReference<V> extends WeakReference<V> {
+        private final Object key;
+
+        ValueReference(final Object key, final V value, final ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    private enum GetEnabledAction implements PrivilegedAction<String> {
+        INSTANCE;
+
+        @Override
+        public String run() {
+            return System.getProperty(ENABLED_KEY);
+        }
+    }
+}
@@ -18,6 +18,8 @@ package org.jboss.shrinkwrap.resolver.api.maven.coordinate;
 
 import org.jboss.shrinkwrap.resolver.api.CoordinateParseException;
 import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
+import org.jboss.shrinkwrap.resolver.api.maven.internal.WeakInterner;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -97,4 +99,47 @@ public class MavenCoordinatesTestCase {
         Assert.assertEquals("version", coordinate.getVersion());
     }
 
+
+    @After
+    public void disableInterning() {
+        System.clearProperty(WeakInterner.ENABLED_KEY);
+    }
+
+    @Test
+    public void notInternedByDefault() {
+        final MavenCoordinate coordinate = MavenCoordinates.createCoordinate("groupId:artifactId:jar:version");
+        Assert.assertNotSame(coordinate, MavenCoordinates.createCoordinate("groupId:artifactId:jar:version"));
+    }
+
+    @Test
+    public void internedIfEnabled() {
+        System.setProperty(WeakInterner.ENABLED_KEY, "true");
+        final MavenCoordinate coordinate = MavenCoordinates.createCoordinate("groupId:artifactId:version");
+        Assert.assertSame(coordinate, MavenCoordinates.createCoordinate("groupId:artifactId:jar:version"));
+        Assert.assertSame(coordinate, MavenCoordinates.createCoordinate("groupId", "artifactId", "version",
+            PackagingType.JAR, null));
+        Assert.assertSame(coordinate.toCanonicalForm(), coordinate.toCanonicalForm());
+
+        // equal, but of a different version
+        final MavenCoordinate otherVersion = MavenCoordinates.createCoordinate("groupId:artifactId:jar:version2");
+        Assert.assertEquals(coordinate, otherVersion);
+        Assert.assertNotSame(coordinate, otherVersion);
+        Assert.assertNotSame(coordinate, MavenCoordinates.createCoordinate("groupId:artifactId:war:version"));
+    }
+
+    @Test
+    public void internedInstancesAreNotRetained() throws Exception {
+        final WeakInterner<Object> interner = new WeakInterner<Object>();
+        Object value = new Object();
+        Assert.assertSame(value, interner.intern("key", value));
+        Assert.assertSame(value, interner.intern("key", new Object()));
+        Assert.assertEquals(1, interner.size());
+
+        value = null;
+        for (int i = 0; i < 50 && interner.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(20L);
+        }
+        Assert.assertEquals(0, interner.size());
+    }
 }
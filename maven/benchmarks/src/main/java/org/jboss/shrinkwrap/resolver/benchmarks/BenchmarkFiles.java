@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Creates the files benchmarks work with, so no benchmark depends on the content of the machine it runs on
+ */
+public final class BenchmarkFiles {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private BenchmarkFiles() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Creates an empty temporary directory
+     *
+     * @param prefix prefix of the directory name
+     * @return the directory
+     * @throws IOException if the directory can not be created
+     */
+    public static File createTempDirectory(final String prefix) throws IOException {
+        return Files.createTempDirectory("swr-benchmark-" + prefix).toFile();
+    }
+
+    /**
+     * Writes the content to a file encoded as UTF-8, creating parent directories if needed
+     *
+     * @param file the file
+     * @param content the content
+     * @throws IOException if the file can not be written
+     */
+    public static void write(final File file, final String content) throws IOException {
+        write(file, content.getBytes(UTF_8));
+    }
+
+    /**
+     * Writes the content to a file and its SHA-1 checksum next to it, the way a remote Maven repository stores it
+     *
+     * @param file the file
+     * @param content the content
+     * @throws IOException if the files can not be written
+     */
+    public static void writeWithChecksum(final File file, final String content) throws IOException {
+        final byte[] bytes = content.getBytes(UTF_8);
+        write(file, bytes);
+
+        final StringBuilder sha1 = new StringBuilder();
+        try {
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(bytes)) {
+                sha1.append(String.format("%02x", b));
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+        write(new File(file.getParentFile(), file.getName() + ".sha1"), sha1.toString().getBytes(UTF_8));
+    }
+
+    /**
+     * Returns a minimal POM of an artifact with given dependencies
+     *
+     * @param groupId groupId of the artifact
+     * @param artifactId artifactId of the artifact
+     * @param version version of the artifact
+     * @param dependencies dependencies, each in {@code groupId:artifactId:version} form
+     * @return the POM
+     */
+    public static String pom(final String groupId, final String artifactId, final String version,
+        final String... dependencies) {
+        final StringBuilder sb = new StringBuilder("<project><modelVersion>4.0.0</modelVersion>");
+        sb.append("<groupId>").append(groupId).append("</groupId>");
+        sb.append("<artifactId>").append(artifactId).append("</artifactId>");
+        sb.append("<version>").append(version).append("</version>");
+        if (dependencies.length > 0) {
+            sb.append("<dependencies>");
+            for (String dependency : dependencies) {
+                final String[] parts = dependency.split(":");
+                sb.append("<dependency><groupId>").append(parts[0]).append("</groupId><artifactId>").append(parts[1])
+                    .append("</artifactId><version>").append(parts[2]).append("</version></dependency>");
+            }
+            sb.append("</dependencies>");
+        }
+        return sb.append("</project>").toString();
+    }
+
+    /**
+     * Deletes a file or a directory with all its content
+     *
+     * @param file the file or directory, might not exist
+     * @throws IOException if the file can not be deleted
+     */
+    public static void delete(final File file) throws IOException {
+        if (file == null || !file.exists()) {
+            return;
+        }
+        Files.walkFileTree(file.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+                Files.delete(path);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void write(final File file, final byte[] content) throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory " + parent);
+        }
+        Files.write(file.toPath(), content);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the same arguments as JMH does, but unless a result format is
+ * specified, results are written as JSON to {@code jmh-result.json}, so runs of different releases can be compared.
+ */
+public class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(final String[] args) throws Exception {
+        Main.main(withDefaults(args));
+    }
+
+    static String[] withDefaults(final String[] args) {
+        final List<String> arguments = new ArrayList<String>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+            if (!arguments.contains("-rff")) {
+                arguments.add("-rff");
+                arguments.add(DEFAULT_RESULT_FILE);
+            }
+        }
+        return arguments.toArray(new String[arguments.size()]);
+    }
+}
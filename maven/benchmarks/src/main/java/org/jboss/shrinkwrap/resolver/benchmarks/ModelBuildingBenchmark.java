@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.SharedModelCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading of all module POMs of a generated multi-module project, each in a new resolver, the way a test suite
+ * of a reactor does. Modules share a chain of {@value #PARENTS} parent POMs found via relative path, so
+ * {@code modelCache=true} lets {@link SharedModelCache} serve parents read when the module was loaded by a previous
+ * invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBuildingBenchmark {
+
+    static final int PARENTS = 4;
+
+    private static final String GROUP_ID = "org.jboss.shrinkwrap.test.benchmark.reactor";
+    private static final String VERSION = "1.0.0-SNAPSHOT";
+
+    @Param({ "120" })
+    public int modules;
+
+    @Param({ "true", "false" })
+    public boolean modelCache;
+
+    private File root;
+    private File settings;
+    private File[] poms;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty(SharedModelCache.ENABLED_KEY, String.valueOf(modelCache));
+        SharedModelCache.getInstance().clear();
+
+        root = BenchmarkFiles.createTempDirectory("reactor");
+        settings = new File(root, "settings.xml");
+        BenchmarkFiles.write(settings, "<settings><localRepository>"
+            + new File(root, "repository").getAbsolutePath() + "</localRepository></settings>");
+
+        // parent-0 is the root, every other parent is nested in the directory of the previous one
+        File directory = root;
+        for (int i = 0; i < PARENTS; i++) {
+            if (i > 0) {
+                directory = new File(directory, "parent-" + i);
+            }
+            BenchmarkFiles.write(new File(directory, "pom.xml"), pom("parent-" + i, i == 0 ? null : "parent-"
+                + (i - 1), "pom"));
+        }
+
+        poms = new File[modules];
+        for (int i = 0; i < modules; i++) {
+            poms[i] = new File(directory, "module-" + i + File.separator + "pom.xml");
+            BenchmarkFiles.write(poms[i], pom("module-" + i, "parent-" + (PARENTS - 1), "jar"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.clearProperty(SharedModelCache.ENABLED_KEY);
+        BenchmarkFiles.delete(root);
+    }
+
+    @Benchmark
+    public Object loadModules() {
+        Object stage = null;
+        for (File pom : poms) {
+            stage = Maven.configureResolver().withClassPathResolution(false).withMavenCentralRepo(false)
+                .fromFile(settings).loadPomFromFile(pom);
+        }
+        return stage;
+    }
+
+    private static String pom(final String artifactId, final String parent, final String packaging) {
+        final StringBuilder sb = new StringBuilder("<project><modelVersion>4.0.0</modelVersion>");
+        if (parent != null) {
+            sb.append("<parent><groupId>").append(GROUP_ID).append("</groupId><artifactId>").append(parent)
+                .append("</artifactId><version>").append(VERSION).append("</version></parent>");
+        } else {
+            sb.append("<groupId>").append(GROUP_ID).append("</groupId><version>").append(VERSION)
+                .append("</version>");
+        }
+        sb.append("<artifactId>").append(artifactId).append("</artifactId>");
+        sb.append("<packaging>").append(packaging).append("</packaging>");
+        sb.append("<properties><module.name>").append(artifactId).append("</module.name></properties>");
+        return sb.append("</project>").toString();
+    }
+}
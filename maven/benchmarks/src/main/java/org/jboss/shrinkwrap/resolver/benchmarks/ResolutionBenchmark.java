@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures transitive resolution of a generated dependency tree of 40 artifacts through the public API, from a remote
+ * repository backed by a local directory, so no network is involved.
+ * <ul>
+ * <li>{@code cold} starts every resolution with an empty local repository, so all the artifacts are downloaded</li>
+ * <li>{@code warm} reuses the local repository, so the artifacts are downloaded during the first warmup iteration
+ * only</li>
+ * </ul>
+ * Settings are generated as well, so neither user settings nor mirrors defined there affect the results.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ResolutionBenchmark {
+
+    static final String GROUP_ID = "org.jboss.shrinkwrap.test.benchmark";
+    static final String VERSION = "1.0.0";
+
+    private static final int FAN_OUT = 3;
+    private static final int DEPTH = 3;
+
+    /**
+     * Remote repository with a tree of artifacts, {@code artifact-0} is its root
+     */
+    @State(Scope.Benchmark)
+    public static class RemoteRepository {
+
+        File directory;
+        int artifacts;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = BenchmarkFiles.createTempDirectory("remote");
+            artifacts = deploy(directory, 0, 0, new int[] { 1 });
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            BenchmarkFiles.delete(directory);
+        }
+
+        String getUrl() {
+            return directory.toURI().toString();
+        }
+
+        private static int deploy(final File repository, final int index, final int depth, final int[] counter)
+            throws IOException {
+            int count = 1;
+            final String[] dependencies = new String[depth == DEPTH ? 0 : FAN_OUT];
+            for (int i = 0; i < dependencies.length; i++) {
+                final int child = counter[0]++;
+                dependencies[i] = GROUP_ID + ":artifact-" + child + ":" + VERSION;
+                count += deploy(repository, child, depth + 1, counter);
+            }
+
+            final String artifactId = "artifact-" + index;
+            final File dir = new File(repository, GROUP_ID.replace('.', File.separatorChar) + File.separator
+                + artifactId + File.separator + VERSION);
+            BenchmarkFiles.writeWithChecksum(new File(dir, artifactId + "-" + VERSION + ".pom"),
+                BenchmarkFiles.pom(GROUP_ID, artifactId, VERSION, dependencies));
+            BenchmarkFiles.writeWithChecksum(new File(dir, artifactId + "-" + VERSION + ".jar"), "content of "
+                + artifactId);
+            return count;
+        }
+    }
+
+    /**
+     * Local repository along with settings pointing to it
+     */
+    public abstract static class LocalRepository {
+
+        File directory;
+        File settings;
+
+        void create() throws IOException {
+            directory = BenchmarkFiles.createTempDirectory("local");
+            settings = new File(directory.getParentFile(), directory.getName() + "-settings.xml");
+            BenchmarkFiles.write(settings, "<settings><localRepository>" + directory.getAbsolutePath()
+                + "</localRepository></settings>");
+        }
+
+        void delete() throws IOException {
+            BenchmarkFiles.delete(directory);
+            BenchmarkFiles.delete(settings);
+        }
+    }
+
+    /**
+     * Local repository shared by all the invocations
+     */
+    @State(Scope.Benchmark)
+    public static class WarmLocalRepository extends LocalRepository {
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            create();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete();
+        }
+    }
+
+    /**
+     * Local repository created empty for every invocation
+     */
+    @State(Scope.Thread)
+    public static class ColdLocalRepository extends LocalRepository {
+
+        @Setup(Level.Invocation)
+        public void setUp() throws IOException {
+            create();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws IOException {
+            delete();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public File[] cold(final RemoteRepository remote, final ColdLocalRepository local) {
+        return resolve(remote, local);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public File[] warm(final RemoteRepository remote, final WarmLocalRepository local) {
+        return resolve(remote, local);
+    }
+
+    private static File[] resolve(final RemoteRepository remote, final LocalRepository local) {
+        final File[] files = Maven.configureResolver().withClassPathResolution(false).withMavenCentralRepo(false)
+            .withRemoteRepo("benchmark", remote.getUrl(), "default").fromFile(local.settings)
+            .resolve(GROUP_ID + ":artifact-0:" + VERSION).withTransitivity().asFile();
+        if (files.length != remote.artifacts) {
+            throw new IllegalStateException("Resolved " + files.length + " artifacts instead of " + remote.artifacts);
+        }
+        return files;
+    }
+}
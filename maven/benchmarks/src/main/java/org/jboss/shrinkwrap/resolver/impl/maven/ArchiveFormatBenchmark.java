@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.jboss.shrinkwrap.resolver.benchmarks.BenchmarkFiles;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures conversion of resolved artifacts into {@link JavaArchive}s by {@link MavenFormatStageImpl}. With
+ * {@code threads=1} archives are imported one after another, otherwise they are imported by the shared pool of the
+ * given parallelism, see {@link ResolverRuntime#THREADS_KEY}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArchiveFormatBenchmark {
+
+    @Param({ "150" })
+    public int artifacts;
+
+    @Param({ "1", "8" })
+    public int threads;
+
+    private File root;
+    private List<MavenResolvedArtifact> resolved;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // the pool is created lazily in the forked JVM, so the property is set before its first use
+        System.setProperty(ResolverRuntime.THREADS_KEY, String.valueOf(threads));
+
+        root = BenchmarkFiles.createTempDirectory("format");
+        resolved = new ArrayList<MavenResolvedArtifact>(artifacts);
+        for (int i = 0; i < artifacts; i++) {
+            final File jar = new File(root, "library-" + i + ".jar");
+            writeJar(jar, i);
+            resolved.add(MavenResolvedArtifactImpl.fromPersistedState(
+                MavenCoordinates.createCoordinate("org.jboss.shrinkwrap.test.benchmark:library-" + i + ":1.0.0"),
+                "1.0.0", false, "jar", jar, ScopeType.COMPILE, new MavenArtifactInfo[0], false));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.clearProperty(ResolverRuntime.THREADS_KEY);
+        BenchmarkFiles.delete(root);
+    }
+
+    @Benchmark
+    public JavaArchive[] importArchives() {
+        return new MavenFormatStageImpl(resolved).as(JavaArchive.class);
+    }
+
+    private static void writeJar(final File jar, final int index) throws IOException {
+        final byte[] content = new byte[2048];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ((i * 31 + index) % 127);
+        }
+        final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar));
+        try {
+            for (int i = 0; i < 100; i++) {
+                zip.putNextEntry(new ZipEntry("org/jboss/generated/library" + index + "/Generated" + i + ".class"));
+                zip.write(content);
+                zip.closeEntry();
+            }
+        } finally {
+            zip.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.benchmarks.BenchmarkFiles;
+import org.jboss.shrinkwrap.resolver.impl.maven.MavenResolvedArtifactImpl.DirectoryEntry;
+import org.jboss.shrinkwrap.resolver.impl.maven.MavenResolvedArtifactImpl.PackageDirHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures packaging of a generated {@code target/classes} like directory into an archive, as done by
+ * {@link PackagedModuleCache} when a module changed, and the check of an up to date archive it does otherwise. Every
+ * twentieth file is a JAR, which is stored uncompressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageDirectoriesBenchmark {
+
+    @Param({ "500" })
+    public int files;
+
+    private File root;
+    private File classes;
+    private File archive;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = BenchmarkFiles.createTempDirectory("package");
+        classes = new File(root, "classes");
+        archive = new File(root, "classes.jar");
+
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append("public class Generated").append(i).append(" { }\n");
+        }
+        for (int i = 0; i < files; i++) {
+            final String name = i % 20 == 0 ? "lib/library-" + i + ".jar" : "org/jboss/generated/package" + (i % 10)
+                + "/Generated" + i + ".class";
+            BenchmarkFiles.write(new File(classes, name), content.toString());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.delete(root);
+    }
+
+    @Benchmark
+    public long packageDirectory() throws IOException {
+        final List<DirectoryEntry> entries = new ArrayList<DirectoryEntry>();
+        PackageDirHelper.listFiles(classes, entries);
+        PackageDirHelper.packageEntries(archive, entries);
+        return archive.length();
+    }
+
+    @Benchmark
+    public File reuseUpToDateArchive() throws IOException {
+        return PackagedModuleCache.getArchive("classes", "jar", classes);
+    }
+}
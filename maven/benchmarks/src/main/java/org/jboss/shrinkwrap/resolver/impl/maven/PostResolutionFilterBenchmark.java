@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PostResolutionFilterApplicator} removing POM artifacts from a resolution result, every tenth
+ * artifact of which is a POM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostResolutionFilterBenchmark {
+
+    @Param({ "100", "1000" })
+    public int artifacts;
+
+    private Collection<MavenResolvedArtifact> resolved;
+
+    @Setup
+    public void setUp() {
+        final List<MavenResolvedArtifact> list = new ArrayList<MavenResolvedArtifact>(artifacts);
+        for (int i = 0; i < artifacts; i++) {
+            final PackagingType packaging = i % 10 == 0 ? PackagingType.POM : PackagingType.JAR;
+            list.add(MavenResolvedArtifactImpl.fromPersistedState(
+                MavenCoordinates.createCoordinate("org.jboss.shrinkwrap.test", "artifact-" + i, "1.0.0", packaging,
+                    null), "1.0.0", false, packaging.getExtension(), new File("artifact-" + i + "-1.0.0."
+                    + packaging.getExtension()), ScopeType.COMPILE, new MavenArtifactInfo[0], false));
+        }
+        resolved = list;
+    }
+
+    @Benchmark
+    public Collection<MavenResolvedArtifact> postFilter() {
+        return PostResolutionFilterApplicator.postFilter(resolved);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.jboss.shrinkwrap.resolver.benchmarks.BenchmarkFiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link ClasspathWorkspaceReader} on a generated classpath of JAR files and module directories, both with
+ * the index built for the first lookup and with the index already in place
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClasspathWorkspaceReaderBenchmark {
+
+    private static final String SUREFIRE_CLASS_PATH_KEY = "surefire.test.class.path";
+    private static final String GROUP_ID = "org.jboss.shrinkwrap.test.classpath";
+
+    @Param({ "200" })
+    public int jars;
+
+    @Param({ "20" })
+    public int modules;
+
+    private File root;
+    private String classPath;
+    private Artifact[] artifacts;
+    private ClasspathWorkspaceReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = BenchmarkFiles.createTempDirectory("classpath");
+
+        final StringBuilder sb = new StringBuilder();
+        artifacts = new Artifact[jars + modules];
+        for (int i = 0; i < jars; i++) {
+            final File jar = new File(root, "repository/jar-" + i + "/1.0.0/jar-" + i + "-1.0.0.jar");
+            BenchmarkFiles.write(jar, "content of jar-" + i);
+            sb.append(jar.getAbsolutePath()).append(File.pathSeparatorChar);
+            artifacts[i] = new DefaultArtifact(GROUP_ID + ":jar-" + i + ":1.0.0");
+        }
+        for (int i = 0; i < modules; i++) {
+            final File module = new File(root, "module-" + i);
+            final File classes = new File(module, "target/classes");
+            if (!classes.mkdirs()) {
+                throw new IOException("Unable to create " + classes);
+            }
+            BenchmarkFiles.write(new File(module, "pom.xml"), BenchmarkFiles.pom(GROUP_ID, "module-" + i, "1.0.0"));
+            sb.append(classes.getAbsolutePath()).append(File.pathSeparatorChar);
+            artifacts[jars + i] = new DefaultArtifact(GROUP_ID + ":module-" + i + ":pom:1.0.0");
+        }
+        classPath = sb.toString();
+
+        reader = newReader();
+        reader.findArtifact(artifacts[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.delete(root);
+    }
+
+    @Benchmark
+    public File firstLookup() {
+        return newReader().findArtifact(artifacts[artifacts.length - 1]);
+    }
+
+    @Benchmark
+    public void lookupAll(final Blackhole blackhole) {
+        for (Artifact artifact : artifacts) {
+            blackhole.consume(reader.findArtifact(artifact));
+        }
+    }
+
+    private ClasspathWorkspaceReader newReader() {
+        final String previous = System.getProperty(SUREFIRE_CLASS_PATH_KEY);
+        System.setProperty(SUREFIRE_CLASS_PATH_KEY, classPath);
+        try {
+            return new ClasspathWorkspaceReader();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(SUREFIRE_CLASS_PATH_KEY);
+            } else {
+                System.setProperty(SUREFIRE_CLASS_PATH_KEY, previous);
+            }
+        }
+    }
+}
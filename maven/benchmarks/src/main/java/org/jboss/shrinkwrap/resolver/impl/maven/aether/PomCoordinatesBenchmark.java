@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathFactory;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.jboss.shrinkwrap.resolver.benchmarks.BenchmarkFiles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+
+/**
+ * Compares reading of project coordinates by {@link PomCoordinatesReader} with the former DOM and XPath based reading
+ * over generated POM files, half of them inheriting groupId and version from their parent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PomCoordinatesBenchmark {
+
+    private static final String GROUP_ID = "org.jboss.shrinkwrap.test.poms";
+
+    @Param({ "200" })
+    public int poms;
+
+    @Param({ "20" })
+    public int dependencies;
+
+    private File root;
+    private File[] files;
+    private PomCoordinatesReader staxReader;
+    private XPathPomCoordinatesReader domReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        root = BenchmarkFiles.createTempDirectory("poms");
+        files = new File[poms];
+        for (int i = 0; i < poms; i++) {
+            files[i] = new File(root, "module-" + i + "/pom.xml");
+            BenchmarkFiles.write(files[i], pom(i));
+        }
+        staxReader = new PomCoordinatesReader();
+        domReader = new XPathPomCoordinatesReader();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.delete(root);
+    }
+
+    @Benchmark
+    public void stax(final Blackhole blackhole) throws Exception {
+        for (File file : files) {
+            blackhole.consume(staxReader.read(file));
+        }
+    }
+
+    @Benchmark
+    public void domAndXPath(final Blackhole blackhole) throws Exception {
+        for (File file : files) {
+            blackhole.consume(domReader.read(file));
+        }
+    }
+
+    /**
+     * Coordinates are followed by dependencies and build section, as they are in most of real POM files
+     */
+    private String pom(final int index) {
+        final StringBuilder sb = new StringBuilder("<project><modelVersion>4.0.0</modelVersion>");
+        sb.append("<parent><groupId>").append(GROUP_ID).append("</groupId><artifactId>parent</artifactId>")
+            .append("<version>1.0.0</version></parent>");
+        if (index % 2 == 0) {
+            sb.append("<groupId>").append(GROUP_ID).append(".child</groupId>");
+        }
+        sb.append("<artifactId>module-").append(index).append("</artifactId>");
+        if (index % 2 == 0) {
+            sb.append("<version>1.0.").append(index).append("</version>");
+        }
+        sb.append("<packaging>").append(index % 3 == 0 ? "war" : "jar").append("</packaging>");
+        sb.append("<dependencies>");
+        for (int i = 0; i < dependencies; i++) {
+            sb.append("<dependency><groupId>").append(GROUP_ID).append("</groupId><artifactId>dependency-").append(i)
+                .append("</artifactId><version>2.0.").append(i).append("</version></dependency>");
+        }
+        sb.append("</dependencies>");
+        sb.append("<build><plugins><plugin><artifactId>maven-compiler-plugin</artifactId><configuration>")
+            .append("<source>1.7</source><target>1.7</target></configuration></plugin></plugins></build>");
+        return sb.append("</project>").toString();
+    }
+
+    /**
+     * Reads project coordinates the way {@link ClasspathWorkspaceReader} used to, by parsing whole file into DOM and
+     * evaluating XPath expressions
+     */
+    static class XPathPomCoordinatesReader {
+        private final DocumentBuilder documentBuilder;
+        private final XPathExpression parentGroupId;
+        private final XPathExpression groupId;
+        private final XPathExpression artifactId;
+        private final XPathExpression type;
+        private final XPathExpression version;
+        private final XPathExpression parentVersion;
+
+        XPathPomCoordinatesReader() throws Exception {
+            documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            final XPath xPath = XPathFactory.newInstance().newXPath();
+            parentGroupId = xPath.compile("/project/parent/groupId");
+            groupId = xPath.compile("/project/groupId");
+            artifactId = xPath.compile("/project/artifactId");
+            type = xPath.compile("/project/packaging");
+            version = xPath.compile("/project/version");
+            parentVersion = xPath.compile("/project/parent/version");
+        }
+
+        Artifact read(final File pomFile) throws Exception {
+            final Document pom = documentBuilder.parse(pomFile);
+
+            String g = groupId.evaluate(pom);
+            final String a = artifactId.evaluate(pom);
+            String t = type.evaluate(pom);
+            String v = version.evaluate(pom);
+
+            if (g == null || g.isEmpty()) {
+                g = parentGroupId.evaluate(pom);
+            }
+            if (t == null || t.isEmpty()) {
+                t = "jar";
+            }
+            if (v == null || v.isEmpty()) {
+                v = parentVersion.evaluate(pom);
+            }
+
+            return new DefaultArtifact(g + ":" + a + ":" + t + ":" + v).setFile(pomFile);
+        }
+    }
+}
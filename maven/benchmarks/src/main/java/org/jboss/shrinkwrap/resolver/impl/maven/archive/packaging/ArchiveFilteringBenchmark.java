@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.util.SelectorUtils;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures include/exclude filtering of a generated WAR. {@link #matchPaths()} and
+ * {@link #matchPathsWithSelectorUtils()} compare compiled patterns with matching every pattern by
+ * {@link SelectorUtils}, {@link #filterArchive()} filters the archive in place by {@link ArchiveFilteringUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArchiveFilteringBenchmark {
+
+    private static final List<String> INCLUDES = Arrays.asList("**/**", "WEB-INF/**", "**/*.class", "**/*.jar",
+        "static/**/*.css", "static/**/*.js");
+
+    private static final List<String> EXCLUDES = Arrays.asList("**/*.toExclude", "WEB-INF/lib/test-*.jar",
+        "**/test/**", "**/*.orig", "static/vendor/**/*.map", "META-INF/maven/**");
+
+    @Param({ "20000" })
+    public int entries;
+
+    private List<String> paths;
+    private WebArchive archive;
+
+    @Setup(Level.Trial)
+    public void setUpPaths() {
+        paths = new ArrayList<String>(entries);
+        for (int i = 0; i < entries; i++) {
+            paths.add(path(i));
+        }
+    }
+
+    // filtering in place modifies the archive, so every invocation filters a fresh one
+    @Setup(Level.Invocation)
+    public void setUpArchive() {
+        archive = ShrinkWrap.create(WebArchive.class, "filtered.war");
+        for (String path : paths) {
+            archive.add(EmptyAsset.INSTANCE, path);
+        }
+    }
+
+    @Benchmark
+    public WebArchive filterArchive() {
+        return ArchiveFilteringUtils.filterArchiveContent(archive, WebArchive.class, INCLUDES, EXCLUDES);
+    }
+
+    @Benchmark
+    public WebArchive filterArchiveInPlace() {
+        return ArchiveFilteringUtils.filterArchiveContentInPlace(archive, INCLUDES, EXCLUDES);
+    }
+
+    @Benchmark
+    public int matchPaths() {
+        final PathPatternMatcher includeMatcher = PathPatternMatcher.compile(INCLUDES);
+        final PathPatternMatcher excludeMatcher = PathPatternMatcher.compile(EXCLUDES);
+        int included = 0;
+        for (String path : paths) {
+            if (includeMatcher.matches(path) && !excludeMatcher.matches(path)) {
+                included++;
+            }
+        }
+        return included;
+    }
+
+    @Benchmark
+    public int matchPathsWithSelectorUtils() {
+        int included = 0;
+        for (String path : paths) {
+            includes: for (String include : INCLUDES) {
+                if (SelectorUtils.matchPath(include, path, "/", true)) {
+                    for (String exclude : EXCLUDES) {
+                        if (SelectorUtils.matchPath(exclude, path, "/", true)) {
+                            break includes;
+                        }
+                    }
+                    included++;
+                    break;
+                }
+            }
+        }
+        return included;
+    }
+
+    private static String path(final int i) {
+        switch (i % 5) {
+            case 0:
+                return "WEB-INF/classes/org/example/package" + (i % 40) + "/Generated" + i + ".class";
+            case 1:
+                return "WEB-INF/lib/" + (i % 50 == 1 ? "test-" : "library-") + i + ".jar";
+            case 2:
+                return "static/vendor/module" + (i % 30) + "/script" + i + (i % 3 == 0 ? ".js.map" : ".js");
+            case 3:
+                return "static/css/theme" + (i % 20) + "/style" + i + ".css";
+            default:
+                return "pages/section" + (i % 25) + "/page" + i + (i % 10 == 4 ? ".toExclude" : ".html");
+        }
+    }
+}
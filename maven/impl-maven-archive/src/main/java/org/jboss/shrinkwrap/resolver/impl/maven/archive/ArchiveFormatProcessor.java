@@ -19,19 +19,25 @@ package org.jboss.shrinkwrap.resolver.impl.maven.archive;
 import java.io.File;
 
 import org.jboss.shrinkwrap.api.Archive;
-import org.jboss.shrinkwrap.api.ShrinkWrap;
-import org.jboss.shrinkwrap.api.importer.ZipImporter;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.spi.format.ConcurrentFormatProcessor;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.maven.archive.zip.ZipFileArchives;
 
 /**
- * {@link FormatProcessor} implementation to return an artifact as a ShrinkWrap {@link Archive}
+ * {@link FormatProcessor} implementation to return an artifact as a ShrinkWrap {@link Archive}. Several artifacts are
+ * imported concurrently.
+ * <p>
+ * By default the artifact file is imported by ShrinkWrap {@code ZipImporter}. If {@link ZipFileArchives#LAZY_KEY}
+ * system property is set to {@code true}, the archive is backed by the artifact file instead and only its central
+ * directory is read on import; entries of such an archive fail to open with {@link IllegalStateException} once the
+ * file is modified, e.g. when a reactor module is packaged again or a SNAPSHOT is downloaded again.
  *
  * @author <a href="mailto:alr@jboss.org">Andrew Lee Rubinger</a>
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  */
 public final class ArchiveFormatProcessor<ARCHIVETYPE extends Archive<ARCHIVETYPE>> implements
-        FormatProcessor<MavenResolvedArtifact, ARCHIVETYPE> {
+        ConcurrentFormatProcessor<MavenResolvedArtifact, ARCHIVETYPE> {
 
     /**
      * {@inheritDoc}
@@ -50,7 +56,7 @@ public final class ArchiveFormatProcessor<ARCHIVETYPE extends Archive<ARCHIVETYP
             throw new IllegalArgumentException("Artifact was not resolved");
         }
 
-        return ShrinkWrap.create(ZipImporter.class, file.getName()).importFrom(file).as(returnType);
+        return ZipFileArchives.createFromZipFile(returnType, file);
     }
 
     @Override
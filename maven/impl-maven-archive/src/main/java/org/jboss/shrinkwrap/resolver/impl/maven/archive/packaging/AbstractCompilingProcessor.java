@@ -17,7 +17,9 @@
 package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -35,6 +37,8 @@ import org.jboss.shrinkwrap.resolver.api.maven.archive.importer.MavenImporterExc
 import org.jboss.shrinkwrap.resolver.api.maven.strategy.AcceptScopesStrategy;
 import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
 import org.jboss.shrinkwrap.resolver.impl.maven.archive.plugins.CompilerPluginConfiguration;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEvent;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEventType;
 import org.jboss.shrinkwrap.resolver.impl.maven.task.AddScopedDependenciesTask;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
 import org.jboss.shrinkwrap.resolver.spi.maven.archive.packaging.PackagingProcessor;
@@ -66,28 +70,52 @@ public abstract class AbstractCompilingProcessor<ARCHIVETYPE extends Archive<ARC
         Validate.notNull(inputDirectory, "Directory with sources to be compiled must not be null");
         Validate.notNull(outputDirectory, "Target directory for compiled sources must not be null");
 
-        JavacCompiler compiler = new JavacCompiler();
-        CompilerConfiguration configuration = getCompilerConfiguration();
-
-        if (log.isLoggable(Level.FINE)) {
-            log.log(Level.FINE, "Compiling sources from {0} directory into {1}",
-                new Object[] { inputDirectory, outputDirectory });
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.COMPILE);
+        try {
+            doCompile(inputDirectory, outputDirectory, scopes);
+        } finally {
+            if (event.shouldCommit()) {
+                event.set("sources", inputDirectory.getPath()).set("output", outputDirectory.getPath()).commit();
+            }
         }
 
+        return this;
+    }
+
+    private void doCompile(File inputDirectory, File outputDirectory, ScopeType... scopes) {
+
+        CompilerConfiguration configuration = getCompilerConfiguration();
+
         // in order to compile sources, we need to resolve dependencies first
         // so we have a classpath available
         new AddScopedDependenciesTask(ScopeType.values()).execute(session);
         final MavenResolutionStrategy scopeStrategy = new AcceptScopesStrategy(scopes);
         final Collection<MavenResolvedArtifact> artifactResults = session.resolveDependencies(scopeStrategy);
 
+        final List<File> classpath = new ArrayList<File>(artifactResults.size());
         for (MavenResolvedArtifact artifact : artifactResults) {
             String classpathEntry = artifact.asFile().getAbsolutePath();
             configuration.addClasspathEntry(classpathEntry);
+            classpath.add(artifact.asFile());
             if (log.isLoggable(Level.FINER)) {
                 log.log(Level.FINER, "Adding {0} to compilation classpath", classpathEntry);
             }
         }
 
+        // compile in process only sources changed since the last import, if there is a Java compiler available
+        final IncrementalCompiler incrementalCompiler = IncrementalCompiler.create(inputDirectory, outputDirectory,
+            configuration, classpath);
+        if (incrementalCompiler != null) {
+            incrementalCompiler.compile();
+            return;
+        }
+
+        if (log.isLoggable(Level.FINE)) {
+            log.log(Level.FINE, "Compiling sources from {0} directory into {1}",
+                new Object[] { inputDirectory, outputDirectory });
+        }
+
+        JavacCompiler compiler = new JavacCompiler();
         configuration.addSourceLocation(inputDirectory.getPath());
         configuration.setOutputLocation(outputDirectory.getPath());
         try {
@@ -115,8 +143,6 @@ public abstract class AbstractCompilingProcessor<ARCHIVETYPE extends Archive<ARC
             log.log(Level.SEVERE, "Compilation failed with {0}", e.getMessage());
             throw new MavenImporterException("Unable to compile source at " + inputDirectory.getPath() + " due to: ", e);
         }
-
-        return this;
     }
 
     private CompilerConfiguration getCompilerConfiguration() {
@@ -16,14 +16,15 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
-import org.codehaus.plexus.util.SelectorUtils;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
-import org.jboss.shrinkwrap.api.Filter;
 import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 
@@ -40,47 +41,80 @@ public class ArchiveFilteringUtils {
         return filterArchiveContent(archive, archiveType, Arrays.asList(includes), Arrays.asList(excludes));
     }
 
+    /**
+     * Creates a new archive of given type with files of the archive which are matched by any of includes and are not
+     * matched by any of excludes. The archive itself is not modified.
+     */
     public static <T extends Archive<?>> T filterArchiveContent(T archive, Class<T> archiveType, final List<String> includes,
             final List<String> excludes) {
 
-        // get all files that should be included in archive
-        Map<ArchivePath, Node> includePart = archive.getContent(new Filter<ArchivePath>() {
-            @Override
-            public boolean include(ArchivePath path) {
-
-                // trim first slash
-                String pathAsString = path.get();
-                pathAsString = pathAsString.startsWith("/") ? pathAsString.substring(1) : pathAsString;
-
-                boolean include = false;
-                // include all files that should be included
-                includesLoop: for (String i : includes) {
-                    // paths in ShrinkWrap archives are always "/" separated
-                    if (SelectorUtils.matchPath(i, pathAsString, "/", true)) {
-                        // if file should be included, check also for excludes
-                        for (String e : excludes) {
-                            if (SelectorUtils.matchPath(e, pathAsString, "/", true)) {
-                                break includesLoop;
-                            }
-                        }
-                        include = true;
-                        break;
-                    }
-                }
-
-                return include;
-            }
-        });
+        final PathPatternMatcher includeMatcher = PathPatternMatcher.compile(includes);
+        final PathPatternMatcher excludeMatcher = PathPatternMatcher.compile(excludes);
 
         // create new archive and merge content together
-        T newArchive = ShrinkWrap.create(archiveType, archive.getName());
-
-        for (Map.Entry<ArchivePath, Node> entry : includePart.entrySet()) {
-            if (entry.getValue() != null && entry.getValue().getAsset() != null) {
+        final T newArchive = ShrinkWrap.create(archiveType, archive.getName());
+        for (Map.Entry<ArchivePath, Node> entry : archive.getContent().entrySet()) {
+            if (entry.getValue() != null && entry.getValue().getAsset() != null
+                    && accepts(entry.getKey(), includeMatcher, excludeMatcher)) {
                 newArchive.add(entry.getValue().getAsset(), entry.getKey());
             }
         }
 
         return newArchive;
     }
+
+    public static <T extends Archive<?>> T filterArchiveContentInPlace(T archive, final String[] includes,
+            final String[] excludes) {
+        return filterArchiveContentInPlace(archive, Arrays.asList(includes), Arrays.asList(excludes));
+    }
+
+    /**
+     * Removes files which are not matched by any of includes or are matched by any of excludes from the archive,
+     * together with directories left empty. Unlike {@link #filterArchiveContent(Archive, Class, List, List)}, no copy
+     * is created, so assets are not added again; the archive passed in is modified and returned.
+     */
+    public static <T extends Archive<?>> T filterArchiveContentInPlace(T archive, final List<String> includes,
+            final List<String> excludes) {
+
+        final PathPatternMatcher includeMatcher = PathPatternMatcher.compile(includes);
+        final PathPatternMatcher excludeMatcher = PathPatternMatcher.compile(excludes);
+
+        final List<ArchivePath> removed = new ArrayList<ArchivePath>();
+        final List<ArchivePath> directories = new ArrayList<ArchivePath>();
+        for (Map.Entry<ArchivePath, Node> entry : archive.getContent().entrySet()) {
+            if (entry.getValue() == null || entry.getValue().getAsset() == null) {
+                directories.add(entry.getKey());
+            } else if (!accepts(entry.getKey(), includeMatcher, excludeMatcher)) {
+                removed.add(entry.getKey());
+            }
+        }
+        for (ArchivePath path : removed) {
+            archive.delete(path);
+        }
+
+        // only files are filtered, a directory is kept only if it still contains a file; children are visited first
+        Collections.sort(directories, new Comparator<ArchivePath>() {
+            @Override
+            public int compare(ArchivePath o1, ArchivePath o2) {
+                return o2.get().length() - o1.get().length();
+            }
+        });
+        for (ArchivePath directory : directories) {
+            final Node node = archive.get(directory);
+            if (node != null && node.getChildren().isEmpty() && !"/".equals(directory.get())) {
+                archive.delete(directory);
+            }
+        }
+
+        return archive;
+    }
+
+    private static boolean accepts(final ArchivePath path, final PathPatternMatcher includeMatcher,
+            final PathPatternMatcher excludeMatcher) {
+        // trim first slash, paths in ShrinkWrap archives are always "/" separated
+        String pathAsString = path.get();
+        pathAsString = pathAsString.startsWith("/") ? pathAsString.substring(1) : pathAsString;
+
+        return includeMatcher.matches(pathAsString) && !excludeMatcher.matches(pathAsString);
+    }
 }
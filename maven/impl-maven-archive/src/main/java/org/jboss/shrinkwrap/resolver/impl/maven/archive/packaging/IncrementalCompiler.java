@@ -0,0 +1,727 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.codehaus.plexus.compiler.CompilerConfiguration;
+import org.jboss.shrinkwrap.resolver.api.maven.archive.importer.MavenImporterException;
+
+/**
+ * Compiles sources by in-process {@code javax.tools} compiler, recompiling only sources changed since the previous
+ * compilation into the same output directory.
+ * <p>
+ * A manifest stored next to the output directory records hash of every source and class files compiled from it,
+ * together with fingerprint of compiler options and classpath. A changed source is recompiled along with all sources
+ * which mention a type declared by a changed or removed source, transitively; class files of changed and removed
+ * sources are deleted first. If options or classpath changed, all sources are recompiled. If nothing changed, the
+ * compiler is not invoked at all.
+ * <p>
+ * Files written by annotation processors cannot be attributed to a single source, so they are recorded separately and
+ * any change of sources, once processors generated something, leads to deleting them and recompiling all sources.
+ * <p>
+ * Compilations into the same output directory are serialized, compilations into different ones run concurrently.
+ * Standard file managers, which cache opened classpath archives, are pooled by encoding and classpath; a few idle ones
+ * are kept for reuse and the least recently used ones are closed.
+ */
+final class IncrementalCompiler {
+    private static final Logger log = Logger.getLogger(IncrementalCompiler.class.getName());
+
+    /**
+     * Suffix of the manifest file, stored next to the output directory
+     */
+    static final String MANIFEST_SUFFIX = ".compile-manifest";
+
+    private static final String OPTIONS_KEY = "options";
+    private static final String SOURCE_KEY_PREFIX = "source:";
+    private static final String GENERATED_KEY = "generated";
+    private static final String JAVA_EXTENSION = ".java";
+    private static final String CLASS_EXTENSION = ".class";
+
+    private static final Pattern IDENTIFIER = Pattern
+        .compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
+
+    private static final int MAX_IDLE_FILE_MANAGERS = 4;
+
+    // locks of output directories being compiled, removed when the last compilation finishes, guarded by itself
+    private static final Map<File, CompileLock> LOCKS = new HashMap<File, CompileLock>();
+
+    // idle file managers by encoding and classpath, least recently used first, guarded by itself
+    private static final Map<String, StandardJavaFileManager> IDLE_FILE_MANAGERS =
+        new LinkedHashMap<String, StandardJavaFileManager>();
+
+    private final JavaCompiler compiler;
+    private final File sourceDirectory;
+    private final File outputDirectory;
+    private final File manifestFile;
+    private final List<File> classpath;
+    private final List<String> options;
+    private final Charset charset;
+
+    /**
+     * Creates a compiler, using the system Java compiler
+     *
+     * @param sourceDirectory directory with sources
+     * @param outputDirectory directory class files are written to
+     * @param configuration compiler configuration, source locations, output location and classpath are ignored
+     * @param classpath compilation classpath
+     * @return the compiler or {@code null} if there is no system Java compiler, e.g. if running on JRE
+     */
+    static IncrementalCompiler create(final File sourceDirectory, final File outputDirectory,
+        final CompilerConfiguration configuration, final List<File> classpath) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return null;
+        }
+        return new IncrementalCompiler(compiler, sourceDirectory, outputDirectory, configuration, classpath);
+    }
+
+    private IncrementalCompiler(final JavaCompiler compiler, final File sourceDirectory, final File outputDirectory,
+        final CompilerConfiguration configuration, final List<File> classpath) {
+        this.compiler = compiler;
+        this.sourceDirectory = sourceDirectory.getAbsoluteFile();
+        this.outputDirectory = outputDirectory.getAbsoluteFile();
+        this.manifestFile = new File(this.outputDirectory.getParentFile(), this.outputDirectory.getName()
+            + MANIFEST_SUFFIX);
+        this.classpath = classpath;
+        this.options = getOptions(configuration);
+        final String encoding = configuration.getSourceEncoding();
+        this.charset = encoding == null || encoding.length() == 0 ? null : Charset.forName(encoding);
+    }
+
+    /**
+     * Compiles sources changed since the previous compilation
+     *
+     * @throws MavenImporterException if sources cannot be compiled
+     */
+    void compile() throws MavenImporterException {
+        final CompileLock lock = acquireLock();
+        try {
+            synchronized (lock) {
+                try {
+                    doCompile();
+                } catch (IOException e) {
+                    deleteManifest();
+                    throw new MavenImporterException("Unable to compile sources at " + sourceDirectory.getPath()
+                        + " due to: ", e);
+                }
+            }
+        } finally {
+            releaseLock(lock);
+        }
+    }
+
+    private CompileLock acquireLock() {
+        synchronized (LOCKS) {
+            CompileLock lock = LOCKS.get(outputDirectory);
+            if (lock == null) {
+                lock = new CompileLock();
+                LOCKS.put(outputDirectory, lock);
+            }
+            lock.users++;
+            return lock;
+        }
+    }
+
+    private void releaseLock(final CompileLock lock) {
+        synchronized (LOCKS) {
+            if (--lock.users == 0) {
+                LOCKS.remove(outputDirectory);
+            }
+        }
+    }
+
+    private void doCompile() throws IOException {
+        final String classpathFingerprint = getClasspathFingerprint();
+        final String optionsFingerprint = options + "|" + charset + "|" + classpathFingerprint;
+
+        final Map<String, SourceEntry> previous = new HashMap<String, SourceEntry>();
+        final Set<String> previousGenerated = new TreeSet<String>();
+        final boolean full = !readManifest(optionsFingerprint, previous, previousGenerated);
+
+        final Map<String, File> sources = new TreeMap<String, File>();
+        collectSources(sourceDirectory, "", sources);
+
+        // find out changed sources, carrying over entries of the unchanged ones
+        final Map<String, SourceEntry> entries = new TreeMap<String, SourceEntry>();
+        final Set<String> toCompile = new HashSet<String>();
+        final boolean generatedExist = outputsExist(previousGenerated);
+        boolean metadataChanged = false;
+        for (Map.Entry<String, File> source : sources.entrySet()) {
+            final File file = source.getValue();
+            final SourceEntry entry = previous.get(source.getKey());
+            if (full || entry == null || !generatedExist || !outputsExist(entry.outputs)) {
+                toCompile.add(source.getKey());
+            } else if (entry.length == file.length() && entry.lastModified == file.lastModified()) {
+                entries.put(source.getKey(), entry);
+            } else {
+                final String hash = hash(file);
+                if (hash.equals(entry.hash)) {
+                    entries.put(source.getKey(), new SourceEntry(hash, file.length(), file.lastModified(),
+                        entry.outputs));
+                    metadataChanged = true;
+                } else {
+                    toCompile.add(source.getKey());
+                }
+            }
+        }
+        final Set<String> removed = new HashSet<String>(previous.keySet());
+        removed.removeAll(sources.keySet());
+
+        if (toCompile.isEmpty() && removed.isEmpty()) {
+            if (log.isLoggable(Level.FINE)) {
+                log.log(Level.FINE, "Classes in {0} are up to date with sources in {1}", new Object[] {
+                    outputDirectory, sourceDirectory });
+            }
+            if (metadataChanged) {
+                writeManifest(optionsFingerprint, entries, previousGenerated);
+            }
+            return;
+        }
+
+        if (!previousGenerated.isEmpty()) {
+            // processors might generate anything from any source, so nothing generated before can be trusted
+            toCompile.addAll(sources.keySet());
+        } else if (!full) {
+            addDependents(sources, previous, toCompile, removed);
+        }
+
+        // outputs of recompiled and removed sources are removed, so no stale nested class survives
+        for (Map.Entry<String, SourceEntry> entry : previous.entrySet()) {
+            if (toCompile.contains(entry.getKey()) || removed.contains(entry.getKey())) {
+                deleteOutputs(entry.getValue().outputs);
+                entries.remove(entry.getKey());
+            }
+        }
+        deleteOutputs(previousGenerated);
+
+        if (log.isLoggable(Level.FINE)) {
+            log.log(Level.FINE, "Compiling {0} of {1} sources from {2} directory into {3}", new Object[] {
+                toCompile.size(), sources.size(), sourceDirectory, outputDirectory });
+        }
+
+        // compilation might fail half way, so the manifest is not valid until it is written again
+        deleteManifest();
+        final Set<String> generated = new TreeSet<String>();
+        if (!toCompile.isEmpty()) {
+            final Map<File, String> files = new HashMap<File, String>();
+            for (String source : toCompile) {
+                files.put(sources.get(source).getAbsoluteFile(), source);
+            }
+            final Map<String, List<String>> outputs = compile(files, classpathFingerprint, generated);
+            for (String source : toCompile) {
+                final File file = sources.get(source);
+                final List<String> sourceOutputs = outputs.get(source);
+                entries.put(source, new SourceEntry(hash(file), file.length(), file.lastModified(),
+                    sourceOutputs == null ? Collections.<String> emptyList() : sourceOutputs));
+            }
+        }
+        writeManifest(optionsFingerprint, entries, generated);
+    }
+
+    /**
+     * Adds to {@code toCompile} all sources mentioning a type declared by any of changed or removed source,
+     * transitively
+     */
+    private void addDependents(final Map<String, File> sources, final Map<String, SourceEntry> previous,
+        final Set<String> toCompile, final Set<String> removed) throws IOException {
+
+        final Set<String> typeNames = new HashSet<String>();
+        for (String source : toCompile) {
+            addTypeNames(source, previous.get(source), typeNames);
+        }
+        for (String source : removed) {
+            addTypeNames(source, previous.get(source), typeNames);
+        }
+
+        final Map<String, Set<String>> identifiers = new HashMap<String, Set<String>>();
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (Map.Entry<String, File> source : sources.entrySet()) {
+                if (toCompile.contains(source.getKey())) {
+                    continue;
+                }
+                Set<String> sourceIdentifiers = identifiers.get(source.getKey());
+                if (sourceIdentifiers == null) {
+                    sourceIdentifiers = getIdentifiers(source.getValue());
+                    identifiers.put(source.getKey(), sourceIdentifiers);
+                }
+                if (!Collections.disjoint(sourceIdentifiers, typeNames)) {
+                    toCompile.add(source.getKey());
+                    addTypeNames(source.getKey(), previous.get(source.getKey()), typeNames);
+                    added = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles {@code files}, returns class files written for each source; files written by annotation processors are
+     * added to {@code generated}
+     */
+    private Map<String, List<String>> compile(final Map<File, String> files, final String classpathFingerprint,
+        final Set<String> generated) throws IOException {
+
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Unable to create output directory " + outputDirectory);
+        }
+
+        final String fileManagerKey = charset + "|" + classpathFingerprint;
+        final StandardJavaFileManager standardFileManager = borrowFileManager(fileManagerKey);
+        boolean reusable = false;
+        try {
+            final Map<String, List<String>> outputs = compile(files, standardFileManager, generated);
+            reusable = true;
+            return outputs;
+        } finally {
+            if (reusable) {
+                releaseFileManager(fileManagerKey, standardFileManager);
+            } else {
+                closeQuietly(standardFileManager);
+            }
+        }
+    }
+
+    private Map<String, List<String>> compile(final Map<File, String> files,
+        final StandardJavaFileManager standardFileManager, final Set<String> generated) throws IOException {
+
+        final List<File> compilationClasspath = new ArrayList<File>(classpath.size() + 1);
+        // unchanged classes are taken from output of previous compilation
+        compilationClasspath.add(outputDirectory);
+        compilationClasspath.addAll(classpath);
+        standardFileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(outputDirectory));
+        standardFileManager.setLocation(StandardLocation.CLASS_PATH, compilationClasspath);
+        standardFileManager.setLocation(StandardLocation.SOURCE_PATH, Collections.<File> emptyList());
+
+        final Map<String, List<String>> outputs = new HashMap<String, List<String>>();
+        final JavaFileManager recordingFileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(
+            standardFileManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind,
+                FileObject sibling) throws IOException {
+                final JavaFileObject output = super.getJavaFileForOutput(location, className, kind, sibling);
+                final String source = kind == Kind.CLASS && sibling != null ? files.get(new File(sibling.toUri())
+                    .getAbsoluteFile()) : null;
+                if (source != null) {
+                    List<String> sourceOutputs = outputs.get(source);
+                    if (sourceOutputs == null) {
+                        sourceOutputs = new ArrayList<String>();
+                        outputs.put(source, sourceOutputs);
+                    }
+                    sourceOutputs.add(relativize(outputDirectory, new File(output.toUri())));
+                } else {
+                    // generated source or class file compiled from a generated source
+                    addGenerated(output, generated);
+                }
+                return output;
+            }
+
+            @Override
+            public FileObject getFileForOutput(Location location, String packageName, String relativeName,
+                FileObject sibling) throws IOException {
+                final FileObject output = super.getFileForOutput(location, packageName, relativeName, sibling);
+                addGenerated(output, generated);
+                return output;
+            }
+        };
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        final Iterable<? extends JavaFileObject> units = standardFileManager.getJavaFileObjectsFromFiles(files
+            .keySet());
+        final boolean success;
+        try {
+            success = compiler.getTask(null, recordingFileManager, diagnostics, options, null, units).call();
+        } catch (RuntimeException e) {
+            throw new IOException("Compiler failed with " + e.getMessage(), e);
+        }
+        if (!success) {
+            throw constructCompilationException(diagnostics);
+        }
+        return outputs;
+    }
+
+    /**
+     * Records a file written by an annotation processor, if it is stored in the output directory
+     */
+    private void addGenerated(final FileObject output, final Set<String> generated) {
+        final String path = relativize(outputDirectory, new File(output.toUri()));
+        if (!path.startsWith("../")) {
+            generated.add(path);
+        }
+    }
+
+    /**
+     * Takes an idle file manager for the same encoding and classpath or creates a new one; file managers are not thread
+     * safe, so each is used by a single compilation at a time
+     */
+    private StandardJavaFileManager borrowFileManager(final String key) {
+        final StandardJavaFileManager fileManager;
+        synchronized (IDLE_FILE_MANAGERS) {
+            fileManager = IDLE_FILE_MANAGERS.remove(key);
+        }
+        return fileManager != null ? fileManager : compiler.getStandardFileManager(null, null, charset);
+    }
+
+    /**
+     * Returns a file manager for reuse, closing the one it replaces and the least recently used ones beyond the limit
+     */
+    private static void releaseFileManager(final String key, final StandardJavaFileManager fileManager) {
+        final List<StandardJavaFileManager> unused = new ArrayList<StandardJavaFileManager>();
+        synchronized (IDLE_FILE_MANAGERS) {
+            final StandardJavaFileManager replaced = IDLE_FILE_MANAGERS.put(key, fileManager);
+            if (replaced != null) {
+                unused.add(replaced);
+            }
+            final Iterator<StandardJavaFileManager> leastRecentlyUsed = IDLE_FILE_MANAGERS.values().iterator();
+            while (IDLE_FILE_MANAGERS.size() > MAX_IDLE_FILE_MANAGERS) {
+                unused.add(leastRecentlyUsed.next());
+                leastRecentlyUsed.remove();
+            }
+        }
+        for (StandardJavaFileManager unusedFileManager : unused) {
+            closeQuietly(unusedFileManager);
+        }
+    }
+
+    private MavenImporterException constructCompilationException(
+        final DiagnosticCollector<JavaFileObject> diagnostics) {
+        final StringBuilder sb = new StringBuilder("Unable to compile sources at ");
+        sb.append(sourceDirectory.getPath());
+        sb.append(" due to following reason(s): ");
+
+        String delimiter = "";
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                sb.append(delimiter).append(diagnostic.toString());
+                delimiter = ", ";
+            }
+        }
+
+        log.log(Level.SEVERE, sb.toString());
+
+        return new MavenImporterException(sb.toString());
+    }
+
+    private static List<String> getOptions(final CompilerConfiguration configuration) {
+        final List<String> options = new ArrayList<String>();
+        if (!configuration.isShowWarnings()) {
+            options.add("-nowarn");
+        }
+        if (configuration.isDebug()) {
+            options.add("-g");
+        }
+        if (configuration.isVerbose()) {
+            options.add("-verbose");
+        }
+        if (!isNullOrEmpty(configuration.getSourceVersion())) {
+            options.add("-source");
+            options.add(configuration.getSourceVersion());
+        }
+        if (!isNullOrEmpty(configuration.getTargetVersion())) {
+            options.add("-target");
+            options.add(configuration.getTargetVersion());
+        }
+        for (Map.Entry<String, String> argument : configuration.getCustomCompilerArgumentsAsMap().entrySet()) {
+            if (isNullOrEmpty(argument.getKey())) {
+                continue;
+            }
+            options.add(argument.getKey());
+            if (!isNullOrEmpty(argument.getValue())) {
+                options.add(argument.getValue());
+            }
+        }
+        return options;
+    }
+
+    private String getClasspathFingerprint() {
+        final StringBuilder sb = new StringBuilder();
+        for (File entry : classpath) {
+            sb.append(entry.getAbsolutePath()).append(':').append(entry.length()).append(':')
+                .append(entry.lastModified()).append(File.pathSeparatorChar);
+        }
+        return sb.toString();
+    }
+
+    private boolean outputsExist(final Collection<String> outputs) {
+        for (String output : outputs) {
+            if (!new File(outputDirectory, output).isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void deleteOutputs(final Collection<String> outputs) {
+        for (String output : outputs) {
+            final File file = new File(outputDirectory, output);
+            if (file.exists() && !file.delete()) {
+                log.log(Level.WARNING, "Unable to delete stale output file {0}", file);
+            }
+        }
+    }
+
+    /**
+     * Reads the manifest into {@code entries} and {@code generated}, returns {@code false} if there is no manifest
+     * usable for incremental compilation
+     */
+    private boolean readManifest(final String optionsFingerprint, final Map<String, SourceEntry> entries,
+        final Set<String> generated) {
+        if (!manifestFile.isFile() || !outputDirectory.isDirectory()) {
+            return false;
+        }
+        final Properties properties = new Properties();
+        InputStream input = null;
+        try {
+            input = new FileInputStream(manifestFile);
+            properties.load(input);
+        } catch (IOException e) {
+            log.log(Level.FINE, "Unable to read compilation manifest " + manifestFile, e);
+            return false;
+        } finally {
+            closeQuietly(input);
+        }
+
+        // entries are read even if options changed, so class files of removed sources are deleted
+        boolean valid = optionsFingerprint.equals(properties.getProperty(OPTIONS_KEY));
+        final String generatedOutputs = properties.getProperty(GENERATED_KEY);
+        if (!isNullOrEmpty(generatedOutputs)) {
+            generated.addAll(Arrays.asList(generatedOutputs.split(",")));
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(SOURCE_KEY_PREFIX)) {
+                final SourceEntry entry = SourceEntry.parse(properties.getProperty(key));
+                if (entry == null) {
+                    valid = false;
+                } else {
+                    entries.put(key.substring(SOURCE_KEY_PREFIX.length()), entry);
+                }
+            }
+        }
+        return valid;
+    }
+
+    private void writeManifest(final String optionsFingerprint, final Map<String, SourceEntry> entries,
+        final Set<String> generated) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(OPTIONS_KEY, optionsFingerprint);
+        if (!generated.isEmpty()) {
+            final StringBuilder sb = new StringBuilder();
+            String delimiter = "";
+            for (String output : generated) {
+                sb.append(delimiter).append(output);
+                delimiter = ",";
+            }
+            properties.setProperty(GENERATED_KEY, sb.toString());
+        }
+        for (Map.Entry<String, SourceEntry> entry : entries.entrySet()) {
+            properties.setProperty(SOURCE_KEY_PREFIX + entry.getKey(), entry.getValue().toString());
+        }
+        final OutputStream output = new FileOutputStream(manifestFile);
+        try {
+            properties.store(output, "Sources compiled by ShrinkWrap Resolver MavenImporter");
+        } finally {
+            output.close();
+        }
+    }
+
+    private void deleteManifest() {
+        if (manifestFile.exists() && !manifestFile.delete()) {
+            log.log(Level.WARNING, "Unable to delete compilation manifest {0}", manifestFile);
+        }
+    }
+
+    private static void collectSources(final File directory, final String prefix, final Map<String, File> sources) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectSources(file, prefix + file.getName() + "/", sources);
+            } else if (file.getName().endsWith(JAVA_EXTENSION)) {
+                sources.put(prefix + file.getName(), file);
+            }
+        }
+    }
+
+    /**
+     * Adds simple names of types declared by the source, as recorded by its class files, and the name of the source
+     */
+    private static void addTypeNames(final String source, final SourceEntry entry, final Set<String> typeNames) {
+        final String fileName = source.substring(source.lastIndexOf('/') + 1);
+        typeNames.add(fileName.substring(0, fileName.length() - JAVA_EXTENSION.length()));
+        if (entry == null) {
+            return;
+        }
+        for (String output : entry.outputs) {
+            final String className = output.substring(output.lastIndexOf('/') + 1, output.length()
+                - CLASS_EXTENSION.length());
+            for (String name : className.split("\\$")) {
+                if (name.length() > 0 && !Character.isDigit(name.charAt(0))) {
+                    typeNames.add(name);
+                }
+            }
+        }
+    }
+
+    private Set<String> getIdentifiers(final File source) throws IOException {
+        final String content = new String(Files.readAllBytes(source.toPath()), charset == null ? Charset
+            .defaultCharset() : charset);
+        final Set<String> identifiers = new HashSet<String>();
+        final Matcher matcher = IDENTIFIER.matcher(content);
+        while (matcher.find()) {
+            identifiers.add(matcher.group());
+        }
+        return identifiers;
+    }
+
+    private static String hash(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 digest is not available", e);
+        }
+        final byte[] hash = digest.digest(Files.readAllBytes(file.toPath()));
+        final StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static String relativize(final File directory, final File file) {
+        final Path base = directory.toPath().toAbsolutePath().normalize();
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        return base.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private static boolean isNullOrEmpty(final String value) {
+        return value == null || value.length() == 0;
+    }
+
+    private static void closeQuietly(final InputStream input) {
+        if (input != null) {
+            try {
+                input.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static void closeQuietly(final JavaFileManager fileManager) {
+        try {
+            fileManager.close();
+        } catch (IOException e) {
+            log.log(Level.FINE, "Unable to close file manager", e);
+        }
+    }
+
+    /**
+     * Lock of an output directory
+     */
+    private static final class CompileLock {
+        // number of compilations holding or waiting for the lock, guarded by LOCKS
+        private int users;
+    }
+
+    /**
+     * State of a source at the time it was compiled
+     */
+    private static final class SourceEntry {
+        private final String hash;
+        private final long length;
+        private final long lastModified;
+        private final Collection<String> outputs;
+
+        private SourceEntry(final String hash, final long length, final long lastModified,
+            final Collection<String> outputs) {
+            this.hash = hash;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.outputs = outputs;
+        }
+
+        private static SourceEntry parse(final String value) {
+            final String[] fields = value.split(";", 4);
+            if (fields.length != 4) {
+                return null;
+            }
+            try {
+                final List<String> outputs = fields[3].length() == 0 ? Collections.<String> emptyList() : Arrays
+                    .asList(fields[3].split(","));
+                return new SourceEntry(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]), outputs);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder(hash).append(';').append(length).append(';')
+                .append(lastModified).append(';');
+            String delimiter = "";
+            for (String output : outputs) {
+                sb.append(delimiter).append(output);
+                delimiter = ",";
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -90,8 +90,8 @@ public class JarPackagingProcessor extends AbstractCompilingProcessor<JavaArchiv
         Manifest manifest = jarConfiguration.getArchiveConfiguration().asManifest();
         archive.setManifest(new ManifestAsset(manifest));
 
-        // construct new archive via applying includes/excludes
-        archive = ArchiveFilteringUtils.filterArchiveContent(archive, JavaArchive.class, jarConfiguration.getIncludes(),
+        // filter via includes/excludes
+        ArchiveFilteringUtils.filterArchiveContentInPlace(archive, jarConfiguration.getIncludes(),
             jarConfiguration.getExcludes());
 
         return this;
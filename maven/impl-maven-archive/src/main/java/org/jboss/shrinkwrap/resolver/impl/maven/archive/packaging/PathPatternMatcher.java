@@ -0,0 +1,288 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.regex.Pattern;
+
+import org.codehaus.plexus.util.SelectorUtils;
+
+/**
+ * Matches {@code /} separated relative paths against a set of Ant style patterns, the same way
+ * {@code SelectorUtils.matchPath(pattern, path, "/", true)} does for any of the patterns.
+ * <p>
+ * Patterns are compiled once into a trie of path segments. Literal segments are looked up by hash, segments with
+ * {@code *} and {@code ?} wildcards are matched with prefix and suffix fast paths and {@code **} consumes any number
+ * of segments. A path is matched in a single pass over its segments, regardless of number of patterns.
+ * {@code %regex[]} patterns are kept as compiled regular expressions.
+ */
+final class PathPatternMatcher {
+
+    private static final String SEPARATOR = "/";
+    private static final String DEEP_WILDCARD = "**";
+
+    private final Node root = new Node(false);
+    private final List<Pattern> regexPatterns = new ArrayList<Pattern>();
+    private boolean matchesAll;
+
+    private PathPatternMatcher() {
+    }
+
+    /**
+     * Compiles the patterns, {@code null} patterns are ignored
+     *
+     * @param patterns Ant style patterns
+     * @return the matcher
+     */
+    static PathPatternMatcher compile(final Collection<String> patterns) {
+        final PathPatternMatcher matcher = new PathPatternMatcher();
+        for (String pattern : patterns) {
+            if (pattern != null) {
+                matcher.add(pattern);
+            }
+        }
+        // e.g. **/** matches any path, so the segments do not need to be visited at all
+        final List<Node> initial = new ArrayList<Node>();
+        matcher.root.addWithClosure(initial);
+        for (Node node : initial) {
+            matcher.matchesAll |= node.deep && node.terminal;
+        }
+        return matcher;
+    }
+
+    /**
+     * Returns whether the path matches any of the patterns
+     *
+     * @param path relative {@code /} separated path
+     * @return {@code true} if the path matches
+     */
+    boolean matches(final String path) {
+        if (matchesAll) {
+            return true;
+        }
+        for (Pattern regex : regexPatterns) {
+            if (regex.matcher(path).matches()) {
+                return true;
+            }
+        }
+
+        List<Node> states = new ArrayList<Node>();
+        root.addWithClosure(states);
+
+        final int length = path.length();
+        int start = 0;
+        while (start <= length && !states.isEmpty()) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = length;
+            }
+            // empty segments are skipped, as tokenizing by SelectorUtils does
+            if (end > start) {
+                final String segment = path.substring(start, end);
+                final List<Node> next = new ArrayList<Node>(states.size() + 2);
+                for (Node state : states) {
+                    state.advance(segment, next);
+                }
+                states = next;
+            }
+            start = end + 1;
+        }
+
+        for (Node state : states) {
+            if (state.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(String pattern) {
+        if (isWrapped(pattern, SelectorUtils.REGEX_HANDLER_PREFIX)) {
+            regexPatterns.add(Pattern.compile(unwrap(pattern, SelectorUtils.REGEX_HANDLER_PREFIX)));
+            return;
+        }
+        if (isWrapped(pattern, SelectorUtils.ANT_HANDLER_PREFIX)) {
+            pattern = unwrap(pattern, SelectorUtils.ANT_HANDLER_PREFIX);
+        }
+        // matched paths are relative, which an absolute pattern never matches
+        if (pattern.startsWith(SEPARATOR)) {
+            return;
+        }
+
+        Node node = root;
+        final StringTokenizer tokenizer = new StringTokenizer(pattern, SEPARATOR);
+        while (tokenizer.hasMoreTokens()) {
+            node = node.child(tokenizer.nextToken());
+        }
+        node.terminal = true;
+    }
+
+    private static boolean isWrapped(final String pattern, final String prefix) {
+        return pattern.length() > prefix.length() + SelectorUtils.PATTERN_HANDLER_SUFFIX.length()
+            && pattern.startsWith(prefix) && pattern.endsWith(SelectorUtils.PATTERN_HANDLER_SUFFIX);
+    }
+
+    private static String unwrap(final String pattern, final String prefix) {
+        return pattern.substring(prefix.length(), pattern.length() - SelectorUtils.PATTERN_HANDLER_SUFFIX.length());
+    }
+
+    /**
+     * A segment of one or more patterns
+     */
+    private static final class Node {
+        // whether this node is ** and consumes any number of segments
+        private final boolean deep;
+        private boolean terminal;
+
+        private Map<String, Node> literals;
+        private Map<String, Node> wildcards;
+        private List<SegmentGlob> globs;
+        private Node deepChild;
+
+        private Node(final boolean deep) {
+            this.deep = deep;
+        }
+
+        private Node child(final String token) {
+            if (DEEP_WILDCARD.equals(token)) {
+                if (deepChild == null) {
+                    deepChild = new Node(true);
+                }
+                return deepChild;
+            }
+            if (token.indexOf('*') == -1 && token.indexOf('?') == -1) {
+                if (literals == null) {
+                    literals = new HashMap<String, Node>();
+                }
+                Node child = literals.get(token);
+                if (child == null) {
+                    child = new Node(false);
+                    literals.put(token, child);
+                }
+                return child;
+            }
+            if (wildcards == null) {
+                wildcards = new LinkedHashMap<String, Node>();
+                globs = new ArrayList<SegmentGlob>();
+            }
+            Node child = wildcards.get(token);
+            if (child == null) {
+                child = new Node(false);
+                wildcards.put(token, child);
+                globs.add(new SegmentGlob(token, child));
+            }
+            return child;
+        }
+
+        /**
+         * Adds states reached from this one by consuming the segment
+         */
+        private void advance(final String segment, final List<Node> next) {
+            if (deep) {
+                addWithClosure(next);
+            }
+            if (literals != null) {
+                final Node child = literals.get(segment);
+                if (child != null) {
+                    child.addWithClosure(next);
+                }
+            }
+            if (globs != null) {
+                for (SegmentGlob glob : globs) {
+                    if (glob.matches(segment)) {
+                        glob.node.addWithClosure(next);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds this state and states reachable without consuming a segment, that is through ** matching nothing
+         */
+        private void addWithClosure(final List<Node> states) {
+            if (states.contains(this)) {
+                return;
+            }
+            states.add(this);
+            if (deepChild != null) {
+                deepChild.addWithClosure(states);
+            }
+        }
+    }
+
+    /**
+     * A segment with {@code *} and {@code ?} wildcards
+     */
+    private static final class SegmentGlob {
+        private final String pattern;
+        private final Node node;
+
+        // a single * at either end of an otherwise literal pattern is matched by a prefix or suffix check
+        private final String prefix;
+        private final String suffix;
+
+        private SegmentGlob(final String pattern, final Node node) {
+            this.pattern = pattern;
+            this.node = node;
+            final int star = pattern.indexOf('*');
+            final boolean single = pattern.indexOf('?') == -1 && star == pattern.lastIndexOf('*');
+            this.prefix = single && star == pattern.length() - 1 ? pattern.substring(0, star) : null;
+            this.suffix = single && star == 0 ? pattern.substring(1) : null;
+        }
+
+        private boolean matches(final String segment) {
+            if (prefix != null) {
+                return segment.startsWith(prefix);
+            }
+            if (suffix != null) {
+                return segment.endsWith(suffix);
+            }
+            return matches(pattern, segment);
+        }
+
+        private static boolean matches(final String pattern, final String segment) {
+            int p = 0;
+            int s = 0;
+            int starP = -1;
+            int starS = 0;
+            while (s < segment.length()) {
+                if (p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == segment.charAt(s))) {
+                    p++;
+                    s++;
+                } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                    starP = p++;
+                    starS = s;
+                } else if (starP != -1) {
+                    p = starP + 1;
+                    s = ++starS;
+                } else {
+                    return false;
+                }
+            }
+            while (p < pattern.length() && pattern.charAt(p) == '*') {
+                p++;
+            }
+            return p == pattern.length();
+        }
+    }
+}
@@ -19,7 +19,6 @@ package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
 import java.util.jar.Manifest;
 
 import org.codehaus.plexus.util.DirectoryScanner;
@@ -119,28 +118,37 @@ public class WarPackagingProcessor extends AbstractCompilingProcessor<WebArchive
         archive.setManifest(new ManifestAsset(manifest));
 
         // filter via includes/excludes
-        archive = ArchiveFilteringUtils.filterArchiveContent(archive, WebArchive.class, warConfiguration.getIncludes(),
+        ArchiveFilteringUtils.filterArchiveContentInPlace(archive, warConfiguration.getIncludes(),
             warConfiguration.getExcludes());
 
         return this;
     }
 
     protected Filter<ArchivePath> createFilter(WarPluginConfiguration configuration) {
-        final List<String> filesToIncludes = Arrays.asList(getFilesToIncludes(configuration.getWarSourceDirectory(),
-            configuration.getIncludes(), configuration.getExcludes()));
+        return createFilter(getFilesToIncludes(configuration.getWarSourceDirectory(), configuration.getIncludes(),
+            configuration.getExcludes()));
+    }
+
+    /**
+     * Creates a filter accepting the files to include and all their parent directories
+     *
+     * @param filesToIncludes "/" prefixed paths of the files, the array is sorted in place
+     * @return the filter
+     */
+    static Filter<ArchivePath> createFilter(final String[] filesToIncludes) {
+        // a path is accepted if it is a prefix of an included file, e.g. the file itself or its parent directory;
+        // included files with the same prefix form a range of the sorted array, starting at the insertion point
+        Arrays.sort(filesToIncludes);
         return new Filter<ArchivePath>() {
             @Override
             public boolean include(ArchivePath archivePath) {
                 final String stringifiedPath = archivePath.get();
-                if (filesToIncludes.contains(stringifiedPath)) {
+                int index = Arrays.binarySearch(filesToIncludes, stringifiedPath);
+                if (index >= 0) {
                     return true;
                 }
-                for (String fileToInclude : filesToIncludes) {
-                    if (fileToInclude.startsWith(stringifiedPath)) {
-                        return true;
-                    }
-                }
-                return false;
+                index = -index - 1;
+                return index < filesToIncludes.length && filesToIncludes[index].startsWith(stringifiedPath);
             }
         };
     }
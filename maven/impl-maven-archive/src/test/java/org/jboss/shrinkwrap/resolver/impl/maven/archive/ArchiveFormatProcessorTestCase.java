@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.impl.maven.MavenFormatStageImpl;
+import org.jboss.shrinkwrap.resolver.spi.maven.archive.zip.ZipFileArchives;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that artifacts imported into archives concurrently keep their order and failures are reported, that
+ * archives are imported by default, and that lazy archives read their content from artifact files
+ */
+public class ArchiveFormatProcessorTestCase {
+
+    @Test
+    public void archivesKeepOrderOfArtifacts() {
+        final MavenFormatStage stage = Maven.resolver().loadPomFromFile("pom.xml")
+            .resolve("org.jboss.shrinkwrap:shrinkwrap-impl-base").withTransitivity();
+
+        final File[] files = stage.asFile();
+        final JavaArchive[] archives = stage.as(JavaArchive.class);
+
+        Assert.assertTrue("More than a single artifact was resolved", files.length > 1);
+        Assert.assertEquals(files.length, archives.length);
+        for (int i = 0; i < files.length; i++) {
+            Assert.assertEquals(files[i].getName(), archives[i].getName());
+        }
+    }
+
+    @Test
+    public void failuresAreAggregated() throws IOException {
+        final List<MavenResolvedArtifact> artifacts = new ArrayList<MavenResolvedArtifact>();
+        for (int i = 0; i < 3; i++) {
+            final File file = File.createTempFile("not-an-archive-" + i, ".jar");
+            file.deleteOnExit();
+            Files.write(file.toPath(), "not a zip file".getBytes("UTF-8"));
+            artifacts.add(artifact(file));
+        }
+
+        try {
+            new MavenFormatStageImpl(artifacts).as(JavaArchive.class);
+            Assert.fail("Invalid archives were imported");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("Failures of all the artifacts were reported", 2, e.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void archiveContentIsImportedByDefault() throws IOException {
+        final File file = createJar("imported-archive");
+
+        final JavaArchive archive = new ArchiveFormatProcessor<JavaArchive>().process(artifact(file),
+            JavaArchive.class);
+
+        Assert.assertEquals(file.getName(), archive.getName());
+        Assert.assertEquals("shrinkwrap", read(archive.get("META-INF/resource.txt").getAsset().openStream()));
+    }
+
+    @Test
+    public void lazyArchiveContentIsReadFromFile() throws IOException {
+        final File file = createJar("lazy-archive");
+
+        final JavaArchive archive = processLazily(file);
+
+        Assert.assertEquals(file.getName(), archive.getName());
+        Assert.assertTrue("Directory was imported", archive.contains("META-INF"));
+        Assert.assertEquals("shrinkwrap", read(archive.get("META-INF/resource.txt").getAsset().openStream()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void lazyArchiveFailsOnRebuiltFile() throws IOException {
+        final File file = createJar("rebuilt-archive");
+
+        final JavaArchive archive = processLazily(file);
+        Assert.assertEquals("shrinkwrap", read(archive.get("META-INF/resource.txt").getAsset().openStream()));
+
+        // the file is not held open by the archive, so it can be replaced, but the archive does not read it any more
+        rebuild(file);
+
+        archive.get("META-INF/resource.txt").getAsset().openStream();
+    }
+
+    private static JavaArchive processLazily(final File file) {
+        System.setProperty(ZipFileArchives.LAZY_KEY, "true");
+        try {
+            return new ArchiveFormatProcessor<JavaArchive>().process(artifact(file), JavaArchive.class);
+        } finally {
+            System.clearProperty(ZipFileArchives.LAZY_KEY);
+        }
+    }
+
+    private static void rebuild(final File file) {
+        ShrinkWrap.create(JavaArchive.class, file.getName())
+            .addAsManifestResource(new StringAsset("rebuilt, longer content"), "resource.txt")
+            .as(ZipExporter.class).exportTo(file, true);
+    }
+
+    private static File createJar(final String name) throws IOException {
+        final File file = File.createTempFile(name, ".jar");
+        file.deleteOnExit();
+        ShrinkWrap.create(JavaArchive.class, file.getName())
+            .addAsManifestResource(new StringAsset("shrinkwrap"), "resource.txt")
+            .as(ZipExporter.class).exportTo(file, true);
+        return file;
+    }
+
+    private static String read(final InputStream stream) {
+        final Scanner scanner = new Scanner(stream, "UTF-8").useDelimiter("\\A");
+        try {
+            return scanner.hasNext() ? scanner.next() : "";
+        } finally {
+            scanner.close();
+        }
+    }
+
+    private static MavenResolvedArtifact artifact(final File file) {
+        return (MavenResolvedArtifact) Proxy.newProxyInstance(ArchiveFormatProcessorTestCase.class.getClassLoader(),
+            new Class<?>[] { MavenResolvedArtifact.class }, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if ("asFile".equals(method.getName())) {
+                        return file;
+                    }
+                    if ("toString".equals(method.getName())) {
+                        return file.getName();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive.importer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.resolver.api.maven.archive.importer.MavenImporter;
+import org.jboss.shrinkwrap.resolver.impl.maven.archive.util.TestFileUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.jboss.shrinkwrap.resolver.impl.maven.archive.importer.ArchiveContentMatchers.contains;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Verifies that MavenImporter recompiles only changed sources and their dependents
+ */
+public class IncrementalCompilationTestCase {
+
+    private static final File PROJECT = new File("target/incremental-jar-sample");
+    private static final File JAR_CLASS_SOURCE = new File(PROJECT, "src/main/java/test/JarClass.java");
+    private static final File NESTED_CLASS_SOURCE = new File(PROJECT, "src/main/java/test/nested/NestedJarClass.java");
+    private static final File JAR_CLASS = new File(PROJECT, "target/classes/test/JarClass.class");
+    private static final File NESTED_CLASS = new File(PROJECT, "target/classes/test/nested/NestedJarClass.class");
+
+    // time class files are set to, so it is visible whether they were written again
+    private static final long MARK = 946684800000L;
+
+    @Before
+    public void copyProject() throws IOException {
+        TestFileUtil.removeDirectory(PROJECT);
+        copy("src/main/java/test/JarClass.java");
+        copy("src/main/java/test/nested/NestedJarClass.java");
+        // the sample relies on the default source level, which recent compilers do not support
+        Files.copy(new File("src/test/resources/poms/incremental-jar-sample.xml").toPath(), new File(PROJECT,
+            "pom.xml").toPath());
+    }
+
+    @Test
+    public void unchangedSourcesAreNotCompiled() {
+        doImport();
+        mark();
+
+        final Archive<?> archive = doImport();
+
+        assertThat(archive.getContent(), contains("test/JarClass.class"));
+        Assert.assertEquals("JarClass was not compiled again", MARK, JAR_CLASS.lastModified());
+        Assert.assertEquals("NestedJarClass was not compiled again", MARK, NESTED_CLASS.lastModified());
+    }
+
+    @Test
+    public void onlyChangedSourceIsCompiled() throws IOException {
+        doImport();
+        mark();
+
+        append(NESTED_CLASS_SOURCE, "// changed\n");
+        doImport();
+
+        Assert.assertEquals("JarClass was not compiled again", MARK, JAR_CLASS.lastModified());
+        Assert.assertNotEquals("NestedJarClass was compiled again", MARK, NESTED_CLASS.lastModified());
+    }
+
+    @Test
+    public void dependentsOfChangedSourceAreCompiled() throws IOException {
+        doImport();
+        mark();
+
+        append(JAR_CLASS_SOURCE, "// changed\n");
+        doImport();
+
+        Assert.assertNotEquals("JarClass was compiled again", MARK, JAR_CLASS.lastModified());
+        Assert.assertNotEquals("NestedJarClass extending JarClass was compiled again", MARK,
+            NESTED_CLASS.lastModified());
+    }
+
+    @Test
+    public void classesOfRemovedSourceAreDeleted() throws IOException {
+        doImport();
+
+        Files.delete(NESTED_CLASS_SOURCE.toPath());
+        final Archive<?> archive = doImport();
+
+        Assert.assertFalse("Class of removed source was deleted", NESTED_CLASS.exists());
+        assertThat(archive.getContent(), contains("test/JarClass.class"));
+    }
+
+    private static Archive<?> doImport() {
+        return ShrinkWrap.create(MavenImporter.class).loadPomFromFile(new File(PROJECT, "pom.xml"))
+            .importBuildOutput().as(JavaArchive.class);
+    }
+
+    private static void mark() {
+        Assert.assertTrue(JAR_CLASS.setLastModified(MARK));
+        Assert.assertTrue(NESTED_CLASS.setLastModified(MARK));
+    }
+
+    private static void copy(final String path) throws IOException {
+        final File target = new File(PROJECT, path);
+        target.getParentFile().mkdirs();
+        Files.copy(new File("src/it/jar-sample", path).toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void append(final File file, final String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes("UTF-8"), StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.codehaus.plexus.util.SelectorUtils;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that compiled patterns match the same paths as {@link SelectorUtils} does
+ */
+public class PathPatternMatcherTestCase {
+
+    private static final String[] PATTERNS = { "**/**", "**", "**/*.class", "WEB-INF/**", "WEB-INF/lib/*.jar",
+        "**/test/**", "*.properties", "META-INF/*", "META-INF/MANIFEST.MF", "**/a?c/**", "a*b*c/**", "**/*Test*.java",
+        "/absolute/**", "WEB-INF/**/*.xml", "**/**/x", "", "%regex[.*\\.txt]", "%ant[**/*.js]" };
+
+    private static final String[] PATHS = { "WEB-INF/web.xml", "WEB-INF/lib/library.jar", "WEB-INF/lib/nested/x.jar",
+        "WEB-INF/classes/org/example/Foo.class", "WEB-INF/classes/META-INF/beans.xml", "main.properties",
+        "META-INF/MANIFEST.MF", "META-INF/maven/pom.xml", "src/test/resources/a", "test", "x/abc/y", "x/abbc/y",
+        "aXbYc/file", "abc/file", "src/FooTestCase.java", "absolute/file", "readme.txt", "js/app.js", "x",
+        "deep/er/x", "WEB-INF" };
+
+    @Test
+    public void matchesSameAsSelectorUtils() {
+        for (String pattern : PATTERNS) {
+            final PathPatternMatcher matcher = PathPatternMatcher.compile(Collections.singletonList(pattern));
+            for (String path : PATHS) {
+                Assert.assertEquals("Pattern " + pattern + " on " + path,
+                    SelectorUtils.matchPath(pattern, path, "/", true), matcher.matches(path));
+            }
+        }
+    }
+
+    @Test
+    public void matchesAnyOfPatterns() {
+        final PathPatternMatcher matcher = PathPatternMatcher.compile(Arrays.asList("WEB-INF/lib/*.jar",
+            "**/*.class", "META-INF/*"));
+
+        Assert.assertTrue(matcher.matches("WEB-INF/lib/library.jar"));
+        Assert.assertTrue(matcher.matches("WEB-INF/classes/Foo.class"));
+        Assert.assertTrue(matcher.matches("META-INF/MANIFEST.MF"));
+        Assert.assertFalse(matcher.matches("WEB-INF/web.xml"));
+        Assert.assertFalse(PathPatternMatcher.compile(Collections.<String> emptyList()).matches("WEB-INF/web.xml"));
+    }
+
+    @Test
+    public void archiveIsFilteredInPlace() {
+        final WebArchive archive = ShrinkWrap.create(WebArchive.class, "filtered.war")
+            .addAsWebInfResource(EmptyAsset.INSTANCE, "web.xml")
+            .addAsWebInfResource(EmptyAsset.INSTANCE, "excluded/file.toExclude")
+            .addAsWebResource(EmptyAsset.INSTANCE, "index.html");
+
+        final WebArchive filtered = ArchiveFilteringUtils.filterArchiveContentInPlace(archive,
+            new String[] { "**/**" }, new String[] { "**/*.toExclude" });
+
+        Assert.assertSame(archive, filtered);
+        Assert.assertTrue(filtered.contains("WEB-INF/web.xml"));
+        Assert.assertTrue(filtered.contains("index.html"));
+        Assert.assertFalse("Excluded file was removed", filtered.contains("WEB-INF/excluded/file.toExclude"));
+        Assert.assertFalse("Directory left empty was removed", filtered.contains("WEB-INF/excluded"));
+    }
+
+    @Test
+    public void filteredCopyLeavesArchiveIntact() {
+        final WebArchive archive = ShrinkWrap.create(WebArchive.class, "filtered.war")
+            .addAsWebInfResource(EmptyAsset.INSTANCE, "web.xml")
+            .addAsWebInfResource(EmptyAsset.INSTANCE, "excluded/file.toExclude");
+
+        final WebArchive filtered = ArchiveFilteringUtils.filterArchiveContent(archive, WebArchive.class,
+            new String[] { "**/**" }, new String[] { "**/*.toExclude" });
+
+        Assert.assertNotSame(archive, filtered);
+        Assert.assertEquals(archive.getName(), filtered.getName());
+        Assert.assertTrue(filtered.contains("WEB-INF/web.xml"));
+        Assert.assertFalse(filtered.contains("WEB-INF/excluded/file.toExclude"));
+        Assert.assertTrue("Original archive was not modified", archive.contains("WEB-INF/excluded/file.toExclude"));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.archive.packaging;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that the filter of WAR source directory accepts the same paths as the list based filter it replaced, that
+ * is, every path which is a prefix of a file to include
+ */
+public class WarSourceFilterTestCase {
+
+    private static final String[] FILES = new String[] { "/index.html", "/foo-bar/x", "/foobar", "/foo/a/b/c.txt",
+        "/foo/a/d.txt", "/WEB-INF/web.xml", "/WEB-INF/lib/library.jar" };
+
+    private static final String[] PATHS = new String[] { "/", "/foo", "/foo/", "/foo/a", "/foo/a/", "/foo/a/b",
+        "/foo/a/b/c.txt", "/foo/a/b/c", "/foo/a/b/c.txt.bak", "/foo/a/d.txt", "/foo/a/e.txt", "/foo/b", "/foo-bar",
+        "/foo-bar/x", "/foo-bar/y", "/foob", "/foobar", "/foobarbaz", "/index.html", "/index", "/index.htm",
+        "/WEB-INF", "/WEB-INF/web.xml", "/WEB-INF/lib", "/WEB-INF/classes", "/a", "/zzz", "/~" };
+
+    @Test
+    public void sameAsListBasedFilter() {
+        final Filter<ArchivePath> filter = WarPackagingProcessor.createFilter(FILES.clone());
+        for (String path : PATHS) {
+            Assert.assertEquals("Path " + path, listBasedInclude(Arrays.asList(FILES), path),
+                filter.include(ArchivePaths.create(path)));
+        }
+    }
+
+    @Test
+    public void siblingPrefixes() {
+        final Filter<ArchivePath> filter = WarPackagingProcessor.createFilter(new String[] { "/foobar", "/foo-bar/x" });
+        // a path is accepted if it is a prefix of a file, not only its parent directory
+        Assert.assertTrue(filter.include(ArchivePaths.create("/foo")));
+        Assert.assertTrue(filter.include(ArchivePaths.create("/foo-bar")));
+        Assert.assertTrue(filter.include(ArchivePaths.create("/foo-bar/x")));
+        Assert.assertFalse(filter.include(ArchivePaths.create("/foo/")));
+        Assert.assertFalse(filter.include(ArchivePaths.create("/foo-bar/y")));
+        Assert.assertFalse(filter.include(ArchivePaths.create("/foobar/x")));
+    }
+
+    @Test
+    public void nestedDirectoriesAndExactFiles() {
+        final Filter<ArchivePath> filter = WarPackagingProcessor.createFilter(new String[] { "/foo/a/b/c.txt" });
+        Assert.assertTrue(filter.include(ArchivePaths.create("/foo")));
+        Assert.assertTrue(filter.include(ArchivePaths.create("/foo/a")));
+        Assert.assertTrue(filter.include(ArchivePaths.create("/foo/a/b")));
+        Assert.assertTrue(filter.include(ArchivePaths.create("/foo/a/b/c.txt")));
+        Assert.assertFalse(filter.include(ArchivePaths.create("/foo/a/b/c.txt.bak")));
+        Assert.assertFalse(filter.include(ArchivePaths.create("/foo/a/c")));
+    }
+
+    @Test
+    public void nothingIsAcceptedWithoutFiles() {
+        final Filter<ArchivePath> filter = WarPackagingProcessor.createFilter(new String[0]);
+        Assert.assertFalse(filter.include(ArchivePaths.create("/index.html")));
+    }
+
+    // the filter used before the sorted index was introduced
+    private static boolean listBasedInclude(final List<String> filesToIncludes, final String path) {
+        if (filesToIncludes.contains(path)) {
+            return true;
+        }
+        for (String fileToInclude : filesToIncludes) {
+            if (fileToInclude.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
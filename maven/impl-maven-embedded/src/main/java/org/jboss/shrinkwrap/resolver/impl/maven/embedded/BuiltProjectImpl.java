@@ -7,7 +7,6 @@ import java.util.Properties;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.model.Model;
 import org.jboss.shrinkwrap.api.Archive;
-import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.spec.EnterpriseArchive;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
@@ -16,6 +15,7 @@ import org.jboss.shrinkwrap.resolver.api.maven.embedded.BuiltProject;
 import org.jboss.shrinkwrap.resolver.api.maven.pom.ParsedPomFile;
 import org.jboss.shrinkwrap.resolver.impl.maven.MavenWorkingSessionImpl;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+import org.jboss.shrinkwrap.resolver.spi.maven.archive.zip.ZipFileArchives;
 
 /**
  * @author <a href="mailto:mjobanek@redhat.com">Matous Jobanek</a>
@@ -77,7 +77,7 @@ public class BuiltProjectImpl implements BuiltProject {
         if (packagingType != PackagingType.POM) {
             File zipFile = new File(buildDirectory + File.separator + finalName + "." + packaging);
 
-            return ShrinkWrap.createFromZipFile(getArchiveRepresentation(packagingType), zipFile);
+            return ZipFileArchives.createFromZipFile(getArchiveRepresentation(packagingType), zipFile);
         } else {
             return null;
         }
@@ -143,7 +143,7 @@ public class BuiltProjectImpl implements BuiltProject {
         for (File file : allFirstLevelFiles) {
             Class<? extends Archive> archiveType = getIfSupported(file);
             if (archiveType != null) {
-                archives.add(ShrinkWrap.createFromZipFile(archiveType, file));
+                archives.add(ZipFileArchives.createFromZipFile(archiveType, file));
             }
         }
         return archives;
@@ -178,7 +178,7 @@ public class BuiltProjectImpl implements BuiltProject {
         for (File file : allFirstLevelFiles) {
             Class<? extends Archive> archiveType = getIfSupported(file);
             if (archiveType != null && archiveType.isAssignableFrom(type)) {
-                archives.add(ShrinkWrap.createFromZipFile(type, file));
+                archives.add(ZipFileArchives.createFromZipFile(type, file));
             }
         }
         return archives;
@@ -97,6 +97,24 @@ public class ConfigurableMavenResolverSystemImpl
         return this;
     }
 
+    @Override
+    public ConfigurableMavenResolverSystem usePersistentResolutionCache(boolean usePersistentResolutionCache) {
+        getMavenWorkingSession().usePersistentResolutionCache(usePersistentResolutionCache);
+        return this;
+    }
+
+    @Override
+    public ConfigurableMavenResolverSystem clearPersistentResolutionCache() {
+        getMavenWorkingSession().clearPersistentResolutionCache();
+        return this;
+    }
+
+    @Override
+    public ConfigurableMavenResolverSystem useParallelDependencyCollection(boolean useParallelDependencyCollection) {
+        getMavenWorkingSession().useParallelDependencyCollection(useParallelDependencyCollection);
+        return this;
+    }
+
     @Override
     public MavenWorkingSession getMavenWorkingSession() {
         return super.getSession();
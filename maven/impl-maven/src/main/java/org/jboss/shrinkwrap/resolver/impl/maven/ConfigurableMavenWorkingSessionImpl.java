@@ -25,6 +25,7 @@ import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.jboss.shrinkwrap.resolver.api.InvalidConfigurationFileException;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenWorkingSession;
 import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenRepositorySystem;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.ParallelDependencyCollector;
 
 /**
  * Configurable implementation of a {@link MavenWorkingSession}, encapsulating Maven/Aether backend.
@@ -53,6 +54,8 @@ public abstract class ConfigurableMavenWorkingSessionImpl implements MavenWorkin
     private boolean useLegacyLocalRepository = false;
     private final MavenRepositorySystem system;
     private boolean disableClassPathWorkspaceReader = false;
+    private Boolean usePersistentResolutionCache;
+    private Boolean useParallelDependencyCollection;
 
     public ConfigurableMavenWorkingSessionImpl() {
         this.system = new MavenRepositorySystem();
@@ -98,6 +101,27 @@ public abstract class ConfigurableMavenWorkingSessionImpl implements MavenWorkin
         this.useLegacyLocalRepository = useLegacyLocalRepository;
     }
 
+    @Override
+    public void usePersistentResolutionCache(boolean usePersistentResolutionCache) {
+        if (log.isLoggable(Level.FINEST)) {
+            log.finest("Set persistent resolution cache programatically to: " + usePersistentResolutionCache);
+        }
+        this.usePersistentResolutionCache = usePersistentResolutionCache;
+    }
+
+    @Override
+    public void clearPersistentResolutionCache() {
+        PersistentResolutionCache.getInstance().clear();
+    }
+
+    @Override
+    public void useParallelDependencyCollection(boolean useParallelDependencyCollection) {
+        if (log.isLoggable(Level.FINEST)) {
+            log.finest("Set parallel dependency collection programatically to: " + useParallelDependencyCollection);
+        }
+        this.useParallelDependencyCollection = useParallelDependencyCollection;
+    }
+
     /**
      * Returns an instance of the {@link DefaultRepositorySystemSession} that is generated if hasn't been yet.
      *
@@ -130,6 +154,30 @@ public abstract class ConfigurableMavenWorkingSessionImpl implements MavenWorkin
         return this.settingsManager.isOffline();
     }
 
+    /**
+     * Returns whether results of resolution should be stored in and loaded from {@link PersistentResolutionCache}
+     *
+     * @return whether to use persistent resolution cache, the value set via API takes precedence over system property
+     */
+    protected boolean isPersistentResolutionCacheEnabled() {
+        if (this.usePersistentResolutionCache != null) {
+            return this.usePersistentResolutionCache;
+        }
+        return PersistentResolutionCache.isEnabledByDefault();
+    }
+
+    /**
+     * Returns whether artifact descriptors should be read concurrently while collecting dependencies
+     *
+     * @return whether to collect dependencies in parallel, the value set via API takes precedence over system property
+     */
+    protected boolean isParallelDependencyCollectionEnabled() {
+        if (this.useParallelDependencyCollection != null) {
+            return this.useParallelDependencyCollection;
+        }
+        return ParallelDependencyCollector.isEnabledByDefault();
+    }
+
     /**
      * Returns an instance of the {@link MavenRepositorySystem}.
      *
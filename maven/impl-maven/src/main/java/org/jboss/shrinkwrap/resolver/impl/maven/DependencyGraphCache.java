@@ -0,0 +1,386 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.AuthenticationContext;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.version.VersionConstraint;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencyExclusion;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.RejectDependenciesFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.ScopeFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.TransitiveExclusionPolicy;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
+
+/**
+ * An opt-in, JVM wide cache of resolved dependency graphs. Each entry holds the {@link ArtifactResult}s (and thus the
+ * collected {@link org.eclipse.aether.graph.DependencyNode}s they reference) of a single resolution request, keyed by a
+ * canonical fingerprint of everything the result depends on.
+ * <p>
+ * The cache is disabled by default and it is enabled by {@link #ENABLED_KEY} system property. It is bounded by
+ * {@link #SIZE_KEY} entries and evicts the least recently used entry first. Entries which contain a SNAPSHOT artifact
+ * expire after {@link #SNAPSHOT_TTL_KEY} milliseconds, entries which reference a file which no longer exists are
+ * discarded on lookup. Results of requests involving a version range or a {@code LATEST} or {@code RELEASE}
+ * metaversion, directly or transitively, are not cached at all, as they change whenever a new version is published.
+ */
+public final class DependencyGraphCache {
+    private static final Logger log = Logger.getLogger(DependencyGraphCache.class.getName());
+
+    /**
+     * Enables the cache if set to {@code true}
+     */
+    public static final String ENABLED_KEY = "org.jboss.shrinkwrap.resolver.graph-cache";
+
+    /**
+     * Sets maximal number of cached resolution results
+     */
+    public static final String SIZE_KEY = "org.jboss.shrinkwrap.resolver.graph-cache.size";
+
+    /**
+     * Sets time in milliseconds after which results containing SNAPSHOT artifacts are resolved again
+     */
+    public static final String SNAPSHOT_TTL_KEY = "org.jboss.shrinkwrap.resolver.graph-cache.snapshot-ttl";
+
+    private static final int DEFAULT_SIZE = 256;
+
+    private static final long DEFAULT_SNAPSHOT_TTL = 60 * 1000L;
+
+    private static final String LATEST = "LATEST";
+    private static final String RELEASE = "RELEASE";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final DependencyGraphCache INSTANCE = new DependencyGraphCache(ResolverRuntime.getLongProperty(
+            SIZE_KEY, DEFAULT_SIZE));
+
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static final class Entry {
+        private final List<ArtifactResult> results;
+        private final long created;
+        private final boolean snapshot;
+
+        private Entry(final List<ArtifactResult> results, final long created, final boolean snapshot) {
+            this.results = results;
+            this.created = created;
+            this.snapshot = snapshot;
+        }
+    }
+
+    DependencyGraphCache(final long maxSize) {
+        final int size = (int) Math.max(1L, Math.min(maxSize, Integer.MAX_VALUE));
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all sessions within this class loader
+     *
+     * @return the cache
+     */
+    public static DependencyGraphCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether the cache is enabled by {@link #ENABLED_KEY} system property
+     *
+     * @return whether the cache is enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(SecurityActions.getProperty(ENABLED_KEY));
+    }
+
+    /**
+     * Returns number of requests which were served from the cache
+     *
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns number of requests which were not found in the cache
+     *
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns number of entries currently stored
+     *
+     * @return number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all the entries and resets the counters
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Returns the results stored for given key, or {@code null} if there are none or they are no longer valid
+     *
+     * @param key the fingerprint of the request, might be {@code null} if the request is not cacheable
+     * @return the cached results or {@code null}
+     */
+    Collection<ArtifactResult> get(final String key) {
+        if (key == null) {
+            return null;
+        }
+
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null || !isValid(entry)) {
+            if (entry != null) {
+                synchronized (entries) {
+                    entries.remove(key);
+                }
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        if (log.isLoggable(Level.FINER)) {
+            log.finer("Reusing cached resolution result of " + entry.results.size() + " artifacts");
+        }
+        return new ArrayList<ArtifactResult>(entry.results);
+    }
+
+    /**
+     * Stores the results for given key, unless a version range or a metaversion was resolved to get them
+     *
+     * @param key the fingerprint of the request, might be {@code null} if the request is not cacheable
+     * @param results the results
+     */
+    void put(final String key, final Collection<ArtifactResult> results) {
+        if (key == null || hasFloatingVersion(results)) {
+            return;
+        }
+
+        boolean snapshot = false;
+        for (ArtifactResult result : results) {
+            final Artifact artifact = result.getArtifact();
+            if (artifact != null && artifact.isSnapshot()) {
+                snapshot = true;
+                break;
+            }
+        }
+
+        final Entry entry = new Entry(Collections.unmodifiableList(new ArrayList<ArtifactResult>(results)),
+                System.currentTimeMillis(), snapshot);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private boolean isValid(final Entry entry) {
+        if (entry.snapshot && System.currentTimeMillis() - entry.created > ResolverRuntime.getLongProperty(
+                SNAPSHOT_TTL_KEY, DEFAULT_SNAPSHOT_TTL)) {
+            return false;
+        }
+        for (ArtifactResult result : entry.results) {
+            final Artifact artifact = result.getArtifact();
+            final File file = artifact == null ? null : artifact.getFile();
+            if (file == null || !file.exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a canonical fingerprint of a resolution request. Repositories are described including the repositories
+     * they mirror and a digest of their credentials, so the fingerprint never contains a password.
+     *
+     * @return the fingerprint, or {@code null} if the request contains a filter this cache is not able to describe or
+     *         a version range or metaversion
+     */
+    static String fingerprint(final List<MavenDependency> dependencies,
+            final Collection<MavenDependency> dependencyManagement, final List<RemoteRepository> repositories,
+            final MavenResolutionStrategy strategy, final RepositorySystemSession session) {
+
+        final StringBuilder sb = new StringBuilder(512);
+
+        // environment
+        sb.append("local=").append(session.getLocalRepository().getBasedir().getAbsolutePath())
+                .append(";offline=").append(session.isOffline())
+                .append(";workspace=").append(session.getWorkspaceReader() == null ? "" : session.getWorkspaceReader()
+                        .getRepository().getId());
+
+        sb.append(";deps=");
+        for (MavenDependency dependency : dependencies) {
+            if (isFloatingVersion(dependency.getVersion())) {
+                return null;
+            }
+            appendDependency(sb, dependency);
+        }
+        sb.append(";depMgmt=");
+        for (MavenDependency dependency : dependencyManagement) {
+            if (isFloatingVersion(dependency.getVersion())) {
+                return null;
+            }
+            appendDependency(sb, dependency);
+        }
+        sb.append(";repos=");
+        for (RemoteRepository repository : repositories) {
+            appendRepository(sb, session, repository);
+        }
+
+        final TransitiveExclusionPolicy policy = strategy.getTransitiveExclusionPolicy();
+        sb.append(";optional=").append(policy.allowOptional()).append(";scopes=");
+        for (ScopeType scope : policy.getFilteredScopes()) {
+            sb.append(scope).append(',');
+        }
+
+        sb.append(";filters=");
+        for (MavenResolutionFilter filter : strategy.getResolutionFilters()) {
+            if (filter instanceof Enum) {
+                final Enum<?> constant = (Enum<?>) filter;
+                sb.append(constant.getDeclaringClass().getName()).append('.').append(constant.name());
+            } else if (filter.getClass() == ScopeFilter.class || filter.getClass() == RejectDependenciesFilter.class) {
+                sb.append(filter);
+            } else {
+                // state of a custom filter, including a subclass of a known one, is unknown
+                return null;
+            }
+            sb.append(',');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns whether any of the results was resolved from a version range or a metaversion, e.g. declared by a
+     * transitive dependency
+     *
+     * @param results the results
+     * @return whether the results might change once a new version is published
+     */
+    static boolean hasFloatingVersion(final Collection<ArtifactResult> results) {
+        for (ArtifactResult result : results) {
+            final DependencyNode node = result.getRequest() == null ? null : result.getRequest().getDependencyNode();
+            final VersionConstraint constraint = node == null ? null : node.getVersionConstraint();
+            if (constraint != null && (constraint.getRange() != null || (constraint.getVersion() != null
+                && isFloatingVersion(constraint.getVersion().toString())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFloatingVersion(final String version) {
+        return version != null && (version.startsWith("[") || version.startsWith("(") || LATEST.equals(version)
+            || RELEASE.equals(version));
+    }
+
+    private static void appendRepository(final StringBuilder sb, final RepositorySystemSession session,
+            final RemoteRepository repository) {
+        sb.append(repository.getId()).append('@').append(repository.getUrl());
+        for (RemoteRepository mirrored : repository.getMirroredRepositories()) {
+            sb.append("/mirrorOf=").append(mirrored.getId()).append('@').append(mirrored.getUrl());
+        }
+        final AuthenticationContext authentication = AuthenticationContext.forRepository(session, repository);
+        if (authentication != null) {
+            try {
+                sb.append("/auth=").append(sha256(authentication.get(AuthenticationContext.USERNAME) + '\u0000'
+                        + authentication.get(AuthenticationContext.PASSWORD) + '\u0000'
+                        + authentication.get(AuthenticationContext.PRIVATE_KEY_PATH) + '\u0000'
+                        + authentication.get(AuthenticationContext.PRIVATE_KEY_PASSPHRASE)));
+            } finally {
+                authentication.close();
+            }
+        }
+        sb.append(',');
+    }
+
+    private static String sha256(final String value) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not available", e);
+        }
+        final byte[] hash = digest.digest(value.getBytes(UTF_8));
+        final StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void appendDependency(final StringBuilder sb, final MavenDependency dependency) {
+        sb.append(dependency.toCanonicalForm()).append('/').append(dependency.getScope()).append('/')
+                .append(dependency.isOptional());
+        final List<String> exclusions = new ArrayList<String>(dependency.getExclusions().size());
+        for (MavenDependencyExclusion exclusion : dependency.getExclusions()) {
+            exclusions.add(exclusion.getGroupId() + ":" + exclusion.getArtifactId());
+        }
+        Collections.sort(exclusions);
+        for (String exclusion : exclusions) {
+            sb.append("/-").append(exclusion);
+        }
+        sb.append(',');
+    }
+}
@@ -20,20 +20,31 @@ import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Array;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.jboss.shrinkwrap.resolver.api.NoResolvedResultException;
 import org.jboss.shrinkwrap.resolver.api.NonUniqueResultException;
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+import org.jboss.shrinkwrap.resolver.spi.format.ConcurrentFormatProcessor;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessors;
 
 /**
- * Implementation of {@link MavenFormatStage}
+ * Implementation of {@link MavenFormatStage}. Artifacts are processed by a {@link ConcurrentFormatProcessor}, e.g.
+ * imported into ShrinkWrap archives, concurrently on the {@link ResolverRuntime#getPool() shared pool}; results keep
+ * order of the artifacts.
  *
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  */
@@ -87,6 +98,15 @@ public class MavenFormatStageImpl implements MavenFormatStage {
         @SuppressWarnings("unchecked")
         final RETURNTYPE[] array = (RETURNTYPE[]) Array.newInstance(returnTypeClass, artifacts.size());
 
+        if (processor instanceof ConcurrentFormatProcessor && artifacts.size() > 1) {
+            final ForkJoinPool pool = ResolverRuntime.getPool();
+            // a processor might format artifacts itself, which must not wait for the pool it is running in
+            if (pool.getParallelism() > 1 && !ResolverRuntime.isPoolThread()) {
+                processConcurrently(pool, processor, returnTypeClass, array);
+                return array;
+            }
+        }
+
         int i = 0;
         for (final MavenResolvedArtifact artifact : artifacts) {
             array[i++] = processor.process(artifact, returnTypeClass);
@@ -94,6 +114,70 @@ public class MavenFormatStageImpl implements MavenFormatStage {
         return array;
     }
 
+    /**
+     * Processes all the artifacts on the pool, storing results in order of the artifacts. If processing of several
+     * artifacts fails, the first failure is thrown and the others are added to it as suppressed exceptions.
+     */
+    private <RETURNTYPE> void processConcurrently(final ForkJoinPool pool,
+        final FormatProcessor<? super MavenResolvedArtifact, RETURNTYPE> processor,
+        final Class<RETURNTYPE> returnTypeClass, final RETURNTYPE[] array) {
+
+        // processors might load services, e.g. ShrinkWrap archive implementations, via context class loader
+        final ClassLoader classLoader = SecurityActions.getThreadContextClassLoader();
+
+        final List<Future<RETURNTYPE>> tasks = new ArrayList<Future<RETURNTYPE>>(artifacts.size());
+        for (final MavenResolvedArtifact artifact : artifacts) {
+            final FutureTask<RETURNTYPE> task = new FutureTask<RETURNTYPE>(new Callable<RETURNTYPE>() {
+                @Override
+                public RETURNTYPE call() {
+                    final Thread thread = Thread.currentThread();
+                    final ClassLoader previous = thread.getContextClassLoader();
+                    thread.setContextClassLoader(classLoader);
+                    try {
+                        return processor.process(artifact, returnTypeClass);
+                    } finally {
+                        thread.setContextClassLoader(previous);
+                    }
+                }
+            });
+            pool.execute(task);
+            tasks.add(task);
+        }
+
+        RuntimeException failure = null;
+        int i = 0;
+        for (final Future<RETURNTYPE> task : tasks) {
+            try {
+                array[i++] = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (final Future<RETURNTYPE> remaining : tasks) {
+                    remaining.cancel(false);
+                }
+                failure = aggregate(failure, new ResolutionException("Interrupted while formatting artifacts", e));
+                break;
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                failure = aggregate(failure, cause instanceof RuntimeException ? (RuntimeException) cause
+                    : new ResolutionException("Unable to format artifact", cause));
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException aggregate(final RuntimeException failure, final RuntimeException next) {
+        if (failure == null) {
+            return next;
+        }
+        failure.addSuppressed(next);
+        return failure;
+    }
+
     @Override
     public <RETURNTYPE> List<RETURNTYPE> asList(Class<RETURNTYPE> returnTypeClass) throws IllegalArgumentException, UnsupportedOperationException {
         return Arrays.asList(as(returnTypeClass));
@@ -16,17 +16,28 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven;
 
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -38,7 +49,6 @@ import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
 import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
-import org.jboss.shrinkwrap.resolver.impl.maven.util.IOUtil;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
 import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessors;
@@ -53,18 +63,39 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
 
     private static final Logger log = Logger.getLogger(MavenResolvedArtifactImpl.class.getName());
 
-    private final File file;
+    /**
+     * Output directory of a module of the project being built, {@code null} for any other artifact
+     */
+    private final File directory;
+
+    /**
+     * The file, packaged from {@link #directory} on first request if there is one
+     */
+    private volatile File file;
 
     private MavenResolvedArtifactImpl(MavenCoordinate mavenCoordinate, String resolvedVersion, boolean snapshotVersion,
-            String extension, File file, ScopeType scopeType, MavenArtifactInfo[] dependencies) {
-        super(mavenCoordinate, resolvedVersion, snapshotVersion, extension, scopeType, dependencies, false);
+            String extension, File file, ScopeType scopeType, MavenArtifactInfo[] dependencies, boolean optional) {
+        super(mavenCoordinate, resolvedVersion, snapshotVersion, extension, scopeType, dependencies, optional);
+        this.directory = null;
         this.file = file;
     }
 
     private MavenResolvedArtifactImpl(final Artifact artifact, final ScopeType scopeType,
             final List<DependencyNode> children, boolean optional) {
         super(artifact, scopeType, children, optional);
-        this.file = artifactToFile(artifact);
+        this.directory = artifactToDirectory(artifact);
+        this.file = directory == null ? artifact.getFile() : null;
+    }
+
+    /**
+     * Creates MavenResolvedArtifact from a state previously stored by {@link PersistentResolutionCache}. The file is
+     * used as is, no packaging is done.
+     */
+    static MavenResolvedArtifact fromPersistedState(MavenCoordinate mavenCoordinate, String resolvedVersion,
+            boolean snapshotVersion, String extension, File file, ScopeType scopeType, MavenArtifactInfo[] dependencies,
+            boolean optional) {
+        return new MavenResolvedArtifactImpl(mavenCoordinate, resolvedVersion, snapshotVersion, extension, file,
+                scopeType, dependencies, optional);
     }
 
     /**
@@ -104,9 +135,29 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
         return processor.process(this, returnType);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The output directory of a module is packaged on the first call only, the archive is then reused by further calls.
+     */
     @Override
-    public File asFile() {
-        return file;
+    public File asFile() throws IllegalArgumentException {
+        File packaged = file;
+        if (packaged == null) {
+            synchronized (this) {
+                packaged = file;
+                if (packaged == null) {
+                    packaged = packageDirectory();
+                    file = packaged;
+                }
+            }
+        }
+        return packaged;
+    }
+
+    @Override
+    public File asDirectory() {
+        return directory;
     }
 
     @Override
@@ -127,9 +178,12 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
     }
 
     /**
-     * Maps an artifact to a file. This allows ShrinkWrap Maven resolver to package reactor related dependencies.
+     * Maps an artifact resolved to a module of the project being built to its output directory. This allows ShrinkWrap
+     * Maven resolver to package reactor related dependencies.
+     *
+     * @return the directory or {@code null} if the artifact is not a module of the project being built
      */
-    private static File artifactToFile(final Artifact artifact) throws IllegalArgumentException {
+    private static File artifactToDirectory(final Artifact artifact) throws IllegalArgumentException {
         if (artifact == null) {
             throw new IllegalArgumentException("ArtifactResult must not be null");
         }
@@ -138,7 +192,6 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
         if ("pom.xml".equals(artifact.getFile().getName())) {
 
             String artifactId = artifact.getArtifactId();
-            String extension = artifact.getExtension();
             String classifier = artifact.getClassifier();
 
             File root = new File(artifact.getFile().getParentFile(), "target/classes");
@@ -150,18 +203,18 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
                 root = new File(artifact.getFile().getParentFile(), "target/" + artifactId + "-" + artifact.getVersion());
             }
 
-            try {
-                File archive = File.createTempFile(artifactId + "-", "." + extension);
-                archive.deleteOnExit();
-                PackageDirHelper.packageDirectories(archive, root);
-                return archive;
-            } catch (IOException e) {
-                throw new IllegalArgumentException("Unable to get artifact " + artifactId + " from the classpath", e);
-
-            }
-
+            return root;
         } else {
-            return artifact.getFile();
+            return null;
+        }
+    }
+
+    private File packageDirectory() throws IllegalArgumentException {
+        final String artifactId = mavenCoordinate.getArtifactId();
+        try {
+            return PackagedModuleCache.getArchive(artifactId, extension, directory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to get artifact " + artifactId + " from the classpath", e);
         }
     }
 
@@ -172,6 +225,14 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
      */
     static class PackageDirHelper {
 
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        /**
+         * Extensions of files which would not get any smaller by compression
+         */
+        private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<String>(Arrays.asList("jar", "war", "ear",
+            "rar", "zip", "gz", "tgz", "bz2", "xz", "7z", "png", "jpg", "jpeg", "gif", "ico", "woff", "woff2"));
+
         private PackageDirHelper() {
             throw new UnsupportedOperationException("No instances should be created; stateless class");
         }
@@ -188,56 +249,106 @@ public class MavenResolvedArtifactImpl extends MavenArtifactInfoImpl implements
             }
         }
 
-        static void packageDirectories(final File outputFile, final File... directories) throws IOException {
-
-            Validate.notNullAndNoNullValues(directories, "Directories to be packaged must be specified");
-
-            final ZipOutputStream zipFile = new ZipOutputStream(new FileOutputStream(outputFile));
-
-            for (File directory : directories) {
-                for (String entry : fileListing(directory)) {
+        /**
+         * Lists all files within directory, the directory itself is not included. Symbolic links are followed.
+         *
+         * @param directory the directory
+         * @param entries list where the files are added to
+         * @throws IOException if the directory could not be traversed
+         */
+        static void listFiles(final File directory, final List<DirectoryEntry> entries) throws IOException {
+            if (!directory.isDirectory()) {
+                return;
+            }
+            final Path root = directory.toPath();
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        // do not add zip entries for directories
+                        if (attrs.isRegularFile()) {
+                            // SHRINKRES-94 replacing all OS dependent separators with jar independent separator
+                            entries.add(new DirectoryEntry(root.relativize(file).toString().replace(File.separatorChar,
+                                '/'), file, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
 
-                    FileInputStream fis = null;
-                    try {
-                        File fileEntry = new File(directory, entry);
-                        //Do not add zip entries for directories
-                        if (fileEntry.isFile()) {
-                            fis = new FileInputStream(fileEntry);
-                            zipFile.putNextEntry(new ZipEntry(entry));
-                            IOUtil.copy(fis, zipFile);
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                        // a link pointing to its own parent would be followed forever
+                        if (e instanceof FileSystemLoopException) {
+                            return FileVisitResult.CONTINUE;
                         }
+                        throw e;
+                    }
+                });
+        }
 
-                    } finally {
-                        safelyClose(fis);
+        /**
+         * Writes files into a ZIP archive. Files which are already compressed are stored as they are.
+         *
+         * @param outputFile the archive
+         * @param entries the files
+         * @throws IOException if the archive could not be written
+         */
+        static void packageEntries(final File outputFile, final List<DirectoryEntry> entries) throws IOException {
+            final ZipOutputStream zipFile = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(
+                outputFile), BUFFER_SIZE));
+            try {
+                for (DirectoryEntry entry : entries) {
+                    final ZipEntry zipEntry = new ZipEntry(entry.name);
+                    zipEntry.setTime(entry.lastModified);
+                    if (isCompressed(entry.name)) {
+                        zipEntry.setMethod(ZipEntry.STORED);
+                        zipEntry.setSize(entry.size);
+                        zipEntry.setCompressedSize(entry.size);
+                        zipEntry.setCrc(crc(entry.path));
                     }
+                    zipFile.putNextEntry(zipEntry);
+                    Files.copy(entry.path, zipFile);
+                    zipFile.closeEntry();
                 }
+            } finally {
+                safelyClose(zipFile);
             }
-            safelyClose(zipFile);
         }
 
-        private static List<String> fileListing(final File directory) {
-            final List<String> list = new ArrayList<String>();
-            generateFileList(list, directory, directory);
-            return list;
+        private static boolean isCompressed(final String name) {
+            final int dot = name.lastIndexOf('.');
+            return dot != -1 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
         }
 
-        private static void generateFileList(final List<String> list, final File root, final File file) {
-            if (file.isFile()) {
-                // SHRINKRES-94 replacing all OS dependent separators with jar independent separator
-                list.add(getEntryPath(root, file));
-            } else if (file.isDirectory()) {
-                if (!file.equals(root)) {
-                    list.add(getEntryPath(root, file) + File.separatorChar);
-                }
-                for (File next : file.listFiles()) {
-                    generateFileList(list, root, next);
+        private static long crc(final Path path) throws IOException {
+            final CRC32 crc = new CRC32();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            final InputStream in = Files.newInputStream(path);
+            try {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
                 }
+            } finally {
+                safelyClose(in);
             }
+            return crc.getValue();
         }
+    }
 
-        private static String getEntryPath(final File root, final File file) {
-            return file.getAbsolutePath().substring(root.getAbsolutePath().length() + 1)
-                .replace(File.separatorChar, '/');
+    /**
+     * A regular file found within a directory to be packaged
+     */
+    static final class DirectoryEntry {
+        final String name;
+        final Path path;
+        final long size;
+        final long lastModified;
+
+        DirectoryEntry(final String name, final Path path, final long size, final long lastModified) {
+            this.name = name;
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
         }
     }
 }
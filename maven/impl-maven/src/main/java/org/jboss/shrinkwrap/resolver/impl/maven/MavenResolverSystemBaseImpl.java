@@ -17,13 +17,19 @@
 package org.jboss.shrinkwrap.resolver.impl.maven;
 
 import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.resolver.api.CoordinateParseException;
 import org.jboss.shrinkwrap.resolver.api.InvalidConfigurationFileException;
 import org.jboss.shrinkwrap.resolver.api.ResolutionException;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystem;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystemBase;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenStrategyStageBase;
@@ -31,7 +37,11 @@ import org.jboss.shrinkwrap.resolver.api.maven.MavenVersionRangeResult;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenWorkingSession;
 import org.jboss.shrinkwrap.resolver.api.maven.PomEquippedResolveStageBase;
 import org.jboss.shrinkwrap.resolver.api.maven.PomlessResolveStageBase;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.TransitiveStrategy;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
 
 /**
  * Support for implementations of {@link MavenResolverSystem}
@@ -240,4 +250,66 @@ public abstract class MavenResolverSystemBaseImpl<UNCONFIGURABLERESOLVERSYSTEMTY
         throws IllegalArgumentException {
         return delegate.addDependencies(dependencies);
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystemBase#resolveAll(java.util.Map)
+     */
+    @Override
+    public Map<String, MavenFormatStage> resolveAll(final Map<String, ? extends Collection<String>> coordinateGroups)
+        throws IllegalArgumentException, CoordinateParseException, ResolutionException {
+        return resolveAll(coordinateGroups, TransitiveStrategy.INSTANCE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystemBase#resolveAll(java.util.Map,
+     *      org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy)
+     */
+    @Override
+    public Map<String, MavenFormatStage> resolveAll(final Map<String, ? extends Collection<String>> coordinateGroups,
+        final MavenResolutionStrategy strategy) throws IllegalArgumentException, CoordinateParseException,
+        ResolutionException {
+        Validate.notNull(coordinateGroups, "Coordinate groups must be specified");
+        Validate.notNull(strategy, "Strategy must be specified");
+        if (coordinateGroups.isEmpty()) {
+            throw new IllegalArgumentException("At least one coordinate group must be specified");
+        }
+
+        final Map<String, List<MavenDependency>> dependencyGroups = new LinkedHashMap<String, List<MavenDependency>>(
+            coordinateGroups.size() * 2);
+        for (final Map.Entry<String, ? extends Collection<String>> group : coordinateGroups.entrySet()) {
+            final Collection<String> canonicalForms = group.getValue();
+            if (canonicalForms == null || canonicalForms.isEmpty()) {
+                throw new IllegalArgumentException("At least one coordinate must be specified in group "
+                    + group.getKey());
+            }
+            final List<MavenDependency> dependencies = new ArrayList<MavenDependency>(canonicalForms.size());
+            for (final String canonicalForm : canonicalForms) {
+                if (Validate.isNullOrEmpty(canonicalForm)) {
+                    throw new IllegalArgumentException("null dependency not permitted");
+                }
+                final MavenDependency dependency = MavenDependencies.createDependency(canonicalForm, null, false);
+                if (Validate.isNullOrEmpty(dependency.getVersion())) {
+                    throw new ResolutionException(MessageFormat.format(
+                        "Unable to get version for dependency specified by {0}:, it was either null or empty.",
+                        dependency.toCanonicalForm()));
+                }
+                dependencies.add(dependency);
+            }
+            dependencyGroups.put(group.getKey(), dependencies);
+        }
+
+        final Map<String, Collection<MavenResolvedArtifact>> resolved = getSession().resolveDependencies(
+            dependencyGroups, strategy);
+
+        final Map<String, MavenFormatStage> formatStages = new LinkedHashMap<String, MavenFormatStage>(
+            resolved.size() * 2);
+        for (final Map.Entry<String, Collection<MavenResolvedArtifact>> group : resolved.entrySet()) {
+            formatStages.put(group.getKey(), new MavenFormatStageImpl(group.getValue()));
+        }
+        return formatStages;
+    }
 }
@@ -17,12 +17,17 @@
 package org.jboss.shrinkwrap.resolver.impl.maven;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenStrategyStage;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenStrategyStageBase;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenStreamingFormatStage;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenWorkingSession;
 import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
 import org.jboss.shrinkwrap.resolver.api.maven.strategy.NonTransitiveStrategy;
@@ -73,6 +78,19 @@ public abstract class MavenStrategyStageBaseImpl<STRATEGYSTAGETYPE extends Maven
         return this.createFormatStage(resolvedArtifacts);
     }
 
+    @Override
+    public MavenStreamingFormatStage usingStreaming(final MavenResolutionStrategy strategy)
+        throws IllegalArgumentException {
+        Validate.notNull(strategy, "Strategy must be specified");
+        Validate.notEmpty(session.getDependenciesForResolution(), "No dependencies were set for resolution");
+
+        final BlockingQueue<Future<MavenResolvedArtifact>> completionQueue =
+            new LinkedBlockingQueue<Future<MavenResolvedArtifact>>();
+        final List<Future<MavenResolvedArtifact>> futures = session.resolveDependencies(strategy, completionQueue);
+
+        return new MavenStreamingFormatStageImpl(futures, completionQueue);
+    }
+
     protected abstract Class<STRATEGYSTAGETYPE> getActualClass();
 
     /**
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenStreamingFormatStage;
+
+/**
+ * Implementation of {@link MavenStreamingFormatStage}
+ */
+public class MavenStreamingFormatStageImpl implements MavenStreamingFormatStage {
+
+    private final List<Future<MavenResolvedArtifact>> futures;
+
+    private final BlockingQueue<Future<MavenResolvedArtifact>> completionQueue;
+
+    /**
+     * Futures taken from the completion queue, in order of their completion, shared by all iterators
+     */
+    private final List<Future<MavenResolvedArtifact>> completed;
+
+    public MavenStreamingFormatStageImpl(final List<Future<MavenResolvedArtifact>> futures,
+        final BlockingQueue<Future<MavenResolvedArtifact>> completionQueue) {
+        assert futures != null : "Futures are required";
+        assert completionQueue != null : "Completion queue is required";
+        this.futures = futures;
+        this.completionQueue = completionQueue;
+        this.completed = new ArrayList<Future<MavenResolvedArtifact>>(futures.size());
+    }
+
+    @Override
+    public Iterator<MavenResolvedArtifact> iterator() {
+        return new Iterator<MavenResolvedArtifact>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < futures.size();
+            }
+
+            @Override
+            public MavenResolvedArtifact next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(getCompleted(position++));
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Resolved artifacts can not be removed");
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return futures.size();
+    }
+
+    @Override
+    public MavenFormatStage inOrder() throws ResolutionException {
+        final List<MavenResolvedArtifact> artifacts = new ArrayList<MavenResolvedArtifact>(futures.size());
+        for (final Future<MavenResolvedArtifact> future : futures) {
+            artifacts.add(get(future));
+        }
+        return new MavenFormatStageImpl(Collections.unmodifiableList(artifacts));
+    }
+
+    /**
+     * Returns the future which completed as {@code index}-th, waiting for it if needed
+     */
+    private Future<MavenResolvedArtifact> getCompleted(final int index) throws ResolutionException {
+        synchronized (completed) {
+            while (completed.size() <= index) {
+                try {
+                    completed.add(completionQueue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ResolutionException("Interrupted while waiting for a resolved artifact", e);
+                }
+            }
+            return completed.get(index);
+        }
+    }
+
+    private static MavenResolvedArtifact get(final Future<MavenResolvedArtifact> future) throws ResolutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResolutionException("Interrupted while waiting for a resolved artifact", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ResolutionException("Unable to resolve artifact", cause);
+        }
+    }
+}
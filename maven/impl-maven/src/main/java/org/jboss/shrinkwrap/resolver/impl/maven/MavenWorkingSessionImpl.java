@@ -21,11 +21,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +50,8 @@ import org.apache.maven.model.profile.ProfileActivationContext;
 import org.apache.maven.model.profile.ProfileSelector;
 import org.apache.maven.settings.Mirror;
 import org.apache.maven.settings.Server;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.collection.DependencyCollectionException;
@@ -49,6 +59,7 @@ import org.eclipse.aether.collection.DependencySelector;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.repository.RemoteRepository.Builder;
 import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyResolutionException;
@@ -75,11 +86,17 @@ import org.jboss.shrinkwrap.resolver.api.maven.pom.ParsedPomFile;
 import org.jboss.shrinkwrap.resolver.api.maven.repository.MavenRemoteRepository;
 import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
 import org.jboss.shrinkwrap.resolver.api.maven.strategy.TransitiveExclusionPolicy;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenRepositorySystem;
 import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
 import org.jboss.shrinkwrap.resolver.impl.maven.internal.MavenModelResolver;
 import org.jboss.shrinkwrap.resolver.impl.maven.internal.SettingsXmlProfileSelector;
 import org.jboss.shrinkwrap.resolver.impl.maven.logging.LogModelProblemCollector;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEvent;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEventType;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolutionMetricsLocator;
 import org.jboss.shrinkwrap.resolver.impl.maven.pom.ParsedPomFileImpl;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
 
 /**
  * Implementation of a {@link MavenWorkingSession}, encapsulating Maven/Aether backend
@@ -92,6 +109,9 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
 
     private static final Logger log = Logger.getLogger(MavenWorkingSessionImpl.class.getName());
 
+    // model builder is stateless, so it is shared by all sessions
+    private static final ModelBuilder MODEL_BUILDER = new DefaultModelBuilderFactory().newInstance();
+
     /**
      * <code><dependencyManagement></code> metadata
      */
@@ -118,6 +138,13 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
 
     private boolean useMavenCentralRepository = true;
 
+    /**
+     * Effective remote repositories, computed on first use and dropped whenever any of their inputs changes
+     */
+    private List<RemoteRepository> effectiveRemoteRepositories;
+
+    private int remoteRepositoriesComputations;
+
     public MavenWorkingSessionImpl() {
         super();
         this.remoteRepositories = new ArrayList<RemoteRepository>();
@@ -167,11 +194,16 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
             request.setUserProperties(userProperties);
         }
 
-        ModelBuilder builder = new DefaultModelBuilderFactory().newInstance();
+        if (SharedModelCache.isEnabled()) {
+            request.setModelCache(SharedModelCache.getInstance().forRequest(request));
+        }
+
         ModelBuildingResult result;
+        final long start = System.nanoTime();
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.LOAD_POM);
         try {
             request.setModelResolver(new MavenModelResolver(getSystem(), getSession(), getRemoteRepositories()));
-            result = builder.build(request);
+            result = MODEL_BUILDER.build(request);
         }
         // wrap exception message
         catch (ModelBuildingException e) {
@@ -185,6 +217,11 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
             }
 
             throw new InvalidConfigurationFileException(sb.toString());
+        } finally {
+            ResolutionMetricsLocator.recordPhase(ResolutionPhase.MODEL_BUILD, start);
+            if (event.shouldCommit()) {
+                event.set("pomFile", pomFile.getPath()).commit();
+            }
         }
 
         // get and update model
@@ -195,6 +232,7 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
         for (Repository repository : model.getRepositories()) {
             remoteRepositories.add(MavenConverter.asRemoteRepository(repository));
         }
+        invalidateRemoteRepositories();
 
         return this;
     }
@@ -209,14 +247,231 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
 
         final List<RemoteRepository> repos = this.getRemoteRepositories();
 
+        // Set the dependency selector used in resolving transitive dependencies based on our transitive exclusion
+        // policy abstraction
+        getSession().setDependencySelector(createDependencySelector(strategy));
+
+        final Collection<MavenResolvedArtifact> resolvedArtifacts = resolveDependencies(getSession(),
+            depsForResolution, depManagement, repos, strategy);
+
+        // Clear dependencies to be resolved (for the next request); we've already sent this request
+        this.getDependenciesForResolution().clear();
+
+        return resolvedArtifacts;
+    }
+
+    @Override
+    public Map<String, Collection<MavenResolvedArtifact>> resolveDependencies(
+            final Map<String, ? extends List<MavenDependency>> dependencyGroups, final MavenResolutionStrategy strategy)
+            throws ResolutionException {
+
+        final List<MavenDependency> depManagement = new ArrayList<MavenDependency>(this.getDependencyManagement());
+        final List<RemoteRepository> repos = this.getRemoteRepositories();
+
+        // all the groups share the cache of this session, so descriptors are read only once
+        final DefaultRepositorySystemSession batchSession = getSystem().getConcurrentSession(getSession());
+        batchSession.setDependencySelector(createDependencySelector(strategy));
+
+        final List<Callable<Collection<MavenResolvedArtifact>>> tasks =
+            new ArrayList<Callable<Collection<MavenResolvedArtifact>>>(dependencyGroups.size());
+        for (final List<MavenDependency> group : dependencyGroups.values()) {
+            final List<MavenDependency> depsForResolution = Collections.unmodifiableList(new ArrayList<MavenDependency>(
+                group));
+            tasks.add(new Callable<Collection<MavenResolvedArtifact>>() {
+                @Override
+                public Collection<MavenResolvedArtifact> call() throws Exception {
+                    return resolveDependencies(batchSession, depsForResolution, depManagement, repos, strategy);
+                }
+            });
+        }
+
+        final long start = System.currentTimeMillis();
+        final List<Future<Collection<MavenResolvedArtifact>>> futures = ResolverRuntime.getPool().invokeAll(tasks);
+
+        final Map<String, Collection<MavenResolvedArtifact>> results =
+            new LinkedHashMap<String, Collection<MavenResolvedArtifact>>(dependencyGroups.size() * 2);
+        final Iterator<Future<Collection<MavenResolvedArtifact>>> future = futures.iterator();
+        for (final String name : dependencyGroups.keySet()) {
+            results.put(name, getBatchResult(future.next()));
+        }
+
+        if (log.isLoggable(Level.FINE)) {
+            log.log(Level.FINE, "Resolved {0} dependency groups in {1}ms", new Object[] { dependencyGroups.size(),
+                System.currentTimeMillis() - start });
+        }
+        return results;
+    }
+
+    @Override
+    public List<Future<MavenResolvedArtifact>> resolveDependencies(final MavenResolutionStrategy strategy,
+            final BlockingQueue<Future<MavenResolvedArtifact>> completionQueue) throws ResolutionException {
+
+        final List<MavenDependency> depsForResolution = Collections.unmodifiableList(new ArrayList<MavenDependency>(
+                this.getDependenciesForResolution()));
+        final List<MavenDependency> depManagement = new ArrayList<MavenDependency>(this.getDependencyManagement());
+        final List<RemoteRepository> repos = this.getRemoteRepositories();
+
+        getSession().setDependencySelector(createDependencySelector(strategy));
+        // artifacts are resolved concurrently after this method returns
+        final DefaultRepositorySystemSession streamingSession = getSystem().getConcurrentSession(getSession());
+
+        final List<Future<MavenResolvedArtifact>> futures;
+        if (DependencyGraphCache.isEnabled() || isPersistentResolutionCacheEnabled()) {
+            // results are resolved as a whole, so they can be looked up in and stored to the cache
+            final Collection<MavenResolvedArtifact> resolvedArtifacts = resolveDependencies(streamingSession,
+                depsForResolution, depManagement, repos, strategy);
+            futures = new ArrayList<Future<MavenResolvedArtifact>>(resolvedArtifacts.size());
+            for (final MavenResolvedArtifact artifact : resolvedArtifacts) {
+                final ResolvedArtifactTask task = new ResolvedArtifactTask(new Callable<MavenResolvedArtifact>() {
+                    @Override
+                    public MavenResolvedArtifact call() {
+                        return artifact;
+                    }
+                }, completionQueue);
+                task.run();
+                futures.add(task);
+            }
+        } else {
+            futures = resolveArtifacts(streamingSession, depsForResolution, depManagement, repos, strategy,
+                completionQueue);
+        }
+
+        // Clear dependencies to be resolved (for the next request); we've already sent this request
+        this.getDependenciesForResolution().clear();
+
+        return futures;
+    }
+
+    /**
+     * Collects dependency graph and submits resolution of each artifact to the shared pool
+     */
+    private List<Future<MavenResolvedArtifact>> resolveArtifacts(final RepositorySystemSession session,
+            final List<MavenDependency> depsForResolution, final List<MavenDependency> depManagement,
+            final List<RemoteRepository> repos, final MavenResolutionStrategy strategy,
+            final BlockingQueue<Future<MavenResolvedArtifact>> completionQueue) throws ResolutionException {
+
+        final MavenRepositorySystem system = getSystem();
+        final CollectRequest request = new CollectRequest(MavenConverter.asDependencies(depsForResolution,
+            session.getArtifactTypeRegistry()),
+            MavenConverter.asDependencies(depManagement, session.getArtifactTypeRegistry()), repos);
+
+        final List<ArtifactRequest> artifactRequests;
+        try {
+            artifactRequests = system.collectArtifactRequests(session, depsForResolution, request,
+                strategy.getResolutionFilters(), isParallelDependencyCollectionEnabled());
+        } catch (DependencyCollectionException e) {
+            throw new NoResolvedResultException("Unable to collect dependency tree for given dependencies due to: "
+                + e.getMessage(), e);
+        }
+
+        final ForkJoinPool pool = ResolverRuntime.getPool();
+        final List<Future<MavenResolvedArtifact>> futures = new ArrayList<Future<MavenResolvedArtifact>>(
+            artifactRequests.size());
+        for (final ArtifactRequest artifactRequest : artifactRequests) {
+            // POMs would be filtered out after resolution anyway
+            if (!PostResolutionFilterApplicator.accepts(artifactRequest.getArtifact())) {
+                continue;
+            }
+            final ResolvedArtifactTask task = new ResolvedArtifactTask(new Callable<MavenResolvedArtifact>() {
+                @Override
+                public MavenResolvedArtifact call() {
+                    try {
+                        return MavenResolvedArtifactImpl.fromArtifactResult(system.resolveArtifact(session,
+                            artifactRequest));
+                    } catch (ArtifactResolutionException e) {
+                        throw new NoResolvedResultException("Unable to get artifact from the repository due to: "
+                            + e.getMessage(), e);
+                    }
+                }
+            }, completionQueue);
+            pool.execute(task);
+            futures.add(task);
+        }
+
+        if (log.isLoggable(Level.FINE)) {
+            log.log(Level.FINE, "Collected {0} artifacts, resolving them in background", futures.size());
+        }
+        return futures;
+    }
+
+    /**
+     * Resolves the dependencies using given session, which is not modified. Dependencies for resolution of this
+     * working session are not used, so this method can be called concurrently.
+     */
+    private Collection<MavenResolvedArtifact> resolveDependencies(final RepositorySystemSession session,
+            final List<MavenDependency> depsForResolution, final List<MavenDependency> depManagement,
+            final List<RemoteRepository> repos, final MavenResolutionStrategy strategy) throws ResolutionException {
+
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.RESOLVE);
+        Collection<MavenResolvedArtifact> resolvedArtifacts = null;
+        try {
+            resolvedArtifacts = doResolveDependencies(session, depsForResolution, depManagement, repos, strategy);
+            return resolvedArtifacts;
+        } finally {
+            if (event.shouldCommit()) {
+                event.set("dependencies", depsForResolution.toString())
+                    .set("artifacts", resolvedArtifacts == null ? 0 : resolvedArtifacts.size()).commit();
+            }
+        }
+    }
+
+    private Collection<MavenResolvedArtifact> doResolveDependencies(final RepositorySystemSession session,
+            final List<MavenDependency> depsForResolution, final List<MavenDependency> depManagement,
+            final List<RemoteRepository> repos, final MavenResolutionStrategy strategy) throws ResolutionException {
+
         final CollectRequest request = new CollectRequest(MavenConverter.asDependencies(depsForResolution,
-            getSession().getArtifactTypeRegistry()),
-            MavenConverter.asDependencies(depManagement, getSession().getArtifactTypeRegistry()), repos);
+            session.getArtifactTypeRegistry()),
+            MavenConverter.asDependencies(depManagement, session.getArtifactTypeRegistry()), repos);
 
         Collection<ArtifactResult> results = Collections.emptyList();
 
-        // Set the dependency selector used in resolving transitive dependencies based on our transitive exclusion
-        // policy abstraction
+        // reuse results of an identical request if caching was enabled
+        final boolean useCache = DependencyGraphCache.isEnabled();
+        final boolean usePersistentCache = isPersistentResolutionCacheEnabled();
+        final String cacheKey = useCache || usePersistentCache ? DependencyGraphCache.fingerprint(depsForResolution,
+            depManagement, repos, strategy, session) : null;
+
+        // memory is checked first, the persisted entry has to verify all its files on disk
+        final Collection<ArtifactResult> cachedResults = useCache ? DependencyGraphCache.getInstance().get(cacheKey)
+            : null;
+
+        if (cachedResults == null && usePersistentCache) {
+            final Collection<MavenResolvedArtifact> persistedArtifacts = PersistentResolutionCache.getInstance().get(
+                cacheKey);
+            if (persistedArtifacts != null) {
+                return PostResolutionFilterApplicator.postFilter(persistedArtifacts);
+            }
+        }
+
+        if (cachedResults != null) {
+            results = cachedResults;
+        } else {
+            try {
+                results = getSystem().resolveDependencies(session, depsForResolution, request,
+                    strategy.getResolutionFilters(), isParallelDependencyCollectionEnabled());
+            } catch (DependencyResolutionException e) {
+                throw wrapException(e);
+            }
+            if (useCache) {
+                DependencyGraphCache.getInstance().put(cacheKey, results);
+            }
+        }
+
+        final Collection<MavenResolvedArtifact> resolvedArtifacts = new ArrayList<MavenResolvedArtifact>(results.size());
+
+        for (final ArtifactResult result : results) {
+            resolvedArtifacts.add(MavenResolvedArtifactImpl.fromArtifactResult(result));
+        }
+
+        if (usePersistentCache && cachedResults == null) {
+            PersistentResolutionCache.getInstance().put(cacheKey, results, resolvedArtifacts);
+        }
+
+        // apply post filtering
+        return PostResolutionFilterApplicator.postFilter(resolvedArtifacts);
+    }
+
+    private static DependencySelector createDependencySelector(final MavenResolutionStrategy strategy) {
         final Set<DependencySelector> dependencySelectors = new LinkedHashSet<DependencySelector>(3);
         final TransitiveExclusionPolicy transitiveExclusionPolicy = strategy.getTransitiveExclusionPolicy();
         final ScopeType[] filteredScopes = transitiveExclusionPolicy.getFilteredScopes();
@@ -232,27 +487,44 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
             dependencySelectors.add(new OptionalDependencySelector());
         }
         dependencySelectors.add(new ExclusionDependencySelector());
-        final DependencySelector dependencySelector = new AndDependencySelector(dependencySelectors);
-        getSession().setDependencySelector(dependencySelector);
+        return new AndDependencySelector(dependencySelectors);
+    }
 
+    private static Collection<MavenResolvedArtifact> getBatchResult(
+            final Future<Collection<MavenResolvedArtifact>> future) throws ResolutionException {
         try {
-            results = getSystem().resolveDependencies(getSession(), this, request,
-                strategy.getResolutionFilters());
-        } catch (DependencyResolutionException e) {
-            throw wrapException(e);
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResolutionException("Interrupted while resolving dependency groups", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ResolutionException("Unable to resolve dependency group", cause);
         }
+    }
 
-        final Collection<MavenResolvedArtifact> resolvedArtifacts = new ArrayList<MavenResolvedArtifact>(results.size());
+    /**
+     * Resolution of a single artifact, which adds itself into the completion queue once it is done
+     */
+    private static final class ResolvedArtifactTask extends FutureTask<MavenResolvedArtifact> {
+        private final BlockingQueue<Future<MavenResolvedArtifact>> completionQueue;
 
-        for (final ArtifactResult result : results) {
-            resolvedArtifacts.add(MavenResolvedArtifactImpl.fromArtifactResult(result));
+        private ResolvedArtifactTask(final Callable<MavenResolvedArtifact> callable,
+                final BlockingQueue<Future<MavenResolvedArtifact>> completionQueue) {
+            super(callable);
+            this.completionQueue = completionQueue;
         }
 
-        // Clear dependencies to be resolved (for the next request); we've already sent this request
-        this.getDependenciesForResolution().clear();
-
-        // apply post filtering
-        return PostResolutionFilterApplicator.postFilter(resolvedArtifacts);
+        @Override
+        protected void done() {
+            completionQueue.add(this);
+        }
     }
 
     @Override
@@ -298,6 +570,7 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
     public void disableMavenCentral() {
         log.log(Level.FINEST, "Disabling Maven Central");
         this.useMavenCentralRepository = false;
+        invalidateRemoteRepositories();
     }
 
     /**
@@ -318,6 +591,40 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
             }
         }
         this.additionalRemoteRepositories.add(builder.build());
+        invalidateRemoteRepositories();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.resolver.api.maven.MavenWorkingSession#regenerateSession()
+     */
+    @Override
+    public MavenWorkingSession regenerateSession() {
+        // settings might have been reconfigured
+        invalidateRemoteRepositories();
+        return super.regenerateSession();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.resolver.api.maven.MavenWorkingSession#setOffline(boolean)
+     */
+    @Override
+    public void setOffline(final boolean offline) {
+        super.setOffline(offline);
+        invalidateRemoteRepositories();
+    }
+
+    /**
+     * Returns how many times effective remote repositories were computed by this session. Repositories are computed on
+     * first use and then again only after their configuration changes, so this is meant for diagnostic purposes.
+     *
+     * @return number of computations of effective remote repositories
+     */
+    public int getRemoteRepositoriesComputationCount() {
+        return remoteRepositoriesComputations;
     }
 
     // ------------------------------------------------------------------------
@@ -329,6 +636,30 @@ public class MavenWorkingSessionImpl extends ConfigurableMavenWorkingSessionImpl
             log.log(Level.FINE, "No remote repositories will be available, working in offline mode");
             return Collections.emptyList();
         }
+
+        List<RemoteRepository> repositories = effectiveRemoteRepositories;
+        if (repositories == null) {
+            repositories = Collections.unmodifiableList(computeRemoteRepositories());
+            effectiveRemoteRepositories = repositories;
+            remoteRepositoriesComputations++;
+            if (log.isLoggable(Level.FINE)) {
+                log.log(Level.FINE, "Computed {0} effective remote repositories, computation #{1} in this session",
+                    new Object[] { repositories.size(), remoteRepositoriesComputations });
+            }
+        }
+        return repositories;
+    }
+
+    private void invalidateRemoteRepositories() {
+        effectiveRemoteRepositories = null;
+    }
+
+    /**
+     * Computes effective remote repositories from repositories added via API, active profiles of settings, loaded POM
+     * file and Maven Central, applying mirrors and authentication defined in settings. System properties which activate
+     * profiles are read once, when the repositories are computed.
+     */
+    private List<RemoteRepository> computeRemoteRepositories() throws IllegalStateException {
         // the first repository defined is the first where we search
         Set<RemoteRepository> enhancedRepos = new LinkedHashSet<RemoteRepository>();
 
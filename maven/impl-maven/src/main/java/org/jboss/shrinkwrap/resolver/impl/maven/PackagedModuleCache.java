@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.charset.Charset;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.shrinkwrap.resolver.impl.maven.MavenResolvedArtifactImpl.DirectoryEntry;
+import org.jboss.shrinkwrap.resolver.impl.maven.MavenResolvedArtifactImpl.PackageDirHelper;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEvent;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEventType;
+
+/**
+ * A JVM wide cache of archives packaged from output directories of modules of the project being built. A module is
+ * packaged again only if the content of its directory changed, that is, if the relative path, size or modification time
+ * of any file differs from the time the archive was created, or a file was added or removed. Packaging is reported as a
+ * {@link FlightRecorderEventType#PACKAGE_DIRECTORIES} event, reuse of an up to date archive is not.
+ * <p>
+ * Each module is packaged into a single file, which is replaced atomically when the module is packaged again, so
+ * repeated builds do not leave outdated archives behind. Streams opened before the replacement keep reading the
+ * previous content where the file system allows replacing an open file; otherwise a new file is used.
+ */
+final class PackagedModuleCache {
+    private static final Logger log = Logger.getLogger(PackagedModuleCache.class.getName());
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ConcurrentMap<String, CachedArchive> ARCHIVES = new ConcurrentHashMap<String, CachedArchive>();
+
+    private PackagedModuleCache() {
+        throw new UnsupportedOperationException("No instances should be created; stateless class");
+    }
+
+    /**
+     * Returns an archive with the content of the directory, packaging it only if there is no up to date one
+     *
+     * @param artifactId artifactId of the module, used as a prefix of the archive name
+     * @param extension extension of the archive
+     * @param directory the directory
+     * @return the archive, it is deleted when JVM exits and replaced whenever the module is packaged again
+     * @throws IOException if the directory could not be packaged
+     */
+    static File getArchive(final String artifactId, final String extension, final File directory) throws IOException {
+        final String key = directory.getAbsolutePath() + '|' + artifactId + '|' + extension;
+        CachedArchive cached = ARCHIVES.get(key);
+        if (cached == null) {
+            final CachedArchive created = new CachedArchive();
+            cached = ARCHIVES.putIfAbsent(key, created);
+            if (cached == null) {
+                cached = created;
+            }
+        }
+
+        // the same module is packaged only once at a time
+        synchronized (cached) {
+            final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.PACKAGE_DIRECTORIES);
+            final List<DirectoryEntry> entries = new ArrayList<DirectoryEntry>();
+            PackageDirHelper.listFiles(directory, entries);
+            final String fingerprint = fingerprint(entries);
+
+            if (cached.archive != null && cached.fingerprint.equals(fingerprint) && cached.archive.isFile()) {
+                if (log.isLoggable(Level.FINEST)) {
+                    log.finest("Reusing archive " + cached.archive + " packaged from " + directory);
+                }
+                return cached.archive;
+            }
+
+            final long start = System.currentTimeMillis();
+            final File archive;
+            if (cached.archive == null) {
+                archive = File.createTempFile(artifactId + "-", "." + extension);
+                archive.deleteOnExit();
+                PackageDirHelper.packageEntries(archive, entries);
+            } else {
+                archive = replaceArchive(cached.archive, artifactId, extension, entries);
+            }
+            if (event.shouldCommit()) {
+                event.set("archive", archive.getPath()).set("directories", directory.getPath())
+                    .set("bytes", archive.length()).commit();
+            }
+
+            if (log.isLoggable(Level.FINE)) {
+                log.fine("Packaged " + entries.size() + " files from " + directory + " in "
+                    + (System.currentTimeMillis() - start) + "ms");
+            }
+
+            cached.archive = archive;
+            cached.fingerprint = fingerprint;
+            return archive;
+        }
+    }
+
+    /**
+     * Packages the entries into a new file next to the archive and moves it over the archive. If the archive cannot be
+     * replaced, e.g. because it is open on a file system which does not allow that, the new file is used instead.
+     */
+    private static File replaceArchive(final File archive, final String artifactId, final String extension,
+        final List<DirectoryEntry> entries) throws IOException {
+        final File packaged = File.createTempFile(artifactId + "-", "." + extension, archive.getParentFile());
+        try {
+            PackageDirHelper.packageEntries(packaged, entries);
+        } catch (IOException e) {
+            packaged.delete();
+            throw e;
+        }
+        try {
+            Files.move(packaged.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            return archive;
+        } catch (IOException e) {
+            if (log.isLoggable(Level.FINE)) {
+                log.fine("Unable to replace archive " + archive + ", using " + packaged + " instead: " + e);
+            }
+            packaged.deleteOnExit();
+            return packaged;
+        }
+    }
+
+    /**
+     * Creates a digest of relative paths, sizes and modification times of all files, so a renamed or deleted file is
+     * detected even if the total size and the newest modification time stay the same
+     */
+    private static String fingerprint(final List<DirectoryEntry> entries) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not available", e);
+        }
+        for (DirectoryEntry entry : entries) {
+            digest.update((entry.name + '\u0000' + entry.size + '\u0000' + entry.lastModified + '\n').getBytes(UTF_8));
+        }
+        final byte[] hash = digest.digest();
+        final StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return entries.size() + ":" + sb;
+    }
+
+    private static final class CachedArchive {
+        private File archive;
+        private String fingerprint;
+    }
+}
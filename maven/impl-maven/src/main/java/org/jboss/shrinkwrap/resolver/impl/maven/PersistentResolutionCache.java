@@ -0,0 +1,492 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.WorkspaceRepository;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
+
+/**
+ * A resolution cache persisted on disk, so it survives JVM restarts. Each entry maps the fingerprint of a resolution
+ * request (see {@link DependencyGraphCache#fingerprint}) to the ordered list of resolved artifacts, including their
+ * dependency trees and the size and last modification time of their files in local repository. An entry is used only
+ * if all the files still have the recorded size and modification time, in which case no collection is done at all.
+ * <p>
+ * Results which contain SNAPSHOT artifacts or artifacts resolved from the workspace are never persisted, as their
+ * content is expected to change. Neither are results of version ranges or {@code LATEST} and {@code RELEASE}
+ * metaversions, requested or transitive, as they change whenever a new version is published.
+ * <p>
+ * The cache is disabled by default. It is enabled either via {@link #ENABLED_KEY} system property or per resolver via
+ * API. It is stored in {@code ~/.m2/shrinkwrap-resolver-cache} unless {@link #DIRECTORY_KEY} says otherwise and it is
+ * wiped out on first use if {@link #CLEAR_KEY} is set to {@code true}.
+ * <p>
+ * The cache is pruned on first use of its directory: entries written more than {@link #MAX_AGE_KEY} milliseconds ago
+ * are removed, and if there are still more than {@link #SIZE_KEY} entries, the oldest ones are removed first.
+ */
+public final class PersistentResolutionCache {
+    private static final Logger log = Logger.getLogger(PersistentResolutionCache.class.getName());
+
+    /**
+     * Enables the cache if set to {@code true}
+     */
+    public static final String ENABLED_KEY = "org.jboss.shrinkwrap.resolver.resolution-cache";
+
+    /**
+     * Sets an alternate location of the cache directory
+     */
+    public static final String DIRECTORY_KEY = "org.jboss.shrinkwrap.resolver.resolution-cache.dir";
+
+    /**
+     * Removes all the cached entries on first use if set to {@code true}
+     */
+    public static final String CLEAR_KEY = "org.jboss.shrinkwrap.resolver.resolution-cache.clear";
+
+    /**
+     * Sets the age in milliseconds after which an entry is removed, defaults to 30 days
+     */
+    public static final String MAX_AGE_KEY = "org.jboss.shrinkwrap.resolver.resolution-cache.max-age";
+
+    /**
+     * Sets the maximal number of entries kept, defaults to 1000
+     */
+    public static final String SIZE_KEY = "org.jboss.shrinkwrap.resolver.resolution-cache.size";
+
+    private static final String DEFAULT_DIRECTORY = "/.m2/shrinkwrap-resolver-cache";
+
+    private static final long DEFAULT_MAX_AGE = 30L * 24 * 60 * 60 * 1000;
+
+    private static final int DEFAULT_SIZE = 1000;
+
+    /**
+     * Temporary files older than this are left over by a JVM which did not finish writing an entry
+     */
+    private static final long ABANDONED_TMP_AGE = 60 * 60 * 1000L;
+
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    /**
+     * Identifies the file format, bumped with each incompatible change
+     */
+    private static final int MAGIC = 0x53575243;
+    // entries of version 1 might hold results of version ranges
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Number of string values stored for each artifact, see {@link #writeInfo(DataOutputStream, MavenArtifactInfo)}
+     */
+    private static final int FIELD_COUNT = 8;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final AtomicBoolean clearedOnStartup = new AtomicBoolean();
+
+    private static volatile PersistentResolutionCache instance;
+
+    private final File directory;
+
+    PersistentResolutionCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cache stored in the directory configured by system properties. The same instance is returned as long
+     * as the configured directory does not change.
+     *
+     * @return the cache
+     */
+    public static PersistentResolutionCache getInstance() {
+        final File directory = getDirectory();
+        PersistentResolutionCache cache = instance;
+        if (cache == null || !cache.directory.equals(directory)) {
+            synchronized (PersistentResolutionCache.class) {
+                cache = instance;
+                if (cache == null || !cache.directory.equals(directory)) {
+                    cache = new PersistentResolutionCache(directory);
+                    cache.prune(ResolverRuntime.getLongProperty(MAX_AGE_KEY, DEFAULT_MAX_AGE),
+                            ResolverRuntime.getIntProperty(SIZE_KEY, DEFAULT_SIZE));
+                    instance = cache;
+                }
+            }
+        }
+        if (Boolean.parseBoolean(SecurityActions.getProperty(CLEAR_KEY))
+                && clearedOnStartup.compareAndSet(false, true)) {
+            cache.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * Returns whether the cache is enabled by {@link #ENABLED_KEY} system property
+     *
+     * @return whether the cache is enabled
+     */
+    public static boolean isEnabledByDefault() {
+        return Boolean.parseBoolean(SecurityActions.getProperty(ENABLED_KEY));
+    }
+
+    /**
+     * Removes all persisted entries
+     */
+    public void clear() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().endsWith(ENTRY_SUFFIX) && !file.delete()) {
+                log.log(Level.WARNING, "Unable to remove cached resolution result {0}", file);
+            }
+        }
+    }
+
+    /**
+     * Removes entries written more than {@code maxAge} milliseconds ago, then the oldest entries above {@code maxSize},
+     * and temporary files abandoned by writers which did not finish
+     *
+     * @param maxAge maximal age of an entry in milliseconds
+     * @param maxSize maximal number of entries
+     */
+    void prune(final long maxAge, final int maxSize) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final List<File> entries = new ArrayList<File>(files.length);
+        final List<Long> lastModified = new ArrayList<Long>(files.length);
+        for (File file : files) {
+            final String name = file.getName();
+            final long modified = file.lastModified();
+            if (name.endsWith(ENTRY_SUFFIX)) {
+                if (now - modified > maxAge) {
+                    remove(file);
+                } else {
+                    entries.add(file);
+                    lastModified.add(modified);
+                }
+            } else if (name.startsWith("entry-") && name.endsWith(".tmp") && now - modified > ABANDONED_TMP_AGE) {
+                remove(file);
+            }
+        }
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        // modification times are read once, so entries written meanwhile do not break the ordering
+        final Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                return lastModified.get(o1).compareTo(lastModified.get(o2));
+            }
+        });
+        for (int i = 0; i < order.length - Math.max(0, maxSize); i++) {
+            remove(entries.get(order[i]));
+        }
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Pruned resolution cache " + directory + " to " + maxSize + " entries");
+        }
+    }
+
+    private static void remove(final File file) {
+        if (!file.delete() && file.exists()) {
+            log.log(Level.FINE, "Unable to remove cached resolution result {0}", file);
+        }
+    }
+
+    /**
+     * Returns the artifacts stored for given fingerprint, if all their files are unchanged
+     *
+     * @param fingerprint the fingerprint, might be {@code null} if the request is not cacheable
+     * @return the artifacts or {@code null}
+     */
+    Collection<MavenResolvedArtifact> get(final String fingerprint) {
+        if (fingerprint == null) {
+            return null;
+        }
+
+        final File entry = entryFile(fingerprint);
+        if (!entry.isFile()) {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try {
+            // entries are small, reading them at once lets the lengths stored inside be checked against the real size
+            in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(entry.toPath())));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !fingerprint.equals(readString(in))) {
+                return null;
+            }
+
+            final int size = readCount(in);
+            final List<MavenResolvedArtifact> artifacts = new ArrayList<MavenResolvedArtifact>(size);
+            for (int i = 0; i < size; i++) {
+                final MavenResolvedArtifact artifact = readResolvedArtifact(in);
+                if (artifact == null) {
+                    if (log.isLoggable(Level.FINE)) {
+                        log.fine("Cached resolution result " + entry + " is out of date");
+                    }
+                    return null;
+                }
+                artifacts.add(artifact);
+            }
+            if (log.isLoggable(Level.FINER)) {
+                log.finer("Reusing persisted resolution result of " + size + " artifacts from " + entry);
+            }
+            return artifacts;
+        } catch (IOException e) {
+            log.log(Level.FINE, "Unable to read cached resolution result " + entry + ", ignoring", e);
+            return null;
+        } catch (IllegalArgumentException e) {
+            log.log(Level.FINE, "Unable to read cached resolution result " + entry + ", ignoring", e);
+            return null;
+        } finally {
+            safelyClose(in);
+        }
+    }
+
+    /**
+     * Persists the artifacts for given fingerprint, unless the results contain SNAPSHOT or workspace artifacts or
+     * artifacts resolved from a version range or metaversion
+     *
+     * @param fingerprint the fingerprint, might be {@code null} if the request is not cacheable
+     * @param results the Aether results the artifacts were created from
+     * @param artifacts the artifacts, in the same order as the results
+     */
+    void put(final String fingerprint, final Collection<ArtifactResult> results,
+            final Collection<MavenResolvedArtifact> artifacts) {
+        if (fingerprint == null || DependencyGraphCache.hasFloatingVersion(results)) {
+            return;
+        }
+        for (ArtifactResult result : results) {
+            final Artifact artifact = result.getArtifact();
+            if (artifact == null || artifact.isSnapshot() || result.getRepository() instanceof WorkspaceRepository) {
+                return;
+            }
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.log(Level.WARNING, "Unable to create resolution cache directory {0}", directory);
+            return;
+        }
+
+        final File entry = entryFile(fingerprint);
+        DataOutputStream out = null;
+        File tmp = null;
+        try {
+            tmp = File.createTempFile("entry-", ".tmp", directory);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, fingerprint);
+            out.writeInt(artifacts.size());
+            for (MavenResolvedArtifact artifact : artifacts) {
+                writeResolvedArtifact(out, artifact);
+            }
+            out.close();
+            out = null;
+            // other JVMs might be reading the same entry, so it has to appear at once
+            Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to persist resolution result to " + entry, e);
+        } finally {
+            safelyClose(out);
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    private File entryFile(final String fingerprint) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(fingerprint.getBytes(UTF_8));
+            final StringBuilder sb = new StringBuilder(digest.length * 2 + ENTRY_SUFFIX.length());
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return new File(directory, sb.append(ENTRY_SUFFIX).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 algorithm is not available", e);
+        }
+    }
+
+    private static File getDirectory() {
+        final String altDirectory = SecurityActions.getProperty(DIRECTORY_KEY);
+        if (altDirectory != null && altDirectory.length() > 0) {
+            return new File(altDirectory);
+        }
+        final String userHome = SecurityActions.getProperty("user.home");
+        return new File(userHome == null ? "shrinkwrap-resolver-cache" : userHome.concat(DEFAULT_DIRECTORY.replace('/',
+                File.separatorChar)));
+    }
+
+    // serialization
+
+    private static void writeResolvedArtifact(final DataOutputStream out, final MavenResolvedArtifact artifact)
+            throws IOException {
+        final File file = artifact.asFile();
+        writeString(out, file.getAbsolutePath());
+        out.writeLong(file.length());
+        out.writeLong(file.lastModified());
+        writeInfo(out, artifact);
+    }
+
+    private static MavenResolvedArtifact readResolvedArtifact(final DataInputStream in) throws IOException {
+        final File file = new File(readString(in));
+        final long length = in.readLong();
+        final long lastModified = in.readLong();
+        final boolean upToDate = file.isFile() && file.length() == length && file.lastModified() == lastModified;
+
+        // the whole record has to be read anyway to keep the stream consistent
+        final String[] fields = new String[FIELD_COUNT];
+        final MavenCoordinate coordinate = readCoordinate(in, fields);
+        final boolean snapshot = in.readBoolean();
+        final boolean optional = in.readBoolean();
+        final MavenArtifactInfo[] dependencies = readDependencies(in);
+
+        if (!upToDate) {
+            return null;
+        }
+        return MavenResolvedArtifactImpl.fromPersistedState(coordinate, fields[6], snapshot, fields[7], file,
+                ScopeType.fromScopeType(fields[5]), dependencies, optional);
+    }
+
+    private static void writeInfo(final DataOutputStream out, final MavenArtifactInfo info) throws IOException {
+        final MavenCoordinate coordinate = info.getCoordinate();
+        writeString(out, coordinate.getGroupId());
+        writeString(out, coordinate.getArtifactId());
+        writeString(out, coordinate.getVersion());
+        writeString(out, coordinate.getPackaging().getId());
+        writeString(out, coordinate.getClassifier());
+        writeString(out, info.getScope().toString());
+        writeString(out, info.getResolvedVersion());
+        writeString(out, info.getExtension());
+        out.writeBoolean(info.isSnapshotVersion());
+        out.writeBoolean(info.isOptional());
+
+        final MavenArtifactInfo[] dependencies = info.getDependencies();
+        out.writeInt(dependencies.length);
+        for (MavenArtifactInfo dependency : dependencies) {
+            writeInfo(out, dependency);
+        }
+    }
+
+    private static MavenArtifactInfo[] readDependencies(final DataInputStream in) throws IOException {
+        final MavenArtifactInfo[] dependencies = new MavenArtifactInfo[readCount(in)];
+        for (int i = 0; i < dependencies.length; i++) {
+            final String[] fields = new String[FIELD_COUNT];
+            final MavenCoordinate coordinate = readCoordinate(in, fields);
+            final boolean snapshot = in.readBoolean();
+            final boolean optional = in.readBoolean();
+            dependencies[i] = new MavenArtifactInfoImpl(coordinate, fields[6], snapshot, fields[7],
+                    ScopeType.fromScopeType(fields[5]), readDependencies(in), optional);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Reads coordinate (groupId, artifactId, version, packaging, classifier) followed by scope, resolved version and
+     * extension, all the string values are stored in {@code fields} in order they were read
+     */
+    private static MavenCoordinate readCoordinate(final DataInputStream in, final String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = readString(in);
+        }
+        return MavenCoordinates.createCoordinate(fields[0], fields[1], fields[2], PackagingType.of(fields[3]),
+                fields[4]);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new IOException("String length " + length + " exceeds the remaining " + in.available() + " bytes");
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Reads number of records that follow. Each record takes at least one byte, so a count larger than the number of
+     * remaining bytes means the entry is corrupted.
+     */
+    private static int readCount(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0 || count > in.available()) {
+            throw new IOException("Record count " + count + " exceeds the remaining " + in.available() + " bytes");
+        }
+        return count;
+    }
+
+    private static void safelyClose(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (final IOException ignore) {
+                if (log.isLoggable(Level.FINER)) {
+                    log.finer("Could not close stream due to: " + ignore.getMessage() + "; ignoring");
+                }
+            }
+        }
+    }
+}
@@ -23,12 +23,17 @@ import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
 import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
 import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinates;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
 import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolutionMetricsLocator;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
 
 /**
  * An utility to apply pre and post filter on either a list of resolved dependencies (post filtering) or on a list of resolution
@@ -47,6 +52,35 @@ class PostResolutionFilterApplicator {
      * @return List of modified artifactResults
      */
     static Collection<MavenResolvedArtifact> postFilter(final Collection<MavenResolvedArtifact> artifactResults) {
+        final long start = System.nanoTime();
+        try {
+            return doPostFilter(artifactResults);
+        } finally {
+            ResolutionMetricsLocator.recordPhase(ResolutionPhase.POST_FILTER, start);
+        }
+    }
+
+    /**
+     * Returns whether an artifact which is yet to be resolved will pass post-resolution filtering. Packaging is known
+     * before the artifact is resolved, so an artifact which would be filtered out does not have to be resolved at all.
+     *
+     * @param artifact The artifact to be resolved
+     * @return {@code true} if the artifact will not be filtered out
+     */
+    static boolean accepts(final Artifact artifact) {
+        // packaging is computed the same way as for the resolved artifact
+        final PackagingType packaging = PackagingType.of(artifact.getProperty(ArtifactProperties.TYPE,
+                artifact.getExtension()));
+        final MavenDependency dependency = MavenDependencies.createDependency(MavenCoordinates.createCoordinate(
+                artifact.getGroupId(), artifact.getArtifactId(), artifact.getBaseVersion(), packaging,
+                artifact.getClassifier().length() == 0 ? packaging.getClassifier() : artifact.getClassifier()),
+                ScopeType.COMPILE, false);
+        final List<MavenDependency> emptyList = Collections.emptyList();
+        return RestrictPomArtifactFilter.INSTANCE.accepts(dependency, emptyList, emptyList);
+    }
+
+    private static Collection<MavenResolvedArtifact> doPostFilter(
+            final Collection<MavenResolvedArtifact> artifactResults) {
 
         final MavenResolutionFilter postResolutionFilter = RestrictPomArtifactFilter.INSTANCE;
         final Collection<MavenResolvedArtifact> filteredArtifacts = new ArrayList<MavenResolvedArtifact>();
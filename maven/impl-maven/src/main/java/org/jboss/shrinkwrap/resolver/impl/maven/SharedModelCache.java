@@ -0,0 +1,375 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelCache;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
+
+/**
+ * A JVM wide {@link ModelCache} which lets Maven model builder reuse parent POMs and {@code import} scoped BOMs across
+ * modules and working sessions.
+ * <p>
+ * Raw models do not depend on the build request and those of repository POMs are shared by all requests. Raw models
+ * read from a POM file in a workspace, typically parents found via relative path, are only shared between requests
+ * building the same POM file, as Maven uses a cached parent without looking for its own one and other projects might
+ * have different parents with the same coordinates. Any other data, e.g. dependency management of imported BOMs, is
+ * interpolated and it is only shared between requests with equal system and user properties and equal profiles. An
+ * entry read from a known POM file is discarded once size or modification time of the file changes. Other entries of
+ * released artifacts are immutable; SNAPSHOT entries of unknown origin are not cached at all.
+ * <p>
+ * The cache is enabled by default, it is disabled by {@link #ENABLED_KEY} system property set to {@code false}. It is
+ * bounded by {@link #SIZE_KEY} entries and evicts the least recently used entry first.
+ */
+public final class SharedModelCache {
+    private static final Logger log = Logger.getLogger(SharedModelCache.class.getName());
+
+    /**
+     * Disables the cache if set to {@code false}
+     */
+    public static final String ENABLED_KEY = "org.jboss.shrinkwrap.resolver.model-cache";
+
+    /**
+     * Sets maximal number of cached models
+     */
+    public static final String SIZE_KEY = "org.jboss.shrinkwrap.resolver.model-cache.size";
+
+    private static final int DEFAULT_SIZE = 1024;
+
+    private static final String SNAPSHOT = "SNAPSHOT";
+
+    // name of org.apache.maven.model.building.ModelCacheTag.RAW
+    private static final String RAW_TAG = "raw";
+
+    private static final SharedModelCache INSTANCE = new SharedModelCache(ResolverRuntime.getIntProperty(SIZE_KEY,
+            DEFAULT_SIZE));
+
+    private final Map<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    SharedModelCache(final int maxSize) {
+        final int size = Math.max(1, maxSize);
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all sessions within this class loader
+     *
+     * @return the cache
+     */
+    public static SharedModelCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether the cache is enabled, see {@link #ENABLED_KEY}
+     *
+     * @return whether the cache is enabled
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(SecurityActions.getProperty(ENABLED_KEY));
+    }
+
+    /**
+     * Returns a view of this cache to be set to {@link ModelBuildingRequest#setModelCache(ModelCache)}. The request
+     * must be fully configured, as its properties and profiles are captured by the view.
+     *
+     * @param request the request
+     * @return the view
+     */
+    public ModelCache forRequest(final ModelBuildingRequest request) {
+        return new RequestModelCache(new Context(request), getScope(request));
+    }
+
+    /**
+     * Returns number of lookups which were served from the cache
+     *
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns number of lookups which were not found in the cache
+     *
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns number of cached entries
+     *
+     * @return the size
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    Object get(final Key... keys) {
+        Entry entry = null;
+        synchronized (entries) {
+            for (int i = 0; i < keys.length && entry == null; i++) {
+                entry = entries.get(keys[i]);
+                if (entry != null && !entry.isValid()) {
+                    entries.remove(keys[i]);
+                    entry = null;
+                }
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.data;
+    }
+
+    void put(final Key key, final File pomFile, final Object data) {
+        if (pomFile == null && key.version != null && key.version.endsWith(SNAPSHOT)) {
+            // the POM might be a workspace one, which we would not know when to read again
+            return;
+        }
+        final Entry entry = new Entry(data, pomFile);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns the POM file cached data were read from, or {@code null} if not known. Raw models are cached wrapped in
+     * a package private holder of Maven model builder, so its model is looked up reflectively.
+     */
+    static File getPomFile(final Object data) {
+        if (data instanceof Model) {
+            return ((Model) data).getPomFile();
+        }
+        if (data == null) {
+            return null;
+        }
+        try {
+            final Method getModel = data.getClass().getMethod("getModel");
+            if (!Model.class.isAssignableFrom(getModel.getReturnType())) {
+                return null;
+            }
+            getModel.setAccessible(true);
+            final Model model = (Model) getModel.invoke(data);
+            return model == null ? null : model.getPomFile();
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (Exception e) {
+            log.log(Level.FINE, "Unable to determine POM file of cached " + data.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the scope of raw models read from files for the request, the POM file it builds in its current state
+     */
+    private static Object getScope(final ModelBuildingRequest request) {
+        final File pomFile = request.getPomFile();
+        if (pomFile == null) {
+            // nothing to tell another request for the same project by
+            return new Object();
+        }
+        String path;
+        try {
+            path = pomFile.getCanonicalPath();
+        } catch (IOException e) {
+            path = pomFile.getAbsolutePath();
+        }
+        return path + ':' + pomFile.length() + ':' + pomFile.lastModified();
+    }
+
+    private static final class Entry {
+        private final Object data;
+        private final File pomFile;
+        private final long length;
+        private final long lastModified;
+
+        private Entry(final Object data, final File pomFile) {
+            this.data = data;
+            this.pomFile = pomFile;
+            this.length = pomFile == null ? 0L : pomFile.length();
+            this.lastModified = pomFile == null ? 0L : pomFile.lastModified();
+        }
+
+        private boolean isValid() {
+            return pomFile == null || (pomFile.length() == length && pomFile.lastModified() == lastModified);
+        }
+    }
+
+    /**
+     * Everything besides the coordinates interpolated data depend on
+     */
+    private static final class Context {
+        private final Properties systemProperties;
+        private final Properties userProperties;
+        private final List<String> activeProfileIds;
+        private final List<String> inactiveProfileIds;
+        private final List<String> profileIds;
+        private final int hashCode;
+
+        private Context(final ModelBuildingRequest request) {
+            this.systemProperties = (Properties) request.getSystemProperties().clone();
+            this.userProperties = (Properties) request.getUserProperties().clone();
+            this.activeProfileIds = new ArrayList<String>(request.getActiveProfileIds());
+            this.inactiveProfileIds = new ArrayList<String>(request.getInactiveProfileIds());
+            this.profileIds = new ArrayList<String>(request.getProfiles().size());
+            for (Profile profile : request.getProfiles()) {
+                profileIds.add(profile.getId());
+            }
+            this.hashCode = Arrays.hashCode(new Object[] { systemProperties, userProperties, activeProfileIds,
+                inactiveProfileIds, profileIds });
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Context)) {
+                return false;
+            }
+            final Context other = (Context) obj;
+            return hashCode == other.hashCode && systemProperties.equals(other.systemProperties)
+                && userProperties.equals(other.userProperties) && activeProfileIds.equals(other.activeProfileIds)
+                && inactiveProfileIds.equals(other.inactiveProfileIds) && profileIds.equals(other.profileIds);
+        }
+    }
+
+    static final class Key {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String tag;
+        // null for data which do not depend on the request
+        private final Context context;
+        // null for data which were not read from a POM file in a workspace
+        private final Object scope;
+        private final int hashCode;
+
+        private Key(final String groupId, final String artifactId, final String version, final String tag,
+            final Context context, final Object scope) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.tag = tag;
+            this.context = context;
+            this.scope = scope;
+            this.hashCode = Arrays.hashCode(new Object[] { groupId, artifactId, version, tag, context, scope });
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode && equal(groupId, other.groupId) && equal(artifactId, other.artifactId)
+                && equal(version, other.version) && equal(tag, other.tag) && equal(context, other.context)
+                && equal(scope, other.scope);
+        }
+
+        private static boolean equal(final Object a, final Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+
+    /**
+     * View of the shared cache bound to a single model building request
+     */
+    private final class RequestModelCache implements ModelCache {
+        private final Context context;
+        private final Object scope;
+
+        private RequestModelCache(final Context context, final Object scope) {
+            this.context = context;
+            this.scope = scope;
+        }
+
+        @Override
+        public void put(String groupId, String artifactId, String version, String tag, Object data) {
+            final File pomFile = getPomFile(data);
+            if (!RAW_TAG.equals(tag)) {
+                SharedModelCache.this.put(new Key(groupId, artifactId, version, tag, context, null), pomFile, data);
+            } else {
+                SharedModelCache.this.put(new Key(groupId, artifactId, version, tag, null, pomFile == null ? null
+                    : scope), pomFile, data);
+            }
+        }
+
+        @Override
+        public Object get(String groupId, String artifactId, String version, String tag) {
+            if (!RAW_TAG.equals(tag)) {
+                return SharedModelCache.this.get(new Key(groupId, artifactId, version, tag, context, null));
+            }
+            return SharedModelCache.this.get(new Key(groupId, artifactId, version, tag, null, scope), new Key(
+                groupId, artifactId, version, tag, null, null));
+        }
+    }
+}
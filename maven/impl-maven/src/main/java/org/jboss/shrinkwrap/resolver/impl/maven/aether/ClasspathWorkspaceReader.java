@@ -18,7 +18,7 @@
 package org.jboss.shrinkwrap.resolver.impl.maven.aether;
 
 import java.io.File;
-import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -26,25 +26,15 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-import javax.xml.xpath.XPathFactoryConfigurationException;
-
 import org.eclipse.aether.artifact.Artifact;
-import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.repository.WorkspaceReader;
 import org.eclipse.aether.repository.WorkspaceRepository;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
 /**
  * {@link WorkspaceReader} implementation capable of reading from the ClassPath
@@ -101,14 +91,19 @@ public class ClasspathWorkspaceReader implements WorkspaceReader {
         }
     }
 
+    /**
+     * Number of classpath entries checked by a single task while the index is built
+     */
+    private static final int ENTRIES_PER_TASK = 32;
+
     private final Set<String> classPathEntries = new LinkedHashSet<String>();
 
     /**
-     * Cache classpath File objects and retrieved isFile isDirectory values. Key is a classpath entry
+     * Index of classpath entries, built on first lookup
      *
-     * @see #getClasspathFileInfo(String)
+     * @see #getIndex()
      */
-    private final Map<String, FileInfo> classpathFileInfoCache = new HashMap<String, FileInfo>();
+    private volatile ClasspathIndex index;
 
     /**
      * Cache pom File objects and retrieved isFile isDirectory values. Key - child File
@@ -125,28 +120,106 @@ public class ClasspathWorkspaceReader implements WorkspaceReader {
     private final Map<File, Artifact> foundArtifactCache = new HashMap<File, Artifact>();
 
     /**
-     * Reuse DocumentBuilder.
-     *
-     * @see #getDocumentBuilder()
+     * Reuse POM reader, it is shared by tasks building the index
      */
-    private DocumentBuilder documentBuilder;
+    private final PomCoordinatesReader pomReader = new PomCoordinatesReader();
 
     /**
-     * Reuse XPath
-     *
-     * @see #getXPath()
+     * Lookup structures over the classpath entries, remembering the position of each entry on the classpath
+     */
+    private static final class ClasspathIndex {
+        private final Map<String, IndexEntry> directories = new HashMap<String, IndexEntry>();
+        private final Map<String, List<IndexEntry>> files = new HashMap<String, List<IndexEntry>>();
+        private IndexFailure failure;
+    }
+
+    private static final class IndexEntry {
+        private final int position;
+        private final File file;
+
+        private IndexEntry(final int position, final File file) {
+            this.position = position;
+            this.file = file;
+        }
+    }
+
+    private static final class IndexFailure {
+        private final int position;
+        private final RuntimeException exception;
+
+        private IndexFailure(final int position, final RuntimeException exception) {
+            this.position = position;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Results of checking classpath entries, indexed by position of the entry
      */
-    private XPath xPath;
+    private static final class CheckedEntries {
+        private final String[] entries;
+        private final FileInfo[] fileInfos;
+        private final FileInfo[] pomFileInfos;
+        private final Artifact[] foundArtifacts;
+        private final RuntimeException[] failures;
+
+        private CheckedEntries(final String[] entries) {
+            this.entries = entries;
+            this.fileInfos = new FileInfo[entries.length];
+            this.pomFileInfos = new FileInfo[entries.length];
+            this.foundArtifacts = new Artifact[entries.length];
+            this.failures = new RuntimeException[entries.length];
+        }
+    }
 
-    /*
-     * Compiled lazy-loaded xpath expressions. See getter methods.
+    /**
+     * Checks type of classpath entries in given range, locates pom.xml files of the directory ones and reads their
+     * coordinates
      */
-    private XPathExpression xPathParentGroupIdExpression;
-    private XPathExpression xPathGroupIdExpression;
-    private XPathExpression xPathArtifactIdExpression;
-    private XPathExpression xPathTypeExpression;
-    private XPathExpression xPathVersionExpression;
-    private XPathExpression xPathParentVersionExpression;
+    private static final class CheckEntriesTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CheckedEntries checked;
+        private final PomCoordinatesReader pomReader;
+        private final int from;
+        private final int to;
+
+        private CheckEntriesTask(final CheckedEntries checked, final PomCoordinatesReader pomReader, final int from,
+                final int to) {
+            this.checked = checked;
+            this.pomReader = pomReader;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ENTRIES_PER_TASK) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new CheckEntriesTask(checked, pomReader, from, middle), new CheckEntriesTask(checked,
+                        pomReader, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                final FileInfo fileInfo = new FileInfo(checked.entries[i]);
+                checked.fileInfos[i] = fileInfo;
+                if (!fileInfo.isDirectory()) {
+                    continue;
+                }
+                // TODO: This is not reliable, file might have different name
+                // FIXME: Surefire might user jar in the classpath instead of the target/classes
+                final FileInfo pomFileInfo = createPomFileInfo(fileInfo.getFile());
+                checked.pomFileInfos[i] = pomFileInfo;
+                if (pomFileInfo != null && pomFileInfo.isFile()) {
+                    try {
+                        checked.foundArtifacts[i] = createFoundArtifact(pomReader, pomFileInfo.getFile());
+                    } catch (RuntimeException e) {
+                        checked.failures[i] = e;
+                    }
+                }
+            }
+        }
+    }
 
     public ClasspathWorkspaceReader() {
         final String classPath = SecurityActions.getProperty(CLASS_PATH_KEY);
@@ -163,64 +236,148 @@ public class ClasspathWorkspaceReader implements WorkspaceReader {
 
     @Override
     public File findArtifact(final Artifact artifact) {
-        for (String classpathEntry : classPathEntries) {
-            final FileInfo fileInfo = getClasspathFileInfo(classpathEntry);
+        final ClasspathIndex index = getIndex();
+
+        // the first classpath entry which matches wins, so candidates are compared by their position
+        final IndexEntry directory = index.directories.get(artifact.getGroupId() + ":" + artifact.getArtifactId() + ":"
+                + artifact.getVersion());
+        int position = directory == null ? Integer.MAX_VALUE : directory.position;
+        File found = directory == null ? null : directory.file;
+
+        final StringBuilder name = new StringBuilder(artifact.getArtifactId()).append("-").append(
+                artifact.getVersion());
+
+        // SHRINKRES-102, consider classifier as well
+        if (!Validate.isNullOrEmpty(artifact.getClassifier())) {
+            name.append("-").append(artifact.getClassifier());
+        }
+
+        final List<IndexEntry> files = index.files.get(name.toString());
+        if (files != null) {
+            for (IndexEntry entry : files) {
+                if (entry.position > position) {
+                    break;
+                }
+                final File file = findInFile(artifact, name.toString(), entry.file);
+                if (file != null) {
+                    position = entry.position;
+                    found = file;
+                    break;
+                }
+            }
+        }
+
+        // a directory entry which would have been checked before the match has an unparsable pom.xml
+        if (index.failure != null && index.failure.position < position) {
+            throw index.failure.exception;
+        }
+        return found;
+    }
+
+    /**
+     * Checks a file entry whose name without extension is equal to {@code name}
+     */
+    private File findInFile(final Artifact artifact, final String name, final File file) {
+        // TODO: This is nasty
+        // we need to get a a pom.xml file to be sure we fetch transitive deps as well
+        if ("pom".equals(artifact.getExtension())) {
+            // try to get pom file for the project
+            final FileInfo pomFileInfo = getPomFileInfo(file);
+            if (pomFileInfo != null && pomFileInfo.isFile()) {
+                final File pomFile = pomFileInfo.getFile();
+                final Artifact foundArtifact = getFoundArtifact(pomFile);
+                if (areEquivalent(artifact, foundArtifact)) {
+                    return pomFile;
+                }
+            }
+        }
+
+        // we are looking for a non pom artifact, let's get it
+        if (file.getName().endsWith(name + "." + artifact.getExtension())) {
+            // return raw file
+            return file;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of classpath entries, building it if needed. Directory entries are indexed by groupId,
+     * artifactId and version of the pom.xml of their project, file entries by their name without extension. Entries
+     * are checked for existence and pom.xml files are read in parallel on the
+     * {@link ResolverRuntime#getPool() shared pool}, as there might be hundreds of them.
+     */
+    private ClasspathIndex getIndex() {
+        ClasspathIndex classpathIndex = index;
+        if (classpathIndex == null) {
+            synchronized (this) {
+                classpathIndex = index;
+                if (classpathIndex == null) {
+                    classpathIndex = buildIndex();
+                    index = classpathIndex;
+                }
+            }
+        }
+        return classpathIndex;
+    }
+
+    private ClasspathIndex buildIndex() {
+        final long start = System.currentTimeMillis();
+
+        final CheckedEntries checked = new CheckedEntries(classPathEntries.toArray(new String[classPathEntries
+                .size()]));
+        final RecursiveAction task = new CheckEntriesTask(checked, pomReader, 0, checked.entries.length);
+        if (checked.entries.length > ENTRIES_PER_TASK) {
+            ResolverRuntime.getPool().invoke(task);
+        } else {
+            task.invoke();
+        }
+
+        final ClasspathIndex classpathIndex = new ClasspathIndex();
+        for (int i = 0; i < checked.entries.length; i++) {
+            final FileInfo fileInfo = checked.fileInfos[i];
             final File file = fileInfo.getFile();
 
             if (fileInfo.isDirectory()) {
-                // TODO: This is not reliable, file might have different name
-                // FIXME: Surefire might user jar in the classpath instead of the target/classes
-                final FileInfo pomFileInfo = getPomFileInfo(file);
-                if (pomFileInfo != null && pomFileInfo.isFile()) {
-                    final File pomFile = pomFileInfo.getFile();
-                    final Artifact foundArtifact = getFoundArtifact(pomFile);
-                    if (areEquivalent(artifact, foundArtifact)) {
-                        return pomFile;
+                if (checked.failures[i] != null) {
+                    if (classpathIndex.failure == null) {
+                        classpathIndex.failure = new IndexFailure(i, checked.failures[i]);
+                    }
+                    continue;
+                }
+                final Artifact foundArtifact = checked.foundArtifacts[i];
+                if (foundArtifact != null) {
+                    final File pomFile = checked.pomFileInfos[i].getFile();
+                    if (!foundArtifactCache.containsKey(pomFile)) {
+                        foundArtifactCache.put(pomFile, foundArtifact);
+                    }
+                    final String key = foundArtifact.getGroupId() + ":" + foundArtifact.getArtifactId() + ":"
+                            + foundArtifact.getVersion();
+                    if (!classpathIndex.directories.containsKey(key)) {
+                        classpathIndex.directories.put(key, new IndexEntry(i, pomFile));
                     }
                 }
             }
             // this is needed for Surefire when executed as 'mvn package'
             else if (fileInfo.isFile()) {
-
-                final StringBuilder name = new StringBuilder(artifact.getArtifactId()).append("-").append(
-                        artifact.getVersion());
-
-                // SHRINKRES-102, consider classifier as well
-                if (!Validate.isNullOrEmpty(artifact.getClassifier())) {
-                    name.append("-").append(artifact.getClassifier());
-                }
-
                 String candidateName = file.getName();
                 int suffixPosition = candidateName.lastIndexOf('.');
                 if (suffixPosition != -1) {
                     candidateName = candidateName.substring(0, suffixPosition);
                 }
-
-                // TODO: This is nasty
-                // we need to get a a pom.xml file to be sure we fetch transitive deps as well
-                if (candidateName.equals(name.toString())) {
-                    if ("pom".equals(artifact.getExtension())) {
-                        // try to get pom file for the project
-                        final FileInfo pomFileInfo = getPomFileInfo(file);
-                        if (pomFileInfo != null && pomFileInfo.isFile()) {
-                            final File pomFile = pomFileInfo.getFile();
-                            final Artifact foundArtifact = getFoundArtifact(pomFile);
-                            if (areEquivalent(artifact, foundArtifact)) {
-                                return pomFile;
-                            }
-                        }
-                    }
-
-                    // we are looking for a non pom artifact, let's get it
-                    name.append(".").append(artifact.getExtension());
-                    if (file.getName().endsWith(name.toString())) {
-                        // return raw file
-                        return file;
-                    }
+                List<IndexEntry> candidates = classpathIndex.files.get(candidateName);
+                if (candidates == null) {
+                    candidates = new ArrayList<IndexEntry>(1);
+                    classpathIndex.files.put(candidateName, candidates);
                 }
+                candidates.add(new IndexEntry(i, file));
             }
         }
-        return null;
+
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Indexed " + checked.entries.length + " classpath entries in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        }
+        return classpathIndex;
     }
 
     /**
@@ -252,15 +409,6 @@ public class ClasspathWorkspaceReader implements WorkspaceReader {
         return new LinkedHashSet<String>(Arrays.asList(classPath.split(String.valueOf(File.pathSeparatorChar))));
     }
 
-    private FileInfo getClasspathFileInfo(final String classpathEntry) {
-        FileInfo classpathFileInfo = classpathFileInfoCache.get(classpathEntry);
-        if (classpathFileInfo == null) {
-            classpathFileInfo = new FileInfo(classpathEntry);
-            classpathFileInfoCache.put(classpathEntry, classpathFileInfo);
-        }
-        return classpathFileInfo;
-    }
-
     private FileInfo getPomFileInfo(final File childFile) {
         FileInfo pomFileInfo = pomFileInfoCache.get(childFile);
         if (pomFileInfo == null) {
@@ -272,7 +420,7 @@ public class ClasspathWorkspaceReader implements WorkspaceReader {
         return pomFileInfo;
     }
 
-    private FileInfo createPomFileInfo(final File childFile) {
+    private static FileInfo createPomFileInfo(final File childFile) {
 
         // assuming that directory entry on classpath is target/classes directory, we need
         // to go two directories up in the structure and grab a pom.xml file from there
@@ -291,13 +439,13 @@ public class ClasspathWorkspaceReader implements WorkspaceReader {
     private Artifact getFoundArtifact(final File pomFile) {
         Artifact foundArtifact = foundArtifactCache.get(pomFile);
         if (foundArtifact == null) {
-            foundArtifact = createFoundArtifact(pomFile);
+            foundArtifact = createFoundArtifact(pomReader, pomFile);
             foundArtifactCache.put(pomFile, foundArtifact);
         }
         return foundArtifact;
     }
 
-    private Artifact createFoundArtifact(final File pomFile) {
+    private static Artifact createFoundArtifact(final PomCoordinatesReader pomReader, final File pomFile) {
         try {
             if (log.isLoggable(Level.FINE)) {
                 log.fine("Processing " + pomFile.getAbsolutePath() + " for classpath artifact resolution");
@@ -305,103 +453,9 @@ public class ClasspathWorkspaceReader implements WorkspaceReader {
 
             // TODO: load pom using Maven Model?
             // This might include a cycle in graph reconstruction, to be investigated
-            final Document pom = loadPom(pomFile);
-
-            String groupId = getXPathGroupIdExpression().evaluate(pom);
-            String artifactId = getXPathArtifactIdExpression().evaluate(pom);
-            String type = getXPathTypeExpression().evaluate(pom);
-            String version = getXPathVersionExpression().evaluate(pom);
-
-            if (Validate.isNullOrEmpty(groupId)) {
-                groupId = getXPathParentGroupIdExpression().evaluate(pom);
-            }
-            if (Validate.isNullOrEmpty(type)) {
-                type = "jar";
-            }
-            if (version == null || version.equals("")) {
-                version = getXPathParentVersionExpression().evaluate(pom);
-            }
-
-            final Artifact foundArtifact = new DefaultArtifact(groupId + ":" + artifactId + ":" + type + ":" + version);
-            foundArtifact.setFile(pomFile);
-            return foundArtifact;
+            return pomReader.read(pomFile);
         } catch (final Exception e) {
             throw new RuntimeException("Could not parse pom.xml: " + pomFile, e);
         }
     }
-
-    private Document loadPom(final File pom) throws IOException, SAXException, ParserConfigurationException {
-        final DocumentBuilder documentBuilder = getDocumentBuilder();
-        return documentBuilder.parse(pom);
-    }
-
-    private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
-        if (documentBuilder == null) {
-            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            documentBuilder = factory.newDocumentBuilder();
-        }
-        return documentBuilder;
-    }
-
-    /*
-     * XPath expressions reuse
-     */
-
-    private XPath getXPath() {
-        if (xPath == null) {
-            XPathFactory factory;
-            try {
-                factory = XPathFactory.newInstance(XPathFactory.DEFAULT_OBJECT_MODEL_URI,
-                                                   "com.sun.org.apache.xpath.internal.jaxp.XPathFactoryImpl",
-                                                   ClassLoader.getSystemClassLoader());
-            } catch (XPathFactoryConfigurationException e) {
-                factory = XPathFactory.newInstance();
-            }
-            xPath = factory.newXPath();
-        }
-        return xPath;
-    }
-
-    private XPathExpression getXPathParentGroupIdExpression() throws XPathExpressionException {
-        if (xPathParentGroupIdExpression == null) {
-            xPathParentGroupIdExpression = getXPath().compile("/project/parent/groupId");
-        }
-        return xPathParentGroupIdExpression;
-    }
-
-    private XPathExpression getXPathGroupIdExpression() throws XPathExpressionException {
-        if (xPathGroupIdExpression == null) {
-            xPathGroupIdExpression = getXPath().compile("/project/groupId");
-        }
-        return xPathGroupIdExpression;
-    }
-
-    private XPathExpression getXPathArtifactIdExpression() throws XPathExpressionException {
-        if (xPathArtifactIdExpression == null) {
-            xPathArtifactIdExpression = getXPath().compile("/project/artifactId");
-        }
-        return xPathArtifactIdExpression;
-    }
-
-    private XPathExpression getXPathTypeExpression() throws XPathExpressionException {
-        if (xPathTypeExpression == null) {
-            xPathTypeExpression = getXPath().compile("/project/packaging");
-        }
-        return xPathTypeExpression;
-    }
-
-    private XPathExpression getXPathVersionExpression() throws XPathExpressionException {
-        if (xPathVersionExpression == null) {
-            xPathVersionExpression = getXPath().compile("/project/version");
-        }
-        return xPathVersionExpression;
-    }
-
-    private XPathExpression getXPathParentVersionExpression() throws XPathExpressionException {
-        if (xPathParentVersionExpression == null) {
-            xPathParentVersionExpression = getXPath().compile("/project/parent/version");
-        }
-        return xPathParentVersionExpression;
-    }
-
 }
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+
+/**
+ * Reads coordinates of a project from its pom.xml file. Only {@code groupId}, {@code artifactId}, {@code version} and
+ * {@code packaging} of the project and {@code groupId} and {@code version} of its parent are read, the file is streamed
+ * and reading stops as soon as all project coordinates are known. Missing groupId and version are taken from the parent,
+ * missing packaging defaults to {@code jar}.
+ * <p>
+ * The reader can be used by several threads, its factory is configured once and afterwards only creates stream readers.
+ */
+final class PomCoordinatesReader {
+
+    private static final int GROUP_ID = 0;
+    private static final int ARTIFACT_ID = 1;
+    private static final int VERSION = 2;
+    private static final int PACKAGING = 3;
+    private static final int PARENT_GROUP_ID = 4;
+    private static final int PARENT_VERSION = 5;
+
+    private final XMLInputFactory factory;
+
+    PomCoordinatesReader() {
+        this.factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+    }
+
+    /**
+     * Reads project coordinates, the returned artifact has pom.xml file set as its file
+     *
+     * @param pomFile the pom.xml file
+     * @return the project artifact
+     * @throws IOException if the file could not be read
+     * @throws XMLStreamException if the file is not a well formed XML
+     */
+    Artifact read(final File pomFile) throws IOException, XMLStreamException {
+        final String[] values = new String[6];
+
+        final InputStream in = new BufferedInputStream(new FileInputStream(pomFile));
+        try {
+            final XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                readValues(reader, values);
+            } finally {
+                reader.close();
+            }
+        } finally {
+            in.close();
+        }
+
+        String groupId = values[GROUP_ID];
+        String version = values[VERSION];
+        String type = values[PACKAGING];
+        if (Validate.isNullOrEmpty(groupId)) {
+            groupId = values[PARENT_GROUP_ID];
+        }
+        if (Validate.isNullOrEmpty(type)) {
+            type = "jar";
+        }
+        if (Validate.isNullOrEmpty(version)) {
+            version = values[PARENT_VERSION];
+        }
+
+        final Artifact artifact = new DefaultArtifact(nullToEmpty(groupId) + ":" + nullToEmpty(values[ARTIFACT_ID])
+                + ":" + type + ":" + nullToEmpty(version));
+        return artifact.setFile(pomFile);
+    }
+
+    private static void readValues(final XMLStreamReader reader, final String[] values) throws XMLStreamException {
+        // depth 1 is <project>, 2 is its children, 3 is children of <parent>
+        int depth = 0;
+        boolean inProject = false;
+        boolean inParent = false;
+        int found = 0;
+
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                final String name = reader.getLocalName();
+                if (depth == 1) {
+                    inProject = "project".equals(name);
+                    if (!inProject) {
+                        return;
+                    }
+                } else if (depth == 2) {
+                    final int index = projectIndex(name);
+                    if (index != -1 && values[index] == null) {
+                        values[index] = readText(reader);
+                        depth--;
+                        // parent values are needed only if the project does not define its own
+                        if (++found == 4) {
+                            return;
+                        }
+                    } else {
+                        inParent = "parent".equals(name);
+                    }
+                } else if (depth == 3 && inParent) {
+                    final int index = parentIndex(name);
+                    if (index != -1 && values[index] == null) {
+                        values[index] = readText(reader);
+                        depth--;
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 2) {
+                    inParent = false;
+                }
+                depth--;
+                if (depth == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads all the text within current element, including text of its children, and moves to its end
+     */
+    private static String readText(final XMLStreamReader reader) throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    text.append(reader.getText());
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return text.toString();
+    }
+
+    private static int projectIndex(final String name) {
+        if ("groupId".equals(name)) {
+            return GROUP_ID;
+        } else if ("artifactId".equals(name)) {
+            return ARTIFACT_ID;
+        } else if ("version".equals(name)) {
+            return VERSION;
+        } else if ("packaging".equals(name)) {
+            return PACKAGING;
+        }
+        return -1;
+    }
+
+    private static int parentIndex(final String name) {
+        if ("groupId".equals(name)) {
+            return PARENT_GROUP_ID;
+        } else if ("version".equals(name)) {
+            return PARENT_VERSION;
+        }
+        return -1;
+    }
+
+    private static String nullToEmpty(final String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SyncContext;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.impl.SyncContextFactory;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.LocalArtifactRequest;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.LocalRepositoryManager;
+
+/**
+ * A {@link SyncContextFactory} which serializes downloads of the same artifact to the same local repository within this
+ * JVM. Aether resolves artifacts under such context, so when two sessions ask for the same missing artifact at the same
+ * time, the second one waits for the download of the first one and then finds the artifact in local repository,
+ * instead of downloading it once again.
+ * <p>
+ * Aether holds the context for a whole batch of artifacts. Only artifacts missing in local repository and SNAPSHOTs,
+ * which might get updated, are locked exclusively; released artifacts already present are locked as shared, so
+ * concurrent resolutions of the same already downloaded artifacts do not wait for each other.
+ * <p>
+ * Locks of a context are always acquired in the same order, so contexts can not deadlock each other. Metadata are not
+ * locked, as Aether acquires them while holding artifact locks.
+ */
+class ArtifactSyncContextFactory implements SyncContextFactory {
+
+    /**
+     * Locks currently held or awaited, an entry is removed as soon as nobody uses it
+     */
+    private static final Map<String, LockEntry> LOCKS = new HashMap<String, LockEntry>();
+
+    @Override
+    public SyncContext newInstance(final RepositorySystemSession session, final boolean shared) {
+        return new ArtifactSyncContext(session, shared);
+    }
+
+    private static final class LockEntry {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private int users;
+    }
+
+    private static final class HeldLock {
+        private final String key;
+        private final Lock lock;
+
+        HeldLock(final String key, final Lock lock) {
+            this.key = key;
+            this.lock = lock;
+        }
+    }
+
+    private static final class ArtifactSyncContext implements SyncContext {
+        private final RepositorySystemSession session;
+        private final boolean shared;
+        private final String prefix;
+        private final List<HeldLock> held = new ArrayList<HeldLock>();
+
+        ArtifactSyncContext(final RepositorySystemSession session, final boolean shared) {
+            final LocalRepository localRepository = session.getLocalRepository();
+            this.session = session;
+            this.shared = shared;
+            this.prefix = localRepository == null || localRepository.getBasedir() == null ? "" : localRepository
+                    .getBasedir().getAbsolutePath() + '|';
+        }
+
+        @Override
+        public void acquire(final Collection<? extends Artifact> artifacts, final Collection<? extends Metadata> metadata) {
+            if (artifacts == null || artifacts.isEmpty()) {
+                return;
+            }
+
+            // sorted, so all the contexts lock in the same order; the value says whether the lock can be shared
+            final TreeMap<String, Boolean> keys = new TreeMap<String, Boolean>();
+            for (Artifact artifact : artifacts) {
+                final String key = prefix + artifact.getGroupId() + ':' + artifact.getArtifactId() + ':'
+                        + artifact.getExtension() + ':' + artifact.getClassifier() + ':' + artifact.getBaseVersion();
+                final Boolean previous = keys.get(key);
+                keys.put(key, (previous == null || previous) && (shared || isLocal(artifact)));
+            }
+            for (HeldLock lock : held) {
+                keys.remove(lock.key);
+            }
+
+            for (Map.Entry<String, Boolean> keyEntry : keys.entrySet()) {
+                final String key = keyEntry.getKey();
+                final LockEntry entry;
+                synchronized (LOCKS) {
+                    LockEntry existing = LOCKS.get(key);
+                    if (existing == null) {
+                        existing = new LockEntry();
+                        LOCKS.put(key, existing);
+                    }
+                    existing.users++;
+                    entry = existing;
+                }
+                final Lock lock = keyEntry.getValue() ? entry.lock.readLock() : entry.lock.writeLock();
+                lock.lock();
+                held.add(new HeldLock(key, lock));
+            }
+        }
+
+        /**
+         * Returns whether a released artifact is already present in local repository, so it will not be downloaded
+         */
+        private boolean isLocal(final Artifact artifact) {
+            final LocalRepositoryManager manager = session.getLocalRepositoryManager();
+            if (manager == null || artifact.isSnapshot()) {
+                return false;
+            }
+            return manager.find(session, new LocalArtifactRequest(artifact, null, null)).getFile() != null;
+        }
+
+        @Override
+        public void close() {
+            // release in reverse order
+            for (int i = held.size() - 1; i >= 0; i--) {
+                final HeldLock lock = held.get(i);
+                synchronized (LOCKS) {
+                    lock.lock.unlock();
+                    if (--LOCKS.get(lock.key).users == 0) {
+                        LOCKS.remove(lock.key);
+                    }
+                }
+            }
+            held.clear();
+        }
+    }
+}
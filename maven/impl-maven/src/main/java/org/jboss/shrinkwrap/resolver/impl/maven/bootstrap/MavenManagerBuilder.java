@@ -17,10 +17,18 @@
 package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apache.maven.settings.Mirror;
 import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Server;
 import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.ConfigurationProperties;
 import org.eclipse.aether.RepositoryListener;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
@@ -46,6 +54,7 @@ import org.eclipse.aether.util.graph.transformer.JavaScopeSelector;
 import org.eclipse.aether.util.graph.transformer.NearestVersionSelector;
 import org.eclipse.aether.util.graph.transformer.SimpleOptionalitySelector;
 import org.eclipse.aether.util.graph.traverser.FatArtifactTraverser;
+import org.eclipse.aether.util.listener.ChainedTransferListener;
 import org.eclipse.aether.util.repository.DefaultMirrorSelector;
 import org.eclipse.aether.util.repository.DefaultProxySelector;
 import org.eclipse.aether.util.repository.SimpleArtifactDescriptorPolicy;
@@ -53,6 +62,7 @@ import org.jboss.shrinkwrap.resolver.impl.maven.aether.ClasspathWorkspaceReader;
 import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
 import org.jboss.shrinkwrap.resolver.impl.maven.logging.LogRepositoryListener;
 import org.jboss.shrinkwrap.resolver.impl.maven.logging.LogTransferListener;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.MetricsTransferListener;
 import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
 
 /**
@@ -62,6 +72,7 @@ import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
  *
  */
 class MavenManagerBuilder {
+    private static final Logger log = Logger.getLogger(MavenManagerBuilder.class.getName());
 
     public static final String USE_LEGACY_REPO_KEY = "maven.legacyLocalRepo";
 
@@ -111,12 +122,12 @@ class MavenManagerBuilder {
     }
 
     /**
-     * Gets the transfer listener
+     * Gets the transfer listener, which logs transfers and records them to resolution metrics
      *
      * @return the listener
      */
     public TransferListener transferListerer() {
-        return new LogTransferListener();
+        return ChainedTransferListener.newInstance(new LogTransferListener(), new MetricsTransferListener());
     }
 
     /**
@@ -186,6 +197,58 @@ class MavenManagerBuilder {
         return dps;
     }
 
+    /**
+     * Gets configuration properties derived from {@code <server><configuration>} elements in settings.xml. HTTP headers
+     * defined as {@code <httpHeaders><property><name/><value/></property></httpHeaders>} and {@code connectTimeout} and
+     * {@code requestTimeout} values in milliseconds are translated to per repository properties of the HTTP transport,
+     * the same way Maven does.
+     *
+     * @return the configuration properties, never {@code null}
+     */
+    public Map<String, Object> serverConfiguration() {
+        final Map<String, Object> properties = new HashMap<String, Object>();
+
+        for (Server server : settings.getServers()) {
+            if (!(server.getConfiguration() instanceof Xpp3Dom)) {
+                continue;
+            }
+            final Xpp3Dom configuration = (Xpp3Dom) server.getConfiguration();
+
+            final Xpp3Dom headersConfiguration = configuration.getChild("httpHeaders");
+            if (headersConfiguration != null) {
+                final Map<String, String> headers = new LinkedHashMap<String, String>();
+                for (Xpp3Dom property : headersConfiguration.getChildren("property")) {
+                    final Xpp3Dom name = property.getChild("name");
+                    final Xpp3Dom value = property.getChild("value");
+                    if (name != null && name.getValue() != null) {
+                        headers.put(name.getValue().trim(), value == null || value.getValue() == null ? "" : value
+                                .getValue().trim());
+                    }
+                }
+                properties.put(ConfigurationProperties.HTTP_HEADERS + "." + server.getId(), headers);
+            }
+
+            putTimeout(properties, server, configuration, "connectTimeout", ConfigurationProperties.CONNECT_TIMEOUT);
+            putTimeout(properties, server, configuration, "requestTimeout", ConfigurationProperties.REQUEST_TIMEOUT);
+        }
+
+        return properties;
+    }
+
+    private static void putTimeout(final Map<String, Object> properties, final Server server,
+            final Xpp3Dom configuration, final String element, final String key) {
+        final Xpp3Dom timeout = configuration.getChild(element);
+        if (timeout == null || timeout.getValue() == null) {
+            return;
+        }
+        try {
+            properties.put(key + "." + server.getId(), Integer.valueOf(timeout.getValue().trim()));
+        } catch (NumberFormatException e) {
+            log.log(Level.WARNING, "Ignoring invalid {0} value {1} of server {2}",
+                    new Object[] { element, timeout.getValue(), server.getId() });
+        }
+    }
+
     /**
      * Gets workspace reader
      *
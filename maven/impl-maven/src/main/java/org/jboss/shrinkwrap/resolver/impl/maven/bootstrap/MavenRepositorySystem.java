@@ -16,10 +16,13 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,8 +31,11 @@ import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyCollectionException;
 import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
@@ -39,8 +45,12 @@ import org.eclipse.aether.resolution.DependencyResult;
 import org.eclipse.aether.resolution.VersionRangeRequest;
 import org.eclipse.aether.resolution.VersionRangeResolutionException;
 import org.eclipse.aether.resolution.VersionRangeResult;
+import org.eclipse.aether.util.graph.visitor.FilteringDependencyVisitor;
+import org.eclipse.aether.util.graph.visitor.PreorderNodeListGenerator;
+import org.eclipse.aether.util.graph.visitor.TreeDependencyVisitor;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenWorkingSession;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.AcceptAllFilter;
 import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
 import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
 
@@ -52,14 +62,38 @@ import org.jboss.shrinkwrap.resolver.impl.maven.convert.MavenConverter;
  */
 public class MavenRepositorySystem {
 
+    /**
+     * Sets maximal number of artifacts downloaded concurrently from a single repository, defaults to 8. Artifacts are
+     * streamed directly to local repository and their checksums are verified while they are being transferred.
+     */
+    public static final String DOWNLOAD_THREADS_KEY = "org.jboss.shrinkwrap.resolver.download-threads";
+
+    /**
+     * Selects transport used for remote repositories. HTTP(S) repositories are accessed by a pooled HTTP client keeping
+     * connections alive between requests and resolutions by default; setting this property to {@code wagon} switches
+     * back to the lightweight Wagon transport. Read once, when the repository system is bootstrapped.
+     */
+    public static final String TRANSPORT_KEY = "org.jboss.shrinkwrap.resolver.transport";
+
+    /**
+     * Repository system and session factory shared by all instances within this class loader, created lazily
+     */
+    private static volatile RepositorySystem sharedSystem;
+    private static volatile RepositorySystemSessionFactory sharedSessionFactory;
+    private static volatile ParallelDependencyCollector sharedParallelCollector;
+
     private final RepositorySystem system;
+    private final RepositorySystemSessionFactory sessionFactory;
+    private final ParallelDependencyCollector parallelCollector;
 
     /**
-     * Creates a Maven repository system
+     * Creates a Maven repository system. The underlying {@link RepositorySystem} and all its services are bootstrapped
+     * only once and shared by all instances, as they hold no per-session state.
      */
     public MavenRepositorySystem() {
-        this.system = getRepositorySystem();
-
+        this.system = getSharedRepositorySystem();
+        this.sessionFactory = sharedSessionFactory;
+        this.parallelCollector = sharedParallelCollector;
     }
 
     /**
@@ -73,31 +107,21 @@ public class MavenRepositorySystem {
      * @return A working session spawned from the repository system.
      */
     public DefaultRepositorySystemSession getSession(final Settings settings, boolean legacyLocalRepository) {
-        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
-
-        MavenManagerBuilder builder = new MavenManagerBuilder(system, settings);
-
-        session.setLocalRepositoryManager(builder.localRepositoryManager(session, legacyLocalRepository));
-        session.setWorkspaceReader(builder.workspaceReader());
-        session.setTransferListener(builder.transferListerer());
-        session.setRepositoryListener(builder.repositoryListener());
-        session.setOffline(settings.isOffline());
-        session.setMirrorSelector(builder.mirrorSelector());
-        session.setProxySelector(builder.proxySelector());
-        session.setDependencyManager(builder.dependencyManager());
-        session.setArtifactDescriptorPolicy(builder.artifactRepositoryPolicy());
-
-        session.setDependencyTraverser(builder.dependencyTraverser());
-        session.setDependencyGraphTransformer(builder.dependencyGraphTransformer());
-
-        // set artifact stereotypes
-        session.setArtifactTypeRegistry(builder.artifactTypeRegistry());
-
-        // set system properties for interpolation
-        session.setSystemProperties(SecurityActions.getProperties());
-        session.setConfigProperties(SecurityActions.getProperties());
+        return sessionFactory.newSession(settings, legacyLocalRepository);
+    }
 
-        return session;
+    /**
+     * Creates a copy of the session which can be shared by resolutions running concurrently. The copy shares
+     * repository cache and session data with the original session, so artifact descriptors read by one resolution are
+     * reused by all the others, while access to workspace reader is serialized.
+     *
+     * @param session The session to be copied
+     * @return A session which can be used by several threads at once
+     */
+    public DefaultRepositorySystemSession getConcurrentSession(final RepositorySystemSession session) {
+        final DefaultRepositorySystemSession concurrentSession = new DefaultRepositorySystemSession(session);
+        concurrentSession.setWorkspaceReader(SynchronizedWorkspaceReader.wrap(session.getWorkspaceReader()));
+        return concurrentSession;
     }
 
     /**
@@ -115,11 +139,117 @@ public class MavenRepositorySystem {
     public Collection<ArtifactResult> resolveDependencies(final RepositorySystemSession repoSession,
             final MavenWorkingSession swrSession, final CollectRequest request, final MavenResolutionFilter[] filters)
             throws DependencyResolutionException {
+        return resolveDependencies(repoSession, swrSession, request, filters, false);
+    }
+
+    /**
+     * Resolves artifact dependencies, optionally reading artifact descriptors of first-level dependencies
+     * concurrently before the dependency graph is collected. The collected graph is the same in both cases.
+     *
+     * The {@link ArtifactResult} contains a reference to a file in Maven local repository.
+     *
+     * @param repoSession The current Maven session
+     * @param swrSession SWR Aether session abstraction
+     * @param request The request to be computed
+     * @param filters The filters of dependency results
+     * @param collectInParallel Whether to read artifact descriptors concurrently
+     * @return A collection of artifacts which have built dependency tree from {@code request}
+     * @throws DependencyResolutionException If a dependency could not be computed or collected
+     * @see ParallelDependencyCollector
+     */
+    public Collection<ArtifactResult> resolveDependencies(final RepositorySystemSession repoSession,
+            final MavenWorkingSession swrSession, final CollectRequest request, final MavenResolutionFilter[] filters,
+            final boolean collectInParallel) throws DependencyResolutionException {
+        return resolveDependencies(repoSession,
+                Collections.unmodifiableList(new ArrayList<MavenDependency>(swrSession.getDependenciesForResolution())),
+                request, filters, collectInParallel);
+    }
+
+    /**
+     * Resolves artifact dependencies of given dependencies. Unlike other variants, this one does not touch any
+     * {@link MavenWorkingSession}, so it can be called concurrently with a session returned by
+     * {@link #getConcurrentSession(RepositorySystemSession)}.
+     *
+     * The {@link ArtifactResult} contains a reference to a file in Maven local repository.
+     *
+     * @param repoSession The current Maven session
+     * @param dependenciesForResolution The dependencies the {@code request} was created from, passed to filters
+     * @param request The request to be computed
+     * @param filters The filters of dependency results
+     * @param collectInParallel Whether to read artifact descriptors concurrently
+     * @return A collection of artifacts which have built dependency tree from {@code request}
+     * @throws DependencyResolutionException If a dependency could not be computed or collected
+     */
+    public Collection<ArtifactResult> resolveDependencies(final RepositorySystemSession repoSession,
+            final List<MavenDependency> dependenciesForResolution, final CollectRequest request,
+            final MavenResolutionFilter[] filters, final boolean collectInParallel)
+            throws DependencyResolutionException {
         final DependencyRequest depRequest = new DependencyRequest(request, new MavenResolutionFilterWrap(filters,
-                Collections.unmodifiableList(new ArrayList<MavenDependency>(swrSession.getDependenciesForResolution()))));
+                dependenciesForResolution));
 
-        DependencyResult result = system.resolveDependencies(repoSession, depRequest);
-        return result.getArtifactResults();
+        final RepositorySystemSession session = getCollectSession(repoSession, request, collectInParallel);
+        try {
+            DependencyResult result = system.resolveDependencies(session, depRequest);
+            return result.getArtifactResults();
+        } finally {
+            releaseCollectSession(session, collectInParallel);
+        }
+    }
+
+    /**
+     * Collects the dependency graph of given dependencies and returns requests of artifacts which
+     * {@link #resolveDependencies(RepositorySystemSession, List, CollectRequest, MavenResolutionFilter[], boolean)}
+     * would resolve, in the same order. Nothing is resolved, so the caller is free to resolve the artifacts one by one.
+     *
+     * @param repoSession The current Maven session
+     * @param dependenciesForResolution The dependencies the {@code request} was created from, passed to filters
+     * @param request The request to be computed
+     * @param filters The filters of dependency results
+     * @param collectInParallel Whether to read artifact descriptors concurrently
+     * @return Requests of artifacts in the collected graph accepted by the filters
+     * @throws DependencyCollectionException If the dependency graph could not be collected
+     */
+    public List<ArtifactRequest> collectArtifactRequests(final RepositorySystemSession repoSession,
+            final List<MavenDependency> dependenciesForResolution, final CollectRequest request,
+            final MavenResolutionFilter[] filters, final boolean collectInParallel)
+            throws DependencyCollectionException {
+        final RepositorySystemSession session = getCollectSession(repoSession, request, collectInParallel);
+        final CollectResult result;
+        try {
+            result = system.collectDependencies(session, request);
+        } finally {
+            releaseCollectSession(session, collectInParallel);
+        }
+
+        // visit the graph the same way as resolution of dependencies does
+        final PreorderNodeListGenerator nodes = new PreorderNodeListGenerator();
+        result.getRoot().accept(new TreeDependencyVisitor(new FilteringDependencyVisitor(nodes,
+                new MavenResolutionFilterWrap(filters, dependenciesForResolution))));
+
+        final List<ArtifactRequest> requests = new ArrayList<ArtifactRequest>(nodes.getNodes().size());
+        for (final DependencyNode node : nodes.getNodes()) {
+            if (node.getDependency() != null) {
+                requests.add(new ArtifactRequest(node));
+            }
+        }
+        return requests;
+    }
+
+    private RepositorySystemSession getCollectSession(final RepositorySystemSession repoSession,
+            final CollectRequest request, final boolean collectInParallel) {
+        if (!collectInParallel) {
+            return repoSession;
+        }
+        // data and cache stay shared with the session, prefetched descriptors are kept only for this request
+        final DefaultRepositorySystemSession collectSession = new DefaultRepositorySystemSession(repoSession);
+        parallelCollector.prefetch(collectSession, request);
+        return collectSession;
+    }
+
+    private void releaseCollectSession(final RepositorySystemSession collectSession, final boolean collectInParallel) {
+        if (collectInParallel) {
+            parallelCollector.release(collectSession);
+        }
     }
 
     /**
@@ -150,16 +280,41 @@ public class MavenRepositorySystem {
         return system.resolveVersionRange(session, request);
     }
 
+    /**
+     * Returns the repository system shared by all instances, bootstrapping it on first call. Bootstrap failures are
+     * not cached, so the next call will try again.
+     *
+     * @return A repository system
+     * @throws UnsupportedOperationException if {@link RepositorySystem} was not bootstrapped correctly
+     */
+    private static RepositorySystem getSharedRepositorySystem() throws UnsupportedOperationException {
+        RepositorySystem repositorySystem = sharedSystem;
+        if (repositorySystem == null) {
+            synchronized (MavenRepositorySystem.class) {
+                repositorySystem = sharedSystem;
+                if (repositorySystem == null) {
+                    final ShrinkWrapResolverServiceLocator locator = new ShrinkWrapResolverServiceLocator();
+                    repositorySystem = getRepositorySystem(locator);
+                    sharedSessionFactory = new RepositorySystemSessionFactory(repositorySystem);
+                    sharedParallelCollector = new ParallelDependencyCollector(repositorySystem,
+                            locator.getService(RemoteRepositoryManager.class));
+                    sharedSystem = repositorySystem;
+                }
+            }
+        }
+        return repositorySystem;
+    }
+
     /**
      * Finds a current implementation of repository system. A {@link RepositorySystem} is an entry point to dependency
      * resolution
      *
+     * @param locator The locator providing all the services
      * @return A repository system
      * @throws UnsupportedOperationException if {@link RepositorySystem} was not bootstrapped correctly
      */
-    private RepositorySystem getRepositorySystem() throws UnsupportedOperationException {
-
-        final ShrinkWrapResolverServiceLocator locator = new ShrinkWrapResolverServiceLocator();
+    private static RepositorySystem getRepositorySystem(final ShrinkWrapResolverServiceLocator locator)
+            throws UnsupportedOperationException {
 
         // if running from inside plugin, we required Maven 3.1.0 or newer
         // that happens because Maven handles Aether dependencies in plugins a special way so we can't provide our own
@@ -170,18 +325,27 @@ public class MavenRepositorySystem {
     }
 }
 
+/**
+ * Adapts {@link MavenResolutionFilter}s to an Aether {@link org.eclipse.aether.graph.DependencyFilter}.
+ * <p>
+ * The filter is evaluated for every node of the graph, so each Aether dependency is converted only once per request
+ * and ancestors are passed as a view converting them only when a filter asks for them. Filters accepting everything are
+ * not evaluated at all. The view reflects the current path in the graph and it is valid only during the call of a
+ * filter. Instances are not thread-safe, a new one is created for each request.
+ */
 class MavenResolutionFilterWrap implements org.eclipse.aether.graph.DependencyFilter {
     private static final Logger log = Logger.getLogger(MavenResolutionFilterWrap.class.getName());
 
     private final MavenResolutionFilter[] filters;
     private final List<MavenDependency> dependenciesForResolution;
+    private final Map<Dependency, MavenDependency> converted = new IdentityHashMap<Dependency, MavenDependency>();
 
     MavenResolutionFilterWrap(final MavenResolutionFilter[] filters,
             final List<MavenDependency> dependenciesForResolution) {
         assert filters != null : "filters must be specified, even if empty";
         assert dependenciesForResolution != null : "declaredDependencies must be specified";
         this.dependenciesForResolution = dependenciesForResolution;
-        this.filters = filters;
+        this.filters = withoutAcceptAllFilters(filters);
     }
 
     /**
@@ -197,20 +361,18 @@ class MavenResolutionFilterWrap implements org.eclipse.aether.graph.DependencyFi
             return false;
         }
 
-        List<MavenDependency> ancestors = new ArrayList<MavenDependency>();
-        for (DependencyNode parent : parents) {
-            Dependency parentDependency = parent.getDependency();
-            if (parentDependency != null) {
-                ancestors.add(MavenConverter.fromDependency(parentDependency));
-            }
+        if (filters.length == 0) {
+            return true;
         }
 
         if (log.isLoggable(Level.FINER)) {
             log.log(Level.FINER, "Filtering {0} using {1} filters", new Object[] { dependency, filters.length });
         }
 
+        final MavenDependency candidate = convert(dependency);
+        final List<MavenDependency> ancestors = new Ancestors(parents);
         for (final MavenResolutionFilter filter : filters) {
-            if (!filter.accepts(MavenConverter.fromDependency(dependency), dependenciesForResolution, ancestors)) {
+            if (!filter.accepts(candidate, dependenciesForResolution, ancestors)) {
                 if (log.isLoggable(Level.FINER)) {
                     log.log(Level.FINER, "Dependency {0} rejected by {1}", new Object[] { dependency, filter });
                 }
@@ -225,4 +387,76 @@ class MavenResolutionFilterWrap implements org.eclipse.aether.graph.DependencyFi
         return true;
     }
 
+    /**
+     * Converts the dependency, reusing the result for the very same instance. Aether dependencies are immutable and
+     * parents are always visited before their children, so ancestors are converted once at most.
+     */
+    private MavenDependency convert(final Dependency dependency) {
+        MavenDependency result = converted.get(dependency);
+        if (result == null) {
+            result = MavenConverter.fromDependency(dependency);
+            converted.put(dependency, result);
+        }
+        return result;
+    }
+
+    private static MavenResolutionFilter[] withoutAcceptAllFilters(final MavenResolutionFilter[] filters) {
+        int count = 0;
+        for (final MavenResolutionFilter filter : filters) {
+            if (!(filter instanceof AcceptAllFilter)) {
+                count++;
+            }
+        }
+        if (count == filters.length) {
+            return filters;
+        }
+        final MavenResolutionFilter[] effective = new MavenResolutionFilter[count];
+        int i = 0;
+        for (final MavenResolutionFilter filter : filters) {
+            if (!(filter instanceof AcceptAllFilter)) {
+                effective[i++] = filter;
+            }
+        }
+        return effective;
+    }
+
+    /**
+     * Ancestors of a node, nearest first, skipping the ones without dependency. Dependencies are collected on first
+     * access and converted when a filter asks for them.
+     */
+    private final class Ancestors extends AbstractList<MavenDependency> {
+        private final List<DependencyNode> parents;
+        private Dependency[] dependencies;
+
+        Ancestors(final List<DependencyNode> parents) {
+            this.parents = parents;
+        }
+
+        @Override
+        public MavenDependency get(final int index) {
+            final Dependency[] ancestors = dependencies();
+            if (index < 0 || index >= ancestors.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ancestors.length);
+            }
+            return convert(ancestors[index]);
+        }
+
+        @Override
+        public int size() {
+            return dependencies().length;
+        }
+
+        private Dependency[] dependencies() {
+            if (dependencies == null) {
+                final List<Dependency> list = new ArrayList<Dependency>(parents.size());
+                for (final DependencyNode parent : parents) {
+                    if (parent.getDependency() != null) {
+                        list.add(parent.getDependency());
+                    }
+                }
+                dependencies = list.toArray(new Dependency[list.size()]);
+            }
+            return dependencies;
+        }
+    }
 }
@@ -16,9 +16,11 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +43,8 @@ import org.apache.maven.settings.crypto.SettingsDecryptionRequest;
 import org.apache.maven.settings.crypto.SettingsDecryptionResult;
 import org.jboss.shrinkwrap.resolver.api.InvalidConfigurationFileException;
 import org.jboss.shrinkwrap.resolver.impl.maven.internal.decrypt.MavenSettingsDecrypter;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolutionMetricsLocator;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
 
 /**
  * Builds Maven settings from arbitrary settings.xml file
@@ -75,6 +79,9 @@ public class MavenSettingsBuilder {
      */
     public static final String ALT_LOCAL_REPOSITORY_LOCATION = "maven.repo.local";
 
+    // only used to sniff the top-level element of settings.xml, StAX factories are thread safe once configured
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
     // path to global settings.xml
     private static final String DEFAULT_GLOBAL_SETTINGS_PATH;
     // path to the user settings.xml
@@ -131,6 +138,37 @@ public class MavenSettingsBuilder {
      * @return The built default maven {@link Settings}
      */
     public Settings buildSettings(SettingsBuildingRequest request) {
+        final File securitySettings = getSecuritySettingsFile();
+        if (!SettingsCache.isEnabled()) {
+            return doBuildSettings(request, securitySettings);
+        }
+
+        final SettingsCache cache = SettingsCache.getInstance();
+        final SettingsCache.Key key = SettingsCache.key(request, securitySettings);
+        Settings settings = cache.get(key);
+        if (settings != null) {
+            log.log(Level.FINE, "Reusing cached Maven settings for user settings.xml {0}",
+                    request.getUserSettingsFile());
+            return settings;
+        }
+        settings = doBuildSettings(request, securitySettings);
+        cache.put(key, settings);
+        return settings;
+    }
+
+    /**
+     * Builds the settings, only this is recorded as {@link ResolutionPhase#SETTINGS_BUILD}, cache hits are not
+     */
+    private Settings doBuildSettings(SettingsBuildingRequest request, File securitySettings) {
+        final long start = System.nanoTime();
+        try {
+            return buildEffectiveSettings(request, securitySettings);
+        } finally {
+            ResolutionMetricsLocator.recordPhase(ResolutionPhase.SETTINGS_BUILD, start);
+        }
+    }
+
+    private Settings buildEffectiveSettings(SettingsBuildingRequest request, File securitySettings) {
         SettingsBuildingResult result;
         try {
             SettingsBuilder builder = new DefaultSettingsBuilderFactory().newInstance();
@@ -145,9 +183,10 @@ public class MavenSettingsBuilder {
 
                 // Maven will not check the format passed in (any XML will do), so let's ensure we have a
                 // settings.xml by checking just the top-level element
-                final XMLStreamReader reader;
+                FileInputStream input = null;
                 try {
-                    reader = XMLInputFactory.newInstance().createXMLStreamReader(new FileInputStream(userSettingsFile));
+                    input = new FileInputStream(userSettingsFile);
+                    final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
                     // get the first element name
                     while (reader.hasNext()) {
                         if (reader.next() == XMLStreamConstants.START_ELEMENT) {
@@ -155,6 +194,7 @@ public class MavenSettingsBuilder {
                         }
                     }
                     final String topLevel = reader.getLocalName();
+                    reader.close();
 
                     if (!"settings".equals(topLevel)) {
                         throw new InvalidConfigurationFileException("Invalid format settings.xml found: "
@@ -165,6 +205,8 @@ public class MavenSettingsBuilder {
                 } catch (final XMLStreamException xmlse) {
                     throw new RuntimeException("Could not check file format of specified settings.xml: "
                             + userSettingsFile, xmlse);
+                } finally {
+                    closeQuietly(input);
                 }
 
             }
@@ -190,7 +232,7 @@ public class MavenSettingsBuilder {
         Settings settings = result.getEffectiveSettings();
         settings = enrichWithLocalRepository(settings);
         settings = enrichWithOfflineMode(settings);
-        settings = decryptPasswords(settings);
+        settings = decryptPasswords(settings, securitySettings);
         return settings;
     }
 
@@ -215,15 +257,27 @@ public class MavenSettingsBuilder {
         return request;
     }
 
-    private Settings decryptPasswords(Settings settings) {
-
-        File securitySettings = new File(DEFAULT_SETTINGS_SECURITY_PATH);
+    private File getSecuritySettingsFile() {
         String altSecuritySettings = SecurityActions.getProperty(ALT_SECURITY_SETTINGS_XML_LOCATION);
 
         // set alternate file
         if (altSecuritySettings != null && altSecuritySettings.length() > 0) {
-            securitySettings = new File(altSecuritySettings);
+            return new File(altSecuritySettings);
+        }
+        return new File(DEFAULT_SETTINGS_SECURITY_PATH);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (final IOException e) {
+                log.log(Level.FINE, "Unable to close settings.xml stream", e);
+            }
         }
+    }
+
+    private Settings decryptPasswords(Settings settings, File securitySettings) {
 
         SettingsDecrypter decrypter = new MavenSettingsDecrypter(securitySettings);
         SettingsDecryptionRequest request = new DefaultSettingsDecryptionRequest(settings);
@@ -0,0 +1,265 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorException;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
+
+/**
+ * Reads artifact descriptors of a dependency graph concurrently, before the graph is collected.
+ * <p>
+ * Aether collects the graph depth-first on a single thread, so all descriptor reads and POM downloads are serialized.
+ * This class walks the subtree of each first-level dependency as a separate task on the
+ * {@link ResolverRuntime#getPool() shared pool}, downloading the POMs and storing parsed descriptors in the session.
+ * The graph itself is still collected by the regular collector and conflicts are resolved by the regular
+ * {@code ConflictResolver}, which finds the descriptors already read, so the result is identical to the sequential
+ * one.
+ * <p>
+ * The walk is an approximation of what the collector does, it honors exclusions, skips optional and test/provided
+ * transitive dependencies and applies versions from dependency management of the request. Any descriptor it reads
+ * needlessly is just wasted work, any descriptor it misses is read by the collector.
+ * <p>
+ * The mode is enabled by {@link #ENABLED_KEY} system property or via API. There is no separate pool size setting, the
+ * tasks run on the shared pool sized by {@link ResolverRuntime#THREADS_KEY} system property.
+ */
+public final class ParallelDependencyCollector {
+    private static final Logger log = Logger.getLogger(ParallelDependencyCollector.class.getName());
+
+    /**
+     * Enables parallel dependency collection if set to {@code true}
+     */
+    public static final String ENABLED_KEY = "org.jboss.shrinkwrap.resolver.parallel-collection";
+
+    private static final String[] SKIPPED_TRANSITIVE_SCOPES = new String[] { "test", "provided" };
+
+    private final RepositorySystem system;
+    private final RemoteRepositoryManager remoteRepositoryManager;
+
+    ParallelDependencyCollector(final RepositorySystem system, final RemoteRepositoryManager remoteRepositoryManager) {
+        this.system = system;
+        this.remoteRepositoryManager = remoteRepositoryManager;
+    }
+
+    /**
+     * Returns whether parallel collection is enabled by {@link #ENABLED_KEY} system property
+     *
+     * @return whether parallel collection is enabled
+     */
+    public static boolean isEnabledByDefault() {
+        return Boolean.parseBoolean(SecurityActions.getProperty(ENABLED_KEY));
+    }
+
+    /**
+     * Reads descriptors of the graph described by {@code request} and stores them in the session. Failures are
+     * ignored, the collector will report them. The descriptors are kept until {@link #release(RepositorySystemSession)}
+     * is called.
+     *
+     * @param session the session the graph will be collected in, its configuration and data are modified
+     * @param request the collect request
+     */
+    void prefetch(final DefaultRepositorySystemSession session, final CollectRequest request) {
+        PrefetchingArtifactDescriptorReader.enablePrefetching(session);
+
+        // the workspace reader is not expected to be called concurrently
+        final DefaultRepositorySystemSession prefetchSession = new DefaultRepositorySystemSession(session);
+        prefetchSession.setWorkspaceReader(SynchronizedWorkspaceReader.wrap(session.getWorkspaceReader()));
+
+        final Map<String, String> managedVersions = new HashMap<String, String>();
+        for (Dependency managed : request.getManagedDependencies()) {
+            managedVersions.put(ArtifactIdUtils.toVersionlessId(managed.getArtifact()), managed.getArtifact()
+                    .getVersion());
+        }
+
+        final Walk walk = new Walk(prefetchSession, managedVersions, request.getRequestContext());
+        final List<DescriptorTask> tasks = new ArrayList<DescriptorTask>(request.getDependencies().size());
+        for (Dependency dependency : request.getDependencies()) {
+            tasks.add(new DescriptorTask(walk, dependency, request.getRepositories(),
+                    Collections.<Exclusion> emptyList(), 0));
+        }
+
+        final long start = System.currentTimeMillis();
+        try {
+            ResolverRuntime.getPool().invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.log(Level.FINE, "Prefetching of artifact descriptors failed, they will be read sequentially", e);
+        }
+
+        if (log.isLoggable(Level.FINER)) {
+            log.finer("Prefetched " + PrefetchingArtifactDescriptorReader.size(session) + " artifact descriptors for "
+                    + tasks.size() + " dependencies in " + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+
+    /**
+     * Releases descriptors stored by {@link #prefetch(DefaultRepositorySystemSession, CollectRequest)}
+     *
+     * @param session the session the graph was collected in
+     */
+    void release(final RepositorySystemSession session) {
+        PrefetchingArtifactDescriptorReader.disablePrefetching(session);
+    }
+
+    /**
+     * State shared by all tasks of a single prefetch
+     */
+    private static final class Walk {
+        private final RepositorySystemSession session;
+        private final Map<String, String> managedVersions;
+        private final String requestContext;
+        private final Set<String> visited = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        Walk(final RepositorySystemSession session, final Map<String, String> managedVersions,
+                final String requestContext) {
+            this.session = session;
+            this.managedVersions = managedVersions;
+            this.requestContext = requestContext;
+        }
+    }
+
+    /**
+     * Reads descriptor of a dependency and forks tasks for its dependencies
+     */
+    private final class DescriptorTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Walk walk;
+        private final Dependency dependency;
+        private final List<RemoteRepository> repositories;
+        private final Collection<Exclusion> exclusions;
+        private final int depth;
+
+        DescriptorTask(final Walk walk, final Dependency dependency, final List<RemoteRepository> repositories,
+                final Collection<Exclusion> inheritedExclusions, final int depth) {
+            this.walk = walk;
+            this.dependency = dependency;
+            this.repositories = repositories;
+            this.depth = depth;
+            if (dependency.getExclusions().isEmpty()) {
+                this.exclusions = inheritedExclusions;
+            } else {
+                this.exclusions = new ArrayList<Exclusion>(inheritedExclusions);
+                this.exclusions.addAll(dependency.getExclusions());
+            }
+        }
+
+        @Override
+        protected void compute() {
+            Artifact artifact = dependency.getArtifact();
+            if (depth > 0) {
+                final String managedVersion = walk.managedVersions.get(ArtifactIdUtils.toVersionlessId(artifact));
+                if (managedVersion != null && managedVersion.length() > 0) {
+                    artifact = artifact.setVersion(managedVersion);
+                }
+            }
+            // ranges have to be resolved first, leave them to the collector
+            if (isRangeOrEmpty(artifact.getVersion()) || !walk.visited.add(ArtifactIdUtils.toId(artifact))) {
+                return;
+            }
+
+            final ArtifactDescriptorRequest request = new ArtifactDescriptorRequest(artifact, repositories,
+                    walk.requestContext);
+            final ArtifactDescriptorResult result;
+            try {
+                result = system.readArtifactDescriptor(walk.session, request);
+            } catch (ArtifactDescriptorException e) {
+                if (log.isLoggable(Level.FINEST)) {
+                    log.finest("Unable to prefetch descriptor of " + artifact + ": " + e.getMessage());
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.log(Level.FINEST, "Unable to prefetch descriptor of " + artifact, e);
+                return;
+            }
+
+            // relocated artifacts and partial results are left to the collector
+            if (!result.getExceptions().isEmpty() || !result.getRelocations().isEmpty()) {
+                return;
+            }
+            PrefetchingArtifactDescriptorReader.store(walk.session, request, result);
+
+            final List<RemoteRepository> childRepositories = remoteRepositoryManager.aggregateRepositories(
+                    walk.session, repositories, result.getRepositories(), true);
+            final List<DescriptorTask> children = new ArrayList<DescriptorTask>(result.getDependencies().size());
+            for (Dependency child : result.getDependencies()) {
+                if (child.isOptional() || isSkippedScope(child.getScope()) || isExcluded(child.getArtifact())) {
+                    continue;
+                }
+                children.add(new DescriptorTask(walk, child, childRepositories, exclusions, depth + 1));
+            }
+            invokeAll(children);
+        }
+
+        private boolean isExcluded(final Artifact artifact) {
+            for (Exclusion exclusion : exclusions) {
+                if (matches(exclusion.getGroupId(), artifact.getGroupId())
+                        && matches(exclusion.getArtifactId(), artifact.getArtifactId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static boolean matches(final String pattern, final String value) {
+        return "*".equals(pattern) || pattern.equals(value);
+    }
+
+    private static boolean isSkippedScope(final String scope) {
+        for (String skipped : SKIPPED_TRANSITIVE_SCOPES) {
+            if (skipped.equals(scope)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRangeOrEmpty(final String version) {
+        return version == null || version.length() == 0 || version.indexOf('[') != -1 || version.indexOf('(') != -1
+                || version.indexOf(',') != -1;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.maven.repository.internal.DefaultArtifactDescriptorReader;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.impl.ArtifactDescriptorReader;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorException;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import org.eclipse.aether.spi.locator.Service;
+import org.eclipse.aether.spi.locator.ServiceLocator;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEvent;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.FlightRecorderEventType;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolutionMetricsLocator;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
+
+/**
+ * An {@link ArtifactDescriptorReader} which returns descriptors read ahead of time by {@link ParallelDependencyCollector}
+ * and delegates to {@link DefaultArtifactDescriptorReader} otherwise.
+ * <p>
+ * Prefetched descriptors are stored in session data under a key unique to each collection, which is passed to the
+ * reader by a configuration property of the collecting session. Session data and cache themselves stay shared with
+ * the session the collection was started from, so are visible only to the collection they were read for.
+ * A descriptor is reused only if it was read for the very same artifact, list of repositories and request context.
+ */
+class PrefetchingArtifactDescriptorReader implements ArtifactDescriptorReader, Service {
+
+    private static final String DESCRIPTORS_KEY = PrefetchingArtifactDescriptorReader.class.getName() + ".descriptors";
+
+    private static final AtomicLong collectionCounter = new AtomicLong();
+
+    private final DefaultArtifactDescriptorReader delegate = new DefaultArtifactDescriptorReader();
+
+    @Override
+    public void initService(ServiceLocator locator) {
+        delegate.initService(locator);
+    }
+
+    @Override
+    public ArtifactDescriptorResult readArtifactDescriptor(final RepositorySystemSession session,
+            final ArtifactDescriptorRequest request) throws ArtifactDescriptorException {
+        final ConcurrentMap<DescriptorKey, ArtifactDescriptorResult> descriptors = getDescriptors(session);
+        if (descriptors != null) {
+            final ArtifactDescriptorResult result = descriptors.get(new DescriptorKey(request));
+            if (result != null) {
+                return result;
+            }
+        }
+        final long start = System.nanoTime();
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.DESCRIPTOR_READ);
+        try {
+            return delegate.readArtifactDescriptor(session, request);
+        } finally {
+            ResolutionMetricsLocator.recordPhase(ResolutionPhase.DESCRIPTOR_READ, start);
+            if (event.shouldCommit()) {
+                event.set("artifact", request.getArtifact().toString())
+                        .set("repositories", request.getRepositories().toString()).commit();
+            }
+        }
+    }
+
+    /**
+     * Makes the session remember descriptors stored by {@link #store(RepositorySystemSession, ArtifactDescriptorRequest,
+     * ArtifactDescriptorResult)} until {@link #disablePrefetching(RepositorySystemSession)} is called
+     *
+     * @param session the session, it should not be shared with other collections as its configuration is modified
+     */
+    static void enablePrefetching(final DefaultRepositorySystemSession session) {
+        final String dataKey = DESCRIPTORS_KEY + '.' + collectionCounter.incrementAndGet();
+        session.setConfigProperty(DESCRIPTORS_KEY, dataKey);
+        session.getData().set(dataKey, new ConcurrentHashMap<DescriptorKey, ArtifactDescriptorResult>());
+    }
+
+    /**
+     * Releases descriptors stored in the session, the session data might outlive the collection
+     *
+     * @param session the session prefetching was enabled for
+     */
+    static void disablePrefetching(final RepositorySystemSession session) {
+        final Object dataKey = session.getConfigProperties().get(DESCRIPTORS_KEY);
+        if (dataKey != null) {
+            session.getData().set(dataKey, null);
+        }
+    }
+
+    /**
+     * Stores a descriptor read in advance, it will be returned for an equal request within the same session
+     *
+     * @param session the session, prefetching must be enabled
+     * @param request the request
+     * @param result the descriptor read for the request
+     */
+    static void store(final RepositorySystemSession session, final ArtifactDescriptorRequest request,
+            final ArtifactDescriptorResult result) {
+        final ConcurrentMap<DescriptorKey, ArtifactDescriptorResult> descriptors = getDescriptors(session);
+        if (descriptors != null) {
+            descriptors.putIfAbsent(new DescriptorKey(request), result);
+        }
+    }
+
+    /**
+     * Returns number of descriptors stored in the session
+     *
+     * @param session the session
+     * @return number of stored descriptors
+     */
+    static int size(final RepositorySystemSession session) {
+        final ConcurrentMap<DescriptorKey, ArtifactDescriptorResult> descriptors = getDescriptors(session);
+        return descriptors == null ? 0 : descriptors.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<DescriptorKey, ArtifactDescriptorResult> getDescriptors(
+            final RepositorySystemSession session) {
+        final Object dataKey = session.getConfigProperties().get(DESCRIPTORS_KEY);
+        if (dataKey == null) {
+            return null;
+        }
+        return (ConcurrentMap<DescriptorKey, ArtifactDescriptorResult>) session.getData().get(dataKey);
+    }
+
+    private static final class DescriptorKey {
+        private final String artifact;
+        private final List<RemoteRepository> repositories;
+        private final String context;
+        private final int hashCode;
+
+        DescriptorKey(final ArtifactDescriptorRequest request) {
+            this.artifact = request.getArtifact().toString();
+            this.repositories = request.getRepositories();
+            this.context = request.getRequestContext();
+            this.hashCode = (artifact.hashCode() * 31 + repositories.hashCode()) * 31 + context.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DescriptorKey)) {
+                return false;
+            }
+            final DescriptorKey other = (DescriptorKey) obj;
+            return artifact.equals(other.artifact) && context.equals(other.context)
+                    && repositories.equals(other.repositories);
+        }
+    }
+}
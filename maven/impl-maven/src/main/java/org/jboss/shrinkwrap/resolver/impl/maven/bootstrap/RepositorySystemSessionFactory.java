@@ -0,0 +1,236 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.DefaultSessionData;
+import org.eclipse.aether.RepositorySystem;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ResolverRuntime;
+
+/**
+ * Hands out {@link DefaultRepositorySystemSession} instances for a shared {@link RepositorySystem}.
+ * <p>
+ * Building a session means creating the local repository manager, mirror and proxy selectors and the rest of the
+ * configuration derived from {@link Settings}. This is done once per distinct configuration; the resulting session
+ * is kept as a template and every caller gets a shallow copy of it with its own listeners, workspace reader, session
+ * data and a fresh snapshot of system properties. A template is rebuilt only if the relevant parts of {@link Settings}
+ * or the legacy local repository flag change.
+ */
+class RepositorySystemSessionFactory {
+    private static final Logger log = Logger.getLogger(RepositorySystemSessionFactory.class.getName());
+
+    /**
+     * Maximal number of session templates kept in memory, the least recently used one is discarded first
+     */
+    private static final int MAX_TEMPLATES = 16;
+
+    /**
+     * Configuration keys of {@link org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory} setting the
+     * number of concurrent transfers per repository
+     */
+    private static final String CONNECTOR_THREADS_KEY = "aether.connector.basic.threads";
+    private static final String MAVEN_ARTIFACT_THREADS_KEY = "maven.artifact.threads";
+
+    private static final int DEFAULT_DOWNLOAD_THREADS = 8;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final RepositorySystem system;
+
+    private final Map<String, DefaultRepositorySystemSession> templates;
+
+    RepositorySystemSessionFactory(final RepositorySystem system) {
+        this.system = system;
+        this.templates = new LinkedHashMap<String, DefaultRepositorySystemSession>(MAX_TEMPLATES, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DefaultRepositorySystemSession> eldest) {
+                return size() > MAX_TEMPLATES;
+            }
+        };
+    }
+
+    /**
+     * Returns a new session for given configuration. The session is a copy of a cached template, so it is cheap to
+     * create and it can be freely modified by the caller.
+     *
+     * @param settings A configuration of current session
+     * @param legacyLocalRepository Whether to ignore origin of artifacts in local repository
+     * @return A new session
+     */
+    DefaultRepositorySystemSession newSession(final Settings settings, final boolean legacyLocalRepository) {
+
+        final String key = fingerprint(settings, legacyLocalRepository);
+
+        DefaultRepositorySystemSession template;
+        synchronized (templates) {
+            template = templates.get(key);
+        }
+
+        if (template == null) {
+            template = createTemplate(settings, legacyLocalRepository);
+            synchronized (templates) {
+                final DefaultRepositorySystemSession existing = templates.get(key);
+                if (existing != null) {
+                    template = existing;
+                } else {
+                    templates.put(key, template);
+                }
+            }
+        } else if (log.isLoggable(Level.FINEST)) {
+            log.finest("Reusing repository session template for local repository " + settings.getLocalRepository());
+        }
+
+        // these parts are either stateful or might change between calls, so they are never shared
+        final MavenManagerBuilder builder = new MavenManagerBuilder(system, settings);
+        final DefaultRepositorySystemSession session = new DefaultRepositorySystemSession(template);
+        session.setData(new DefaultSessionData());
+        session.setWorkspaceReader(builder.workspaceReader());
+        session.setTransferListener(builder.transferListerer());
+        session.setRepositoryListener(builder.repositoryListener());
+        session.setCache(new TransportStateRepositoryCache(credentialsFingerprint(settings)));
+
+        // set system properties for interpolation
+        session.setSystemProperties(SecurityActions.getProperties());
+        session.setConfigProperties(SecurityActions.getProperties());
+
+        // number of concurrent downloads from a single repository, unless configured by Aether or Maven means
+        if (!session.getConfigProperties().containsKey(CONNECTOR_THREADS_KEY)
+                && !session.getConfigProperties().containsKey(MAVEN_ARTIFACT_THREADS_KEY)) {
+            session.setConfigProperty(CONNECTOR_THREADS_KEY, getDownloadThreads());
+        }
+
+        // HTTP headers and timeouts of <server> entries, applied by the HTTP transport to the matching repository
+        for (Map.Entry<String, Object> property : builder.serverConfiguration().entrySet()) {
+            if (!session.getConfigProperties().containsKey(property.getKey())) {
+                session.setConfigProperty(property.getKey(), property.getValue());
+            }
+        }
+
+        return session;
+    }
+
+    private static int getDownloadThreads() {
+        return Math.max(1, ResolverRuntime.getIntProperty(MavenRepositorySystem.DOWNLOAD_THREADS_KEY,
+                DEFAULT_DOWNLOAD_THREADS));
+    }
+
+    private DefaultRepositorySystemSession createTemplate(final Settings settings, final boolean legacyLocalRepository) {
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Creating repository session template for local repository " + settings.getLocalRepository());
+        }
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        MavenManagerBuilder builder = new MavenManagerBuilder(system, settings);
+
+        session.setLocalRepositoryManager(builder.localRepositoryManager(session, legacyLocalRepository));
+        session.setOffline(settings.isOffline());
+        session.setMirrorSelector(builder.mirrorSelector());
+        session.setProxySelector(builder.proxySelector());
+        session.setDependencyManager(builder.dependencyManager());
+        session.setArtifactDescriptorPolicy(builder.artifactRepositoryPolicy());
+
+        session.setDependencyTraverser(builder.dependencyTraverser());
+        session.setDependencyGraphTransformer(builder.dependencyGraphTransformer());
+
+        // set artifact stereotypes
+        session.setArtifactTypeRegistry(builder.artifactTypeRegistry());
+
+        return session;
+    }
+
+    /**
+     * Creates a key which identifies all inputs the template session is built from
+     */
+    private static String fingerprint(final Settings settings, final boolean legacyLocalRepository) {
+        final StringBuilder sb = new StringBuilder(256);
+        sb.append(settings.getLocalRepository()).append('|').append(settings.isOffline()).append('|')
+                .append(legacyLocalRepository).append('|')
+                .append(Boolean.parseBoolean(SecurityActions.getProperty(MavenManagerBuilder.USE_LEGACY_REPO_KEY)));
+
+        for (Mirror mirror : settings.getMirrors()) {
+            sb.append("|m:").append(mirror.getId()).append(',').append(mirror.getUrl()).append(',')
+                    .append(mirror.getLayout()).append(',').append(mirror.getMirrorOf()).append(',')
+                    .append(mirror.getMirrorOfLayouts());
+        }
+        for (Proxy proxy : settings.getProxies()) {
+            sb.append("|p:").append(proxy.isActive()).append(',').append(proxy.getProtocol()).append(',')
+                    .append(proxy.getHost()).append(',').append(proxy.getPort()).append(',')
+                    .append(credentialsDigest(proxy.getUsername(), proxy.getPassword())).append(',')
+                    .append(proxy.getNonProxyHosts());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates a key which identifies all credentials of servers and proxies, so state of the HTTP transport holding
+     * authenticated connections is shared only by sessions using the very same credentials
+     */
+    private static String credentialsFingerprint(final Settings settings) {
+        final StringBuilder sb = new StringBuilder(256);
+        for (Server server : settings.getServers()) {
+            sb.append("|s:").append(server.getId()).append('\u0000').append(server.getUsername()).append('\u0000')
+                    .append(server.getPassword()).append('\u0000').append(server.getPrivateKey()).append('\u0000')
+                    .append(server.getPassphrase());
+        }
+        for (Proxy proxy : settings.getProxies()) {
+            sb.append("|p:").append(proxy.getId()).append('\u0000').append(proxy.getHost()).append('\u0000')
+                    .append(proxy.getPort()).append('\u0000').append(proxy.getUsername()).append('\u0000')
+                    .append(proxy.getPassword());
+        }
+        return sha256(sb.toString());
+    }
+
+    /**
+     * Returns a digest of proxy credentials, so the key kept by the cache does not contain the password
+     */
+    private static String credentialsDigest(final String username, final String password) {
+        if (username == null && password == null) {
+            return "";
+        }
+        return sha256(username + '\u0000' + password);
+    }
+
+    private static String sha256(final String value) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest is not available", e);
+        }
+        final byte[] hash = digest.digest(value.getBytes(UTF_8));
+        final StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
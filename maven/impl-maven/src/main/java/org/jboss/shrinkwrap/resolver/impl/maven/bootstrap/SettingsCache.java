@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.building.SettingsBuildingRequest;
+
+/**
+ * A JVM wide cache of effective, decrypted {@link Settings}. An entry is keyed by paths, sizes and modification times of
+ * global, user and security settings files together with system and user properties the settings were interpolated
+ * with, so a change of any file or property makes the settings to be built again.
+ * <p>
+ * The cache is enabled by default, it is disabled by {@link #ENABLED_KEY} system property set to {@code false}. It
+ * keeps {@link #MAX_SIZE} entries and evicts the least recently used entry first. Cached settings are never handed out,
+ * callers always get a copy they are free to modify.
+ */
+final class SettingsCache {
+
+    /**
+     * Disables the cache if set to {@code false}
+     */
+    static final String ENABLED_KEY = "org.jboss.shrinkwrap.resolver.settings-cache";
+
+    static final int MAX_SIZE = 16;
+
+    private static final SettingsCache INSTANCE = new SettingsCache();
+
+    private final Map<Key, Settings> entries = new LinkedHashMap<Key, Settings>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Settings> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    private SettingsCache() {
+    }
+
+    /**
+     * Returns the cache shared by all settings builders within this class loader
+     *
+     * @return the cache
+     */
+    static SettingsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether the cache is enabled, see {@link #ENABLED_KEY}
+     *
+     * @return whether the cache is enabled
+     */
+    static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(SecurityActions.getProperty(ENABLED_KEY));
+    }
+
+    /**
+     * Creates a key of settings built from the request
+     *
+     * @param request the request
+     * @param securitySettings security settings used to decrypt passwords
+     * @return the key
+     */
+    static Key key(final SettingsBuildingRequest request, final File securitySettings) {
+        return new Key(request, securitySettings);
+    }
+
+    /**
+     * Returns a copy of cached settings
+     *
+     * @param key the key
+     * @return the copy or {@code null} if settings are not cached
+     */
+    Settings get(final Key key) {
+        final Settings settings;
+        synchronized (entries) {
+            settings = entries.get(key);
+        }
+        return settings == null ? null : settings.clone();
+    }
+
+    /**
+     * Stores a copy of settings
+     *
+     * @param key the key
+     * @param settings the settings
+     */
+    void put(final Key key, final Settings settings) {
+        final Settings copy = settings.clone();
+        synchronized (entries) {
+            entries.put(key, copy);
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    static final class Key {
+        private final Object[] files;
+        private final Properties systemProperties;
+        private final Properties userProperties;
+        // settings are enriched from live system properties even if request carries different ones
+        private final String localRepository;
+        private final String offline;
+        private final int hashCode;
+
+        private Key(final SettingsBuildingRequest request, final File securitySettings) {
+            this.files = new Object[] { fingerprint(request.getGlobalSettingsFile()),
+                fingerprint(request.getUserSettingsFile()), fingerprint(securitySettings) };
+            // properties might be live system properties, so they are copied
+            this.systemProperties = (Properties) request.getSystemProperties().clone();
+            this.userProperties = (Properties) request.getUserProperties().clone();
+            this.localRepository = SecurityActions.getProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+            this.offline = SecurityActions.getProperty(MavenSettingsBuilder.ALT_MAVEN_OFFLINE);
+            this.hashCode = Arrays.hashCode(new Object[] { Arrays.hashCode(files), systemProperties, userProperties,
+                localRepository, offline });
+        }
+
+        private static String fingerprint(final File file) {
+            if (file == null) {
+                return null;
+            }
+            // both size and time are 0 if the file does not exist
+            return file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode && Arrays.equals(files, other.files)
+                && systemProperties.equals(other.systemProperties) && userProperties.equals(other.userProperties)
+                && equal(localRepository, other.localRepository) && equal(offline, other.offline);
+        }
+
+        private static boolean equal(final String a, final String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
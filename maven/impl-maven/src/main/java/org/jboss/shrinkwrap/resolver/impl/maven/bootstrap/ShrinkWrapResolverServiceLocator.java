@@ -28,7 +28,6 @@ import java.util.logging.Logger;
 
 import org.apache.maven.model.building.DefaultModelBuilderFactory;
 import org.apache.maven.model.building.ModelBuilder;
-import org.apache.maven.repository.internal.DefaultArtifactDescriptorReader;
 import org.apache.maven.repository.internal.DefaultVersionRangeResolver;
 import org.apache.maven.repository.internal.DefaultVersionResolver;
 import org.apache.maven.repository.internal.SnapshotMetadataGeneratorFactory;
@@ -54,7 +53,6 @@ import org.eclipse.aether.impl.VersionRangeResolver;
 import org.eclipse.aether.impl.VersionResolver;
 import org.eclipse.aether.internal.impl.DefaultArtifactResolver;
 import org.eclipse.aether.internal.impl.DefaultChecksumPolicyProvider;
-import org.eclipse.aether.internal.impl.DefaultDependencyCollector;
 import org.eclipse.aether.internal.impl.DefaultDeployer;
 import org.eclipse.aether.internal.impl.DefaultFileProcessor;
 import org.eclipse.aether.internal.impl.DefaultInstaller;
@@ -66,7 +64,6 @@ import org.eclipse.aether.internal.impl.DefaultRepositoryConnectorProvider;
 import org.eclipse.aether.internal.impl.DefaultRepositoryEventDispatcher;
 import org.eclipse.aether.internal.impl.DefaultRepositoryLayoutProvider;
 import org.eclipse.aether.internal.impl.DefaultRepositorySystem;
-import org.eclipse.aether.internal.impl.DefaultSyncContextFactory;
 import org.eclipse.aether.internal.impl.DefaultTransporterProvider;
 import org.eclipse.aether.internal.impl.DefaultUpdateCheckManager;
 import org.eclipse.aether.internal.impl.DefaultUpdatePolicyAnalyzer;
@@ -84,6 +81,7 @@ import org.eclipse.aether.spi.localrepo.LocalRepositoryManagerFactory;
 import org.eclipse.aether.spi.locator.Service;
 import org.eclipse.aether.spi.locator.ServiceLocator;
 import org.eclipse.aether.spi.log.LoggerFactory;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
 import org.eclipse.aether.transport.wagon.WagonProvider;
 import org.eclipse.aether.transport.wagon.WagonTransporterFactory;
 import org.jboss.shrinkwrap.resolver.impl.maven.logging.AetherLoggerFactory;
@@ -154,7 +152,7 @@ class ShrinkWrapResolverServiceLocator implements ServiceLocator {
 
         addService(RepositorySystem.class, DefaultRepositorySystem.class);
         addService(ArtifactResolver.class, DefaultArtifactResolver.class);
-        addService(DependencyCollector.class, DefaultDependencyCollector.class);
+        addService(DependencyCollector.class, TimedDependencyCollector.class);
         addService(Deployer.class, DefaultDeployer.class);
         addService(Installer.class, DefaultInstaller.class);
         addService(MetadataResolver.class, DefaultMetadataResolver.class);
@@ -163,7 +161,7 @@ class ShrinkWrapResolverServiceLocator implements ServiceLocator {
         addService(UpdateCheckManager.class, DefaultUpdateCheckManager.class);
         addService(UpdatePolicyAnalyzer.class, DefaultUpdatePolicyAnalyzer.class);
         addService(FileProcessor.class, DefaultFileProcessor.class);
-        addService(SyncContextFactory.class, DefaultSyncContextFactory.class);
+        addService(SyncContextFactory.class, ArtifactSyncContextFactory.class);
         addService(RepositoryEventDispatcher.class, DefaultRepositoryEventDispatcher.class);
         addService(OfflineController.class, DefaultOfflineController.class);
         addService(LocalRepositoryProvider.class, DefaultLocalRepositoryProvider.class);
@@ -173,7 +171,7 @@ class ShrinkWrapResolverServiceLocator implements ServiceLocator {
         // add Maven supported services, we are not using MavenServiceLocator as it should not be used from
         // Maven plugins, however we need to do that for dependency tree output
         // class names for internal aether classes we need to register implementations for
-        addService(ArtifactDescriptorReader.class, DefaultArtifactDescriptorReader.class);
+        addService(ArtifactDescriptorReader.class, PrefetchingArtifactDescriptorReader.class);
         addService(VersionResolver.class, DefaultVersionResolver.class);
         addService(VersionRangeResolver.class, DefaultVersionRangeResolver.class);
         addService(MetadataGeneratorFactory.class, SnapshotMetadataGeneratorFactory.class);
@@ -186,6 +184,10 @@ class ShrinkWrapResolverServiceLocator implements ServiceLocator {
         // add default services introduced after aether 0.9.0.M2
         addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
         addService(TransporterProvider.class, DefaultTransporterProvider.class);
+        // pooled HTTP client has priority over Wagon, which still handles file:// repositories
+        if (!"wagon".equalsIgnoreCase(SecurityActions.getProperty(MavenRepositorySystem.TRANSPORT_KEY))) {
+            addService(TransporterFactory.class, HttpTransporterFactory.class);
+        }
         addService(TransporterFactory.class, WagonTransporterFactory.class);
         addService(RepositoryLayoutProvider.class, DefaultRepositoryLayoutProvider.class);
         addService(RepositoryLayoutFactory.class, Maven2RepositoryLayoutFactory.class);
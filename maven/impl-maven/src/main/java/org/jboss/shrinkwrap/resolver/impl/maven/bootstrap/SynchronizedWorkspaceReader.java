@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.repository.WorkspaceRepository;
+
+/**
+ * Serializes access to a workspace reader shared by concurrent tasks. Workspace readers are not expected to be called
+ * concurrently, while Aether might call them from several threads if a session is used by concurrent resolutions.
+ */
+final class SynchronizedWorkspaceReader implements WorkspaceReader {
+    private final WorkspaceReader delegate;
+
+    SynchronizedWorkspaceReader(final WorkspaceReader delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wraps the reader, unless it is {@code null} or already synchronized
+     *
+     * @param reader the reader
+     * @return the synchronized reader
+     */
+    static WorkspaceReader wrap(final WorkspaceReader reader) {
+        if (reader == null || reader instanceof SynchronizedWorkspaceReader) {
+            return reader;
+        }
+        return new SynchronizedWorkspaceReader(reader);
+    }
+
+    @Override
+    public WorkspaceRepository getRepository() {
+        return delegate.getRepository();
+    }
+
+    @Override
+    public synchronized File findArtifact(final Artifact artifact) {
+        return delegate.findArtifact(artifact);
+    }
+
+    @Override
+    public synchronized List<String> findVersions(final Artifact artifact) {
+        return delegate.findVersions(artifact);
+    }
+}
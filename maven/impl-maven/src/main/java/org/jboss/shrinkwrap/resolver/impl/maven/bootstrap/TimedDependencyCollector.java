@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.impl.DependencyCollector;
+import org.eclipse.aether.internal.impl.DefaultDependencyCollector;
+import org.eclipse.aether.spi.locator.Service;
+import org.eclipse.aether.spi.locator.ServiceLocator;
+import org.jboss.shrinkwrap.resolver.impl.maven.metrics.ResolutionMetricsLocator;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
+
+/**
+ * A {@link DependencyCollector} which records duration of collections done by {@link DefaultDependencyCollector}.
+ * Collection is wrapped instead of being split from resolution of artifacts, as the repository system continues with
+ * partially collected graphs.
+ */
+class TimedDependencyCollector implements DependencyCollector, Service {
+
+    private final DefaultDependencyCollector delegate = new DefaultDependencyCollector();
+
+    @Override
+    public void initService(ServiceLocator locator) {
+        delegate.initService(locator);
+    }
+
+    @Override
+    public CollectResult collectDependencies(final RepositorySystemSession session, final CollectRequest request)
+            throws DependencyCollectionException {
+        final long start = System.nanoTime();
+        try {
+            return delegate.collectDependencies(session, request);
+        } finally {
+            ResolutionMetricsLocator.recordPhase(ResolutionPhase.COLLECTION, start);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+
+/**
+ * A {@link RepositoryCache} of a single session which shares state of the HTTP transport among the sessions in this
+ * JVM using the same credentials. The HTTP transport keeps its pools of persistent connections, authentication schemes
+ * and user tokens in the session cache; without sharing them, connections would be opened again for every resolution
+ * and closed as soon as it finishes.
+ * <p>
+ * The transport keys authenticated connections by repository and proxy only, so the state is shared only by sessions
+ * whose server and proxy credentials have the same fingerprint. A session with other credentials never reuses a
+ * connection authenticated by another one. At most {@link #MAX_STATES} states are kept, the state of the least recently
+ * used credentials is closed and discarded first.
+ * <p>
+ * Everything else is cached per session, exactly as {@link DefaultRepositoryCache} does.
+ */
+class TransportStateRepositoryCache implements RepositoryCache {
+    private static final Logger log = Logger.getLogger(TransportStateRepositoryCache.class.getName());
+
+    /**
+     * Key the HTTP transport stores its global state under
+     */
+    static final String HTTP_STATE_KEY = "org.eclipse.aether.transport.http.GlobalState";
+
+    /**
+     * Maximal number of shared transport states, each of them holds its own pools of connections
+     */
+    static final int MAX_STATES = 16;
+
+    /**
+     * Transport states by fingerprint of credentials, the least recently used one is closed and discarded first
+     */
+    private static final Map<String, Object> SHARED = new LinkedHashMap<String, Object>(MAX_STATES, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            if (size() > MAX_STATES) {
+                close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final DefaultRepositoryCache delegate = new DefaultRepositoryCache();
+
+    private final String credentialsFingerprint;
+
+    /**
+     * Creates a cache sharing the transport state with all sessions having the same credentials
+     *
+     * @param credentialsFingerprint A digest of server and proxy credentials of the session
+     */
+    TransportStateRepositoryCache(final String credentialsFingerprint) {
+        this.credentialsFingerprint = credentialsFingerprint;
+    }
+
+    @Override
+    public void put(final RepositorySystemSession session, final Object key, final Object data) {
+        if (HTTP_STATE_KEY.equals(key)) {
+            if (data == null) {
+                return;
+            }
+            // the first state is kept until it is evicted, states created concurrently are closed
+            final boolean shared;
+            synchronized (SHARED) {
+                shared = !SHARED.containsKey(credentialsFingerprint);
+                if (shared) {
+                    SHARED.put(credentialsFingerprint, data);
+                }
+            }
+            if (!shared) {
+                close(data);
+            }
+            return;
+        }
+        delegate.put(session, key, data);
+    }
+
+    @Override
+    public Object get(final RepositorySystemSession session, final Object key) {
+        if (HTTP_STATE_KEY.equals(key)) {
+            synchronized (SHARED) {
+                return SHARED.get(credentialsFingerprint);
+            }
+        }
+        return delegate.get(session, key);
+    }
+
+    /**
+     * Closes a state which lost the race to become the shared one or was evicted, so its connection managers are not
+     * leaked
+     */
+    private static void close(final Object data) {
+        if (data instanceof Closeable) {
+            try {
+                ((Closeable) data).close();
+            } catch (IOException e) {
+                log.log(Level.FINE, "Unable to close transport state", e);
+            }
+        }
+    }
+}
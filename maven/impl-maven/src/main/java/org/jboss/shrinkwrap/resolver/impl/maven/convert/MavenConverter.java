@@ -202,7 +202,7 @@ public class MavenConverter {
                     new Object[] { dependency.getScope(), coordinate.toCanonicalForm() });
         }
 
-        final MavenDependencySPI result = new MavenDependencyImpl(coordinate, scope,
+        final MavenDependencySPI result = MavenDependencyImpl.create(coordinate, scope,
                 dependency.isOptional(), undeclaredScope, exclusions.toArray(TYPESAFE_EXCLUSIONS_ARRAY));
         return result;
     }
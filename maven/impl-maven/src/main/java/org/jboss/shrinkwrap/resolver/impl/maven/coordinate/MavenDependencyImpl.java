@@ -16,6 +16,7 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven.coordinate;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -25,6 +26,7 @@ import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencyExclusion;
+import org.jboss.shrinkwrap.resolver.api.maven.internal.WeakInterner;
 import org.jboss.shrinkwrap.resolver.spi.MavenDependencySPI;
 
 /**
@@ -34,6 +36,12 @@ import org.jboss.shrinkwrap.resolver.spi.MavenDependencySPI;
  */
 public final class MavenDependencyImpl implements MavenDependencySPI {
 
+    /**
+     * Dependencies created by {@link #create(MavenCoordinate, ScopeType, boolean, boolean, MavenDependencyExclusion...)}
+     * while interning was enabled
+     */
+    static final WeakInterner<MavenDependencyImpl> INTERNER = new WeakInterner<MavenDependencyImpl>();
+
     private final MavenCoordinate delegate;
 
     private final Set<MavenDependencyExclusion> exclusions;
@@ -45,6 +53,12 @@ public final class MavenDependencyImpl implements MavenDependencySPI {
      */
     private final boolean undeclaredScope;
 
+    /**
+     * Computed lazily, instances are shared if interning is enabled
+     */
+    private String canonicalForm;
+    private int hash;
+
     /**
      * Creates a new instance with the specified properties. If no {@link ScopeType} is specified, default will be
      * {@link ScopeType#COMPILE}.  <code>undeclaredScope</code> will be set to <code>false</code>
@@ -95,6 +109,31 @@ public final class MavenDependencyImpl implements MavenDependencySPI {
 
     }
 
+    /**
+     * Returns a dependency with the specified properties. If {@code org.jboss.shrinkwrap.resolver.intern-coordinates}
+     * system property is set to {@code true}, an instance with the very same properties is returned instead, as long
+     * as one is still in use.
+     *
+     * @param coordinate A coordinate
+     * Delegate, required
+     * @param scope A scope
+     * @param optional Whether or not this {@link MavenDependency} has been marked as optional.
+     * @param undeclaredScope Whether there is no scope
+     * @param exclusions {@link MavenDependencyExclusion}s, if <code>null</code> will be ignored
+     * @return the dependency
+     */
+    public static MavenDependencyImpl create(final MavenCoordinate coordinate, final ScopeType scope,
+            final boolean optional, final boolean undeclaredScope, final MavenDependencyExclusion... exclusions) {
+        final MavenDependencyImpl dependency = new MavenDependencyImpl(coordinate, scope, optional, undeclaredScope,
+                exclusions);
+        if (!WeakInterner.isEnabled()) {
+            return dependency;
+        }
+        return INTERNER.intern(Arrays.<Object>asList(coordinate.getGroupId(), coordinate.getArtifactId(),
+                coordinate.getVersion(), coordinate.getPackaging(), coordinate.getClassifier(), dependency.scope,
+                optional, undeclaredScope, dependency.exclusions), dependency);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -112,7 +151,12 @@ public final class MavenDependencyImpl implements MavenDependencySPI {
      */
     @Override
     public String toCanonicalForm() {
-        return delegate.toCanonicalForm() + ':' + this.getScope().toString();
+        String result = canonicalForm;
+        if (result == null) {
+            result = delegate.toCanonicalForm() + ':' + this.getScope().toString();
+            canonicalForm = result;
+        }
+        return result;
     }
 
     /**
@@ -211,9 +255,13 @@ public final class MavenDependencyImpl implements MavenDependencySPI {
      */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((delegate == null) ? 0 : delegate.hashCode());
+        int result = hash;
+        if (result == 0) {
+            final int prime = 31;
+            result = 1;
+            result = prime * result + ((delegate == null) ? 0 : delegate.hashCode());
+            hash = result;
+        }
         return result;
     }
 
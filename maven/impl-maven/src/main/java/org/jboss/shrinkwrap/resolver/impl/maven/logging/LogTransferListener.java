@@ -25,6 +25,8 @@ import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.aether.transfer.AbstractTransferListener;
@@ -43,8 +45,16 @@ public class LogTransferListener extends AbstractTransferListener {
     // set up new logger with output directed to standard out
     private static final Logger log = Logger.getLogger(LogTransferListener.class.getName());
 
-    // a map of transferred data sizes for the last notification
-    private final Map<TransferResource, Long> downloads = new ConcurrentHashMap<TransferResource, Long>();
+    // formats transfer rates, DecimalFormat is not thread safe
+    private static final ThreadLocal<DecimalFormat> RATE_FORMAT = new ThreadLocal<DecimalFormat>() {
+        @Override
+        protected DecimalFormat initialValue() {
+            return new DecimalFormat("0.0", new DecimalFormatSymbols(Locale.ENGLISH));
+        }
+    };
+
+    // a map of transferred data sizes for the last notification, tracked only if progress is logged
+    private final Map<TransferResource, AtomicLong> downloads = new ConcurrentHashMap<TransferResource, AtomicLong>();
 
     // a minimal amount of data transferred for an artifact required to inform
     // the user
@@ -60,11 +70,17 @@ public class LogTransferListener extends AbstractTransferListener {
     public void transferInitiated(TransferEvent event) {
         TransferResource resource = event.getResource();
 
+        if (log.isLoggable(Level.FINER)) {
+            downloads.put(resource, new AtomicLong());
+        }
+        if (!log.isLoggable(Level.FINE)) {
+            return;
+        }
+
         StringBuilder sb = new StringBuilder()
             .append(event.getRequestType() == TransferEvent.RequestType.PUT ? "Uploading" : "Downloading").append(":")
             .append(resource.getRepositoryUrl()).append(resource.getResourceName());
 
-        downloads.put(resource, new Long(0));
         log.fine(sb.toString());
     }
 
@@ -78,11 +94,14 @@ public class LogTransferListener extends AbstractTransferListener {
     public void transferProgressed(TransferEvent event) {
         TransferResource resource = event.getResource();
 
-        long lastTransferred = downloads.get(resource);
+        AtomicLong lastTransferred = downloads.get(resource);
+        if (lastTransferred == null) {
+            return;
+        }
         long transferred = event.getTransferredBytes();
 
-        if (transferred - lastTransferred >= TRANSFER_THRESHOLD) {
-            downloads.put(resource, Long.valueOf(transferred));
+        if (transferred - lastTransferred.get() >= TRANSFER_THRESHOLD) {
+            lastTransferred.set(transferred);
             long total = resource.getContentLength();
             log.finer(getStatus(transferred, total) + ", ");
         }
@@ -101,7 +120,7 @@ public class LogTransferListener extends AbstractTransferListener {
         downloads.remove(resource);
 
         long contentLength = event.getTransferredBytes();
-        if (contentLength >= 0) {
+        if (contentLength >= 0 && log.isLoggable(Level.FINE)) {
             long duration = System.currentTimeMillis() - resource.getTransferStartTime();
             double kbPerSec = (contentLength / 1024.0) / (duration / 1000.0);
 
@@ -111,7 +130,7 @@ public class LogTransferListener extends AbstractTransferListener {
                 .append(event.getRequestType() == TransferEvent.RequestType.PUT ? " into " : " from ")
                 .append(resource.getRepositoryUrl()).append(", transferred ")
                 .append(contentLength >= 1024 ? toKB(contentLength) + " KB" : contentLength + " B").append(" at ")
-                .append(new DecimalFormat("0.0", new DecimalFormatSymbols(Locale.ENGLISH)).format(kbPerSec))
+                .append(RATE_FORMAT.get().format(kbPerSec))
                 .append("KB/sec");
 
             log.fine(sb.toString());
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.PhaseStatistics;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionMetrics;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionMetricsSnapshot;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.TransferStatistics;
+
+/**
+ * Default {@link ResolutionMetrics} keeping all the values in memory. Recording is lock free and does not allocate,
+ * apart from the first transfer from a repository.
+ * <p>
+ * Values are updated independently of each other, so a snapshot taken while resolution is in progress might be
+ * slightly inconsistent, e.g. its histogram might count one more execution than its counter.
+ */
+public class DefaultResolutionMetrics implements ResolutionMetrics {
+
+    private final Map<ResolutionPhase, PhaseCounters> phases;
+    private final ConcurrentMap<String, TransferCounters> transfers = new ConcurrentHashMap<String, TransferCounters>();
+
+    public DefaultResolutionMetrics() {
+        this.phases = new EnumMap<ResolutionPhase, PhaseCounters>(ResolutionPhase.class);
+        for (ResolutionPhase phase : ResolutionPhase.values()) {
+            phases.put(phase, new PhaseCounters());
+        }
+    }
+
+    @Override
+    public void recordPhase(final ResolutionPhase phase, final long durationNanos) {
+        phases.get(phase).record(durationNanos);
+    }
+
+    @Override
+    public void recordTransfer(final String repositoryUrl, final long bytes, final long durationNanos) {
+        final TransferCounters counters = getTransferCounters(repositoryUrl);
+        counters.transfers.incrementAndGet();
+        counters.bytes.addAndGet(bytes);
+        counters.nanos.addAndGet(durationNanos);
+    }
+
+    @Override
+    public void recordTransferFailure(final String repositoryUrl) {
+        getTransferCounters(repositoryUrl).failures.incrementAndGet();
+    }
+
+    @Override
+    public void recordTransferCorruption(final String repositoryUrl) {
+        getTransferCounters(repositoryUrl).corruptions.incrementAndGet();
+    }
+
+    @Override
+    public ResolutionMetricsSnapshot snapshot() {
+        final Map<ResolutionPhase, PhaseStatistics> phaseStatistics = new EnumMap<ResolutionPhase, PhaseStatistics>(
+            ResolutionPhase.class);
+        for (Map.Entry<ResolutionPhase, PhaseCounters> entry : phases.entrySet()) {
+            phaseStatistics.put(entry.getKey(), entry.getValue().toStatistics());
+        }
+        final Map<String, TransferStatistics> transferStatistics = new TreeMap<String, TransferStatistics>();
+        for (Map.Entry<String, TransferCounters> entry : transfers.entrySet()) {
+            final TransferCounters counters = entry.getValue();
+            transferStatistics.put(entry.getKey(), new TransferStatistics(entry.getKey(), counters.transfers.get(),
+                counters.failures.get(), counters.corruptions.get(), counters.bytes.get(), counters.nanos.get()));
+        }
+        return new ResolutionMetricsSnapshot(phaseStatistics, transferStatistics);
+    }
+
+    @Override
+    public void reset() {
+        for (PhaseCounters counters : phases.values()) {
+            counters.reset();
+        }
+        transfers.clear();
+    }
+
+    private TransferCounters getTransferCounters(final String repositoryUrl) {
+        TransferCounters counters = transfers.get(repositoryUrl);
+        if (counters == null) {
+            final TransferCounters newCounters = new TransferCounters();
+            counters = transfers.putIfAbsent(repositoryUrl, newCounters);
+            if (counters == null) {
+                counters = newCounters;
+            }
+        }
+        return counters;
+    }
+
+    private static final class PhaseCounters {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(PhaseStatistics.BUCKETS);
+
+        void record(final long durationNanos) {
+            final long nanos = Math.max(0, durationNanos);
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            histogram.incrementAndGet(PhaseStatistics.bucketOf(nanos));
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        PhaseStatistics toStatistics() {
+            final long[] buckets = new long[PhaseStatistics.BUCKETS];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return new PhaseStatistics(count.get(), totalNanos.get(), maxNanos.get(), buckets);
+        }
+
+        void reset() {
+            count.set(0);
+            totalNanos.set(0);
+            maxNanos.set(0);
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    private static final class TransferCounters {
+        private final AtomicLong transfers = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong corruptions = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+/**
+ * A Java Flight Recorder event of the resolver. The event is timed from {@link #begin(FlightRecorderEventType)} to
+ * {@link #commit()}, fields should be set only if {@link #shouldCommit()} returns {@code true}:
+ *
+ * <pre>
+ * final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.LOAD_POM);
+ * try {
+ *     ...
+ * } finally {
+ *     if (event.shouldCommit()) {
+ *         event.set(&quot;pomFile&quot;, pomFile.getPath()).commit();
+ *     }
+ * }
+ * </pre>
+ *
+ * Unless the event type is enabled in a running recording, no event object is created and the calls cost a call of
+ * {@code EventType.isEnabled()} through a method handle cached when the type is registered. If Flight Recorder API is
+ * not available, events are not recorded at all.
+ */
+public final class FlightRecorderEvent {
+
+    private static final FlightRecorderEvent DISABLED = new FlightRecorderEvent(null, null, null);
+
+    private final FlightRecorderSupport support;
+    private final FlightRecorderEventType type;
+    private final Object event;
+
+    private FlightRecorderEvent(final FlightRecorderSupport support, final FlightRecorderEventType type,
+        final Object event) {
+        this.support = support;
+        this.type = type;
+        this.event = event;
+    }
+
+    /**
+     * Starts timing of an event
+     *
+     * @param type type of the event
+     * @return the event, never {@code null}
+     */
+    public static FlightRecorderEvent begin(final FlightRecorderEventType type) {
+        final FlightRecorderSupport support = FlightRecorderSupport.get();
+        if (support == null) {
+            return DISABLED;
+        }
+        if (!type.isEnabled(support)) {
+            return DISABLED;
+        }
+        final Object event = support.begin(type.getFactory(support));
+        return event == null ? DISABLED : new FlightRecorderEvent(support, type, event);
+    }
+
+    /**
+     * Checks whether the event will be recorded, e.g. it is enabled and its duration exceeds the threshold
+     *
+     * @return {@code true} if the event should be committed
+     */
+    public boolean shouldCommit() {
+        return event != null && support.shouldCommit(event);
+    }
+
+    /**
+     * Sets value of a field
+     *
+     * @param field name of the field
+     * @param value the value, its type must match the type of the field
+     * @return modified event
+     * @throws IllegalArgumentException if there is no such field
+     */
+    public FlightRecorderEvent set(final String field, final Object value) throws IllegalArgumentException {
+        if (event != null) {
+            support.set(event, type.indexOf(field), value);
+        }
+        return this;
+    }
+
+    /**
+     * Ends timing of the event and writes it to the recording
+     */
+    public void commit() {
+        if (event != null) {
+            support.commit(event);
+        }
+    }
+}
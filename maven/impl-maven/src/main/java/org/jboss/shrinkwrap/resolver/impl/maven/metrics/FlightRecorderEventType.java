@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Types of Java Flight Recorder events emitted by the resolver, see {@link FlightRecorderEvent}. Events are named
+ * {@code org.jboss.shrinkwrap.resolver.<name>} and belong to {@code ShrinkWrap Resolver} category.
+ */
+public enum FlightRecorderEventType {
+
+    RESOLVE("Resolve", "Resolve Dependencies", "Resolution of dependencies including their transitive dependencies",
+        Field.text("dependencies", "Dependencies"), Field.integer("artifacts", "Resolved Artifacts")),
+
+    LOAD_POM("LoadPom", "Load POM", "Building of the effective model of a POM file",
+        Field.text("pomFile", "POM File")),
+
+    DOWNLOAD("Download", "Download", "Download of a file from a remote repository",
+        Field.text("resource", "Resource"), Field.text("repository", "Repository"),
+        Field.bytes("bytes", "Transferred"), Field.flag("succeeded", "Succeeded")),
+
+    DESCRIPTOR_READ("DescriptorRead", "Read Artifact Descriptor", "Reading of the POM of an artifact",
+        Field.text("artifact", "Artifact"), Field.text("repositories", "Repositories")),
+
+    PACKAGE_DIRECTORIES("PackageDirectories", "Package Directories", "Packaging of directories into an archive",
+        Field.text("archive", "Archive"), Field.text("directories", "Directories"), Field.bytes("bytes", "Size")),
+
+    COMPILE("Compile", "Compile Sources", "Compilation of sources of a Maven project",
+        Field.text("sources", "Sources"), Field.text("output", "Output"));
+
+    private final String name;
+    private final String label;
+    private final String description;
+    private final Field[] fields;
+
+    private volatile boolean registered;
+    private volatile Object factory;
+    private volatile MethodHandle enabledCheck;
+
+    FlightRecorderEventType(final String name, final String label, final String description, final Field... fields) {
+        this.name = name;
+        this.label = label;
+        this.description = description;
+        this.fields = fields;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    Field[] getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns index of a field
+     *
+     * @param fieldName name of the field
+     * @return the index
+     * @throws IllegalArgumentException if there is no such field
+     */
+    int indexOf(final String fieldName) throws IllegalArgumentException {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].name.equals(fieldName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Event " + name + " has no field " + fieldName);
+    }
+
+    /**
+     * Returns factory of the events, registers the event type when called for the first time
+     *
+     * @param support access to Flight Recorder API
+     * @return the factory or {@code null} if the registration failed
+     */
+    Object getFactory(final FlightRecorderSupport support) {
+        if (!registered) {
+            synchronized (this) {
+                if (!registered) {
+                    final Object registeredFactory = support.register(this);
+                    if (registeredFactory != null) {
+                        enabledCheck = support.enabledCheck(registeredFactory);
+                        factory = enabledCheck == null ? null : registeredFactory;
+                    }
+                    registered = true;
+                }
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Checks whether events of this type are enabled in a running recording. The event type is looked up once, when
+     * the type is registered, so the check does not involve any reflective call.
+     *
+     * @param support access to Flight Recorder API
+     * @return {@code true} if events of this type should be created
+     */
+    boolean isEnabled(final FlightRecorderSupport support) {
+        return getFactory(support) != null && support.isEnabled(enabledCheck);
+    }
+
+    /**
+     * A field of an event
+     */
+    static final class Field {
+        private final String name;
+        private final String label;
+        private final Class<?> type;
+        private final boolean bytes;
+
+        private Field(final String name, final String label, final Class<?> type, final boolean bytes) {
+            this.name = name;
+            this.label = label;
+            this.type = type;
+            this.bytes = bytes;
+        }
+
+        static Field text(final String name, final String label) {
+            return new Field(name, label, String.class, false);
+        }
+
+        static Field integer(final String name, final String label) {
+            return new Field(name, label, int.class, false);
+        }
+
+        static Field bytes(final String name, final String label) {
+            return new Field(name, label, long.class, true);
+        }
+
+        static Field flag(final String name, final String label) {
+            return new Field(name, label, boolean.class, false);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getLabel() {
+            return label;
+        }
+
+        Class<?> getType() {
+            return type;
+        }
+
+        boolean isBytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to Java Flight Recorder API. The API is available since JDK 11 (and JDK 8u262), so it is accessed by
+ * reflection to keep the resolver running on older JDKs, where events are silently skipped.
+ */
+final class FlightRecorderSupport {
+    private static final Logger log = Logger.getLogger(FlightRecorderSupport.class.getName());
+
+    /**
+     * Name of the system property which disables registration of Flight Recorder events if set to {@code false}
+     */
+    static final String ENABLED_KEY = "org.jboss.shrinkwrap.resolver.jfr";
+
+    private static final String CATEGORY = "ShrinkWrap Resolver";
+    private static final String NAME_PREFIX = "org.jboss.shrinkwrap.resolver.";
+
+    private static final FlightRecorderSupport INSTANCE = create();
+
+    private final Method createFactory;
+    private final Method newEvent;
+    private final Method getEventType;
+    private final MethodHandle isEnabled;
+    private final Method begin;
+    private final Method shouldCommit;
+    private final Method set;
+    private final Method commit;
+    private final Constructor<?> newAnnotation;
+    private final Constructor<?> newValueDescriptor;
+    private final Class<?> nameAnnotation;
+    private final Class<?> labelAnnotation;
+    private final Class<?> descriptionAnnotation;
+    private final Class<?> categoryAnnotation;
+    private final Class<?> dataAmountAnnotation;
+
+    private volatile boolean failed;
+
+    private FlightRecorderSupport(final ClassLoader cl) throws ReflectiveOperationException {
+        final Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory", false, cl);
+        final Class<?> event = Class.forName("jdk.jfr.Event", false, cl);
+        final Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement", false, cl);
+        this.createFactory = eventFactory.getMethod("create", List.class, List.class);
+        this.newEvent = eventFactory.getMethod("newEvent");
+        this.getEventType = eventFactory.getMethod("getEventType");
+        this.isEnabled = MethodHandles.publicLookup().unreflect(
+            Class.forName("jdk.jfr.EventType", false, cl).getMethod("isEnabled"));
+        this.begin = event.getMethod("begin");
+        this.shouldCommit = event.getMethod("shouldCommit");
+        this.set = event.getMethod("set", int.class, Object.class);
+        this.commit = event.getMethod("commit");
+        this.newAnnotation = annotationElement.getConstructor(Class.class, Object.class);
+        this.newValueDescriptor = Class.forName("jdk.jfr.ValueDescriptor", false, cl).getConstructor(Class.class,
+            String.class, List.class);
+        this.nameAnnotation = Class.forName("jdk.jfr.Name", false, cl);
+        this.labelAnnotation = Class.forName("jdk.jfr.Label", false, cl);
+        this.descriptionAnnotation = Class.forName("jdk.jfr.Description", false, cl);
+        this.categoryAnnotation = Class.forName("jdk.jfr.Category", false, cl);
+        this.dataAmountAnnotation = Class.forName("jdk.jfr.DataAmount", false, cl);
+    }
+
+    private static FlightRecorderSupport create() {
+        if ("false".equalsIgnoreCase(SecurityActions.getProperty(ENABLED_KEY))) {
+            return null;
+        }
+        try {
+            return new FlightRecorderSupport(FlightRecorderSupport.class.getClassLoader());
+        } catch (ReflectiveOperationException e) {
+            log.log(Level.FINE, "Java Flight Recorder API is not available, resolver events will not be recorded");
+            return null;
+        } catch (LinkageError e) {
+            log.log(Level.FINE, "Java Flight Recorder API is not available, resolver events will not be recorded");
+            return null;
+        }
+    }
+
+    /**
+     * Returns the support if Java Flight Recorder API is available
+     *
+     * @return the support or {@code null}
+     */
+    static FlightRecorderSupport get() {
+        final FlightRecorderSupport support = INSTANCE;
+        return support == null || support.failed ? null : support;
+    }
+
+    /**
+     * Registers an event type
+     *
+     * @param type the type
+     * @return the event factory or {@code null} if registration failed
+     */
+    Object register(final FlightRecorderEventType type) {
+        try {
+            final List<Object> annotations = Arrays.asList(
+                annotation(nameAnnotation, NAME_PREFIX + type.getName()),
+                annotation(labelAnnotation, type.getLabel()),
+                annotation(descriptionAnnotation, type.getDescription()),
+                annotation(categoryAnnotation, new String[] { CATEGORY }));
+            final List<Object> fields = new ArrayList<Object>();
+            for (FlightRecorderEventType.Field field : type.getFields()) {
+                final List<Object> fieldAnnotations = new ArrayList<Object>();
+                fieldAnnotations.add(annotation(labelAnnotation, field.getLabel()));
+                if (field.isBytes()) {
+                    fieldAnnotations.add(annotation(dataAmountAnnotation, "BYTES"));
+                }
+                fields.add(newValueDescriptor.newInstance(field.getType(), field.getName(), fieldAnnotations));
+            }
+            return createFactory.invoke(null, annotations, fields);
+        } catch (Exception e) {
+            disable(e);
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the event type of a factory and returns a handle checking whether the type is enabled
+     *
+     * @param factory the event factory
+     * @return the handle, taking no arguments and returning {@code boolean}, or {@code null} if the lookup failed
+     */
+    MethodHandle enabledCheck(final Object factory) {
+        try {
+            return isEnabled.bindTo(getEventType.invoke(factory));
+        } catch (Exception e) {
+            disable(e);
+            return null;
+        }
+    }
+
+    boolean isEnabled(final MethodHandle enabledCheck) {
+        try {
+            return (boolean) enabledCheck.invokeExact();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            disable(t);
+            return false;
+        }
+    }
+
+    Object begin(final Object factory) {
+        try {
+            final Object event = newEvent.invoke(factory);
+            begin.invoke(event);
+            return event;
+        } catch (Exception e) {
+            disable(e);
+            return null;
+        }
+    }
+
+    boolean shouldCommit(final Object event) {
+        try {
+            return (Boolean) shouldCommit.invoke(event);
+        } catch (Exception e) {
+            disable(e);
+            return false;
+        }
+    }
+
+    void set(final Object event, final int index, final Object value) {
+        try {
+            set.invoke(event, index, value);
+        } catch (Exception e) {
+            disable(e);
+        }
+    }
+
+    void commit(final Object event) {
+        try {
+            commit.invoke(event);
+        } catch (Exception e) {
+            disable(e);
+        }
+    }
+
+    private Object annotation(final Class<?> annotationType, final Object value) throws ReflectiveOperationException {
+        return newAnnotation.newInstance(annotationType, value);
+    }
+
+    // a failure is not expected at all, so rather stop recording than fail resolution or flood the log
+    private void disable(final Throwable e) {
+        if (!failed) {
+            failed = true;
+            log.log(Level.WARNING, "Unable to record Java Flight Recorder event, resolver events are disabled", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionMetrics;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
+
+/**
+ * A listener which records downloads to {@link ResolutionMetrics}.
+ * <p>
+ * A download lasts from its initiation to its success. The connector validates checksums after the last chunk of data
+ * is received and before success is reported, so time between the last progress and success (or corruption) is
+ * recorded as checksum validation. Only downloads of artifact files are recorded as
+ * {@link ResolutionPhase#ARTIFACT_DOWNLOAD}, while all of them, including POM files, metadata and checksums, are
+ * recorded as transfers. Every download is also reported as a {@link FlightRecorderEventType#DOWNLOAD} event.
+ */
+public class MetricsTransferListener extends AbstractTransferListener {
+
+    private static final String[] NON_ARTIFACT_SUFFIXES = { ".pom", ".sha1", ".md5", ".sha256", ".sha512", ".asc" };
+
+    private final ResolutionMetrics metrics;
+
+    // times of downloads in progress
+    private final Map<TransferResource, Timing> downloads = new ConcurrentHashMap<TransferResource, Timing>();
+
+    public MetricsTransferListener() {
+        this(ResolutionMetricsLocator.getMetrics());
+    }
+
+    MetricsTransferListener(final ResolutionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void transferInitiated(TransferEvent event) {
+        if (event.getRequestType() != TransferEvent.RequestType.PUT) {
+            downloads.put(event.getResource(), new Timing(System.nanoTime(),
+                FlightRecorderEvent.begin(FlightRecorderEventType.DOWNLOAD)));
+        }
+    }
+
+    @Override
+    public void transferProgressed(TransferEvent event) {
+        final Timing timing = downloads.get(event.getResource());
+        if (timing != null) {
+            timing.lastProgress = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        final long now = System.nanoTime();
+        final TransferResource resource = event.getResource();
+        final Timing timing = downloads.remove(resource);
+        if (timing != null) {
+            if (!timing.validated) {
+                metrics.recordPhase(ResolutionPhase.CHECKSUM_VALIDATION, now - timing.lastProgress);
+            }
+            if (isArtifact(resource.getResourceName())) {
+                metrics.recordPhase(ResolutionPhase.ARTIFACT_DOWNLOAD, now - timing.start);
+            }
+            metrics.recordTransfer(resource.getRepositoryUrl(), Math.max(0, event.getTransferredBytes()), now
+                - timing.start);
+            commit(timing.event, event, true);
+        }
+    }
+
+    @Override
+    public void transferCorrupted(TransferEvent event) {
+        final Timing timing = downloads.get(event.getResource());
+        // corruption is reported only if the checksum policy tolerates it, so success follows
+        if (timing != null) {
+            metrics.recordPhase(ResolutionPhase.CHECKSUM_VALIDATION, System.nanoTime() - timing.lastProgress);
+            metrics.recordTransferCorruption(event.getResource().getRepositoryUrl());
+            timing.validated = true;
+        }
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        final Timing timing = downloads.remove(event.getResource());
+        if (timing != null) {
+            metrics.recordTransferFailure(event.getResource().getRepositoryUrl());
+            commit(timing.event, event, false);
+        }
+    }
+
+    /**
+     * Returns whether the resource is an artifact file, not a POM file, repository metadata or a checksum
+     */
+    static boolean isArtifact(final String resourceName) {
+        final String name = resourceName.substring(resourceName.lastIndexOf('/') + 1).toLowerCase(Locale.ENGLISH);
+        if (name.startsWith("maven-metadata")) {
+            return false;
+        }
+        for (String suffix : NON_ARTIFACT_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void commit(final FlightRecorderEvent recorderEvent, final TransferEvent event,
+        final boolean succeeded) {
+        if (recorderEvent.shouldCommit()) {
+            final TransferResource resource = event.getResource();
+            recorderEvent.set("resource", resource.getResourceName()).set("repository", resource.getRepositoryUrl())
+                .set("bytes", event.getTransferredBytes()).set("succeeded", succeeded).commit();
+        }
+    }
+
+    private static final class Timing {
+        private final long start;
+        private final FlightRecorderEvent event;
+        // events of a single transfer are fired by the thread running it, volatile is enough
+        private volatile long lastProgress;
+        private volatile boolean validated;
+
+        Timing(final long start, final FlightRecorderEvent event) {
+            this.start = start;
+            this.event = event;
+            this.lastProgress = start;
+        }
+    }
+}
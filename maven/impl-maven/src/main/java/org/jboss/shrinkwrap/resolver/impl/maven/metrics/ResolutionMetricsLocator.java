@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import org.jboss.shrinkwrap.resolver.spi.loader.SpiServiceLoader;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionMetrics;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
+
+/**
+ * Provides the {@link ResolutionMetrics} shared by all resolutions within this class loader. An implementation
+ * registered in {@code META-INF/services} is used if there is one, {@link DefaultResolutionMetrics} otherwise.
+ */
+public final class ResolutionMetricsLocator {
+
+    private static volatile ResolutionMetrics metrics;
+
+    private ResolutionMetricsLocator() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Returns the shared metrics, looked up when called for the first time
+     *
+     * @return the metrics
+     */
+    public static ResolutionMetrics getMetrics() {
+        ResolutionMetrics result = metrics;
+        if (result == null) {
+            synchronized (ResolutionMetricsLocator.class) {
+                result = metrics;
+                if (result == null) {
+                    result = new SpiServiceLoader(ResolutionMetricsLocator.class.getClassLoader()).onlyOne(
+                        ResolutionMetrics.class, DefaultResolutionMetrics.class);
+                    metrics = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records duration of a phase which started at given time
+     *
+     * @param phase the phase
+     * @param startNanos value of {@link System#nanoTime()} when the phase started
+     */
+    public static void recordPhase(final ResolutionPhase phase, final long startNanos) {
+        getMetrics().recordPhase(phase, System.nanoTime() - startNanos);
+    }
+}
@@ -85,7 +85,7 @@ public class ResolveVersionFromMetadataTask implements MavenWorkingSessionTask<S
         // SHRINKRES-102 test-jar has special behavior
         if (Validate.isNullOrEmptyOrQuestionMark(resolvedVersion) && dependency.getPackaging().equals(PackagingType.JAR) && dependency.getClassifier().equals(PackagingType.TEST_JAR.getClassifier())) {
             MavenCoordinate coordinate = MavenCoordinates.createCoordinate(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), PackagingType.TEST_JAR, PackagingType.TEST_JAR.getClassifier());
-            MavenDependency newDependency = new MavenDependencyImpl(coordinate, dependency.getScope(), dependency.isOptional(), dependency.getExclusions().toArray(new MavenDependencyExclusion[0]));
+            MavenDependency newDependency = MavenDependencyImpl.create(coordinate, dependency.getScope(), dependency.isOptional(), false, dependency.getExclusions().toArray(new MavenDependencyExclusion[0]));
 
             // version is ignored here, so we have to iterate to get the dependency we are looking for
             if (session.getDependencyManagement().contains(newDependency)) {
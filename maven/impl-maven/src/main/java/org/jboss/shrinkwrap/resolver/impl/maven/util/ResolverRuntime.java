@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runtime facilities shared by the resolver: numeric settings read from system properties and the pool all the
+ * background work runs on.
+ * <p>
+ * The pool is created when first used, sized by {@link #THREADS_KEY} system property, and is never shut down. Its
+ * threads are daemon ones, so it does not prevent the JVM from exiting.
+ */
+public final class ResolverRuntime {
+    private static final Logger log = Logger.getLogger(ResolverRuntime.class.getName());
+
+    /**
+     * Sets parallelism of the shared pool, read when the pool is first used
+     */
+    public static final String THREADS_KEY = "org.jboss.shrinkwrap.resolver.threads";
+
+    private ResolverRuntime() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Returns the pool shared by all concurrent work of the resolver, e.g. parallel dependency collection or import
+     * of resolved artifacts. Tasks running in the pool must not block on futures of other tasks submitted to it, see
+     * {@link #isPoolThread()}, joining {@link java.util.concurrent.ForkJoinTask}s is fine.
+     *
+     * @return the shared pool
+     */
+    public static ForkJoinPool getPool() {
+        return PoolHolder.POOL;
+    }
+
+    /**
+     * Returns whether the current thread belongs to the shared pool
+     *
+     * @return {@code true} if the current thread is a worker of {@link #getPool()}
+     */
+    public static boolean isPoolThread() {
+        final Thread thread = Thread.currentThread();
+        return thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == getPool();
+    }
+
+    /**
+     * Returns value of an integer system property. An invalid value is logged and ignored.
+     *
+     * @param key the name of the property
+     * @param defaultValue the value used if the property is not set or is invalid
+     * @return the value of the property
+     */
+    public static int getIntProperty(final String key, final int defaultValue) {
+        final String value = SecurityActions.getProperty(key);
+        if (value == null || value.length() == 0) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logInvalidValue(key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns value of a long system property. An invalid value is logged and ignored.
+     *
+     * @param key the name of the property
+     * @param defaultValue the value used if the property is not set or is invalid
+     * @return the value of the property
+     */
+    public static long getLongProperty(final String key, final long defaultValue) {
+        final String value = SecurityActions.getProperty(key);
+        if (value == null || value.length() == 0) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logInvalidValue(key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static void logInvalidValue(final String key, final String value, final Object defaultValue) {
+        log.log(Level.WARNING, "Ignoring invalid value {0} of {1}, using {2}", new Object[] { value, key,
+                defaultValue });
+    }
+
+    /**
+     * Holder of the pool, so it is created on first use
+     */
+    private static final class PoolHolder {
+        // the work is mostly waiting for network or disk, so there can be more of it than processors
+        private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, getIntProperty(THREADS_KEY,
+                Math.max(2, Runtime.getRuntime().availableProcessors() * 2))), new DaemonThreadFactory(), null, false);
+    }
+
+    private static final class DaemonThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("shrinkwrap-resolver-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -16,6 +16,9 @@
  */
 package org.jboss.shrinkwrap.resolver.api.maven.coordinate;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.jboss.shrinkwrap.resolver.api.CoordinateParseException;
@@ -147,4 +150,47 @@ public class MavenCoordinateParserTestCase {
         Assert.assertEquals("jar", dependency.getPackaging());
 
     }
+
+    @Test
+    public void sameFormsAsRegularExpression() {
+        // the pattern the parser used to match coordinates with
+        final Pattern pattern = Pattern.compile("([^: ]+):([^: ]+)(:([^: ]*)(:([^: ]+))?)?(:([^: ]+))?");
+        final String[] forms = { "g", "g:", ":a", "g:a", "g:a:", "g:a:1", "g:a::", "g:a::1", "g:a:pom:", "g:a:pom:1",
+            "g:a:jar:sources:1", "g:a::sources:1", "g:a:jar::1", "g:a:jar:sources:", "g:a:jar:sources:1:", "g:a:b:c:d:e",
+            "g :a:1", "g:a:1 ", "g:a:?", "::", ":::", "g::1", "g:a\t:1" };
+
+        for (String form : forms) {
+            final Matcher m = pattern.matcher(form);
+            if (!m.matches()) {
+                try {
+                    MavenCoordinateParser.parse(form);
+                    Assert.fail("Coordinates " + form + " should not have been parsed");
+                } catch (CoordinateParseException e) {
+                    Assert.assertTrue(e.getMessage().startsWith("Bad artifact coordinates"));
+                }
+                continue;
+            }
+
+            final MavenCoordinateParser parser = MavenCoordinateParser.parse(form);
+            Assert.assertEquals(form, m.group(1), parser.getGroupId());
+            Assert.assertEquals(form, m.group(2), parser.getArtifactId());
+            switch (form.length() - form.replace(":", "").length()) {
+                case 1:
+                    Assert.assertNull(form, parser.getVersion());
+                    Assert.assertNull(form, parser.getClassifier());
+                    break;
+                case 2:
+                    Assert.assertEquals(form, m.group(4), parser.getVersion());
+                    Assert.assertEquals(form, "", parser.getClassifier());
+                    break;
+                case 3:
+                    Assert.assertEquals(form, m.group(6), parser.getVersion());
+                    Assert.assertEquals(form, "", parser.getClassifier());
+                    break;
+                default:
+                    Assert.assertEquals(form, m.group(8), parser.getVersion());
+                    Assert.assertEquals(form, m.group(6), parser.getClassifier());
+            }
+        }
+    }
 }
@@ -22,6 +22,7 @@ import java.util.Set;
 import org.jboss.shrinkwrap.resolver.api.maven.PackagingType;
 import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.impl.maven.coordinate.MavenDependencyImpl;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -32,6 +33,48 @@ import org.junit.Test;
  */
 public class MavenDependencyImplTestCase {
 
+    private static final String INTERN_KEY = "org.jboss.shrinkwrap.resolver.intern-coordinates";
+
+    @After
+    public void disableInterning() {
+        System.clearProperty(INTERN_KEY);
+    }
+
+    @Test
+    public void notInternedByDefault() {
+        final MavenDependency dependency1 = MavenDependencyImpl.create(this.createCoordinate(), ScopeType.RUNTIME,
+            false, false);
+        final MavenDependency dependency2 = MavenDependencyImpl.create(this.createCoordinate(), ScopeType.RUNTIME,
+            false, false);
+        Assert.assertEquals(dependency1, dependency2);
+        Assert.assertNotSame(dependency1, dependency2);
+    }
+
+    @Test
+    public void internedIfEnabled() {
+        System.setProperty(INTERN_KEY, "true");
+        final MavenDependencyExclusion exclusion = new MavenDependencyExclusionImpl("groupId1", "artifactId1");
+        final MavenCoordinate coordinate = this.createCoordinate();
+
+        final MavenDependency dependency = MavenDependencyImpl.create(coordinate, ScopeType.RUNTIME, false, false,
+            exclusion);
+        Assert.assertSame(dependency, MavenDependencyImpl.create(this.createCoordinate(), ScopeType.RUNTIME, false,
+            false, new MavenDependencyExclusionImpl("groupId1", "artifactId1")));
+        Assert.assertSame(dependency.toCanonicalForm(), dependency.toCanonicalForm());
+
+        // equal, but different in properties equals does not consider
+        Assert.assertNotSame(dependency, MavenDependencyImpl.create(coordinate, ScopeType.TEST, false, false,
+            exclusion));
+        Assert.assertNotSame(dependency, MavenDependencyImpl.create(coordinate, ScopeType.RUNTIME, true, false,
+            exclusion));
+        Assert.assertNotSame(dependency, MavenDependencyImpl.create(coordinate, ScopeType.RUNTIME, false, true,
+            exclusion));
+        Assert.assertNotSame(dependency, MavenDependencyImpl.create(coordinate, ScopeType.RUNTIME, false, false));
+        Assert.assertNotSame(dependency, MavenDependencyImpl.create(new MavenCoordinateImpl(coordinate.getGroupId(),
+            coordinate.getArtifactId(), "2.0", coordinate.getPackaging(), coordinate.getClassifier()),
+            ScopeType.RUNTIME, false, false, exclusion));
+    }
+
     @Test
     public void equalsByValueNoExclusions() {
         final MavenCoordinate coordinate = this.createCoordinate();
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.internal.impl.SimpleLocalRepositoryManagerFactory;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.NoLocalRepositoryManagerException;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.repository.AuthenticationBuilder;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.ScopeFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.AcceptScopesStrategy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.DefaultTransitiveExclusionPolicy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.MavenResolutionStrategy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.TransitiveExclusionPolicy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.TransitiveStrategy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the fingerprint of {@link DependencyGraphCache} describes filters, mirrors and credentials of a request
+ */
+public class DependencyGraphCacheFingerprintTestCase {
+
+    private static final List<MavenDependency> DEPENDENCIES = Collections.singletonList(MavenDependencies
+            .createDependency("org.jboss.shrinkwrap.test:test-deps-c:1.0.0", ScopeType.COMPILE, false));
+
+    private final DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+    @Before
+    public void createSession() throws NoLocalRepositoryManagerException {
+        session.setLocalRepositoryManager(new SimpleLocalRepositoryManagerFactory().newInstance(session,
+                new LocalRepository(new File("target/local-repository"))));
+    }
+
+    @Test
+    public void subclassOfKnownFilterIsNotCacheable() {
+        Assert.assertNotNull(fingerprint(repository("central", "http://example.org"),
+                new AcceptScopesStrategy(ScopeType.COMPILE)));
+        Assert.assertNull(fingerprint(repository("central", "http://example.org"),
+                strategy(new ScopeFilter(ScopeType.COMPILE) {
+                })));
+    }
+
+    @Test
+    public void mirroredRepositoriesAreDistinguished() {
+        final RemoteRepository mirror = repository("mirror", "http://mirror.example.org");
+        final RemoteRepository mirrorOfCentral = new RemoteRepository.Builder(mirror).setMirroredRepositories(
+                Collections.singletonList(repository("central", "http://example.org"))).build();
+        final RemoteRepository mirrorOfOther = new RemoteRepository.Builder(mirror).setMirroredRepositories(
+                Collections.singletonList(repository("other", "http://other.example.org"))).build();
+
+        Assert.assertNotEquals(fingerprint(mirrorOfCentral, TransitiveStrategy.INSTANCE),
+                fingerprint(mirrorOfOther, TransitiveStrategy.INSTANCE));
+    }
+
+    @Test
+    public void credentialsAreDistinguishedWithoutBeingExposed() {
+        final String first = fingerprint(authenticated("user", "first-secret"), TransitiveStrategy.INSTANCE);
+        final String second = fingerprint(authenticated("user", "second-secret"), TransitiveStrategy.INSTANCE);
+
+        Assert.assertNotEquals(first, second);
+        Assert.assertEquals(first, fingerprint(authenticated("user", "first-secret"), TransitiveStrategy.INSTANCE));
+        Assert.assertFalse("Password is part of the fingerprint", first.contains("first-secret"));
+    }
+
+    private String fingerprint(final RemoteRepository repository, final MavenResolutionStrategy strategy) {
+        return DependencyGraphCache.fingerprint(DEPENDENCIES, Collections.<MavenDependency> emptyList(),
+                Collections.singletonList(repository), strategy, session);
+    }
+
+    private static RemoteRepository repository(final String id, final String url) {
+        return new RemoteRepository.Builder(id, "default", url).build();
+    }
+
+    private static RemoteRepository authenticated(final String username, final String password) {
+        return new RemoteRepository.Builder(repository("central", "http://example.org")).setAuthentication(
+                new AuthenticationBuilder().addUsername(username).addPassword(password).build()).build();
+    }
+
+    private static MavenResolutionStrategy strategy(final MavenResolutionFilter filter) {
+        return new MavenResolutionStrategy() {
+            @Override
+            public MavenResolutionFilter[] getResolutionFilters() {
+                return new MavenResolutionFilter[] { filter };
+            }
+
+            @Override
+            public TransitiveExclusionPolicy getTransitiveExclusionPolicy() {
+                return DefaultTransitiveExclusionPolicy.INSTANCE;
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.resolver.api.maven.ConfigurableMavenResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that effective remote repositories are computed once and recomputed only when their configuration changes.
+ * <p>
+ * NOTE: This test case is in the main package because of the visibility of {@link MavenWorkingSessionContainer}.
+ * </p>
+ */
+public class EffectiveRemoteRepositoriesTestCase {
+
+    private static final String SETTINGS = "target/settings/profiles/settings.xml";
+
+    private static final String DEPS_C = "org.jboss.shrinkwrap.test:test-deps-c:1.0.0";
+
+    private ConfigurableMavenResolverSystem resolver;
+    private MavenWorkingSessionImpl session;
+
+    @Before
+    public void createResolver() {
+        resolver = Maven.configureResolver();
+        resolver.fromFile(SETTINGS);
+        session = (MavenWorkingSessionImpl) ((MavenWorkingSessionContainer) resolver).getMavenWorkingSession();
+    }
+
+    @Test
+    public void repositoriesAreComputedOnce() {
+        resolver.withMavenCentralRepo(false);
+        resolve();
+        resolve();
+        resolver.resolveVersionRange("org.jboss.shrinkwrap.test:test-deps-c:[1.0.0,)");
+        resolver.loadPomFromFile("target/poms/test-parent.xml");
+
+        // loading POM file changes repositories
+        Assert.assertEquals(1, session.getRemoteRepositoriesComputationCount());
+        resolve();
+        Assert.assertEquals(2, session.getRemoteRepositoriesComputationCount());
+    }
+
+    @Test
+    public void repositoriesAreRecomputedWhenConfigurationChanges() {
+        resolve();
+        Assert.assertEquals(1, session.getRemoteRepositoriesComputationCount());
+
+        resolver.withRemoteRepo("additional", new File("target/non-existing-repository").toURI().toString(), "default");
+        resolve();
+        Assert.assertEquals(2, session.getRemoteRepositoriesComputationCount());
+
+        resolver.withMavenCentralRepo(false);
+        resolve();
+        Assert.assertEquals(3, session.getRemoteRepositoriesComputationCount());
+
+        resolver.fromFile(SETTINGS);
+        resolve();
+        Assert.assertEquals(4, session.getRemoteRepositoriesComputationCount());
+    }
+
+    @Test
+    public void offlineModeIsHonored() {
+        resolve();
+        resolver.workOffline();
+        resolve();
+        Assert.assertEquals(1, session.getRemoteRepositoriesComputationCount());
+
+        resolver.workOffline(false);
+        resolve();
+        Assert.assertEquals(2, session.getRemoteRepositoriesComputationCount());
+    }
+
+    private void resolve() {
+        resolver.resolve(DEPS_C).withoutTransitivity().asSingleFile();
+    }
+}
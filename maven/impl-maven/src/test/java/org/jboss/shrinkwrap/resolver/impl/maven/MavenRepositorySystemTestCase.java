@@ -16,9 +16,12 @@
  */
 package org.jboss.shrinkwrap.resolver.impl.maven;
 
-
+import org.apache.maven.settings.Settings;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.jboss.shrinkwrap.resolver.api.Resolvers;
 import org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystem;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenRepositorySystem;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -40,4 +43,31 @@ public class MavenRepositorySystemTestCase {
             Resolvers.use(MavenResolverSystem.class, Thread.currentThread().getContextClassLoader()));
     }
 
+    @Test
+    public void sessionsShareTemplateForEqualSettings() {
+        final DefaultRepositorySystemSession first = new MavenRepositorySystem().getSession(
+            new MavenSettingsBuilder().buildDefaultSettings(), false);
+        final DefaultRepositorySystemSession second = new MavenRepositorySystem().getSession(
+            new MavenSettingsBuilder().buildDefaultSettings(), false);
+
+        Assert.assertNotSame("Each call gets its own session", first, second);
+        Assert.assertNotSame("Session data are not shared", first.getData(), second.getData());
+        Assert.assertSame("Local repository manager is reused for equal settings", first.getLocalRepositoryManager(),
+            second.getLocalRepositoryManager());
+    }
+
+    @Test
+    public void sessionTemplateRebuiltWhenSettingsChange() {
+        final Settings settings = new MavenSettingsBuilder().buildDefaultSettings();
+        final DefaultRepositorySystemSession online = new MavenRepositorySystem().getSession(settings, false);
+
+        settings.setOffline(!settings.isOffline());
+        final DefaultRepositorySystemSession offline = new MavenRepositorySystem().getSession(settings, false);
+        final DefaultRepositorySystemSession legacy = new MavenRepositorySystem().getSession(settings, true);
+
+        Assert.assertEquals(settings.isOffline(), offline.isOffline());
+        Assert.assertNotSame(online.getLocalRepositoryManager(), offline.getLocalRepositoryManager());
+        Assert.assertNotSame(offline.getLocalRepositoryManager(), legacy.getLocalRepositoryManager());
+    }
+
 }
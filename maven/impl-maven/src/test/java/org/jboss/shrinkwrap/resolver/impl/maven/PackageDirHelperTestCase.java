@@ -1,6 +1,7 @@
 package org.jboss.shrinkwrap.resolver.impl.maven;
 
 import org.apache.commons.io.FileUtils;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -9,9 +10,17 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -26,7 +35,7 @@ public class PackageDirHelperTestCase {
     public void packageDirectories_empty_canUnzip() throws Exception {
         File output = tempFolder.newFile("output.zip");
 
-        MavenResolvedArtifactImpl.PackageDirHelper.packageDirectories(output);
+        packageDirectories(output);
 
         File outputFolder = tempFolder.newFolder("outputFolder");
         assertTrue(canUnzip(output, outputFolder));
@@ -39,9 +48,9 @@ public class PackageDirHelperTestCase {
         File inputFolder = tempFolder.newFolder("inputFolder");
         FileUtils.forceMkdir(inputFolder);
         File inputFile = new File(inputFolder, "exampleInput.foo");
-        FileUtils.write(inputFile, "some data");
+        FileUtils.write(inputFile, "some data", StandardCharsets.UTF_8);
 
-        MavenResolvedArtifactImpl.PackageDirHelper.packageDirectories(output, inputFolder);
+        packageDirectories(output, inputFolder);
 
         File outputFolder = tempFolder.newFolder("outputFolder");
         assertTrue(canUnzip(output, outputFolder));
@@ -56,14 +65,107 @@ public class PackageDirHelperTestCase {
         FileUtils.forceMkdir(inputSubFolder);
 
         File inputFile = new File(inputSubFolder, "exampleInput.foo");
-        FileUtils.write(inputFile, "some data");
+        FileUtils.write(inputFile, "some data", StandardCharsets.UTF_8);
 
-        MavenResolvedArtifactImpl.PackageDirHelper.packageDirectories(output, inputRootFolder);
+        packageDirectories(output, inputRootFolder);
 
         File outputFolder = tempFolder.newFolder("outputFolder");
         assertTrue(canUnzip(output, outputFolder));
     }
 
+    @Test
+    public void packageDirectories_compressedEntry_isStored() throws Exception {
+        File output = tempFolder.newFile("output.zip");
+
+        File inputFolder = tempFolder.newFolder("inputFolder");
+        FileUtils.write(new File(inputFolder, "lib/nested.jar"), "jar data", StandardCharsets.UTF_8);
+        FileUtils.write(new File(inputFolder, "Example.class"), "class data", StandardCharsets.UTF_8);
+
+        packageDirectories(output, inputFolder);
+
+        try (ZipFile zip = new ZipFile(output)) {
+            assertEquals(ZipEntry.STORED, zip.getEntry("lib/nested.jar").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zip.getEntry("Example.class").getMethod());
+            assertNull(zip.getEntry("lib/"));
+        }
+        assertTrue(canUnzip(output, tempFolder.newFolder("outputFolder")));
+    }
+
+    @Test
+    public void packageDirectories_symbolicLinks_areFollowed() throws Exception {
+        File output = tempFolder.newFile("output.zip");
+
+        File targetFolder = tempFolder.newFolder("targetFolder");
+        File targetFile = new File(targetFolder, "Linked.class");
+        FileUtils.write(targetFile, "linked data", StandardCharsets.UTF_8);
+
+        File inputFolder = tempFolder.newFolder("inputFolder");
+        try {
+            Files.createSymbolicLink(new File(inputFolder, "Linked.class").toPath(), targetFile.toPath());
+            Files.createSymbolicLink(new File(inputFolder, "linked").toPath(), targetFolder.toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            Assume.assumeNoException("Symbolic links are not supported", e);
+        }
+
+        packageDirectories(output, inputFolder);
+
+        try (ZipFile zip = new ZipFile(output)) {
+            assertEquals(targetFile.length(), zip.getEntry("Linked.class").getSize());
+            assertNotNull(zip.getEntry("linked/Linked.class"));
+        }
+    }
+
+    @Test
+    public void packagedModuleCache_reusesArchiveUntilDirectoryChanges() throws Exception {
+        File inputFolder = tempFolder.newFolder("classes");
+        File inputFile = new File(inputFolder, "org/example/Example.class");
+        FileUtils.write(inputFile, "some data", StandardCharsets.UTF_8);
+
+        File archive = PackagedModuleCache.getArchive("module", "jar", inputFolder);
+        assertEquals(archive, PackagedModuleCache.getArchive("module", "jar", inputFolder));
+
+        File addedFile = new File(inputFolder, "org/example/Added.class");
+        FileUtils.write(addedFile, "more data", StandardCharsets.UTF_8);
+        File repackaged = PackagedModuleCache.getArchive("module", "jar", inputFolder);
+        // the archive is replaced, no outdated archive is left behind
+        assertEquals(archive, repackaged);
+
+        try (ZipFile zip = new ZipFile(repackaged)) {
+            assertNotNull(zip.getEntry("org/example/Example.class"));
+            assertNotNull(zip.getEntry("org/example/Added.class"));
+        }
+    }
+
+    @Test
+    public void packagedModuleCache_detectsRenamedFile() throws Exception {
+        File inputFolder = tempFolder.newFolder("renamed-classes");
+        File inputFile = new File(inputFolder, "org/example/Example.class");
+        FileUtils.write(inputFile, "some data", StandardCharsets.UTF_8);
+
+        File archive = PackagedModuleCache.getArchive("renamed-module", "jar", inputFolder);
+
+        // same number of files, same size and modification time
+        File renamedFile = new File(inputFolder, "org/example/Renamed.class");
+        long lastModified = inputFile.lastModified();
+        assertTrue(inputFile.renameTo(renamedFile));
+        assertTrue(renamedFile.setLastModified(lastModified));
+        File repackaged = PackagedModuleCache.getArchive("renamed-module", "jar", inputFolder);
+
+        try (ZipFile zip = new ZipFile(repackaged)) {
+            assertNull(zip.getEntry("org/example/Example.class"));
+            assertNotNull(zip.getEntry("org/example/Renamed.class"));
+        }
+        assertEquals(archive, repackaged);
+    }
+
+    private static void packageDirectories(File outputFile, File... directories) throws IOException {
+        List<MavenResolvedArtifactImpl.DirectoryEntry> entries = new ArrayList<>();
+        for (File directory : directories) {
+            MavenResolvedArtifactImpl.PackageDirHelper.listFiles(directory, entries);
+        }
+        MavenResolvedArtifactImpl.PackageDirHelper.packageEntries(outputFile, entries);
+    }
+
     private boolean canUnzip(File zipFile, File outputFolder) {
 
         byte[] buffer = new byte[1024];
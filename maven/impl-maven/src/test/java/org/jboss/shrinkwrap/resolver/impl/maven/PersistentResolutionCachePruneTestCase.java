@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that {@link PersistentResolutionCache} removes old entries and keeps the number of entries bounded
+ */
+public class PersistentResolutionCachePruneTestCase {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    @Test
+    public void entriesOlderThanMaxAgeAreRemoved() throws IOException {
+        final File old = entry("old.bin", 3 * HOUR);
+        final File recent = entry("recent.bin", 0L);
+
+        new PersistentResolutionCache(cacheDir.getRoot()).prune(2 * HOUR, 10);
+
+        Assert.assertFalse("Old entry was kept", old.exists());
+        Assert.assertTrue("Recent entry was removed", recent.exists());
+    }
+
+    @Test
+    public void oldestEntriesAboveSizeAreRemoved() throws IOException {
+        final File oldest = entry("oldest.bin", 3 * HOUR);
+        final File older = entry("older.bin", 2 * HOUR);
+        final File newest = entry("newest.bin", 0L);
+
+        new PersistentResolutionCache(cacheDir.getRoot()).prune(24 * HOUR, 2);
+
+        Assert.assertFalse("Oldest entry was kept", oldest.exists());
+        Assert.assertTrue(older.exists());
+        Assert.assertTrue(newest.exists());
+    }
+
+    @Test
+    public void abandonedTemporaryFilesAreRemoved() throws IOException {
+        final File abandoned = entry("entry-1.tmp", 2 * HOUR);
+        final File inProgress = entry("entry-2.tmp", 0L);
+        final File unrelated = entry("unrelated.txt", 48 * HOUR);
+
+        new PersistentResolutionCache(cacheDir.getRoot()).prune(24 * HOUR, 10);
+
+        Assert.assertFalse("Abandoned temporary file was kept", abandoned.exists());
+        Assert.assertTrue("Entry being written was removed", inProgress.exists());
+        Assert.assertTrue("Unrelated file was removed", unrelated.exists());
+    }
+
+    private File entry(final String name, final long age) throws IOException {
+        final File file = cacheDir.newFile(name);
+        Assert.assertTrue(file.setLastModified(System.currentTimeMillis() - age));
+        return file;
+    }
+}
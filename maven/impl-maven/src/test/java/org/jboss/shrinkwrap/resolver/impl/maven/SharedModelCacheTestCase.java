@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests sharing and invalidation of models in {@link SharedModelCache}
+ */
+public class SharedModelCacheTestCase {
+
+    @Test
+    public void rawModelsAreSharedBetweenRequests() {
+        final SharedModelCache cache = new SharedModelCache(16);
+        final Model model = new Model();
+
+        cache.forRequest(request("a")).put("org.example", "parent", "1.0", "raw", model);
+
+        Assert.assertSame(model, cache.forRequest(request("b")).get("org.example", "parent", "1.0", "raw"));
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void interpolatedDataAreBoundToRequestProperties() {
+        final SharedModelCache cache = new SharedModelCache(16);
+        final DependencyManagement dependencyManagement = new DependencyManagement();
+
+        cache.forRequest(request("a")).put("org.example", "bom", "1.0", "import", dependencyManagement);
+
+        Assert.assertSame(dependencyManagement,
+            cache.forRequest(request("a")).get("org.example", "bom", "1.0", "import"));
+        Assert.assertNull("Data interpolated with other properties were returned",
+            cache.forRequest(request("b")).get("org.example", "bom", "1.0", "import"));
+    }
+
+    @Test
+    public void modifiedPomFileInvalidatesEntry() throws IOException {
+        final SharedModelCache cache = new SharedModelCache(16);
+        final File pom = File.createTempFile("shared-model-cache", ".xml");
+        pom.deleteOnExit();
+        Files.write(pom.toPath(), "<project/>".getBytes("UTF-8"));
+
+        final Model model = new Model();
+        model.setPomFile(pom);
+        final ModelCache view = cache.forRequest(request("a"));
+        view.put("org.example", "parent", "1.0-SNAPSHOT", "raw", model);
+        Assert.assertSame(model, view.get("org.example", "parent", "1.0-SNAPSHOT", "raw"));
+
+        Files.write(pom.toPath(), "<project><modelVersion>4.0.0</modelVersion></project>".getBytes("UTF-8"));
+        Assert.assertNull("Modified POM was not read again", view.get("org.example", "parent", "1.0-SNAPSHOT", "raw"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void workspaceModelsAreSharedOnlyForTheSameProject() throws IOException {
+        final SharedModelCache cache = new SharedModelCache(16);
+        final File parentPom = File.createTempFile("shared-model-cache-parent", ".xml");
+        parentPom.deleteOnExit();
+        final File projectPom = File.createTempFile("shared-model-cache-project", ".xml");
+        projectPom.deleteOnExit();
+        final File otherProjectPom = File.createTempFile("shared-model-cache-other", ".xml");
+        otherProjectPom.deleteOnExit();
+
+        final Model model = new Model();
+        model.setPomFile(parentPom);
+        cache.forRequest(request("a").setPomFile(projectPom)).put("org.example", "parent", "1.0", "raw", model);
+
+        Assert.assertSame(model, cache.forRequest(request("a").setPomFile(projectPom)).get("org.example", "parent",
+            "1.0", "raw"));
+        Assert.assertNull("Parent read by another project was returned",
+            cache.forRequest(request("a").setPomFile(otherProjectPom)).get("org.example", "parent", "1.0", "raw"));
+        Assert.assertNull("Parent read by another project was returned",
+            cache.forRequest(request("a")).get("org.example", "parent", "1.0", "raw"));
+    }
+
+    @Test
+    public void snapshotOfUnknownOriginIsNotCached() {
+        final SharedModelCache cache = new SharedModelCache(16);
+
+        cache.forRequest(request("a")).put("org.example", "parent", "1.0-SNAPSHOT", "raw", new Model());
+
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        final SharedModelCache cache = new SharedModelCache(2);
+        final ModelCache view = cache.forRequest(request("a"));
+
+        view.put("org.example", "first", "1.0", "raw", new Model());
+        view.put("org.example", "second", "1.0", "raw", new Model());
+        view.get("org.example", "first", "1.0", "raw");
+        view.put("org.example", "third", "1.0", "raw", new Model());
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(view.get("org.example", "first", "1.0", "raw"));
+        Assert.assertNull(view.get("org.example", "second", "1.0", "raw"));
+    }
+
+    private static DefaultModelBuildingRequest request(final String value) {
+        final Properties userProperties = new Properties();
+        userProperties.setProperty("value", value);
+        return new DefaultModelBuildingRequest().setUserProperties(userProperties);
+    }
+}
@@ -17,12 +17,18 @@
 package org.jboss.shrinkwrap.resolver.impl.maven.aether;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -38,6 +44,9 @@ public class ClassPathScanningTestCase {
     private static final String SUREFIRE_CP_KEY = "surefire.test.class.path";
     private static String originalSurefireClasspath;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void storeSurefireCP() {
         originalSurefireClasspath = System.getProperty(SUREFIRE_CP_KEY);
@@ -65,6 +74,58 @@ public class ClassPathScanningTestCase {
         Assert.assertThat(file, is(nullValue()));
     }
 
+    @Test
+    public void firstMatchingEntryOfLargeClasspathIsFound() throws Exception {
+        final File libs = folder.newFolder("libs");
+        final StringBuilder cp = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            cp.append(touch(new File(libs, "filler-" + i + ".jar")).getAbsolutePath()).append(File.pathSeparatorChar);
+        }
+
+        // directory entry of a project
+        final File project = folder.newFolder("project");
+        final File pom = new File(project, "pom.xml");
+        write(pom, "<project><groupId>org.foo</groupId><artifactId>project</artifactId><version>1.0</version>"
+            + "</project>");
+        final File classes = new File(project, "target/classes");
+        Assert.assertTrue(classes.mkdirs());
+
+        // jars, one of them shadows the project
+        final File jar = touch(new File(libs, "bar-1.0.jar"));
+        final File testJar = touch(new File(libs, "bar-1.0-tests.jar"));
+        final File projectJar = touch(new File(libs, "project-1.0.jar"));
+
+        cp.append(jar.getAbsolutePath()).append(File.pathSeparatorChar).append(classes.getAbsolutePath())
+            .append(File.pathSeparatorChar).append(projectJar.getAbsolutePath()).append(File.pathSeparatorChar)
+            .append(testJar.getAbsolutePath());
+        System.setProperty(SUREFIRE_CP_KEY, cp.toString());
+
+        final ClasspathWorkspaceReader reader = new ClasspathWorkspaceReader();
+
+        Assert.assertEquals(jar, reader.findArtifact(new DefaultArtifact("org.bar:bar:1.0")));
+        Assert.assertEquals(testJar, reader.findArtifact(new DefaultArtifact("org.bar:bar:jar:tests:1.0")));
+        Assert.assertEquals(pom, reader.findArtifact(new DefaultArtifact("org.foo:project:1.0")));
+        Assert.assertEquals(projectJar, reader.findArtifact(new DefaultArtifact("org.other:project:1.0")));
+        Assert.assertEquals(new File(libs, "filler-150.jar"),
+            reader.findArtifact(new DefaultArtifact("org.bar:filler:150")));
+        Assert.assertThat(reader.findArtifact(new DefaultArtifact("org.bar:bar:war:1.0")), is(nullValue()));
+        Assert.assertThat(reader.findArtifact(new DefaultArtifact("org.bar:bar:2.0")), is(nullValue()));
+    }
+
+    private static File touch(final File file) throws IOException {
+        Assert.assertTrue(file.createNewFile());
+        return file;
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes(Charset.forName("UTF-8")));
+        } finally {
+            out.close();
+        }
+    }
+
     // create a classpath that contain entries that does not have parent directories
     private String createFakeClassPath() {
 
@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.aether;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathFactory;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.Validate;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Verifies that streamed reading of project coordinates gives the same results as DOM and XPath based one
+ */
+public class PomCoordinatesReaderTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void parentIsUsedAsFallback() throws Exception {
+        final Artifact artifact = read("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><parent>"
+            + "<groupId>org.parent</groupId><artifactId>parent</artifactId><version>2.0</version></parent>"
+            + "<artifactId>child</artifactId><packaging>war</packaging></project>");
+
+        Assert.assertEquals("org.parent", artifact.getGroupId());
+        Assert.assertEquals("child", artifact.getArtifactId());
+        Assert.assertEquals("war", artifact.getExtension());
+        Assert.assertEquals("2.0", artifact.getVersion());
+    }
+
+    @Test
+    public void nestedElementsAreIgnored() throws Exception {
+        final Artifact artifact = read("<project><parent><groupId>org.parent</groupId><version>2.0</version></parent>"
+            + "<dependencies><dependency><groupId>org.dep</groupId><artifactId>dep</artifactId>"
+            + "<version>3.0</version></dependency></dependencies><groupId>org.child</groupId>"
+            + "<artifactId>child</artifactId><version>1.0</version><build><packaging>ear</packaging></build>"
+            + "</project>");
+
+        Assert.assertEquals("org.child", artifact.getGroupId());
+        Assert.assertEquals("child", artifact.getArtifactId());
+        Assert.assertEquals("jar", artifact.getExtension());
+        Assert.assertEquals("1.0", artifact.getVersion());
+    }
+
+    @Test
+    public void sameAsXPathForTestPoms() throws Exception {
+        final List<File> poms = new ArrayList<File>();
+        collectPoms(new File("src/test/resources"), poms);
+        Assert.assertFalse(poms.isEmpty());
+
+        final PomCoordinatesReader reader = new PomCoordinatesReader();
+        final XPathPomCoordinatesReader xPathReader = new XPathPomCoordinatesReader();
+        for (File pom : poms) {
+            Assert.assertEquals("Coordinates of " + pom, describe(xPathReader, pom), describe(reader, pom));
+        }
+    }
+
+    private Artifact read(final String pom) throws Exception {
+        final File file = folder.newFile("pom.xml");
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(pom.getBytes(Charset.forName("UTF-8")));
+        } finally {
+            out.close();
+        }
+        final Artifact artifact = new PomCoordinatesReader().read(file);
+        Assert.assertEquals(new XPathPomCoordinatesReader().read(file), artifact);
+        return artifact;
+    }
+
+    private static String describe(final PomCoordinatesReader reader, final File pom) throws IOException {
+        try {
+            return reader.read(pom).toString();
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        } catch (XMLStreamException e) {
+            return "malformed";
+        }
+    }
+
+    private static String describe(final XPathPomCoordinatesReader reader, final File pom) throws Exception {
+        try {
+            return reader.read(pom).toString();
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        } catch (SAXException e) {
+            return "malformed";
+        }
+    }
+
+    private static void collectPoms(final File file, final List<File> poms) {
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    collectPoms(child, poms);
+                }
+            }
+        } else if (file.getName().endsWith(".pom") || file.getName().equals("pom.xml")
+                || file.getParentFile().getName().equals("poms") && file.getName().endsWith(".xml")) {
+            poms.add(file);
+        }
+    }
+
+    /**
+     * Reads project coordinates the way {@link ClasspathWorkspaceReader} used to, by parsing whole file into DOM and
+     * evaluating XPath expressions
+     */
+    private static class XPathPomCoordinatesReader {
+        private final DocumentBuilder documentBuilder;
+        private final XPathExpression parentGroupId;
+        private final XPathExpression groupId;
+        private final XPathExpression artifactId;
+        private final XPathExpression type;
+        private final XPathExpression version;
+        private final XPathExpression parentVersion;
+
+        XPathPomCoordinatesReader() throws Exception {
+            documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            final XPath xPath = XPathFactory.newInstance().newXPath();
+            parentGroupId = xPath.compile("/project/parent/groupId");
+            groupId = xPath.compile("/project/groupId");
+            artifactId = xPath.compile("/project/artifactId");
+            type = xPath.compile("/project/packaging");
+            version = xPath.compile("/project/version");
+            parentVersion = xPath.compile("/project/parent/version");
+        }
+
+        Artifact read(final File pomFile) throws Exception {
+            final Document pom = documentBuilder.parse(pomFile);
+
+            String g = groupId.evaluate(pom);
+            final String a = artifactId.evaluate(pom);
+            String t = type.evaluate(pom);
+            String v = version.evaluate(pom);
+
+            if (Validate.isNullOrEmpty(g)) {
+                g = parentGroupId.evaluate(pom);
+            }
+            if (Validate.isNullOrEmpty(t)) {
+                t = "jar";
+            }
+            if (v == null || v.equals("")) {
+                v = parentVersion.evaluate(pom);
+            }
+
+            return new DefaultArtifact(g + ":" + a + ":" + t + ":" + v).setFile(pomFile);
+        }
+    }
+}
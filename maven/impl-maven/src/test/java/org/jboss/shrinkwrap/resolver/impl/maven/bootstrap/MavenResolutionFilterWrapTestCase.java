@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.DependencyVisitor;
+import org.eclipse.aether.util.graph.visitor.FilteringDependencyVisitor;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.AcceptAllFilter;
+import org.jboss.shrinkwrap.resolver.api.maven.filter.MavenResolutionFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that {@link MavenResolutionFilterWrap} passes the same candidates and ancestors to filters it always did,
+ * while converting each dependency only once
+ */
+public class MavenResolutionFilterWrapTestCase {
+
+    @Test
+    public void ancestorsAreNearestFirstWithoutRoot() {
+        final DependencyNode root = chain("a", "b", "c");
+        final RecordingFilter filter = new RecordingFilter();
+
+        visit(root, new MavenResolutionFilterWrap(new MavenResolutionFilter[] { filter },
+            Collections.<MavenDependency> emptyList()));
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), filter.candidates);
+        Assert.assertEquals(Arrays.asList("[]", "[a]", "[b, a]"), filter.ancestors);
+    }
+
+    @Test
+    public void dependenciesAreConvertedOnce() {
+        final DependencyNode root = chain("a", "b");
+        final List<MavenDependency> seen = new ArrayList<MavenDependency>();
+        final MavenResolutionFilter identityRecorder = new MavenResolutionFilter() {
+            @Override
+            public boolean accepts(MavenDependency dependency, List<MavenDependency> dependenciesForResolution,
+                List<MavenDependency> dependencyAncestors) {
+                seen.add(dependency);
+                if (!dependencyAncestors.isEmpty()) {
+                    seen.add(dependencyAncestors.get(0));
+                }
+                return true;
+            }
+        };
+
+        visit(root, new MavenResolutionFilterWrap(new MavenResolutionFilter[] { identityRecorder, identityRecorder },
+            Collections.<MavenDependency> emptyList()));
+
+        // a, a, then b and its parent a, twice
+        Assert.assertEquals(6, seen.size());
+        Assert.assertSame(seen.get(0), seen.get(1));
+        Assert.assertSame(seen.get(0), seen.get(3));
+        Assert.assertSame(seen.get(0), seen.get(5));
+        Assert.assertSame(seen.get(2), seen.get(4));
+    }
+
+    @Test
+    public void acceptAllFiltersAreNotEvaluated() {
+        final DependencyNode root = chain("a", "b");
+        final MavenResolutionFilterWrap wrap = new MavenResolutionFilterWrap(new MavenResolutionFilter[] {
+            AcceptAllFilter.INSTANCE, AcceptAllFilter.INSTANCE }, Collections.<MavenDependency> emptyList());
+
+        Assert.assertFalse(wrap.accept(root, Collections.<DependencyNode> emptyList()));
+        Assert.assertTrue(wrap.accept(root.getChildren().get(0), Collections.singletonList(root)));
+    }
+
+    @Test
+    public void rejectedDependencyStopsEvaluation() {
+        final DependencyNode root = chain("a");
+        final RecordingFilter filter = new RecordingFilter();
+        final MavenResolutionFilter reject = new MavenResolutionFilter() {
+            @Override
+            public boolean accepts(MavenDependency dependency, List<MavenDependency> dependenciesForResolution,
+                List<MavenDependency> dependencyAncestors) {
+                return false;
+            }
+        };
+
+        final MavenResolutionFilterWrap wrap = new MavenResolutionFilterWrap(new MavenResolutionFilter[] { reject,
+            filter }, Collections.<MavenDependency> emptyList());
+
+        Assert.assertFalse(wrap.accept(root.getChildren().get(0), Collections.singletonList(root)));
+        Assert.assertTrue(filter.candidates.isEmpty());
+    }
+
+    private static DependencyNode chain(final String... artifactIds) {
+        final DefaultDependencyNode root = new DefaultDependencyNode((Dependency) null);
+        DefaultDependencyNode parent = root;
+        for (String artifactId : artifactIds) {
+            final DefaultDependencyNode node = new DefaultDependencyNode(new Dependency(new DefaultArtifact(
+                "org.jboss.shrinkwrap.test:" + artifactId + ":1.0.0"), "compile"));
+            parent.setChildren(new ArrayList<DependencyNode>(Collections.singletonList(node)));
+            parent = node;
+        }
+        return root;
+    }
+
+    private static void visit(final DependencyNode root, final MavenResolutionFilterWrap wrap) {
+        root.accept(new FilteringDependencyVisitor(new DependencyVisitor() {
+            @Override
+            public boolean visitEnter(DependencyNode node) {
+                return true;
+            }
+
+            @Override
+            public boolean visitLeave(DependencyNode node) {
+                return true;
+            }
+        }, wrap));
+    }
+
+    private static class RecordingFilter implements MavenResolutionFilter {
+        private final List<String> candidates = new ArrayList<String>();
+        private final List<String> ancestors = new ArrayList<String>();
+
+        @Override
+        public boolean accepts(MavenDependency dependency, List<MavenDependency> dependenciesForResolution,
+            List<MavenDependency> dependencyAncestors) {
+            candidates.add(dependency.getArtifactId());
+            final List<String> ids = new ArrayList<String>();
+            for (MavenDependency ancestor : dependencyAncestors) {
+                ids.add(ancestor.getArtifactId());
+            }
+            ancestors.add(ids.toString());
+            return true;
+        }
+    }
+}
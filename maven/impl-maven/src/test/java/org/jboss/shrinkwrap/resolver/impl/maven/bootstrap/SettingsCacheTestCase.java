@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that effective settings are cached and invalidated when settings files or properties change.
+ */
+public class SettingsCacheTestCase {
+
+    private static final String USER_SETTINGS = "target/settings/profiles/settings-user.xml";
+
+    @Before
+    public void beforeMethod() {
+        SettingsCache.getInstance().clear();
+        System.setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, USER_SETTINGS);
+        System.setProperty(MavenSettingsBuilder.ALT_GLOBAL_SETTINGS_XML_LOCATION,
+                "target/settings/profiles/settings-global.xml");
+    }
+
+    @After
+    public void afterMethod() {
+        System.clearProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_GLOBAL_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_SECURITY_SETTINGS_XML_LOCATION);
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        System.clearProperty(SettingsCache.ENABLED_KEY);
+        SettingsCache.getInstance().clear();
+    }
+
+    @Test
+    public void unchangedSettingsAreBuiltOnce() {
+        Settings first = new MavenSettingsBuilder().buildDefaultSettings();
+        Settings second = new MavenSettingsBuilder().buildDefaultSettings();
+
+        Assert.assertEquals("Settings were cached", 1, SettingsCache.getInstance().size());
+        Assert.assertNotSame("Cached settings are copied", first, second);
+        Assert.assertTrue("Profile in user settings not found",
+                second.getProfilesAsMap().containsKey("user-profile"));
+    }
+
+    @Test
+    public void modificationOfReturnedSettingsDoesNotLeak() {
+        Settings first = new MavenSettingsBuilder().buildDefaultSettings();
+        first.setOffline(!first.isOffline());
+        first.getProfiles().clear();
+
+        Settings second = new MavenSettingsBuilder().buildDefaultSettings();
+        Assert.assertFalse("Offline flag was not modified", first.isOffline() == second.isOffline());
+        Assert.assertTrue("Profiles were not modified", second.getProfilesAsMap().containsKey("user-profile"));
+    }
+
+    @Test
+    public void decryptedPasswordsAreCached() {
+        System.setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION,
+                "target/settings/profiles/settings-auth-encrypted.xml");
+        System.setProperty(MavenSettingsBuilder.ALT_SECURITY_SETTINGS_XML_LOCATION,
+                "target/settings/profiles/settings-security.xml");
+
+        new MavenSettingsBuilder().buildDefaultSettings();
+        Settings settings = new MavenSettingsBuilder().buildDefaultSettings();
+
+        Server server = settings.getServer("auth-repository");
+        Assert.assertNotNull("Server auth-repository is not null", server);
+        Assert.assertEquals("Password was decrypted to shrinkwrap", "shrinkwrap", server.getPassword());
+    }
+
+    @Test
+    public void localRepositoryPropertyChangeIsDetected() {
+        new MavenSettingsBuilder().buildDefaultSettings();
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, "target/settings-cache-repository");
+
+        Settings settings = new MavenSettingsBuilder().buildDefaultSettings();
+        Assert.assertEquals("Local repository was taken from property", "target/settings-cache-repository",
+                settings.getLocalRepository());
+        Assert.assertEquals("Settings were built again", 2, SettingsCache.getInstance().size());
+    }
+
+    @Test
+    public void modifiedSettingsFileIsDetected() throws IOException {
+        File copy = new File("target/settings-cache/settings-user.xml");
+        copy.getParentFile().mkdirs();
+        Files.copy(new File(USER_SETTINGS).toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        System.setProperty(MavenSettingsBuilder.ALT_USER_SETTINGS_XML_LOCATION, copy.getPath());
+
+        Settings before = new MavenSettingsBuilder().buildDefaultSettings();
+        Assert.assertTrue(before.getProfilesAsMap().containsKey("user-profile"));
+
+        String content = new String(Files.readAllBytes(copy.toPath()), "UTF-8");
+        Files.write(copy.toPath(), content.replace("user-profile", "changed-profile").getBytes("UTF-8"));
+        // ensure time changes on file systems with coarse time resolution
+        copy.setLastModified(copy.lastModified() + 2000L);
+
+        Settings after = new MavenSettingsBuilder().buildDefaultSettings();
+        Assert.assertTrue("Changed settings were built", after.getProfilesAsMap().containsKey("changed-profile"));
+    }
+
+    @Test
+    public void disabledCacheIsNotPopulated() {
+        System.setProperty(SettingsCache.ENABLED_KEY, "false");
+
+        new MavenSettingsBuilder().buildDefaultSettings();
+        Assert.assertEquals("Settings were not cached", 0, SettingsCache.getInstance().size());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.bootstrap;
+
+import java.io.Closeable;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that transport states are shared by credentials and closed once they are not shared any more.
+ */
+public class TransportStateRepositoryCacheTestCase {
+
+    @Test
+    public void stateIsSharedBySameCredentials() {
+        final String fingerprint = UUID.randomUUID().toString();
+        final State first = new State();
+        final State second = new State();
+
+        new TransportStateRepositoryCache(fingerprint).put(null, TransportStateRepositoryCache.HTTP_STATE_KEY, first);
+        new TransportStateRepositoryCache(fingerprint).put(null, TransportStateRepositoryCache.HTTP_STATE_KEY, second);
+
+        Assert.assertSame(first, new TransportStateRepositoryCache(fingerprint).get(null,
+                TransportStateRepositoryCache.HTTP_STATE_KEY));
+        Assert.assertFalse("Shared state was closed", first.closed);
+        Assert.assertTrue("State which was not shared was not closed", second.closed);
+    }
+
+    @Test
+    public void leastRecentlyUsedStateIsClosed() {
+        final String prefix = UUID.randomUUID().toString();
+        final State[] states = new State[TransportStateRepositoryCache.MAX_STATES + 1];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new State();
+            new TransportStateRepositoryCache(prefix + i).put(null, TransportStateRepositoryCache.HTTP_STATE_KEY,
+                    states[i]);
+        }
+
+        Assert.assertTrue("Evicted state was not closed", states[0].closed);
+        Assert.assertNull(new TransportStateRepositoryCache(prefix + 0).get(null,
+                TransportStateRepositoryCache.HTTP_STATE_KEY));
+        for (int i = 1; i < states.length; i++) {
+            Assert.assertFalse("Shared state was closed", states[i].closed);
+        }
+    }
+
+    private static final class State implements Closeable {
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
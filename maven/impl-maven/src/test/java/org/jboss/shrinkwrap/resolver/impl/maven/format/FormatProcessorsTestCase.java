@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.format;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenCoordinate;
+import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessor;
+import org.jboss.shrinkwrap.resolver.spi.format.FormatProcessors;
+import org.jboss.shrinkwrap.resolver.spi.loader.ServiceLoader;
+import org.jboss.shrinkwrap.resolver.spi.loader.ServiceRegistry;
+import org.jboss.shrinkwrap.resolver.spi.loader.SpiServiceLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Ensures that {@link FormatProcessors} finds processors registered in {@link ServiceRegistry} and loads them only
+ * once per registry
+ */
+public class FormatProcessorsTestCase {
+
+    @Test
+    public void processorIsLoadedOnce() {
+        final CountingServiceLoader loader = new CountingServiceLoader();
+        ServiceRegistry.register(new ServiceRegistry(loader));
+
+        final FormatProcessor<?, File> processor = FormatProcessors.find(MavenResolvedArtifact.class, File.class);
+        Assert.assertTrue(processor.returns(File.class));
+        Assert.assertSame(processor, FormatProcessors.find(MavenResolvedArtifact.class, File.class));
+        Assert.assertNotSame(processor, FormatProcessors.find(MavenResolvedArtifact.class, MavenCoordinate.class));
+        Assert.assertEquals(1, loader.loads.get());
+    }
+
+    @Test
+    public void processorsAreReloadedForNewRegistry() {
+        ServiceRegistry.register(new ServiceRegistry(new CountingServiceLoader()));
+        FormatProcessors.find(MavenResolvedArtifact.class, File.class);
+
+        final CountingServiceLoader loader = new CountingServiceLoader();
+        ServiceRegistry.register(new ServiceRegistry(loader));
+        Assert.assertNotNull(FormatProcessors.find(MavenResolvedArtifact.class, File.class));
+        Assert.assertEquals(1, loader.loads.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedFormat() {
+        ServiceRegistry.register(new ServiceRegistry(new CountingServiceLoader()));
+        FormatProcessors.find(MavenResolvedArtifact.class, StringBuilder.class);
+    }
+
+    private static final class CountingServiceLoader implements ServiceLoader {
+        private final SpiServiceLoader delegate = new SpiServiceLoader(FormatProcessorsTestCase.class.getClassLoader());
+        private final AtomicInteger loads = new AtomicInteger();
+
+        @Override
+        public <T> Collection<T> all(Class<T> serviceClass) {
+            loads.incrementAndGet();
+            return delegate.all(serviceClass);
+        }
+
+        @Override
+        public <T> T onlyOne(Class<T> serviceClass) {
+            loads.incrementAndGet();
+            return delegate.onlyOne(serviceClass);
+        }
+
+        @Override
+        public <T> T onlyOne(Class<T> serviceClass, Class<? extends T> defaultImplementationClass) {
+            loads.incrementAndGet();
+            return delegate.onlyOne(serviceClass, defaultImplementationClass);
+        }
+    }
+}
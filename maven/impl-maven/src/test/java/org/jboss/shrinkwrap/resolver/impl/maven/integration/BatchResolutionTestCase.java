@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolverSystem;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.NonTransitiveStrategy;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that groups resolved by a single batch are the same as the ones resolved one by one
+ */
+public class BatchResolutionTestCase {
+
+    private static final String SETTINGS = "target/settings/profiles/settings.xml";
+
+    private static final String DEPS_C = "org.jboss.shrinkwrap.test:test-deps-c:1.0.0";
+    private static final String DEPS_G = "org.jboss.shrinkwrap.test:test-deps-g:1.0.0";
+
+    @Test
+    public void groupsAreSameAsSerialResolutions() {
+        final Map<String, Collection<String>> groups = new LinkedHashMap<String, Collection<String>>();
+        groups.put("c+g", Arrays.asList(DEPS_C, DEPS_G));
+        groups.put("c", Collections.singletonList(DEPS_C));
+        groups.put("g", Collections.singletonList(DEPS_G));
+
+        final Map<String, MavenFormatStage> batch = Maven.configureResolver().fromFile(SETTINGS).resolveAll(groups);
+
+        Assert.assertEquals(Arrays.asList("c+g", "c", "g"), Arrays.asList(batch.keySet().toArray()));
+        for (Map.Entry<String, Collection<String>> group : groups.entrySet()) {
+            final MavenResolvedArtifact[] serial = Maven.configureResolver().fromFile(SETTINGS)
+                .resolve(group.getValue()).withTransitivity().asResolvedArtifact();
+            Assert.assertEquals("Group " + group.getKey(), describe(serial),
+                describe(batch.get(group.getKey()).asResolvedArtifact()));
+        }
+
+        ValidationUtil.fromDependencyTree(new File("src/test/resources/dependency-trees/test-deps-c+g.tree"))
+            .validate(batch.get("c+g").asFile());
+    }
+
+    @Test
+    public void strategyIsAppliedToAllGroups() {
+        final Map<String, Collection<String>> groups = new LinkedHashMap<String, Collection<String>>();
+        groups.put("c", Collections.singletonList(DEPS_C));
+        groups.put("g", Collections.singletonList(DEPS_G));
+
+        final Map<String, MavenFormatStage> batch = Maven.configureResolver().fromFile(SETTINGS)
+            .resolveAll(groups, NonTransitiveStrategy.INSTANCE);
+
+        Assert.assertEquals("test-deps-c", batch.get("c").asSingleResolvedArtifact().getCoordinate().getArtifactId());
+        Assert.assertEquals("test-deps-g", batch.get("g").asSingleResolvedArtifact().getCoordinate().getArtifactId());
+    }
+
+    @Test
+    public void resolverIsReusableAfterBatch() {
+        final MavenResolverSystem resolver = Maven.configureResolver().fromFile(SETTINGS);
+        resolver.resolveAll(Collections.singletonMap("g", Collections.singletonList(DEPS_G)));
+
+        final MavenResolvedArtifact artifact = resolver.resolve(DEPS_C).withoutTransitivity()
+            .asSingleResolvedArtifact();
+        Assert.assertEquals("test-deps-c", artifact.getCoordinate().getArtifactId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyGroupIsRejected() {
+        Maven.configureResolver().fromFile(SETTINGS)
+            .resolveAll(Collections.singletonMap("empty", Collections.<String> emptyList()));
+    }
+
+    @Test(expected = ResolutionException.class)
+    public void failureOfGroupIsReported() {
+        final Map<String, Collection<String>> groups = new LinkedHashMap<String, Collection<String>>();
+        groups.put("c", Collections.singletonList(DEPS_C));
+        groups.put("missing", Collections.singletonList("org.jboss.shrinkwrap.test:test-deps-missing:1.0.0"));
+
+        Maven.configureResolver().fromFile(SETTINGS).resolveAll(groups);
+    }
+
+    private static String describe(final MavenArtifactInfo[] artifacts) {
+        final StringBuilder sb = new StringBuilder();
+        for (MavenArtifactInfo artifact : artifacts) {
+            sb.append(artifact.getCoordinate().toCanonicalForm()).append(':').append(artifact.getScope()).append('[')
+                .append(describe(artifact.getDependencies())).append(']');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenRepositorySystem;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies that artifacts missing in local repository are downloaded concurrently and only once
+ */
+public class ConcurrentDownloadTestCase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String GROUP_ID = "org.jboss.shrinkwrap.test.download";
+
+    private static final int ARTIFACTS = 24;
+
+    private static final long JAR_DELAY = 250L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Server server;
+    private DelayingFileHandler handler;
+    private String localRepository;
+    private String previousLocalRepository;
+
+    @Before
+    public void startRepository() throws Exception {
+        final File remoteRepository = folder.newFolder("remote");
+        for (int i = 0; i < ARTIFACTS; i++) {
+            deploy(remoteRepository, "artifact-" + i);
+        }
+
+        handler = new DelayingFileHandler(remoteRepository);
+        server = new Server(0);
+        server.setHandler(handler);
+        server.start();
+
+        localRepository = folder.newFolder("local").getAbsolutePath();
+        previousLocalRepository = System.getProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, localRepository);
+    }
+
+    @After
+    public void stopRepository() throws Exception {
+        if (previousLocalRepository == null) {
+            System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        } else {
+            System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, previousLocalRepository);
+        }
+        System.clearProperty(MavenRepositorySystem.DOWNLOAD_THREADS_KEY);
+        server.stop();
+    }
+
+    @Test
+    public void artifactsAreDownloadedConcurrently() {
+        System.setProperty(MavenRepositorySystem.DOWNLOAD_THREADS_KEY, "6");
+
+        final File[] files = resolveAll();
+
+        Assert.assertEquals(ARTIFACTS, files.length);
+        for (File file : files) {
+            Assert.assertTrue(file.getAbsolutePath().startsWith(localRepository));
+        }
+        Assert.assertTrue("Downloads were not limited, " + handler.maxConcurrentJars.get() + " were in progress",
+            handler.maxConcurrentJars.get() <= 6);
+        Assert.assertTrue("Downloads were not concurrent", handler.maxConcurrentJars.get() > 1);
+    }
+
+    @Test(timeout = 60000L)
+    public void concurrentResolutionsDownloadOnce() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<File[]>> results = new ArrayList<Future<File[]>>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(new Callable<File[]>() {
+                    @Override
+                    public File[] call() throws Exception {
+                        return resolveAll();
+                    }
+                }));
+            }
+            for (Future<File[]> result : results) {
+                Assert.assertEquals(ARTIFACTS, result.get().length);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < ARTIFACTS; i++) {
+            final String path = "/" + GROUP_ID.replace('.', '/') + "/artifact-" + i + "/1.0.0/artifact-" + i
+                + "-1.0.0.jar";
+            Assert.assertEquals("Number of downloads of " + path, 1, handler.getCount(path));
+        }
+    }
+
+    private File[] resolveAll() {
+        final String[] coordinates = new String[ARTIFACTS];
+        for (int i = 0; i < ARTIFACTS; i++) {
+            coordinates[i] = GROUP_ID + ":artifact-" + i + ":1.0.0";
+        }
+        return Maven.configureResolver().withMavenCentralRepo(false)
+            .withRemoteRepo("stand-in", "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort(),
+                "default")
+            .resolve(coordinates).withoutTransitivity().asFile();
+    }
+
+    private static void deploy(final File repository, final String artifactId) throws Exception {
+        final File dir = new File(repository, GROUP_ID.replace('.', File.separatorChar) + File.separator + artifactId
+            + File.separator + "1.0.0");
+        Assert.assertTrue(dir.mkdirs());
+
+        final String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>" + GROUP_ID
+            + "</groupId><artifactId>" + artifactId + "</artifactId><version>1.0.0</version></project>";
+        write(new File(dir, artifactId + "-1.0.0.pom"), pom.getBytes(UTF_8));
+        write(new File(dir, artifactId + "-1.0.0.jar"), ("content of " + artifactId).getBytes(UTF_8));
+    }
+
+    private static void write(final File file, final byte[] content) throws Exception {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+
+        final StringBuilder sha1 = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(content)) {
+            sha1.append(String.format("%02x", b));
+        }
+        out = new FileOutputStream(new File(file.getParentFile(), file.getName() + ".sha1"));
+        try {
+            out.write(sha1.toString().getBytes(UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Serves files from a directory, slowing down JAR downloads and counting requests
+     */
+    private static class DelayingFileHandler extends AbstractHandler {
+
+        private final File root;
+        private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+        private final AtomicInteger concurrentJars = new AtomicInteger();
+        private final AtomicInteger maxConcurrentJars = new AtomicInteger();
+
+        DelayingFileHandler(final File root) {
+            this.root = root;
+        }
+
+        int getCount(final String path) {
+            final AtomicInteger count = counts.get(path);
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public void handle(final String target, final Request baseRequest, final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException, ServletException {
+            baseRequest.setHandled(true);
+
+            final File file = new File(root, target);
+            if (!file.isFile()) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+
+            final boolean jar = target.endsWith(".jar");
+            if (jar && "GET".equals(request.getMethod())) {
+                counts.putIfAbsent(target, new AtomicInteger());
+                counts.get(target).incrementAndGet();
+
+                final int concurrent = concurrentJars.incrementAndGet();
+                int max;
+                while (concurrent > (max = maxConcurrentJars.get())) {
+                    maxConcurrentJars.compareAndSet(max, concurrent);
+                }
+                try {
+                    Thread.sleep(JAR_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    concurrentJars.decrementAndGet();
+                }
+            }
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentLength((int) file.length());
+            final byte[] content = Files.readAllBytes(file.toPath());
+            response.getOutputStream().write(content);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.DependencyGraphCache;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that identical resolution requests are served from {@link DependencyGraphCache}
+ */
+public class DependencyGraphCacheTestCase {
+
+    private static final String SETTINGS = "target/settings/profiles/settings.xml";
+
+    @Before
+    public void enableCache() {
+        System.setProperty(DependencyGraphCache.ENABLED_KEY, "true");
+        DependencyGraphCache.getInstance().clear();
+    }
+
+    @After
+    public void disableCache() {
+        System.clearProperty(DependencyGraphCache.ENABLED_KEY);
+        DependencyGraphCache.getInstance().clear();
+    }
+
+    @Test
+    public void identicalRequestIsServedFromCache() {
+        final File[] first = Maven.configureResolver().fromFile(SETTINGS)
+            .resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").withTransitivity().asFile();
+        final File[] second = Maven.configureResolver().fromFile(SETTINGS)
+            .resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").withTransitivity().asFile();
+
+        ValidationUtil.fromDependencyTree(new File("src/test/resources/dependency-trees/test-deps-c.tree")).validate(
+            second);
+        Assert.assertArrayEquals(first, second);
+        Assert.assertEquals(1, DependencyGraphCache.getInstance().getMissCount());
+        Assert.assertEquals(1, DependencyGraphCache.getInstance().getHitCount());
+    }
+
+    @Test
+    public void differentStrategyIsNotServedFromCache() {
+        Maven.configureResolver().fromFile(SETTINGS).resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .withTransitivity().asFile();
+        final File[] nonTransitive = Maven.configureResolver().fromFile(SETTINGS)
+            .resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").withoutTransitivity().asFile();
+
+        new ValidationUtil("test-deps-c-1.0.0.jar").validate(nonTransitive);
+        Assert.assertEquals(2, DependencyGraphCache.getInstance().getMissCount());
+        Assert.assertEquals(0, DependencyGraphCache.getInstance().getHitCount());
+    }
+
+    @Test
+    public void versionRangeIsNotCached() {
+        Maven.configureResolver().fromFile(SETTINGS).resolve("org.jboss.shrinkwrap.test:test-deps-b:[1.0.0,2.0.0]")
+            .withoutTransitivity().asFile();
+        Maven.configureResolver().fromFile(SETTINGS).resolve("org.jboss.shrinkwrap.test:test-deps-b:[1.0.0,2.0.0]")
+            .withoutTransitivity().asFile();
+
+        Assert.assertEquals(0, DependencyGraphCache.getInstance().size());
+        Assert.assertEquals(0, DependencyGraphCache.getInstance().getHitCount());
+    }
+
+    @Test
+    public void disabledCacheIsNotConsulted() {
+        System.clearProperty(DependencyGraphCache.ENABLED_KEY);
+
+        Maven.configureResolver().fromFile(SETTINGS).resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0")
+            .withTransitivity().asFile();
+
+        Assert.assertEquals(0, DependencyGraphCache.getInstance().size());
+        Assert.assertEquals(0, DependencyGraphCache.getInstance().getMissCount());
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenRepositorySystem;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies that HTTP repositories are accessed via persistent connections and that transport configuration of
+ * {@code <server>} in settings.xml is honored
+ */
+public class HttpTransportTestCase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String GROUP_ID = "org.jboss.shrinkwrap.test.transport";
+
+    private static final String REPOSITORY_ID = "http-transport";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Server server;
+    private RecordingFileHandler handler;
+    private String localRepository;
+    private String previousLocalRepository;
+
+    @Before
+    public void startRepository() throws Exception {
+        final File remoteRepository = folder.newFolder("remote");
+        for (int i = 0; i < 4; i++) {
+            deploy(remoteRepository, "artifact-" + i);
+        }
+
+        handler = new RecordingFileHandler(remoteRepository);
+        server = new Server(0);
+        server.setHandler(handler);
+        server.start();
+
+        localRepository = folder.newFolder("local").getAbsolutePath();
+        previousLocalRepository = System.getProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, localRepository);
+    }
+
+    @After
+    public void stopRepository() throws Exception {
+        if (previousLocalRepository == null) {
+            System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        } else {
+            System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, previousLocalRepository);
+        }
+        System.clearProperty(MavenRepositorySystem.DOWNLOAD_THREADS_KEY);
+        server.stop();
+    }
+
+    @Test
+    public void connectionsAreReusedAcrossResolutions() throws Exception {
+        System.setProperty(MavenRepositorySystem.DOWNLOAD_THREADS_KEY, "1");
+        final File settings = settings("");
+
+        resolve(settings, "artifact-0", "artifact-1");
+        resolve(settings, "artifact-2", "artifact-3");
+
+        Assert.assertTrue("Expected more requests, got " + handler.requests.size(), handler.requests.size() >= 8);
+        Assert.assertEquals("Connection was not kept alive", 1, handler.ports.size());
+    }
+
+    @Test
+    public void serverConfigurationIsApplied() throws Exception {
+        final File settings = settings("<configuration><httpHeaders><property><name>X-Test-Header</name>"
+            + "<value>shrinkwrap</value></property></httpHeaders><connectTimeout>5000</connectTimeout>"
+            + "</configuration>");
+
+        final File[] files = resolve(settings, "artifact-0");
+
+        Assert.assertEquals(1, files.length);
+        Assert.assertTrue(files[0].getAbsolutePath().startsWith(localRepository));
+        Assert.assertFalse(handler.requests.isEmpty());
+        for (String header : handler.headers) {
+            Assert.assertEquals("shrinkwrap", header);
+        }
+        Assert.assertEquals(handler.requests.size(), handler.headers.size());
+    }
+
+    private File[] resolve(final File settings, final String... artifactIds) {
+        final String[] coordinates = new String[artifactIds.length];
+        for (int i = 0; i < artifactIds.length; i++) {
+            coordinates[i] = GROUP_ID + ":" + artifactIds[i] + ":1.0.0";
+        }
+        return Maven.configureResolver().withMavenCentralRepo(false)
+            .withRemoteRepo(REPOSITORY_ID, "http://localhost:" + ((ServerConnector) server.getConnectors()[0])
+                .getLocalPort(), "default")
+            .fromFile(settings).resolve(coordinates).withoutTransitivity().asFile();
+    }
+
+    private File settings(final String serverConfiguration) throws Exception {
+        final File settings = folder.newFile();
+        write(settings, ("<settings><servers><server><id>" + REPOSITORY_ID + "</id>" + serverConfiguration
+            + "</server></servers></settings>").getBytes(UTF_8), false);
+        return settings;
+    }
+
+    private static void deploy(final File repository, final String artifactId) throws Exception {
+        final File dir = new File(repository, GROUP_ID.replace('.', File.separatorChar) + File.separator + artifactId
+            + File.separator + "1.0.0");
+        Assert.assertTrue(dir.mkdirs());
+
+        final String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>" + GROUP_ID
+            + "</groupId><artifactId>" + artifactId + "</artifactId><version>1.0.0</version></project>";
+        write(new File(dir, artifactId + "-1.0.0.pom"), pom.getBytes(UTF_8), true);
+        write(new File(dir, artifactId + "-1.0.0.jar"), ("content of " + artifactId).getBytes(UTF_8), true);
+    }
+
+    private static void write(final File file, final byte[] content, final boolean checksum) throws Exception {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        if (!checksum) {
+            return;
+        }
+
+        final StringBuilder sha1 = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(content)) {
+            sha1.append(String.format("%02x", b));
+        }
+        out = new FileOutputStream(new File(file.getParentFile(), file.getName() + ".sha1"));
+        try {
+            out.write(sha1.toString().getBytes(UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Serves files from a directory, recording client ports and custom headers of all requests
+     */
+    private static class RecordingFileHandler extends AbstractHandler {
+
+        private final File root;
+        private final List<String> requests = new CopyOnWriteArrayList<String>();
+        private final List<String> headers = new CopyOnWriteArrayList<String>();
+        private final Set<Integer> ports = Collections
+            .newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+        RecordingFileHandler(final File root) {
+            this.root = root;
+        }
+
+        @Override
+        public void handle(final String target, final Request baseRequest, final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException, ServletException {
+            baseRequest.setHandled(true);
+
+            requests.add(request.getMethod() + " " + target);
+            ports.add(request.getRemotePort());
+            if (request.getHeader("X-Test-Header") != null) {
+                headers.add(request.getHeader("X-Test-Header"));
+            }
+
+            final File file = new File(root, target);
+            if (!file.isFile()) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentLength((int) file.length());
+            if (!"HEAD".equals(request.getMethod())) {
+                response.getOutputStream().write(Files.readAllBytes(file.toPath()));
+            }
+        }
+    }
+}
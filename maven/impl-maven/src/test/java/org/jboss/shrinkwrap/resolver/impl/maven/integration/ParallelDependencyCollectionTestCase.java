@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenArtifactInfo;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependency;
+import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencyExclusion;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.AcceptScopesStrategy;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.ParallelDependencyCollector;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that dependency graph collected in parallel is the same as the one collected sequentially
+ */
+public class ParallelDependencyCollectionTestCase {
+
+    private static final String SETTINGS = "target/settings/profiles/settings.xml";
+
+    @After
+    public void disableParallelCollection() {
+        System.clearProperty(ParallelDependencyCollector.ENABLED_KEY);
+    }
+
+    @Test
+    public void multipleDependenciesGraphIsSame() {
+        final MavenResolvedArtifact[] sequential = Maven.configureResolver().fromFile(SETTINGS)
+            .resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0", "org.jboss.shrinkwrap.test:test-deps-g:1.0.0")
+            .withTransitivity().asResolvedArtifact();
+        final MavenResolvedArtifact[] parallel = Maven.configureResolver().useParallelDependencyCollection(true)
+            .fromFile(SETTINGS)
+            .resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0", "org.jboss.shrinkwrap.test:test-deps-g:1.0.0")
+            .withTransitivity().asResolvedArtifact();
+
+        Assert.assertEquals(describe(sequential), describe(parallel));
+        ValidationUtil.fromDependencyTree(new File("src/test/resources/dependency-trees/test-deps-c+g.tree"))
+            .validate(files(parallel));
+    }
+
+    @Test
+    public void exclusionsAreHonored() {
+        final MavenDependencyExclusion exclusion = MavenDependencies
+            .createExclusion("org.jboss.shrinkwrap.test:test-managed-dependency");
+        final MavenDependencyExclusion exclusion2 = MavenDependencies
+            .createExclusion("org.jboss.shrinkwrap.test:test-deps-g");
+        final MavenDependency dependency = MavenDependencies.createDependency(
+            "org.jboss.shrinkwrap.test:test-dependency-test:1.0.0", ScopeType.TEST, false, exclusion, exclusion2);
+
+        final MavenResolvedArtifact[] sequential = Maven.configureResolver().fromFile(SETTINGS)
+            .loadPomFromFile("target/poms/test-parent.xml").addDependency(dependency).resolve()
+            .using(new AcceptScopesStrategy(ScopeType.TEST)).asResolvedArtifact();
+
+        System.setProperty(ParallelDependencyCollector.ENABLED_KEY, "true");
+        final MavenResolvedArtifact[] parallel = Maven.configureResolver().fromFile(SETTINGS)
+            .loadPomFromFile("target/poms/test-parent.xml").addDependency(dependency).resolve()
+            .using(new AcceptScopesStrategy(ScopeType.TEST)).asResolvedArtifact();
+
+        Assert.assertEquals(describe(sequential), describe(parallel));
+    }
+
+    private static File[] files(final MavenResolvedArtifact[] artifacts) {
+        final File[] files = new File[artifacts.length];
+        for (int i = 0; i < artifacts.length; i++) {
+            files[i] = artifacts[i].asFile();
+        }
+        return files;
+    }
+
+    private static String describe(final MavenArtifactInfo[] artifacts) {
+        final StringBuilder sb = new StringBuilder();
+        for (MavenArtifactInfo artifact : artifacts) {
+            sb.append(artifact.getCoordinate().toCanonicalForm()).append(':').append(artifact.getScope()).append('[')
+                .append(describe(artifact.getDependencies())).append(']');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.impl.maven.PersistentResolutionCache;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies that results stored by {@link PersistentResolutionCache} are reused and invalidated
+ */
+public class PersistentResolutionCacheTestCase {
+
+    private static final String SETTINGS = "target/settings/profiles/settings.xml";
+
+    private static final String ARTIFACT = "org.jboss.shrinkwrap.test:test-deps-c:1.0.0";
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    @Before
+    public void enableCache() {
+        System.setProperty(PersistentResolutionCache.ENABLED_KEY, "true");
+        System.setProperty(PersistentResolutionCache.DIRECTORY_KEY, cacheDir.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void disableCache() {
+        System.clearProperty(PersistentResolutionCache.ENABLED_KEY);
+        System.clearProperty(PersistentResolutionCache.DIRECTORY_KEY);
+    }
+
+    @Test
+    public void resultIsPersistedAndReused() {
+        final File[] first = Maven.configureResolver().fromFile(SETTINGS).resolve(ARTIFACT).withTransitivity()
+            .asFile();
+
+        final File entry = singleEntry();
+        Assert.assertTrue(entry.setLastModified(0L));
+
+        final MavenResolvedArtifact[] second = Maven.configureResolver().fromFile(SETTINGS).resolve(ARTIFACT)
+            .withTransitivity().asResolvedArtifact();
+
+        // entry was not rewritten, so the result came from disk
+        Assert.assertEquals(0L, entry.lastModified());
+        Assert.assertEquals(first.length, second.length);
+        final File[] secondFiles = new File[second.length];
+        for (int i = 0; i < second.length; i++) {
+            secondFiles[i] = second[i].asFile();
+        }
+        ValidationUtil.fromDependencyTree(new File("src/test/resources/dependency-trees/test-deps-c.tree")).validate(
+            secondFiles);
+        Assert.assertArrayEquals(first, secondFiles);
+        Assert.assertEquals("test-deps-c", second[0].getCoordinate().getArtifactId());
+        Assert.assertTrue(second[0].getDependencies().length > 0);
+    }
+
+    @Test
+    public void modifiedFileInvalidatesEntry() {
+        final File[] files = Maven.configureResolver().fromFile(SETTINGS).resolve(ARTIFACT).withTransitivity()
+            .asFile();
+
+        final File entry = singleEntry();
+        Assert.assertTrue(entry.setLastModified(0L));
+
+        final File modified = files[files.length - 1];
+        final long lastModified = modified.lastModified();
+        try {
+            Assert.assertTrue(modified.setLastModified(lastModified - 10000L));
+
+            Maven.configureResolver().fromFile(SETTINGS).resolve(ARTIFACT).withTransitivity().asFile();
+
+            // entry was resolved again and rewritten
+            Assert.assertNotEquals(0L, entry.lastModified());
+        } finally {
+            modified.setLastModified(lastModified);
+        }
+    }
+
+    @Test
+    public void corruptedEntryIsIgnored() throws IOException {
+        Maven.configureResolver().fromFile(SETTINGS).resolve(ARTIFACT).withTransitivity().asFile();
+
+        // keep magic and format version, but claim a fingerprint much longer than the file
+        final File entry = singleEntry();
+        final RandomAccessFile raf = new RandomAccessFile(entry, "rw");
+        try {
+            raf.setLength(8L);
+        } finally {
+            raf.close();
+        }
+        final DataOutputStream out = new DataOutputStream(new FileOutputStream(entry, true));
+        try {
+            out.writeInt(Integer.MAX_VALUE);
+        } finally {
+            out.close();
+        }
+        Assert.assertTrue(entry.setLastModified(0L));
+
+        final File[] files = Maven.configureResolver().fromFile(SETTINGS).resolve(ARTIFACT).withTransitivity()
+            .asFile();
+
+        // entry was resolved again and rewritten
+        ValidationUtil.fromDependencyTree(new File("src/test/resources/dependency-trees/test-deps-c.tree")).validate(
+            files);
+        Assert.assertNotEquals(0L, entry.lastModified());
+        Assert.assertTrue(entry.length() > 12L);
+    }
+
+    @Test
+    public void versionRangeIsNotPersisted() {
+        Maven.configureResolver().fromFile(SETTINGS).resolve("org.jboss.shrinkwrap.test:test-deps-b:[1.0.0,2.0.0]")
+            .withoutTransitivity().asFile();
+
+        Assert.assertEquals(0, entries().length);
+    }
+
+    @Test
+    public void apiOverridesSystemProperty() {
+        System.clearProperty(PersistentResolutionCache.ENABLED_KEY);
+
+        Maven.configureResolver().fromFile(SETTINGS).resolve(ARTIFACT).withTransitivity().asFile();
+        Assert.assertEquals(0, entries().length);
+
+        Maven.configureResolver().usePersistentResolutionCache(true).fromFile(SETTINGS).resolve(ARTIFACT)
+            .withTransitivity().asFile();
+        Assert.assertEquals(1, entries().length);
+
+        Maven.configureResolver().clearPersistentResolutionCache();
+        Assert.assertEquals(0, entries().length);
+    }
+
+    private File singleEntry() {
+        final File[] entries = entries();
+        Assert.assertEquals("There should be exactly one cached entry", 1, entries.length);
+        return entries[0];
+    }
+
+    private File[] entries() {
+        final File[] entries = cacheDir.getRoot().listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".bin");
+            }
+        });
+        return entries == null ? new File[0] : entries;
+    }
+}
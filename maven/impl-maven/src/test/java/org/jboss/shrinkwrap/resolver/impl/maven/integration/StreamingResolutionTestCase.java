@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.integration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.jboss.shrinkwrap.resolver.api.ResolutionException;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenResolvedArtifact;
+import org.jboss.shrinkwrap.resolver.api.maven.MavenStreamingFormatStage;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.NonTransitiveStrategy;
+import org.jboss.shrinkwrap.resolver.api.maven.strategy.TransitiveStrategy;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.ValidationUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that artifacts handed out by a streaming format stage are the same as the ones of a blocking resolution
+ */
+public class StreamingResolutionTestCase {
+
+    private static final String SETTINGS = "target/settings/profiles/settings.xml";
+
+    private static final String DEPS_C = "org.jboss.shrinkwrap.test:test-deps-c:1.0.0";
+    private static final String DEPS_G = "org.jboss.shrinkwrap.test:test-deps-g:1.0.0";
+
+    @Test
+    public void orderedArtifactsAreSameAsBlockingResolution() {
+        final String[] blocking = describe(Maven.configureResolver().fromFile(SETTINGS).resolve(DEPS_C, DEPS_G)
+            .withTransitivity().asResolvedArtifact());
+
+        final MavenStreamingFormatStage stage = Maven.configureResolver().fromFile(SETTINGS).resolve(DEPS_C, DEPS_G)
+            .usingStreaming(TransitiveStrategy.INSTANCE);
+
+        Assert.assertEquals(blocking.length, stage.size());
+        Assert.assertArrayEquals(blocking, describe(stage.inOrder().asResolvedArtifact()));
+        ValidationUtil.fromDependencyTree(new File("src/test/resources/dependency-trees/test-deps-c+g.tree"))
+            .validate(stage.inOrder().asFile());
+    }
+
+    @Test
+    public void everyIteratorReturnsAllArtifacts() {
+        final MavenStreamingFormatStage stage = Maven.configureResolver().fromFile(SETTINGS).resolve(DEPS_C, DEPS_G)
+            .usingStreaming(TransitiveStrategy.INSTANCE);
+
+        final List<MavenResolvedArtifact> first = new ArrayList<MavenResolvedArtifact>();
+        for (MavenResolvedArtifact artifact : stage) {
+            Assert.assertTrue("File of " + artifact + " is available", artifact.asFile().isFile());
+            first.add(artifact);
+        }
+        final List<MavenResolvedArtifact> second = new ArrayList<MavenResolvedArtifact>();
+        for (MavenResolvedArtifact artifact : stage) {
+            second.add(artifact);
+        }
+
+        Assert.assertEquals(stage.size(), first.size());
+        Assert.assertEquals("Iterators return artifacts in the same order", first, second);
+        Assert.assertArrayEquals(sorted(first), sorted(stage.inOrder().asList(MavenResolvedArtifact.class)));
+    }
+
+    @Test
+    public void strategyIsApplied() {
+        final MavenStreamingFormatStage stage = Maven.configureResolver().fromFile(SETTINGS).resolve(DEPS_C)
+            .usingStreaming(NonTransitiveStrategy.INSTANCE);
+
+        Assert.assertEquals(1, stage.size());
+        Assert.assertEquals("test-deps-c", stage.iterator().next().getCoordinate().getArtifactId());
+    }
+
+    @Test(expected = ResolutionException.class)
+    public void failureIsReported() {
+        Maven.configureResolver().fromFile(SETTINGS).resolve(DEPS_C,
+            "org.jboss.shrinkwrap.test:test-deps-missing:1.0.0").usingStreaming(TransitiveStrategy.INSTANCE)
+            .inOrder();
+    }
+
+    private static String[] describe(final MavenResolvedArtifact[] artifacts) {
+        final String[] descriptions = new String[artifacts.length];
+        for (int i = 0; i < artifacts.length; i++) {
+            descriptions[i] = artifacts[i].getCoordinate().toCanonicalForm() + ":" + artifacts[i].getScope();
+        }
+        return descriptions;
+    }
+
+    private static String[] sorted(final List<MavenResolvedArtifact> artifacts) {
+        final List<MavenResolvedArtifact> copy = new ArrayList<MavenResolvedArtifact>(artifacts);
+        Collections.sort(copy, new Comparator<MavenResolvedArtifact>() {
+            @Override
+            public int compare(MavenResolvedArtifact o1, MavenResolvedArtifact o2) {
+                return o1.getCoordinate().toCanonicalForm().compareTo(o2.getCoordinate().toCanonicalForm());
+            }
+        });
+        return describe(copy.toArray(new MavenResolvedArtifact[copy.size()]));
+    }
+}
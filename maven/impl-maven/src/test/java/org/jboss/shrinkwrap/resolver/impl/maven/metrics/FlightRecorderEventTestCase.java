@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that {@link FlightRecorderEvent}s are written to a Java Flight Recorder recording. Flight Recorder API is
+ * accessed by reflection, so the test is skipped on JDKs without it.
+ */
+public class FlightRecorderEventTestCase {
+
+    private Class<?> recordingClass;
+
+    @Before
+    public void checkFlightRecorder() {
+        try {
+            recordingClass = Class.forName("jdk.jfr.Recording");
+        } catch (ClassNotFoundException e) {
+            Assume.assumeNoException("Java Flight Recorder is not available", e);
+        }
+        Assume.assumeNotNull(FlightRecorderSupport.get());
+    }
+
+    @Test
+    public void eventIsNotCommittedWithoutRecording() {
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.LOAD_POM);
+        Assert.assertFalse(event.shouldCommit());
+        // no-op
+        event.set("pomFile", "pom.xml").commit();
+    }
+
+    @Test
+    public void eventsAreRecorded() throws Exception {
+        final Object recording = startRecording(FlightRecorderEventType.COMPILE, FlightRecorderEventType.LOAD_POM);
+        try {
+            final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEventType.COMPILE);
+            Assert.assertTrue(event.shouldCommit());
+            event.set("sources", "src/main/java").set("output", "target/classes").commit();
+
+            Maven.configureResolver().fromFile("target/settings/profiles/settings.xml").loadPomFromFile(
+                "target/poms/test-bom.xml");
+        } finally {
+            invoke(recording, "stop");
+        }
+
+        final List<String> values = readEvents(recording, "pomFile", "sources", "output");
+        Assert.assertTrue("Compile event was recorded, got " + values,
+            values.contains("org.jboss.shrinkwrap.resolver.Compile:sources=src/main/java"));
+        Assert.assertTrue("Compile event was recorded, got " + values,
+            values.contains("org.jboss.shrinkwrap.resolver.Compile:output=target/classes"));
+        Assert.assertTrue("LoadPom event was recorded, got " + values, values.contains(
+            "org.jboss.shrinkwrap.resolver.LoadPom:pomFile=" + new File("target/poms/test-bom.xml").getPath()));
+    }
+
+    @Test
+    public void unknownFieldIsRejected() throws Exception {
+        final Object recording = startRecording(FlightRecorderEventType.COMPILE);
+        try {
+            FlightRecorderEvent.begin(FlightRecorderEventType.COMPILE).set("pomFile", "pom.xml");
+            Assert.fail("Unknown field was accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            invoke(recording, "stop");
+        }
+    }
+
+    private Object startRecording(final FlightRecorderEventType... types) throws Exception {
+        final Object recording = recordingClass.getDeclaredConstructor().newInstance();
+        for (FlightRecorderEventType type : types) {
+            // event types are registered when used for the first time
+            FlightRecorderEvent.begin(type);
+            recordingClass.getMethod("enable", String.class).invoke(recording,
+                "org.jboss.shrinkwrap.resolver." + type.getName());
+        }
+        invoke(recording, "start");
+        return recording;
+    }
+
+    // returns values of given fields as "eventName:field=value"
+    private List<String> readEvents(final Object recording, final String... fields) throws Exception {
+        final Path dump = Files.createTempFile("swr-events", ".jfr");
+        try {
+            recordingClass.getMethod("dump", Path.class).invoke(recording, dump);
+            final List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                .getMethod("readAllEvents", Path.class).invoke(null, dump);
+            final List<String> values = new ArrayList<String>();
+            for (Object event : events) {
+                final Object eventType = event.getClass().getMethod("getEventType").invoke(event);
+                final String eventName = (String) eventType.getClass().getMethod("getName").invoke(eventType);
+                final Method hasField = event.getClass().getMethod("hasField", String.class);
+                final Method getValue = event.getClass().getMethod("getValue", String.class);
+                for (String field : fields) {
+                    if ((Boolean) hasField.invoke(event, field)) {
+                        values.add(eventName + ":" + field + "=" + getValue.invoke(event, field));
+                    }
+                }
+            }
+            return values;
+        } finally {
+            Files.delete(dump);
+            invoke(recording, "close");
+        }
+    }
+
+    private static void invoke(final Object target, final String method) throws Exception {
+        target.getClass().getMethod(method).invoke(target);
+    }
+}
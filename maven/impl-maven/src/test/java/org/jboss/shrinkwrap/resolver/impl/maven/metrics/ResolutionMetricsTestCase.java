@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.impl.maven.metrics;
+
+import java.io.File;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+import org.jboss.shrinkwrap.resolver.api.maven.Maven;
+import org.jboss.shrinkwrap.resolver.impl.maven.bootstrap.MavenSettingsBuilder;
+import org.jboss.shrinkwrap.resolver.impl.maven.util.TestFileUtil;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.PhaseStatistics;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionMetrics;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionMetricsSnapshot;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.ResolutionPhase;
+import org.jboss.shrinkwrap.resolver.spi.maven.metrics.TransferStatistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Ensures that resolution is recorded to {@link ResolutionMetrics}
+ */
+public class ResolutionMetricsTestCase {
+
+    private static final String LOCAL_REPOSITORY = "target/metrics-repository";
+    private static final String SETTINGS = "target/settings/profiles/settings.xml";
+
+    @Before
+    @After
+    public void cleanup() throws Exception {
+        System.clearProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION);
+        TestFileUtil.removeDirectory(new File(LOCAL_REPOSITORY));
+        ResolutionMetricsLocator.getMetrics().reset();
+    }
+
+    @Test
+    public void defaultMetricsAreUsed() {
+        Assert.assertTrue(ResolutionMetricsLocator.getMetrics() instanceof DefaultResolutionMetrics);
+        Assert.assertSame(ResolutionMetricsLocator.getMetrics(), ResolutionMetricsLocator.getMetrics());
+    }
+
+    @Test
+    public void resolutionIsRecorded() {
+        System.setProperty(MavenSettingsBuilder.ALT_LOCAL_REPOSITORY_LOCATION, LOCAL_REPOSITORY);
+
+        final File[] files = Maven.configureResolver().fromFile(SETTINGS)
+            .resolve("org.jboss.shrinkwrap.test:test-deps-c:1.0.0").withTransitivity().asFile();
+
+        final ResolutionMetricsSnapshot snapshot = ResolutionMetricsLocator.getMetrics().snapshot();
+        Assert.assertTrue(snapshot.getPhase(ResolutionPhase.SETTINGS_BUILD).getCount() >= 1);
+        Assert.assertTrue(snapshot.getPhase(ResolutionPhase.COLLECTION).getCount() >= 1);
+        Assert.assertTrue(snapshot.getPhase(ResolutionPhase.DESCRIPTOR_READ).getCount() >= files.length);
+        // POM files are downloaded as well, but only the artifacts count as artifact downloads
+        Assert.assertEquals(files.length, snapshot.getPhase(ResolutionPhase.ARTIFACT_DOWNLOAD).getCount());
+        Assert.assertTrue(snapshot.getPhase(ResolutionPhase.CHECKSUM_VALIDATION).getCount() > files.length);
+        Assert.assertEquals(1, snapshot.getPhase(ResolutionPhase.POST_FILTER).getCount());
+        Assert.assertEquals(0, snapshot.getPhase(ResolutionPhase.MODEL_BUILD).getCount());
+
+        // everything comes from the test repository
+        Assert.assertEquals(1, snapshot.getTransfers().size());
+        final TransferStatistics transfers = snapshot.getTransfers().values().iterator().next();
+        Assert.assertTrue(transfers.getRepositoryUrl().endsWith("target/repository/"));
+        Assert.assertEquals(snapshot.getPhase(ResolutionPhase.CHECKSUM_VALIDATION).getCount(),
+            transfers.getTransfers());
+        Assert.assertEquals(0, transfers.getFailures());
+        Assert.assertTrue(transfers.getBytes() > 0);
+        Assert.assertTrue(transfers.getBytesPerSecond() > 0);
+    }
+
+    @Test
+    public void corruptedTransferIsRecordedAsCorruption() {
+        final ResolutionMetrics metrics = new DefaultResolutionMetrics();
+        final MetricsTransferListener listener = new MetricsTransferListener(metrics);
+        final TransferEvent.Builder builder = new TransferEvent.Builder(new DefaultRepositorySystemSession(),
+            new TransferResource("repository", "http://repository/", "org/example/example/1.0/example-1.0.jar", null,
+                null))
+            .setRequestType(TransferEvent.RequestType.GET);
+
+        listener.transferInitiated(builder.copy().resetType(TransferEvent.EventType.INITIATED).build());
+        listener.transferCorrupted(builder.copy().resetType(TransferEvent.EventType.CORRUPTED).build());
+        listener.transferSucceeded(builder.copy().resetType(TransferEvent.EventType.SUCCEEDED).setTransferredBytes(10L)
+            .build());
+
+        final ResolutionMetricsSnapshot snapshot = metrics.snapshot();
+        final TransferStatistics transfers = snapshot.getTransfers().get("http://repository/");
+        Assert.assertEquals(1, transfers.getTransfers());
+        Assert.assertEquals(0, transfers.getFailures());
+        Assert.assertEquals(1, transfers.getCorruptions());
+        Assert.assertEquals(1, snapshot.getPhase(ResolutionPhase.CHECKSUM_VALIDATION).getCount());
+        Assert.assertEquals(1, snapshot.getPhase(ResolutionPhase.ARTIFACT_DOWNLOAD).getCount());
+    }
+
+    @Test
+    public void onlyArtifactFilesAreArtifactDownloads() {
+        Assert.assertTrue(MetricsTransferListener.isArtifact("org/example/example/1.0/example-1.0.jar"));
+        Assert.assertTrue(MetricsTransferListener.isArtifact("org/example/example/1.0/example-1.0-tests.war"));
+        Assert.assertFalse(MetricsTransferListener.isArtifact("org/example/example/1.0/example-1.0.pom"));
+        Assert.assertFalse(MetricsTransferListener.isArtifact("org/example/example/1.0/example-1.0.jar.sha1"));
+        Assert.assertFalse(MetricsTransferListener.isArtifact("org/example/example/maven-metadata.xml"));
+        Assert.assertFalse(MetricsTransferListener.isArtifact("org/example/1.0-SNAPSHOT/maven-metadata-local.xml"));
+    }
+
+    @Test
+    public void modelBuildIsRecorded() {
+        Maven.configureResolver().fromFile(SETTINGS).loadPomFromFile("target/poms/test-bom.xml");
+
+        Assert.assertEquals(1, ResolutionMetricsLocator.getMetrics().snapshot().getPhase(ResolutionPhase.MODEL_BUILD)
+            .getCount());
+    }
+
+    @Test
+    public void percentilesAreApproximated() {
+        final ResolutionMetrics metrics = new DefaultResolutionMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordPhase(ResolutionPhase.COLLECTION, i * 1000L);
+        }
+
+        final PhaseStatistics statistics = metrics.snapshot().getPhase(ResolutionPhase.COLLECTION);
+        Assert.assertEquals(100, statistics.getCount());
+        Assert.assertEquals(100000L, statistics.getMaxNanos());
+        Assert.assertEquals(50500L, statistics.getMeanNanos());
+        // 50000 falls into bucket ending with 65535
+        Assert.assertEquals(65535L, statistics.getPercentileNanos(50));
+        Assert.assertEquals(100000L, statistics.getPercentileNanos(100));
+        Assert.assertEquals(0L, metrics.snapshot().getPhase(ResolutionPhase.POST_FILTER).getPercentileNanos(99));
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.snapshot().getPhase(ResolutionPhase.COLLECTION).getCount());
+    }
+}
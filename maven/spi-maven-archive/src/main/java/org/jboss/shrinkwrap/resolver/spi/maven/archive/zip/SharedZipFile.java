@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.archive.zip;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * {@link ZipFile} shared by all entry streams of an imported file. The file is opened by the first stream and reference
+ * counted. When the last stream is closed, the file is closed after a short grace period unless another stream is
+ * opened meanwhile, so exporting an archive, which opens its entries one after another, reads the central directory once
+ * instead of once per entry, and no file is held open while its archive is not used.
+ * <p>
+ * Files are shared only if their path, length and modification time match, so an instance never serves content of a
+ * file which was replaced after it was opened.
+ */
+final class SharedZipFile {
+
+    private static final long IDLE_MILLIS = 500L;
+
+    private static final Map<Key, SharedZipFile> OPEN = new HashMap<Key, SharedZipFile>();
+
+    private static final ScheduledExecutorService CLOSER = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "shrinkwrap-resolver-zip-closer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+    private final Key key;
+    private final ZipFile zipFile;
+    private int references;
+
+    private SharedZipFile(final Key key, final ZipFile zipFile) {
+        this.key = key;
+        this.zipFile = zipFile;
+    }
+
+    /**
+     * Opens content of an entry of given file. The file must have the given length and modification time, which were
+     * recorded when the archive was imported.
+     *
+     * @param file ZIP file
+     * @param length expected length of the file
+     * @param lastModified expected modification time of the file
+     * @param entryName name of the entry
+     * @return content of the entry, releasing the file when closed
+     * @throws IllegalStateException if the file was modified since it was imported or the entry does not exist
+     * @throws IOException if the file cannot be read
+     */
+    static InputStream openEntry(final File file, final long length, final long lastModified, final String entryName)
+        throws IllegalStateException, IOException {
+        final SharedZipFile shared = acquire(file, length, lastModified);
+        try {
+            final ZipEntry entry = shared.zipFile.getEntry(entryName);
+            if (entry == null) {
+                throw new IllegalStateException("Entry " + entryName + " was not found in " + file);
+            }
+            return new EntryInputStream(shared, shared.zipFile.getInputStream(entry));
+        } catch (IOException e) {
+            shared.release();
+            throw e;
+        } catch (RuntimeException e) {
+            shared.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether given file still has the length and modification time recorded when it was imported.
+     *
+     * @param file ZIP file
+     * @param length expected length of the file
+     * @param lastModified expected modification time of the file
+     * @return {@code true} if the file was not modified, {@code false} otherwise
+     */
+    static boolean isUnchanged(final File file, final long length, final long lastModified) {
+        return file.length() == length && file.lastModified() == lastModified;
+    }
+
+    private static void checkUnchanged(final File file, final long length, final long lastModified)
+        throws IllegalStateException {
+        if (!isUnchanged(file, length, lastModified)) {
+            throw new IllegalStateException("ZIP file " + file + " was modified after the archive was imported from it"
+                + ", import the archive again to read its current content");
+        }
+    }
+
+    private static SharedZipFile acquire(final File file, final long length, final long lastModified)
+        throws IOException {
+        checkUnchanged(file, length, lastModified);
+        final Key key = new Key(file.getAbsolutePath(), length, lastModified);
+        synchronized (OPEN) {
+            SharedZipFile shared = OPEN.get(key);
+            if (shared == null) {
+                final ZipFile zipFile = new ZipFile(file);
+                try {
+                    // the file might have been replaced between the check and opening it
+                    checkUnchanged(file, length, lastModified);
+                } catch (IllegalStateException e) {
+                    ZipFileArchives.closeQuietly(zipFile);
+                    throw e;
+                }
+                shared = new SharedZipFile(key, zipFile);
+                OPEN.put(key, shared);
+            }
+            shared.references++;
+            return shared;
+        }
+    }
+
+    private void release() {
+        synchronized (OPEN) {
+            if (--references > 0) {
+                return;
+            }
+        }
+        CLOSER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                closeIfIdle();
+            }
+        }, IDLE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void closeIfIdle() {
+        synchronized (OPEN) {
+            if (references > 0 || OPEN.get(key) != this) {
+                return;
+            }
+            OPEN.remove(key);
+        }
+        ZipFileArchives.closeQuietly(zipFile);
+    }
+
+    /**
+     * Content of an entry, releasing the file it was opened from
+     */
+    private static final class EntryInputStream extends FilterInputStream {
+        private final SharedZipFile shared;
+        private boolean closed;
+
+        EntryInputStream(final SharedZipFile shared, final InputStream in) {
+            super(in);
+            this.shared = shared;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                shared.release();
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String path;
+        private final long length;
+        private final long lastModified;
+
+        Key(final String path, final long length, final long lastModified) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return length == other.length && lastModified == other.lastModified && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + (int) (length ^ (length >>> 32));
+            result = 31 * result + (int) (lastModified ^ (lastModified >>> 32));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.archive.zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jboss.shrinkwrap.api.asset.Asset;
+
+/**
+ * {@link Asset} of an entry of a ZIP file, inflated each time it is opened. Streams are opened from a
+ * {@link SharedZipFile}, which is closed when it is no longer used.
+ * <p>
+ * The asset fails to open if the file was modified since it was imported, as the entries of the archive might no longer
+ * match its content.
+ */
+final class ZipEntryAsset implements Asset {
+
+    private final File file;
+    private final long length;
+    private final long lastModified;
+    private final String entryName;
+
+    ZipEntryAsset(final File file, final long length, final long lastModified, final String entryName) {
+        this.file = file;
+        this.length = length;
+        this.lastModified = lastModified;
+        this.entryName = entryName;
+    }
+
+    @Override
+    public InputStream openStream() {
+        try {
+            return SharedZipFile.openEntry(file, length, lastModified, entryName);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open entry " + entryName + " of " + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ZipEntryAsset.class.getSimpleName() + " [file=" + file + ", entry=" + entryName + "]";
+    }
+}
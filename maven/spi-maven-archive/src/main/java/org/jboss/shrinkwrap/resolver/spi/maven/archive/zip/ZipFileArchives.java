@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.archive.zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.Assignable;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.importer.ArchiveImportException;
+
+/**
+ * Creates ShrinkWrap archives backed by the ZIP file they were imported from.
+ * <p>
+ * Lazy archives are used only if {@link #LAZY_KEY} system property is set to {@code true}, see
+ * {@link #createFromZipFile(Class, File)}; otherwise archives are imported by ShrinkWrap {@code ZipImporter}.
+ * <p>
+ * Unlike {@link ShrinkWrap#createFromZipFile(Class, File)}, importing reads only the central directory of the file.
+ * Content of an entry is read from the file each time its asset is opened. Streams of all entries of a file share a
+ * single open {@link ZipFile}, which is closed shortly after the last stream is closed, so no file is held open by an
+ * archive which is not used.
+ * <p>
+ * As content is not copied on import, length and modification time of the file are recorded when it is imported. If
+ * the file is modified afterwards, for instance by a rebuild, assets of the archive fail with
+ * {@link IllegalStateException} instead of mixing the old list of entries with new content; import the file again to
+ * read its current content.
+ */
+public final class ZipFileArchives {
+
+    /**
+     * Enables lazy archives if set to {@code true}, archives are imported by ShrinkWrap {@code ZipImporter} otherwise
+     */
+    public static final String LAZY_KEY = "org.jboss.shrinkwrap.resolver.lazy-archives";
+
+    private ZipFileArchives() {
+        throw new UnsupportedOperationException("No instantiation");
+    }
+
+    /**
+     * Returns whether lazy archives are enabled by {@link #LAZY_KEY} system property
+     *
+     * @return {@code true} if lazy archives are enabled
+     */
+    public static boolean isLazyEnabled() {
+        return Boolean.parseBoolean(AccessController.doPrivileged(GetLazyAction.INSTANCE));
+    }
+
+    /**
+     * Creates an archive of given type named after the file. If lazy archives are enabled by {@link #LAZY_KEY}, the
+     * entries are backed by the file, see {@link #importFrom(Class, File)}; such an archive fails to read its entries
+     * once the file is modified. Otherwise the file is imported by {@link ShrinkWrap#createFromZipFile(Class, File)}.
+     *
+     * @param type type of the archive
+     * @param file ZIP file
+     * @return the archive
+     * @throws IllegalArgumentException if either argument is {@code null} or the file does not exist
+     * @throws ArchiveImportException if the file cannot be read as ZIP file
+     */
+    public static <T extends Assignable> T createFromZipFile(final Class<T> type, final File file)
+        throws IllegalArgumentException, ArchiveImportException {
+        if (isLazyEnabled()) {
+            return importFrom(type, file);
+        }
+        return ShrinkWrap.createFromZipFile(type, file);
+    }
+
+    /**
+     * Creates an archive of given type named after the file, with entries backed by the file.
+     *
+     * @param type type of the archive
+     * @param file ZIP file
+     * @return the archive
+     * @throws IllegalArgumentException if either argument is {@code null} or the file does not exist
+     * @throws ArchiveImportException if the file cannot be read as ZIP file
+     */
+    public static <T extends Assignable> T importFrom(final Class<T> type, final File file)
+        throws IllegalArgumentException, ArchiveImportException {
+        if (type == null) {
+            throw new IllegalArgumentException("Archive type must be specified");
+        }
+        if (file == null || !file.isFile()) {
+            throw new IllegalArgumentException("Existing ZIP file must be specified, was " + file);
+        }
+
+        final GenericArchive archive = ShrinkWrap.create(GenericArchive.class, file.getName());
+
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+
+        ZipFile zipFile = null;
+        try {
+            zipFile = new ZipFile(file);
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final ArchivePath path = ArchivePaths.create(entry.getName());
+                if (entry.isDirectory()) {
+                    archive.addAsDirectory(path);
+                } else {
+                    archive.add(new ZipEntryAsset(file, length, lastModified, entry.getName()), path);
+                }
+            }
+            if (!SharedZipFile.isUnchanged(file, length, lastModified)) {
+                throw new IOException("File was modified while it was imported");
+            }
+        } catch (IOException e) {
+            throw new ArchiveImportException("Unable to read ZIP file " + file, e);
+        } finally {
+            closeQuietly(zipFile);
+        }
+
+        return archive.as(type);
+    }
+
+    static void closeQuietly(final ZipFile zipFile) {
+        if (zipFile != null) {
+            try {
+                zipFile.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private enum GetLazyAction implements PrivilegedAction<String> {
+        INSTANCE;
+
+        @Override
+        public String run() {
+            return System.getProperty(LAZY_KEY);
+        }
+    }
+}
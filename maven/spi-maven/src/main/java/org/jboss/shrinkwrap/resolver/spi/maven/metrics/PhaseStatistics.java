@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Immutable statistics of a {@link ResolutionPhase}. Durations are kept in a histogram with power of two buckets, so
+ * percentiles are approximate, they are reported as the upper bound of the bucket, never bigger than the maximum.
+ */
+public final class PhaseStatistics {
+
+    /**
+     * Number of histogram buckets. Bucket {@code 0} holds zero durations, bucket {@code i} durations from
+     * {@code 2^(i-1)} to {@code 2^i - 1} nanoseconds.
+     */
+    public static final int BUCKETS = 64;
+
+    private static final long[] NO_VALUES = new long[BUCKETS];
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] histogram;
+
+    /**
+     * Creates statistics
+     *
+     * @param count number of executions
+     * @param totalNanos sum of durations of all the executions
+     * @param maxNanos the longest duration
+     * @param histogram number of executions per bucket, see {@link #bucketOf(long)}
+     * @throws IllegalArgumentException if the histogram does not have {@link #BUCKETS} buckets
+     */
+    public PhaseStatistics(final long count, final long totalNanos, final long maxNanos, final long[] histogram)
+        throws IllegalArgumentException {
+        if (histogram == null || histogram.length != BUCKETS) {
+            throw new IllegalArgumentException("Histogram must have " + BUCKETS + " buckets");
+        }
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.histogram = histogram.clone();
+    }
+
+    /**
+     * Returns statistics of a phase which was not executed
+     *
+     * @return empty statistics
+     */
+    public static PhaseStatistics empty() {
+        return new PhaseStatistics(0, 0, 0, NO_VALUES);
+    }
+
+    /**
+     * Returns index of the histogram bucket for a duration
+     *
+     * @param nanos the duration
+     * @return the index
+     */
+    public static int bucketOf(final long nanos) {
+        return nanos <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(nanos);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Returns number of executions per bucket, see {@link #bucketOf(long)}
+     *
+     * @return a copy of the histogram
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Returns approximate duration which given percentage of executions did not exceed
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the duration in nanoseconds, {@code 0} if the phase was not executed
+     * @throws IllegalArgumentException if the percentage is out of range
+     */
+    public long getPercentileNanos(final double percentile) throws IllegalArgumentException {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, was " + percentile);
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : Math.min(maxNanos, (1L << i) - 1);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PhaseStatistics [count=" + count + ", totalNanos=" + totalNanos + ", maxNanos=" + maxNanos
+            + ", histogram=" + Arrays.toString(histogram) + "]";
+    }
+}
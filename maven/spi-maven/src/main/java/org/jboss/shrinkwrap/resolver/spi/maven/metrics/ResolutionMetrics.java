@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.metrics;
+
+/**
+ * Collects durations of resolution phases and transfers from remote repositories. Implementation is registered via
+ * SPI, see {@link org.jboss.shrinkwrap.resolver.spi.loader.ServiceLoader}, a single instance is used by the whole JVM.
+ * <p>
+ * Methods recording values are called from resolution threads, so implementations must be thread-safe and they should
+ * not block.
+ */
+public interface ResolutionMetrics {
+
+    /**
+     * Records a single execution of a phase
+     *
+     * @param phase the phase
+     * @param durationNanos duration of the execution in nanoseconds
+     */
+    void recordPhase(ResolutionPhase phase, long durationNanos);
+
+    /**
+     * Records a successful transfer from a remote repository
+     *
+     * @param repositoryUrl URL of the repository
+     * @param bytes number of bytes transferred
+     * @param durationNanos duration of the transfer in nanoseconds
+     */
+    void recordTransfer(String repositoryUrl, long bytes, long durationNanos);
+
+    /**
+     * Records a failed transfer from a remote repository
+     *
+     * @param repositoryUrl URL of the repository
+     */
+    void recordTransferFailure(String repositoryUrl);
+
+    /**
+     * Records a transfer from a remote repository with a missing or mismatching checksum, tolerated by the checksum
+     * policy. The transfer is recorded as successful too.
+     *
+     * @param repositoryUrl URL of the repository
+     */
+    void recordTransferCorruption(String repositoryUrl);
+
+    /**
+     * Returns values recorded so far
+     *
+     * @return the values
+     */
+    ResolutionMetricsSnapshot snapshot();
+
+    /**
+     * Discards all values recorded so far
+     */
+    void reset();
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable values recorded by {@link ResolutionMetrics} at a point in time
+ */
+public final class ResolutionMetricsSnapshot {
+
+    private final Map<ResolutionPhase, PhaseStatistics> phases;
+    private final Map<String, TransferStatistics> transfers;
+
+    /**
+     * Creates a snapshot
+     *
+     * @param phases statistics of phases, phases which were not executed might be omitted
+     * @param transfers statistics of transfers by repository URL
+     */
+    public ResolutionMetricsSnapshot(final Map<ResolutionPhase, PhaseStatistics> phases,
+        final Map<String, TransferStatistics> transfers) {
+        final Map<ResolutionPhase, PhaseStatistics> allPhases = new EnumMap<ResolutionPhase, PhaseStatistics>(
+            ResolutionPhase.class);
+        for (ResolutionPhase phase : ResolutionPhase.values()) {
+            final PhaseStatistics statistics = phases.get(phase);
+            allPhases.put(phase, statistics == null ? PhaseStatistics.empty() : statistics);
+        }
+        this.phases = Collections.unmodifiableMap(allPhases);
+        this.transfers = Collections.unmodifiableMap(new LinkedHashMap<String, TransferStatistics>(transfers));
+    }
+
+    /**
+     * Returns statistics of a phase
+     *
+     * @param phase the phase
+     * @return the statistics, empty if the phase was not executed
+     */
+    public PhaseStatistics getPhase(final ResolutionPhase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Returns statistics of all the phases
+     *
+     * @return the statistics
+     */
+    public Map<ResolutionPhase, PhaseStatistics> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Returns statistics of transfers from a repository
+     *
+     * @param repositoryUrl URL of the repository
+     * @return the statistics or {@code null} if nothing was transferred from the repository
+     */
+    public TransferStatistics getTransfers(final String repositoryUrl) {
+        return transfers.get(repositoryUrl);
+    }
+
+    /**
+     * Returns statistics of transfers by repository URL
+     *
+     * @return the statistics
+     */
+    public Map<String, TransferStatistics> getTransfers() {
+        return transfers;
+    }
+
+    @Override
+    public String toString() {
+        return "ResolutionMetricsSnapshot [phases=" + phases + ", transfers=" + transfers + "]";
+    }
+}
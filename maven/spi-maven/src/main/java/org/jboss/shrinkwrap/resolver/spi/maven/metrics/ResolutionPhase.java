@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.metrics;
+
+/**
+ * Phases of resolution whose duration is reported to {@link ResolutionMetrics}
+ */
+public enum ResolutionPhase {
+
+    /**
+     * Building of Maven settings, including reading of settings.xml files
+     */
+    SETTINGS_BUILD,
+
+    /**
+     * Building of effective model of a POM file loaded by user
+     */
+    MODEL_BUILD,
+
+    /**
+     * Collection of a dependency graph, including reading of artifact descriptors
+     */
+    COLLECTION,
+
+    /**
+     * Reading of an artifact descriptor, that is building of a model of a dependency
+     */
+    DESCRIPTOR_READ,
+
+    /**
+     * Download of an artifact file from a remote repository. Downloads of POM files, metadata and checksums are not
+     * included, they are reported as transfers only.
+     */
+    ARTIFACT_DOWNLOAD,
+
+    /**
+     * Validation of checksums of a downloaded file, measured from the download of its last byte
+     */
+    CHECKSUM_VALIDATION,
+
+    /**
+     * Filtering of resolved artifacts before they are returned to user
+     */
+    POST_FILTER
+}
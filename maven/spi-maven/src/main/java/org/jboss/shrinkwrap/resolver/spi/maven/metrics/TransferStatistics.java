@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.resolver.spi.maven.metrics;
+
+/**
+ * Immutable statistics of transfers from a remote repository
+ */
+public final class TransferStatistics {
+
+    private final String repositoryUrl;
+    private final long transfers;
+    private final long failures;
+    private final long corruptions;
+    private final long bytes;
+    private final long nanos;
+
+    /**
+     * Creates statistics
+     *
+     * @param repositoryUrl URL of the repository
+     * @param transfers number of successful transfers
+     * @param failures number of failed transfers
+     * @param corruptions number of successful transfers with a missing or mismatching checksum
+     * @param bytes number of bytes transferred by successful transfers
+     * @param nanos sum of durations of successful transfers
+     */
+    public TransferStatistics(final String repositoryUrl, final long transfers, final long failures,
+        final long corruptions, final long bytes, final long nanos) {
+        this.repositoryUrl = repositoryUrl;
+        this.transfers = transfers;
+        this.failures = failures;
+        this.corruptions = corruptions;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    public String getRepositoryUrl() {
+        return repositoryUrl;
+    }
+
+    public long getTransfers() {
+        return transfers;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getCorruptions() {
+        return corruptions;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns throughput of successful transfers. Concurrent transfers are summed up, so this is the throughput of a
+     * single transfer, not of the repository.
+     *
+     * @return bytes per second, {@code 0} if nothing was transferred
+     */
+    public double getBytesPerSecond() {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferStatistics [repositoryUrl=" + repositoryUrl + ", transfers=" + transfers + ", failures="
+            + failures + ", corruptions=" + corruptions + ", bytes=" + bytes + ", nanos=" + nanos + "]";
+    }
+}
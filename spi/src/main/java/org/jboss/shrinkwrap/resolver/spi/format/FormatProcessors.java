@@ -17,33 +17,55 @@
 package org.jboss.shrinkwrap.resolver.spi.format;
 
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.shrinkwrap.resolver.api.ResolvedArtifact;
 import org.jboss.shrinkwrap.resolver.spi.loader.ServiceRegistry;
 
 /**
+ * Finds a {@link FormatProcessor} able to process a resolved artifact into given type.
+ * <p>
+ * The processor chosen for a pair of resolved type and return type is remembered as long as the same
+ * {@link ServiceRegistry} is registered, so repeated calls are a map lookup.
  *
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  *
  */
 public final class FormatProcessors {
 
+    private static volatile DispatchTable dispatchTable;
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public static <RESOLVEDTYPE extends ResolvedArtifact<RESOLVEDTYPE>, RETURNTYPE> FormatProcessor<? super RESOLVEDTYPE, RETURNTYPE> find(
             final Class<RESOLVEDTYPE> resolvedTypeClass, final Class<RETURNTYPE> returnTypeClass) {
 
         ServiceRegistry registry = ServiceRegistry.getInstance();
+
+        DispatchTable table = dispatchTable;
+        if (table == null || table.registry != registry) {
+            table = new DispatchTable(registry);
+            dispatchTable = table;
+        }
+
+        FormatProcessor processor = table.get(resolvedTypeClass, returnTypeClass);
+        if (processor != null) {
+            return processor;
+        }
+
         Collection<FormatProcessor> processors = registry.all(FormatProcessor.class);
+        for (FormatProcessor candidate : processors) {
+            if (candidate.handles(resolvedTypeClass) && candidate.returns(returnTypeClass)) {
+                table.put(resolvedTypeClass, returnTypeClass, candidate);
+                return candidate;
+            }
+        }
 
         StringBuilder unsupportedFormatMessage = new StringBuilder("No format processor for ")
                 .append(returnTypeClass.getName()).append(
                         " was found. Supported processors are: ");
-
-        for (FormatProcessor processor : processors) {
-            if (processor.handles(resolvedTypeClass) && processor.returns(returnTypeClass)) {
-                return processor;
-            }
-            unsupportedFormatMessage.append(processor.getClass()).append(", ");
+        for (FormatProcessor candidate : processors) {
+            unsupportedFormatMessage.append(candidate.getClass()).append(", ");
         }
         // trim
         if (unsupportedFormatMessage.indexOf(", ") != -1) {
@@ -53,4 +75,53 @@ public final class FormatProcessors {
         throw new UnsupportedOperationException(unsupportedFormatMessage.toString());
     }
 
+    /**
+     * Processors chosen from services of a registry, by resolved type and return type
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class DispatchTable {
+        private final ServiceRegistry registry;
+        private final ConcurrentMap<TypePair, FormatProcessor> processors =
+            new ConcurrentHashMap<TypePair, FormatProcessor>();
+
+        DispatchTable(final ServiceRegistry registry) {
+            this.registry = registry;
+        }
+
+        FormatProcessor get(final Class<?> resolvedTypeClass, final Class<?> returnTypeClass) {
+            return processors.get(new TypePair(resolvedTypeClass, returnTypeClass));
+        }
+
+        void put(final Class<?> resolvedTypeClass, final Class<?> returnTypeClass, final FormatProcessor processor) {
+            processors.putIfAbsent(new TypePair(resolvedTypeClass, returnTypeClass), processor);
+        }
+    }
+
+    private static final class TypePair {
+        private final Class<?> resolvedTypeClass;
+        private final Class<?> returnTypeClass;
+
+        TypePair(final Class<?> resolvedTypeClass, final Class<?> returnTypeClass) {
+            this.resolvedTypeClass = resolvedTypeClass;
+            this.returnTypeClass = returnTypeClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return resolvedTypeClass.hashCode() * 31 + returnTypeClass.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TypePair)) {
+                return false;
+            }
+            final TypePair other = (TypePair) obj;
+            return resolvedTypeClass == other.resolvedTypeClass && returnTypeClass == other.returnTypeClass;
+        }
+    }
+
 }
@@ -18,23 +18,25 @@ package org.jboss.shrinkwrap.resolver.spi.loader;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A simple singleton (application scoped} registry that fulfills {@link ServiceLoader} contract. This registry uses underlying
  * {@link ServiceLoader} implementation to load the service while storing cached instances in a local map.
  *
+ * Services of each type are loaded only once, cached instances are returned without locking.
+ *
  * @author <a href="mailto:kpiwko@redhat.com">Karel Piwko</a>
  *
  */
 public class ServiceRegistry implements ServiceLoader {
 
-    private ServiceLoader serviceLoader;
+    private final ServiceLoader serviceLoader;
 
-    private Map<Class<?>, Collection<?>> cachedServiceInstances;
+    private final ConcurrentMap<Class<?>, CachedServices> cachedServiceInstances;
 
-    private static ServiceRegistry instance;
+    private static volatile ServiceRegistry instance;
 
     /**
      * Creates a service registry with a {@link ServiceLoader} to load service instances until they are cached
@@ -43,7 +45,7 @@ public class ServiceRegistry implements ServiceLoader {
      */
     public ServiceRegistry(ServiceLoader serviceLoader) {
         this.serviceLoader = serviceLoader;
-        this.cachedServiceInstances = Collections.synchronizedMap(new HashMap<Class<?>, Collection<?>>());
+        this.cachedServiceInstances = new ConcurrentHashMap<Class<?>, CachedServices>();
     }
 
     /**
@@ -52,11 +54,12 @@ public class ServiceRegistry implements ServiceLoader {
      * @return
      * @throws IllegalStateException If no service registry was registered yet
      */
-    public static synchronized ServiceRegistry getInstance() throws IllegalStateException {
-        if (instance == null) {
+    public static ServiceRegistry getInstance() throws IllegalStateException {
+        final ServiceRegistry registry = instance;
+        if (registry == null) {
             throw new IllegalStateException("Unable to get instance of Service Registry, it was not initialized.");
         }
-        return instance;
+        return registry;
     }
 
     /**
@@ -64,7 +67,7 @@ public class ServiceRegistry implements ServiceLoader {
      *
      * @param registry
      */
-    public static synchronized void register(ServiceRegistry registry) {
+    public static void register(ServiceRegistry registry) {
         instance = registry;
     }
 
@@ -76,14 +79,7 @@ public class ServiceRegistry implements ServiceLoader {
             throw new IllegalArgumentException("ServiceClass must be provided");
         }
 
-        synchronized (cachedServiceInstances) {
-            if (cachedServiceInstances.containsKey(serviceClass)) {
-                return (Collection<T>) cachedServiceInstances.get(serviceClass);
-            }
-            Collection<Object> services = (Collection<Object>) serviceLoader.all(serviceClass);
-            cachedServiceInstances.put(serviceClass, services);
-            return (Collection<T>) services;
-        }
+        return (Collection<T>) getServices(serviceClass, null, true);
     }
 
     @SuppressWarnings("unchecked")
@@ -95,14 +91,7 @@ public class ServiceRegistry implements ServiceLoader {
             throw new IllegalArgumentException("ServiceClass must be provided");
         }
 
-        synchronized (cachedServiceInstances) {
-            if (cachedServiceInstances.containsKey(serviceClass)) {
-                return (T) cachedServiceInstances.get(serviceClass).iterator().next();
-            }
-            T service = serviceLoader.onlyOne(serviceClass);
-            cachedServiceInstances.put(serviceClass, Collections.singleton(service));
-            return service;
-        }
+        return (T) getServices(serviceClass, null, false).iterator().next();
     }
 
     @SuppressWarnings("unchecked")
@@ -115,14 +104,47 @@ public class ServiceRegistry implements ServiceLoader {
             throw new IllegalArgumentException("ServiceClass must be provided");
         }
 
-        synchronized (cachedServiceInstances) {
-            if (cachedServiceInstances.containsKey(serviceClass)) {
-                return (T) cachedServiceInstances.get(serviceClass).iterator().next();
+        return (T) getServices(serviceClass, defaultImplementationClass, false).iterator().next();
+    }
+
+    /**
+     * Returns cached services of given type, loads them if they were not loaded yet. Services of a type are loaded
+     * either all, or only one, depending on the first request for the type.
+     */
+    private <T> Collection<?> getServices(final Class<T> serviceClass, final Class<? extends T> defaultImplementationClass,
+            final boolean all) {
+
+        CachedServices cached = cachedServiceInstances.get(serviceClass);
+        if (cached == null) {
+            final CachedServices newCached = new CachedServices();
+            cached = cachedServiceInstances.putIfAbsent(serviceClass, newCached);
+            if (cached == null) {
+                cached = newCached;
+            }
+        }
+
+        Collection<?> services = cached.services;
+        if (services == null) {
+            // only threads asking for the same service type wait for each other
+            synchronized (cached) {
+                services = cached.services;
+                if (services == null) {
+                    if (all) {
+                        services = serviceLoader.all(serviceClass);
+                    } else if (defaultImplementationClass == null) {
+                        services = Collections.singleton(serviceLoader.onlyOne(serviceClass));
+                    } else {
+                        services = Collections.singleton(serviceLoader.onlyOne(serviceClass, defaultImplementationClass));
+                    }
+                    cached.services = services;
+                }
             }
-            T service = serviceLoader.onlyOne(serviceClass, defaultImplementationClass);
-            cachedServiceInstances.put(serviceClass, Collections.singleton(service));
-            return service;
         }
+        return services;
+    }
+
+    private static final class CachedServices {
+        private volatile Collection<?> services;
     }
 
 }